@@ -0,0 +1,45 @@
+/**
+ * View of a name index whose searches go through a search cache, so code that
+ * takes a name index gets cached results without knowing about the cache.
+ */
+class CachedNameIndex implements ParkNameSearch {
+
+    /** Cache the searches go through*/
+    private final ParkSearchCache cache;
+
+    /** Index searched on a miss*/
+    private final ParkNameSearch base;
+
+    /**
+     * Creates the view
+     *
+     * @param cache cache the searches go through
+     * @param base index searched on a miss
+     */
+    CachedNameIndex(ParkSearchCache cache, ParkNameSearch base) {
+        this.cache = cache;
+        this.base = base;
+    } //CachedNameIndex constructor
+
+    /**
+     * Returns the index searched on a miss
+     *
+     * @return the base index
+     */
+    ParkNameSearch getBase() {
+        return base;
+    } //getBase method
+
+    /**
+     * Finds the rows of all the park names that contain a keyword, ignoring case
+     * the same way as comparing the lowercased name and keyword
+     *
+     * @param parkName keyword to search for
+     * @return rows of the matching parks in ascending order, shared with the
+     *         cache and not to be changed
+     */
+    @Override
+    public int[] search(String parkName) {
+        return cache.search(base, parkName);
+    } //search method
+} //CachedNameIndex class
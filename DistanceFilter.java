@@ -0,0 +1,210 @@
+/**
+ * Two stage filter for the parks within a radius of a location. Measuring a
+ * distance costs several trigonometric calls, and Vincenty's formula iterates
+ * too, so a park is first checked against cheaper bounds that can only rule
+ * it out:
+ *
+ * <pre>
+ * stage 1  bounding box: the latitude band, and the longitude gap allowed at
+ *          the band's latitude farthest from the equator
+ * stage 2  squared equirectangular distance with that latitude's cosine,
+ *          compared with the squared radius, with no square root or trig
+ * </pre>
+ *
+ * Both bounds are taken on a sphere of the model's bound radius, which no
+ * distance in the model is shorter than, so a park they rule out is never
+ * within the radius. Only the parks that pass both are measured exactly.
+ * The cosine is worked out once per query, not once per park.
+ */
+public class DistanceFilter {
+
+    /** How the distance is measured*/
+    private final DistanceModel model;
+
+    /** Latitude of the location*/
+    private final double latitude;
+
+    /** Longitude of the location*/
+    private final double longitude;
+
+    /** The largest distance in miles*/
+    private final double radius;
+
+    /** Smallest latitude a park within the radius can have*/
+    private final double minLatitude;
+
+    /** Largest latitude a park within the radius can have*/
+    private final double maxLatitude;
+
+    /** Largest longitude gap in degrees a park within the radius can have*/
+    private final double maxLongitudeGap;
+
+    /** Cosine of the band's latitude farthest from the equator, 0 if it reaches a pole*/
+    private final double farCosine;
+
+    /** Square of the radius as an angle in radians on the bound sphere*/
+    private final double angleSquared;
+
+    /**
+     * Creates the filter for one query
+     *
+     * @param model how the distance is measured
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @throws IllegalArgumentException "Null model" if model is null
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees, more than 90 degrees, or NaN
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees, more than 180 degrees, or NaN
+     * @throws IllegalArgumentException "Invalid radius" if radius is negative or NaN
+     */
+    public DistanceFilter(DistanceModel model, double latitude, double longitude,
+                          double radius) {
+
+        //ERROR HANDLING IN USER INTERFACE IF MODEL IS NULL
+        if (model == null) {
+            throw new IllegalArgumentException("Null model");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF LATITUDE IS TOO SMALL OR TOO LARGE
+        if (!(latitude >= Parks.LATITUDE_MIN_DEGREES && latitude <= Parks.LATITUDE_MAX_DEGREES)) {
+            throw new IllegalArgumentException("Invalid latitude");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF LONGITUDE IS TOO SMALL OR TOO LARGE
+        if (!(longitude >= Parks.LONGITUDE_MIN_DEGREES &&
+              longitude <= Parks.LONGITUDE_MAX_DEGREES)) {
+
+            throw new IllegalArgumentException("Invalid longitude");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF RADIUS IS NEGATIVE
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("Invalid radius");
+        } //if
+
+        this.model = model;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radius = radius;
+
+        //Growing the angle slightly so neither rounding nor the error of Vincenty's
+        //series ever rules out a park exactly on the radius
+        double angle = radius / model.getBoundRadius() * (1.0 + 1e-9);
+        double band = Math.toDegrees(angle);
+        minLatitude = latitude - band;
+        maxLatitude = latitude + band;
+        double far = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        farCosine = far >= Parks.LATITUDE_MAX_DEGREES ? 0.0 : Math.cos(Math.toRadians(far));
+        maxLongitudeGap = farCosine > 0.0 ? Math.toDegrees(angle / farCosine) :
+                          Double.POSITIVE_INFINITY;
+        angleSquared = angle * angle;
+    } //DistanceFilter constructor
+
+    /**
+     * Checks the cheap bounds of a park
+     *
+     * @param parkLatitude latitude of the park
+     * @param parkLongitude longitude of the park
+     * @return false if the park is certainly farther than the radius, true if
+     *         it has to be measured
+     */
+    public boolean mayContain(double parkLatitude, double parkLongitude) {
+
+        //Stage 1: the bounding box, which also rules out NaN coordinates
+        if (!(parkLatitude >= minLatitude && parkLatitude <= maxLatitude)) {
+            return false;
+        } //if
+        double longitudeGap = longitudeGap(parkLongitude);
+        if (!(longitudeGap <= maxLongitudeGap)) {
+            return false;
+        } //if
+
+        //Stage 2: the squared equirectangular distance
+        double latitudeGapRad = Math.toRadians(parkLatitude - latitude);
+        double longitudeGapRad = Math.toRadians(longitudeGap) * farCosine;
+        return latitudeGapRad * latitudeGapRad + longitudeGapRad * longitudeGapRad <= angleSquared;
+    } //mayContain method
+
+    /**
+     * Checks the bounding box against an area, such as a node of a spatial index
+     *
+     * @param areaMinLatitude smallest latitude of the area
+     * @param areaMaxLatitude largest latitude of the area
+     * @param areaMinLongitude smallest longitude of the area
+     * @param areaMaxLongitude largest longitude of the area
+     * @return false if every park in the area is certainly farther than the
+     *         radius, true if some may be within it
+     */
+    public boolean mayOverlap(double areaMinLatitude, double areaMaxLatitude,
+                              double areaMinLongitude, double areaMaxLongitude) {
+        if (areaMaxLatitude < minLatitude || areaMinLatitude > maxLatitude) {
+            return false;
+        } //if
+        if (longitude >= areaMinLongitude && longitude <= areaMaxLongitude) {
+            return true;
+        } //if
+        return Math.min(longitudeGap(areaMinLongitude), longitudeGap(areaMaxLongitude)) <=
+               maxLongitudeGap;
+    } //mayOverlap method
+
+    /**
+     * Measures the distance to a park with the filter's model
+     *
+     * @param parkLatitude latitude of the park
+     * @param parkLongitude longitude of the park
+     * @return the distance in miles
+     * @throws IllegalArgumentException "Invalid latitude" if parkLatitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if parkLongitude is
+     *           less than -180 degrees or more than 180 degrees
+     */
+    public double distance(double parkLatitude, double parkLongitude) {
+        return model.distance(latitude, longitude, parkLatitude, parkLongitude);
+    } //distance method
+
+    /**
+     * Checks if a park is within the radius, measuring it only if it passes
+     * the cheap bounds
+     *
+     * @param parkLatitude latitude of the park
+     * @param parkLongitude longitude of the park
+     * @return true if the park is at most radius miles away
+     */
+    public boolean contains(double parkLatitude, double parkLongitude) {
+        return mayContain(parkLatitude, parkLongitude) &&
+               distance(parkLatitude, parkLongitude) <= radius;
+    } //contains method
+
+    /**
+     * Returns how the distance is measured
+     *
+     * @return the model
+     */
+    public DistanceModel getModel() {
+        return model;
+    } //getModel method
+
+    /**
+     * Returns the largest distance
+     *
+     * @return the radius in miles
+     */
+    public double getRadius() {
+        return radius;
+    } //getRadius method
+
+    /**
+     * Finds the gap in degrees between the location's longitude and another,
+     * the short way around. Only PLANAR does not wrap around, and its distance
+     * across 180 degrees is longer still, so the short way is a bound for it too.
+     *
+     * @param otherLongitude the other longitude
+     * @return the gap, from 0 to 180 degrees
+     */
+    private double longitudeGap(double otherLongitude) {
+        double gap = Math.abs(otherLongitude - longitude);
+        return gap > 180.0 ? 360.0 - gap : gap;
+    } //longitudeGap method
+} //DistanceFilter class
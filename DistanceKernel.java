@@ -0,0 +1,226 @@
+/**
+ * Calculates many planar distances at once over columns of latitudes and
+ * longitudes. The columns are checked and converted to radians once, when the
+ * kernel is made, instead of on every call like Parks.calculateDistance.
+ *
+ * The results are bit for bit the same as Parks.calculateDistance: the same
+ * operations run in the same order, squaring with a multiply gives the same
+ * result as Math.pow(x, 2.0), and Math.toRadians is a single multiply either
+ * way. Math.cos of the mean latitude still has to be taken for every pair to
+ * stay exact, so each block is worked in 2 loops: one that only takes the
+ * cosines, and one with nothing but arithmetic and square roots that the JIT
+ * compiler can turn into SIMD instructions.
+ */
+public class DistanceKernel {
+
+    /** Number of distances worked on at a time so a block stays in cache between its 2 loops*/
+    public static final int BLOCK_SIZE = 1024;
+
+    /** Latitudes of the column in radians*/
+    private final double[] latitudesRad;
+
+    /** Longitudes of the column in radians*/
+    private final double[] longitudesRad;
+
+    /**
+     * Creates a kernel over columns of coordinates
+     *
+     * @param latitudes array of latitudes
+     * @param longitudes array of longitudes
+     * @throws IllegalArgumentException "Null array" if any of the array
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if the arrays are
+     *           not the same length
+     * @throws IllegalArgumentException "Invalid latitude" if any latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if any longitude is
+     *           less than -180 degrees or more than 180 degrees
+     */
+    public DistanceKernel(double[] latitudes, double[] longitudes) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (latitudes == null || longitudes == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        latitudesRad = new double[latitudes.length];
+        longitudesRad = new double[longitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            checkLocation(latitudes[i], longitudes[i]);
+            latitudesRad[i] = Math.toRadians(latitudes[i]);
+            longitudesRad[i] = Math.toRadians(longitudes[i]);
+        } //for
+    } //DistanceKernel constructor
+
+    /**
+     * Returns the number of locations in the column
+     *
+     * @return the number of locations
+     */
+    public int size() {
+        return latitudesRad.length;
+    } //size method
+
+    /**
+     * Calculates the distance between 2 locations in the column
+     *
+     * @param i index of the first location
+     * @param j index of the second location
+     * @return the distance in miles, the same as Parks.calculateDistance
+     */
+    public double distance(int i, int j) {
+        double latitudeDiff = latitudesRad[j] - latitudesRad[i];
+        double longitudeDiff = longitudesRad[j] - longitudesRad[i];
+        double latitudeMean = (latitudesRad[i] + latitudesRad[j]) / 2.0;
+        double x = Math.cos(latitudeMean) * longitudeDiff;
+        return Math.sqrt(latitudeDiff * latitudeDiff + x * x) * Parks.EARTH_RADIUS;
+    } //distance method
+
+    /**
+     * Calculates the distance from a location to every location in the column
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param distances array the distances are stored into, at the same index as
+     *          each location in the column
+     * @throws IllegalArgumentException "Null array" if distances is null
+     * @throws IllegalArgumentException "Invalid array length" if distances is
+     *           shorter than the column
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees or more than 180 degrees
+     */
+    public void distancesFrom(double latitude, double longitude, double[] distances) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ARRAY PARAMETER IS NULL
+        if (distances == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ARRAY HAS AN INVALID LENGTH
+        if (distances.length < latitudesRad.length) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        checkLocation(latitude, longitude);
+        distancesFrom(Math.toRadians(latitude), Math.toRadians(longitude), distances, 0);
+    } //distancesFrom method
+
+    /**
+     * Calculates the distance from each of a block of locations to every location
+     * in the column
+     *
+     * @param latitudes latitudes of the block of locations
+     * @param longitudes longitudes of the block of locations
+     * @param distances array the distances are stored into, one row of the column's
+     *          size for each location in the block
+     * @throws IllegalArgumentException "Null array" if any of the array
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if latitudes and
+     *           longitudes are not the same length or distances is too short
+     * @throws IllegalArgumentException "Invalid latitude" if any latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if any longitude is
+     *           less than -180 degrees or more than 180 degrees
+     */
+    public void distancesFrom(double[] latitudes, double[] longitudes, double[] distances) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (latitudes == null || longitudes == null || distances == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (latitudes.length != longitudes.length ||
+            distances.length < (long) latitudes.length * latitudesRad.length) {
+
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        for (int i = 0; i < latitudes.length; i++) {
+            checkLocation(latitudes[i], longitudes[i]);
+            distancesFrom(Math.toRadians(latitudes[i]), Math.toRadians(longitudes[i]),
+                          distances, i * latitudesRad.length);
+        } //for
+    } //distancesFrom method
+
+    /**
+     * Calculates the distance between every 2 locations in the column
+     *
+     * @return the distances, one row of the column's size for each location
+     * @throws IllegalArgumentException "Too many locations" if the matrix does
+     *           not fit in an array
+     */
+    public double[] distanceMatrix() {
+        int n = latitudesRad.length;
+
+        //ERROR HANDLING IN USER INTERFACE IF THE MATRIX IS TOO LARGE
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many locations");
+        } //if
+        double[] distances = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            distancesFrom(latitudesRad[i], longitudesRad[i], distances, i * n);
+        } //for
+        return distances;
+    } //distanceMatrix method
+
+    /**
+     * Calculates the distance from a location in radians to every location in
+     * the column, a block at a time
+     *
+     * @param latitudeRad latitude of the location in radians
+     * @param longitudeRad longitude of the location in radians
+     * @param distances array the distances are stored into
+     * @param offset index in distances of the distance to the first location
+     */
+    private void distancesFrom(double latitudeRad, double longitudeRad,
+                               double[] distances, int offset) {
+        int n = latitudesRad.length;
+        for (int blockStart = 0; blockStart < n; blockStart += BLOCK_SIZE) {
+            int blockEnd = Math.min(blockStart + BLOCK_SIZE, n);
+
+            //Taking the cosine of each mean latitude
+            for (int i = blockStart; i < blockEnd; i++) {
+                distances[offset + i] = Math.cos((latitudeRad + latitudesRad[i]) / 2.0);
+            } //for
+
+            //Planar formula with the cosines already taken
+            for (int i = blockStart; i < blockEnd; i++) {
+                double latitudeDiff = latitudesRad[i] - latitudeRad;
+                double x = distances[offset + i] * (longitudesRad[i] - longitudeRad);
+                distances[offset + i] = Math.sqrt(latitudeDiff * latitudeDiff + x * x) *
+                                        Parks.EARTH_RADIUS;
+            } //for
+        } //for
+    } //distancesFrom method
+
+    /**
+     * Checks if a location is on the earth the same way Parks.calculateDistance does
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees or more than 180 degrees
+     */
+    private static void checkLocation(double latitude, double longitude) {
+
+        //ERROR HANDLING IN USER INTERFACE IF LATITUDE IS TOO SMALL OR TOO LARGE
+        if (latitude < Parks.LATITUDE_MIN_DEGREES || latitude > Parks.LATITUDE_MAX_DEGREES) {
+            throw new IllegalArgumentException("Invalid latitude");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF LONGITUDE IS TOO SMALL OR TOO LARGE
+        if (longitude < Parks.LONGITUDE_MIN_DEGREES || longitude > Parks.LONGITUDE_MAX_DEGREES) {
+            throw new IllegalArgumentException("Invalid longitude");
+        } //if
+    } //checkLocation method
+} //DistanceKernel class
@@ -0,0 +1,282 @@
+/**
+ * Ways of measuring the distance in miles between 2 locations, from the
+ * cheapest to the most exact:
+ *
+ * <pre>
+ * PLANAR       Parks.calculateDistance, the flat approximation the program has
+ *              always used, which does not wrap around at 180 degrees longitude
+ * HAVERSINE    great circle distance on a sphere of Parks.EARTH_RADIUS
+ * ELLIPSOIDAL  geodesic distance on the WGS-84 ellipsoid by Vincenty's formula
+ * </pre>
+ *
+ * Every model also has a bound radius: no distance in the model is shorter
+ * than the great circle distance on a sphere of that radius. DistanceFilter
+ * uses it to rule out locations before measuring them.
+ */
+public enum DistanceModel {
+
+    /** Flat approximation with the cosine of the mean latitude*/
+    PLANAR(Parks.EARTH_RADIUS) {
+
+        /**
+         * Calculates the planar distance between 2 locations
+         *
+         * @param latitude1 latitude of the first location
+         * @param longitude1 longitude of the first location
+         * @param latitude2 latitude of the second location
+         * @param longitude2 longitude of the second location
+         * @return the distance in miles, the same as Parks.calculateDistance
+         */
+        @Override
+        public double distance(double latitude1, double longitude1,
+                               double latitude2, double longitude2) {
+            return Parks.calculateDistance(latitude1, longitude1, latitude2, longitude2);
+        } //distance method
+    },
+
+    /** Great circle distance on a sphere*/
+    HAVERSINE(Parks.EARTH_RADIUS) {
+
+        /**
+         * Calculates the great circle distance between 2 locations
+         *
+         * @param latitude1 latitude of the first location
+         * @param longitude1 longitude of the first location
+         * @param latitude2 latitude of the second location
+         * @param longitude2 longitude of the second location
+         * @return the distance in miles
+         */
+        @Override
+        public double distance(double latitude1, double longitude1,
+                               double latitude2, double longitude2) {
+            checkLocation(latitude1, longitude1);
+            checkLocation(latitude2, longitude2);
+            return haversine(latitude1, longitude1, latitude2, longitude2);
+        } //distance method
+    },
+
+    /** Geodesic distance on the WGS-84 ellipsoid*/
+    ELLIPSOIDAL(DistanceModel.SEMI_MAJOR_AXIS * (1 - DistanceModel.ECCENTRICITY_SQUARED) /
+                DistanceModel.METERS_PER_MILE) {
+
+        /**
+         * Calculates the geodesic distance between 2 locations
+         *
+         * @param latitude1 latitude of the first location
+         * @param longitude1 longitude of the first location
+         * @param latitude2 latitude of the second location
+         * @param longitude2 longitude of the second location
+         * @return the distance in miles
+         */
+        @Override
+        public double distance(double latitude1, double longitude1,
+                               double latitude2, double longitude2) {
+            checkLocation(latitude1, longitude1);
+            checkLocation(latitude2, longitude2);
+            return vincenty(latitude1, longitude1, latitude2, longitude2);
+        } //distance method
+    };
+
+    /** Meters in a mile*/
+    private static final double METERS_PER_MILE = 1609.344;
+
+    /** Equatorial radius of the WGS-84 ellipsoid in meters*/
+    private static final double SEMI_MAJOR_AXIS = 6378137.0;
+
+    /** Flattening of the WGS-84 ellipsoid*/
+    private static final double FLATTENING = 1 / 298.257223563;
+
+    /** Polar radius of the WGS-84 ellipsoid in meters*/
+    private static final double SEMI_MINOR_AXIS = SEMI_MAJOR_AXIS * (1 - FLATTENING);
+
+    /** Square of the WGS-84 ellipsoid's eccentricity*/
+    private static final double ECCENTRICITY_SQUARED = FLATTENING * (2 - FLATTENING);
+
+    /** Most iterations of Vincenty's formula before it is taken not to converge*/
+    private static final int MAX_ITERATIONS = 200;
+
+    /** Change in longitude on the auxiliary sphere at which Vincenty's formula stops*/
+    private static final double CONVERGENCE = 1e-12;
+
+    /**
+     * Radius in miles of the sphere no distance in the model is shorter than.
+     * The ellipsoid is never narrower than its radius of curvature along a
+     * meridian at the equator, a(1 - e^2), about 3937 miles.
+     */
+    private final double boundRadius;
+
+    /**
+     * Creates a model
+     *
+     * @param boundRadius radius in miles of the sphere no distance in the model
+     *          is shorter than
+     */
+    DistanceModel(double boundRadius) {
+        this.boundRadius = boundRadius;
+    } //DistanceModel constructor
+
+    /**
+     * Calculates the distance between 2 locations
+     *
+     * @param latitude1 latitude of the first location
+     * @param longitude1 longitude of the first location
+     * @param latitude2 latitude of the second location
+     * @param longitude2 longitude of the second location
+     * @return the distance in miles
+     * @throws IllegalArgumentException "Invalid latitude" if either latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if either longitude is
+     *           less than -180 degrees or more than 180 degrees
+     */
+    public abstract double distance(double latitude1, double longitude1,
+                                    double latitude2, double longitude2);
+
+    /**
+     * Returns the radius of the sphere no distance in the model is shorter than
+     *
+     * @return the radius in miles
+     */
+    public double getBoundRadius() {
+        return boundRadius;
+    } //getBoundRadius method
+
+    /**
+     * Finds a model by its name, ignoring case
+     *
+     * @param name the name, such as "haversine"
+     * @return the model
+     * @throws IllegalArgumentException "Invalid model" if no model has the name
+     */
+    public static DistanceModel parse(String name) {
+        for (DistanceModel model : values()) {
+            if (model.name().equalsIgnoreCase(name == null ? "" : name.strip())) {
+                return model;
+            } //if
+        } //for
+
+        //ERROR HANDLING IN USER INTERFACE IF MODEL DOESN'T EXIST
+        throw new IllegalArgumentException("Invalid model");
+    } //parse method
+
+    /**
+     * Calculates the great circle distance between 2 locations on a sphere of
+     * Parks.EARTH_RADIUS
+     *
+     * @param latitude1 latitude of the first location
+     * @param longitude1 longitude of the first location
+     * @param latitude2 latitude of the second location
+     * @param longitude2 longitude of the second location
+     * @return the distance in miles
+     */
+    private static double haversine(double latitude1, double longitude1,
+                                    double latitude2, double longitude2) {
+        double latitude1Rad = Math.toRadians(latitude1);
+        double latitude2Rad = Math.toRadians(latitude2);
+        double latitudeHalf = Math.sin((latitude2Rad - latitude1Rad) / 2.0);
+        double longitudeHalf = Math.sin(Math.toRadians(longitude2 - longitude1) / 2.0);
+        double h = latitudeHalf * latitudeHalf +
+                   Math.cos(latitude1Rad) * Math.cos(latitude2Rad) * longitudeHalf * longitudeHalf;
+        return 2.0 * Math.asin(Math.min(1.0, Math.sqrt(h))) * Parks.EARTH_RADIUS;
+    } //haversine method
+
+    /**
+     * Calculates the geodesic distance between 2 locations on the WGS-84
+     * ellipsoid with Vincenty's inverse formula. Locations that are almost
+     * opposite each other can keep the formula from converging, and get the
+     * great circle distance instead, which is never shorter than the bound.
+     *
+     * @param latitude1 latitude of the first location
+     * @param longitude1 longitude of the first location
+     * @param latitude2 latitude of the second location
+     * @param longitude2 longitude of the second location
+     * @return the distance in miles
+     */
+    private static double vincenty(double latitude1, double longitude1,
+                                   double latitude2, double longitude2) {
+        double longitudeDiff = Math.toRadians(longitude2 - longitude1);
+
+        //Reduced latitudes on the auxiliary sphere
+        double reduced1 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(latitude1)));
+        double reduced2 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(latitude2)));
+        double sin1 = Math.sin(reduced1);
+        double cos1 = Math.cos(reduced1);
+        double sin2 = Math.sin(reduced2);
+        double cos2 = Math.cos(reduced2);
+
+        double lambda = longitudeDiff;
+        double sinSigma = 0;
+        double cosSigma = 0;
+        double sigma = 0;
+        double cosSquaredAlpha = 0;
+        double cos2SigmaMid = 0;
+        int iterations = 0;
+        double previous = 0;
+        do {
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double a = cos2 * sinLambda;
+            double b = cos1 * sin2 - sin1 * cos2 * cosLambda;
+            sinSigma = Math.sqrt(a * a + b * b);
+
+            //The same location
+            if (sinSigma == 0) {
+                return 0;
+            } //if
+            cosSigma = sin1 * sin2 + cos1 * cos2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cos1 * cos2 * sinLambda / sinSigma;
+            cosSquaredAlpha = 1 - sinAlpha * sinAlpha;
+
+            //Both locations on the equator
+            cos2SigmaMid = cosSquaredAlpha == 0 ? 0 :
+                           cosSigma - 2 * sin1 * sin2 / cosSquaredAlpha;
+            double c = FLATTENING / 16 * cosSquaredAlpha *
+                       (4 + FLATTENING * (4 - 3 * cosSquaredAlpha));
+            previous = lambda;
+            lambda = longitudeDiff + (1 - c) * FLATTENING * sinAlpha *
+                     (sigma + c * sinSigma * (cos2SigmaMid + c * cosSigma *
+                                              (-1 + 2 * cos2SigmaMid * cos2SigmaMid)));
+            iterations++;
+        } while (Math.abs(lambda - previous) > CONVERGENCE && iterations < MAX_ITERATIONS);
+
+        if (Math.abs(lambda - previous) > CONVERGENCE) {
+            return haversine(latitude1, longitude1, latitude2, longitude2);
+        } //if
+
+        double uSquared = cosSquaredAlpha * (SEMI_MAJOR_AXIS * SEMI_MAJOR_AXIS -
+                                             SEMI_MINOR_AXIS * SEMI_MINOR_AXIS) /
+                          (SEMI_MINOR_AXIS * SEMI_MINOR_AXIS);
+        double a = 1 + uSquared / 16384 * (4096 + uSquared * (-768 + uSquared *
+                                                               (320 - 175 * uSquared)));
+        double b = uSquared / 1024 * (256 + uSquared * (-128 + uSquared * (74 - 47 * uSquared)));
+        double deltaSigma = b * sinSigma *
+                            (cos2SigmaMid + b / 4 *
+                             (cosSigma * (-1 + 2 * cos2SigmaMid * cos2SigmaMid) -
+                              b / 6 * cos2SigmaMid * (-3 + 4 * sinSigma * sinSigma) *
+                              (-3 + 4 * cos2SigmaMid * cos2SigmaMid)));
+        return SEMI_MINOR_AXIS * a * (sigma - deltaSigma) / METERS_PER_MILE;
+    } //vincenty method
+
+    /**
+     * Checks if a location is on the earth the same way Parks.calculateDistance does
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees or more than 180 degrees
+     */
+    private static void checkLocation(double latitude, double longitude) {
+
+        //ERROR HANDLING IN USER INTERFACE IF LATITUDE IS TOO SMALL OR TOO LARGE
+        if (latitude < Parks.LATITUDE_MIN_DEGREES || latitude > Parks.LATITUDE_MAX_DEGREES) {
+            throw new IllegalArgumentException("Invalid latitude");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF LONGITUDE IS TOO SMALL OR TOO LARGE
+        if (longitude < Parks.LONGITUDE_MIN_DEGREES || longitude > Parks.LONGITUDE_MAX_DEGREES) {
+            throw new IllegalArgumentException("Invalid longitude");
+        } //if
+    } //checkLocation method
+} //DistanceModel enum
@@ -0,0 +1,159 @@
+import java.util.concurrent.atomic.*;
+
+/**
+ * Histogram of latencies in nanoseconds with buckets whose width grows with
+ * the value, like an HDR histogram, so any latency from a nanosecond to days is
+ * kept to within about 6% in under a thousand counters. Values below
+ * SUB_BUCKETS get a bucket each; above that, each power of two is split into
+ * SUB_BUCKETS / 2 buckets. Recording is a few instructions and an atomic add,
+ * with no lock and no allocation, so it can be called from any thread on every
+ * operation.
+ */
+public class LatencyHistogram {
+
+    /** Buckets for the values below it, and twice the buckets per power of two above it*/
+    private static final int SUB_BUCKETS = 32;
+
+    /** log2 of half of SUB_BUCKETS*/
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** Number of buckets needed for every long value*/
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS) * (SUB_BUCKETS / 2) +
+                                            SUB_BUCKETS / 2;
+
+    /** Number of values recorded in each bucket*/
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /** Number of values recorded*/
+    private final LongAdder count = new LongAdder();
+
+    /** Sum of the values recorded*/
+    private final LongAdder sum = new LongAdder();
+
+    /** Largest value recorded*/
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency
+     *
+     * @param nanos the latency in nanoseconds, counted as 0 if negative
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        } //if
+    } //record method
+
+    /**
+     * Returns the number of latencies recorded
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    } //getCount method
+
+    /**
+     * Returns the sum of the latencies recorded
+     *
+     * @return the sum in nanoseconds
+     */
+    public long getSum() {
+        return sum.sum();
+    } //getSum method
+
+    /**
+     * Returns the largest latency recorded
+     *
+     * @return the largest latency in nanoseconds, or 0 if none was recorded
+     */
+    public long getMax() {
+        return max.get();
+    } //getMax method
+
+    /**
+     * Finds the latency that a fraction of the recorded latencies are at or below
+     *
+     * @param quantile fraction of the latencies from 0 to 1, such as 0.99
+     * @return the highest latency in the bucket the quantile falls in, no more
+     *         than the largest latency recorded, or 0 if none was recorded
+     * @throws IllegalArgumentException "Invalid quantile" if quantile is not
+     *           from 0 to 1
+     */
+    public long getQuantile(double quantile) {
+
+        //ERROR HANDLING IN USER INTERFACE IF QUANTILE IS OUT OF RANGE
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Invalid quantile");
+        } //if
+
+        //Counting from the bucket counts, which may be ahead of count while recording
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            total += counts.get(bucket);
+        } //for
+        if (total == 0) {
+            return 0;
+        } //if
+
+        long rank = Math.max((long) Math.ceil(quantile * total), 1);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValue(bucket), getMax());
+            } //if
+        } //for
+        return getMax();
+    } //getQuantile method
+
+    /**
+     * Forgets every recorded latency. Latencies recorded at the same time may be
+     * partly kept.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts.set(bucket, 0);
+        } //for
+        count.reset();
+        sum.reset();
+        max.set(0);
+    } //reset method
+
+    /**
+     * Finds the bucket of a value
+     *
+     * @param value the value, not negative
+     * @return the bucket
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        } //if
+
+        //Shifting the value down to SUB_BUCKET_BITS + 1 bits, from 16 to 31
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * (SUB_BUCKETS / 2) + (int) (value >>> shift);
+    } //bucketOf method
+
+    /**
+     * Finds the highest value in a bucket
+     *
+     * @param bucket the bucket
+     * @return the highest value that is counted in the bucket
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        } //if
+        int shift = bucket / (SUB_BUCKETS / 2) - 1;
+        long subBucket = bucket - shift * (SUB_BUCKETS / 2);
+
+        //The last bucket's end overflows to Long.MIN_VALUE, one past Long.MAX_VALUE
+        return ((subBucket + 1) << shift) - 1;
+    } //highestValue method
+} //LatencyHistogram class
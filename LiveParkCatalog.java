@@ -0,0 +1,306 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The current catalog of a park file, which can be reloaded while it is being
+ * read. A catalog is never changed once it is published, so a reader takes the
+ * current one with get() and uses only that one for a whole search or trip,
+ * and sees the same parks from start to finish without locking. A reload reads
+ * the park file, or its snapshot if the file has not changed, on a background
+ * thread, builds every index of the new catalog, and then swaps it in with a
+ * single atomic write. Readers that already have the old catalog keep using
+ * it until they are done. If the new file is invalid or empty, the old
+ * catalog stays current.
+ *
+ * An update is a reload that only applies the parks that were added, updated,
+ * or deleted since the current catalog, patching its indexes instead of
+ * building them again, which suits small edits to a large park file.
+ *
+ * Keyword searches go through a search cache, which is cleared each time a new
+ * catalog becomes current.
+ */
+public class LiveParkCatalog implements AutoCloseable {
+
+    /** Path of the park file*/
+    private final Path parkFile;
+
+    /** The current catalog*/
+    private final AtomicReference<ParkCatalog> current;
+
+    /** Number of catalogs that have been current, counting the first*/
+    private final AtomicLong version = new AtomicLong(1);
+
+    /** Reload that is running, or null if none is*/
+    private final AtomicReference<CompletableFuture<ParkCatalog>> reloading =
+        new AtomicReference<CompletableFuture<ParkCatalog>>();
+
+    /** Cache of keyword search results over the current catalog*/
+    private final ParkSearchCache searchCache =
+        new ParkSearchCache(ParkSearchCache.DEFAULT_CAPACITY);
+
+    /** Thread reloads run on*/
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "park-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a live catalog with a catalog that was already loaded from a park file
+     *
+     * @param parkFile path of the park file
+     * @param catalog catalog loaded from the file
+     * @throws IllegalArgumentException "Null file" if parkFile is null
+     * @throws IllegalArgumentException "Null catalog" if catalog is null
+     */
+    public LiveParkCatalog(Path parkFile, ParkCatalog catalog) {
+
+        //ERROR HANDLING IN USER INTERFACE IF PARK FILE IS NULL
+        if (parkFile == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF CATALOG IS NULL
+        if (catalog == null) {
+            throw new IllegalArgumentException("Null catalog");
+        } //if
+
+        this.parkFile = parkFile;
+        current = new AtomicReference<ParkCatalog>(catalog);
+    } //LiveParkCatalog constructor
+
+    /**
+     * Returns the current catalog. It never changes, so it can be used for as
+     * long as needed.
+     *
+     * @return the current catalog
+     */
+    public ParkCatalog get() {
+        return current.get();
+    } //get method
+
+    /**
+     * Returns the number of catalogs that have been current, 1 before the first
+     * reload
+     *
+     * @return the version of the current catalog
+     */
+    public long getVersion() {
+        return version.get();
+    } //getVersion method
+
+    /**
+     * Returns the cache that keyword searches of the current catalog should go
+     * through, with searchCache.getIndex(catalog.getNameIndex())
+     *
+     * @return the search cache
+     */
+    public ParkSearchCache getSearchCache() {
+        return searchCache;
+    } //getSearchCache method
+
+    /**
+     * Returns the path of the park file
+     *
+     * @return the park file
+     */
+    public Path getParkFile() {
+        return parkFile;
+    } //getParkFile method
+
+    /**
+     * Starts reloading the park file in the background. If a reload or update
+     * is already running, that one is returned instead of starting another.
+     *
+     * @return the new catalog once it is current, or an IOException if the file
+     *         cannot be read or an IllegalArgumentException "Invalid park file"
+     *         or "Empty park file" if it cannot be used
+     */
+    public CompletableFuture<ParkCatalog> reload() {
+        return start(false);
+    } //reload method
+
+    /**
+     * Starts updating the current catalog with the changes in the park file in
+     * the background. If a reload or update is already running, that one is
+     * returned instead of starting another.
+     *
+     * @return the new catalog once it is current, which is the same catalog if
+     *         the parks did not change, or an IOException if the file cannot be
+     *         read or an IllegalArgumentException "Invalid park file" or "Empty
+     *         park file" if it cannot be used
+     */
+    public CompletableFuture<ParkCatalog> update() {
+        return start(true);
+    } //update method
+
+    /**
+     * Reloads the park file on the calling thread
+     *
+     * @return the new catalog, now current
+     * @throws IOException if the park file cannot be read
+     * @throws IllegalArgumentException "Invalid park file" if the file is not
+     *           valid, or "Empty park file" if it has no parks
+     */
+    public ParkCatalog reloadNow() throws IOException {
+        return await(reload());
+    } //reloadNow method
+
+    /**
+     * Updates the current catalog with the changes in the park file on the
+     * calling thread
+     *
+     * @return the new catalog, now current, which is the same catalog if the
+     *         parks did not change
+     * @throws IOException if the park file cannot be read
+     * @throws IllegalArgumentException "Invalid park file" if the file is not
+     *           valid, or "Empty park file" if it has no parks
+     */
+    public ParkCatalog updateNow() throws IOException {
+        return await(update());
+    } //updateNow method
+
+    /**
+     * Stops the reload thread
+     */
+    @Override
+    public void close() {
+        reloader.shutdownNow();
+    } //close method
+
+    /**
+     * Starts a reload or update on the reload thread unless one is running
+     *
+     * @param incremental true to apply only the changed parks
+     * @return the running reload or update
+     */
+    private CompletableFuture<ParkCatalog> start(boolean incremental) {
+        CompletableFuture<ParkCatalog> reload = new CompletableFuture<ParkCatalog>();
+        CompletableFuture<ParkCatalog> running = reloading.compareAndExchange(null, reload);
+        if (running != null) {
+            return running;
+        } //if
+        try {
+            reloader.execute(() -> {
+                ParkCatalog catalog = null;
+                Exception failure = null;
+                try {
+                    catalog = incremental ? applyChanges() : load();
+                } //try
+                catch (IOException | RuntimeException e) {
+                    failure = e;
+                } //catch
+                finally {
+
+                    //Clearing the reload before completing it, so a caller woken
+                    //by the completion starts a new one instead of getting this one
+                    reloading.compareAndSet(reload, null);
+                } //finally
+                if (failure != null) {
+                    reload.completeExceptionally(failure);
+                } //if
+                else {
+                    reload.complete(catalog);
+                } //else
+            });
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF THE LIVE CATALOG IS CLOSED
+        catch (RejectedExecutionException e) {
+            reloading.compareAndSet(reload, null);
+            reload.completeExceptionally(e);
+        } //catch
+        return reload;
+    } //start method
+
+    /**
+     * Waits for a reload or update
+     *
+     * @param reload the running reload or update
+     * @return the new catalog, now current
+     * @throws IOException if the park file cannot be read
+     */
+    private static ParkCatalog await(CompletableFuture<ParkCatalog> reload) throws IOException {
+        try {
+            return reload.get();
+        } //try
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        } //catch
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } //if
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } //if
+            throw new IOException(e.getCause());
+        } //catch
+    } //await method
+
+    /**
+     * Loads the park file, builds every index, and makes it the current catalog
+     *
+     * @return the new catalog
+     * @throws IOException if the park file cannot be read
+     * @throws IllegalArgumentException "Invalid park file" if the file is not
+     *           valid, or "Empty park file" if it has no parks
+     */
+    private ParkCatalog load() throws IOException {
+        ParkCatalog catalog = ParkSnapshot.loadParks(parkFile);
+
+        //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS INVALID
+        if (catalog == null) {
+            throw new IllegalArgumentException("Invalid park file");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS EMPTY
+        if (catalog.size() <= 0) {
+            throw new IllegalArgumentException("Empty park file");
+        } //if
+
+        //Readers of the new catalog should not wait for its indexes
+        catalog.buildIndexes();
+        current.set(catalog);
+        version.incrementAndGet();
+        searchCache.invalidate();
+        return catalog;
+    } //load method
+
+    /**
+     * Parses the park file and makes the current catalog with only the changed
+     * parks applied to it
+     *
+     * @return the new catalog, or the current one if no park changed
+     * @throws IOException if the park file cannot be read
+     * @throws IllegalArgumentException "Invalid park file" if the file is not
+     *           valid, or "Empty park file" if it has no parks
+     */
+    private ParkCatalog applyChanges() throws IOException {
+
+        //The snapshot is skipped: it is only current if the file did not change
+        ParkCatalog parsed = ParkLoader.loadParks(parkFile);
+
+        //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS INVALID
+        if (parsed == null) {
+            throw new IllegalArgumentException("Invalid park file");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS EMPTY
+        if (parsed.size() <= 0) {
+            throw new IllegalArgumentException("Empty park file");
+        } //if
+
+        ParkCatalogDiff diff = ParkCatalogDiff.compare(current.get(), parsed);
+        if (diff.isEmpty()) {
+            return current.get();
+        } //if
+        ParkCatalog catalog = diff.apply();
+        current.set(catalog);
+        version.incrementAndGet();
+        searchCache.invalidate();
+        return catalog;
+    } //applyChanges method
+} //LiveParkCatalog class
@@ -0,0 +1,635 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Park catalog whose columns are kept outside the Java heap, for catalogs of
+ * tens of millions of parks where a String and an array slot per park would
+ * make the heap, and the garbage collector's work, grow with the catalog. The
+ * columns are in the layout of a ParkSnapshot:
+ *
+ * <pre>
+ * ids           int per park
+ * latitudes     double per park
+ * longitudes    double per park
+ * names         UTF-8 bytes of every name, one after another
+ * name offsets  int per park plus one, where each name starts in the names
+ * id keys       int per slot of an open addressing table from id to row
+ * id rows       int per slot of the same table
+ * </pre>
+ *
+ * ParkSnapshot.open() maps a snapshot file as a catalog, and copyOf() copies
+ * a loaded catalog into direct buffers. ParkBatch runs against one when it is
+ * started with -offheap. Listing, searching, nearest and radius queries, and
+ * adding parks to a trip read the buffers in place. A name is only decoded into a String
+ * when it is written, or when it is searched and has a byte outside ASCII, so
+ * the heap used by a call depends on what it writes, not on the catalog size.
+ * The buffers are never changed, so one catalog can be read by many threads.
+ */
+public class OffHeapParkCatalog {
+
+    /** Park ids, one per row*/
+    private final IntBuffer ids;
+
+    /** Park latitudes, one per row*/
+    private final DoubleBuffer latitudes;
+
+    /** Park longitudes, one per row*/
+    private final DoubleBuffer longitudes;
+
+    /** UTF-8 bytes of every park name*/
+    private final ByteBuffer names;
+
+    /** Where each name starts in names, with one extra entry for the end*/
+    private final IntBuffer nameOffsets;
+
+    /** Park id stored in each slot of the id table*/
+    private final IntBuffer slotKeys;
+
+    /** Row stored in each slot of the id table, or ParkIdIndex.NO_ROW*/
+    private final IntBuffer slotRows;
+
+    /**
+     * Creates a catalog over columns that have already been checked, each a
+     * little endian buffer of exactly the column's bytes
+     *
+     * @param ids the ids column
+     * @param latitudes the latitudes column
+     * @param longitudes the longitudes column
+     * @param names the names column
+     * @param nameOffsets the name offsets column
+     * @param slotKeys the id keys of the id table, a power of 2 slots
+     * @param slotRows the rows of the id table
+     */
+    OffHeapParkCatalog(ByteBuffer ids, ByteBuffer latitudes, ByteBuffer longitudes,
+                       ByteBuffer names, ByteBuffer nameOffsets, ByteBuffer slotKeys,
+                       ByteBuffer slotRows) {
+        this.ids = ids.asIntBuffer();
+        this.latitudes = latitudes.asDoubleBuffer();
+        this.longitudes = longitudes.asDoubleBuffer();
+        this.names = names;
+        this.nameOffsets = nameOffsets.asIntBuffer();
+        this.slotKeys = slotKeys.asIntBuffer();
+        this.slotRows = slotRows.asIntBuffer();
+    } //OffHeapParkCatalog constructor
+
+    /**
+     * Copies a catalog into direct buffers outside the heap
+     *
+     * @param catalog the catalog to copy
+     * @return the off-heap copy
+     * @throws IllegalArgumentException "Null catalog" if catalog is null
+     * @throws IllegalArgumentException "Too many parks" if the names do not fit
+     *           in int offsets
+     */
+    public static OffHeapParkCatalog copyOf(ParkCatalog catalog) {
+
+        //ERROR HANDLING IN USER INTERFACE IF CATALOG IS NULL
+        if (catalog == null) {
+            throw new IllegalArgumentException("Null catalog");
+        } //if
+
+        int count = catalog.size();
+        String[] catalogNames = catalog.getNames();
+        ByteBuffer ids = allocate((long) count * Integer.BYTES);
+        ids.asIntBuffer().put(catalog.getIds());
+        ByteBuffer latitudes = allocate((long) count * Double.BYTES);
+        latitudes.asDoubleBuffer().put(catalog.getLatitudes());
+        ByteBuffer longitudes = allocate((long) count * Double.BYTES);
+        longitudes.asDoubleBuffer().put(catalog.getLongitudes());
+
+        //Encoding the names into a buffer that doubles as it fills
+        ByteBuffer nameOffsets = allocate(((long) count + 1) * Integer.BYTES);
+        ByteBuffer names = allocate(Math.max(16, count * 16L));
+        nameOffsets.putInt(0, 0);
+        for (int i = 0; i < count; i++) {
+            byte[] name = catalogNames[i].getBytes(StandardCharsets.UTF_8);
+
+            //ERROR HANDLING IN USER INTERFACE IF THE NAMES ARE TOO LONG FOR INT OFFSETS
+            if ((long) names.position() + name.length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many parks");
+            } //if
+            if (names.remaining() < name.length) {
+                ByteBuffer grown = allocate(Math.min(Integer.MAX_VALUE,
+                                                     Math.max(2L * names.capacity(),
+                                                              (long) names.position() +
+                                                              name.length)));
+                names.flip();
+                grown.put(names);
+                names = grown;
+            } //if
+            names.put(name);
+            nameOffsets.putInt((i + 1) * Integer.BYTES, names.position());
+        } //for
+        names.flip();
+
+        int[] keys = catalog.getPlainIdIndex().getKeys();
+        int[] rows = catalog.getPlainIdIndex().getRows();
+        ByteBuffer slotKeys = allocate((long) keys.length * Integer.BYTES);
+        slotKeys.asIntBuffer().put(keys);
+        ByteBuffer slotRows = allocate((long) rows.length * Integer.BYTES);
+        slotRows.asIntBuffer().put(rows);
+        return new OffHeapParkCatalog(ids, latitudes, longitudes, names.slice()
+                                      .order(ByteOrder.LITTLE_ENDIAN), nameOffsets,
+                                      slotKeys, slotRows);
+    } //copyOf method
+
+    /**
+     * Returns the number of parks in the catalog
+     *
+     * @return the number of parks
+     */
+    public int size() {
+        return ids.capacity();
+    } //size method
+
+    /**
+     * Finds the row of a park id
+     *
+     * @param id the park id to look up
+     * @return the row of the park, or -1 if no park has that id
+     */
+    public int indexOf(int id) {
+        int mask = slotRows.capacity() - 1;
+        for (int slot = ParkIdIndex.hash(id) & mask; slotRows.get(slot) != ParkIdIndex.NO_ROW;
+             slot = (slot + 1) & mask) {
+            if (slotKeys.get(slot) == id) {
+                return slotRows.get(slot);
+            } //if
+        } //for
+        return ParkIdIndex.NO_ROW;
+    } //indexOf method
+
+    /**
+     * Returns the id of a park
+     *
+     * @param row the park's row
+     * @return the park id
+     * @throws IndexOutOfBoundsException if row is not a row of the catalog
+     */
+    public int getId(int row) {
+        return ids.get(row);
+    } //getId method
+
+    /**
+     * Returns the name of a park, decoding it from its UTF-8 bytes
+     *
+     * @param row the park's row
+     * @return the park name
+     * @throws IndexOutOfBoundsException if row is not a row of the catalog
+     */
+    public String getName(int row) {
+        int start = nameOffsets.get(row);
+        byte[] name = new byte[nameOffsets.get(row + 1) - start];
+        names.get(start, name);
+        return new String(name, StandardCharsets.UTF_8);
+    } //getName method
+
+    /**
+     * Returns the latitude of a park
+     *
+     * @param row the park's row
+     * @return the park latitude
+     * @throws IndexOutOfBoundsException if row is not a row of the catalog
+     */
+    public double getLatitude(int row) {
+        return latitudes.get(row);
+    } //getLatitude method
+
+    /**
+     * Returns the longitude of a park
+     *
+     * @param row the park's row
+     * @return the park longitude
+     * @throws IndexOutOfBoundsException if row is not a row of the catalog
+     */
+    public double getLongitude(int row) {
+        return longitudes.get(row);
+    } //getLongitude method
+
+    /**
+     * Writes a page of the park list, the same as Parks.writeParkList
+     *
+     * @param out where the list is written
+     * @param offset the number of parks to skip from the start of the list
+     * @param limit the most parks to write
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     */
+    public int writeParkList(Appendable out, int offset, int limit) throws IOException {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        Parks.checkPage(out, offset, limit);
+
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        int end = (int) Math.min(size(), (long) offset + limit);
+        for (int i = offset; i < end; i++) {
+            formatter.appendPark(out, ids.get(i), getName(i), latitudes.get(i),
+                                 longitudes.get(i));
+        } //for
+
+        int written = Math.max(end - offset, 0);
+        ParkMetrics.LIST.record(startTime, startAllocated, written, written);
+        return written;
+    } //writeParkList method
+
+    /**
+     * Writes a page of the parks whose names contain a keyword, ignoring case,
+     * the same as Parks.writeSearchResults without a name index. An ASCII
+     * keyword is matched against the bytes of each ASCII name in place; only
+     * names with other bytes are decoded to be matched.
+     *
+     * @param out where the results are written
+     * @param offset the number of matching parks to skip
+     * @param limit the most parks to write
+     * @param parkName keyword to search for
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     */
+    public int writeSearchResults(Appendable out, int offset, int limit, String parkName)
+                                  throws IOException {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        Parks.checkPage(out, offset, limit);
+
+        String lowerName = parkName.toLowerCase();
+        byte[] key = isAscii(lowerName) ? lowerName.getBytes(StandardCharsets.US_ASCII) : null;
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        int written = 0;
+        int scanned = 0;
+        int skipped = 0;
+        for (int i = 0; i < size() && written < limit; i++) {
+            scanned++;
+            int start = nameOffsets.get(i);
+            int end = nameOffsets.get(i + 1);
+            int match = key == null ? -1 : containsAscii(start, end, key);
+            if (match < 0) {
+                match = getName(i).toLowerCase().contains(lowerName) ? 1 : 0;
+            } //if
+            if (match == 1) {
+                if (skipped < offset) {
+                    skipped++;
+                } //if
+                else {
+                    formatter.appendPark(out, ids.get(i), getName(i), latitudes.get(i),
+                                         longitudes.get(i));
+                    written++;
+                } //else
+            } //if
+        } //for
+
+        ParkMetrics.SEARCH.record(startTime, startAllocated, scanned, written);
+        return written;
+    } //writeSearchResults method
+
+    /**
+     * Calculates the planar distance from a location to every park, the same
+     * as Parks.calculateDistance
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param distances array the distances are stored into, at each park's row
+     * @throws IllegalArgumentException "Null array" if distances is null
+     * @throws IllegalArgumentException "Invalid array length" if distances is
+     *           shorter than the catalog
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees or more than 180 degrees
+     */
+    public void distancesFrom(double latitude, double longitude, double[] distances) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ARRAY PARAMETER IS NULL
+        if (distances == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ARRAY HAS AN INVALID LENGTH
+        if (distances.length < size()) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF LATITUDE IS TOO SMALL OR TOO LARGE
+        if (latitude < Parks.LATITUDE_MIN_DEGREES || latitude > Parks.LATITUDE_MAX_DEGREES) {
+            throw new IllegalArgumentException("Invalid latitude");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF LONGITUDE IS TOO SMALL OR TOO LARGE
+        if (longitude < Parks.LONGITUDE_MIN_DEGREES || longitude > Parks.LONGITUDE_MAX_DEGREES) {
+            throw new IllegalArgumentException("Invalid longitude");
+        } //if
+
+        double latitudeRad = Math.toRadians(latitude);
+        double longitudeRad = Math.toRadians(longitude);
+        for (int i = 0; i < size(); i++) {
+            double parkLatitudeRad = Math.toRadians(latitudes.get(i));
+            double latitudeDiff = parkLatitudeRad - latitudeRad;
+            double longitudeDiff = Math.toRadians(longitudes.get(i)) - longitudeRad;
+            double x = Math.cos((latitudeRad + parkLatitudeRad) / 2.0) * longitudeDiff;
+            distances[i] = Math.sqrt(latitudeDiff * latitudeDiff + x * x) * Parks.EARTH_RADIUS;
+        } //for
+    } //distancesFrom method
+
+    /**
+     * Finds the parks within a distance of a location. Each park is checked
+     * against a DistanceFilter's cheap bounds first, and only the parks that
+     * pass are measured with the model.
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @param model how the distance is measured
+     * @return rows of the parks at most radius miles away, closest first, ties in row order
+     * @throws IllegalArgumentException for the same reasons as DistanceFilter
+     */
+    public int[] withinRadius(double latitude, double longitude, double radius,
+                              DistanceModel model) {
+        return findWithinRadius(latitude, longitude, radius, model).rows;
+    } //withinRadius method
+
+    /**
+     * Finds the parks within a distance of a location and keeps the distance
+     * the model measured for each, so they are not measured again to be written
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @param model how the distance is measured
+     * @return the parks found, closest first, ties in row order
+     * @throws IllegalArgumentException for the same reasons as DistanceFilter
+     */
+    private Found findWithinRadius(double latitude, double longitude, double radius,
+                                   DistanceModel model) {
+        DistanceFilter filter = new DistanceFilter(model, latitude, longitude, radius);
+        int[] found = new int[16];
+        double[] foundDistances = new double[16];
+        int count = 0;
+        for (int i = 0; i < size(); i++) {
+            double parkLatitude = latitudes.get(i);
+            double parkLongitude = longitudes.get(i);
+            if (!filter.mayContain(parkLatitude, parkLongitude)) {
+                continue;
+            } //if
+            double distance = filter.distance(parkLatitude, parkLongitude);
+            if (distance <= radius) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                    foundDistances = Arrays.copyOf(foundDistances, count * 2);
+                } //if
+                found[count] = i;
+                foundDistances[count++] = distance;
+            } //if
+        } //for
+        return new Found(ParkSpatialIndex.sortByDistance(found, foundDistances, count),
+                         foundDistances);
+    } //findWithinRadius method
+
+    /**
+     * Writes the parks closest to a location with their distances, closest
+     * first, in the columns of Parks.getNearestParks. Every park is measured,
+     * keeping the closest ones found so far in a max-heap.
+     *
+     * @param out where the parks are written
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param count the most parks to write
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees or more than 180 degrees
+     * @throws IllegalArgumentException "Invalid number of parks" if count is
+     *           less than 1
+     */
+    public int writeNearestParks(Appendable out, double latitude, double longitude, int count)
+                                 throws IOException {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+
+        //ERROR HANDLING IN USER INTERFACE IF OUT IS NULL
+        if (out == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        //Checking the location the same way as every distance below
+        Parks.calculateDistance(latitude, longitude, latitude, longitude);
+
+        //ERROR HANDLING IN USER INTERFACE IF NUMBER OF PARKS IS LESS THAN 1
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid number of parks");
+        } //if
+
+        //Max-heap of the closest parks found so far, farthest at the top
+        int capacity = Math.min(count, size());
+        int[] heapRows = new int[capacity];
+        double[] heapDistances = new double[capacity];
+        int heapSize = 0;
+        for (int i = 0; i < size() && capacity > 0; i++) {
+            double parkLatitude = latitudes.get(i);
+            double parkLongitude = longitudes.get(i);
+
+            //Parks with no location are left out, as they are from the k-d tree
+            if (Double.isNaN(parkLatitude) || Double.isNaN(parkLongitude)) {
+                continue;
+            } //if
+            double distance = Parks.calculateDistance(latitude, longitude, parkLatitude,
+                                                      parkLongitude);
+            if (heapSize < capacity) {
+                heapRows[heapSize] = i;
+                heapDistances[heapSize] = distance;
+                ParkSpatialIndex.siftUp(heapRows, heapDistances, heapSize++);
+            } //if
+            else if (ParkSpatialIndex.farther(heapDistances[0], heapRows[0], distance, i)) {
+                heapRows[0] = i;
+                heapDistances[0] = distance;
+                ParkSpatialIndex.siftDown(heapRows, heapDistances, heapSize);
+            } //else if
+        } //for
+
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        int[] rows = ParkSpatialIndex.sortByDistance(heapRows, heapDistances, heapSize);
+        for (int i = 0; i < rows.length; i++) {
+            formatter.appendParkDistance(out, ids.get(rows[i]), getName(rows[i]),
+                                         latitudes.get(rows[i]), longitudes.get(rows[i]),
+                                         heapDistances[i]);
+        } //for
+
+        ParkMetrics.NEAREST.record(startTime, startAllocated, size(), rows.length);
+        return rows.length;
+    } //writeNearestParks method
+
+    /**
+     * Writes the parks within a distance of a location with their distances,
+     * closest first, in the columns of Parks.getParksWithinRadius
+     *
+     * @param out where the parks are written
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @param model how the distance is measured
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException for the same reasons as DistanceFilter
+     */
+    public int writeParksWithinRadius(Appendable out, double latitude, double longitude,
+                                      double radius, DistanceModel model) throws IOException {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+
+        //ERROR HANDLING IN USER INTERFACE IF OUT IS NULL
+        if (out == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        Found found = findWithinRadius(latitude, longitude, radius, model);
+        for (int i = 0; i < found.rows.length; i++) {
+            int row = found.rows[i];
+            formatter.appendParkDistance(out, ids.get(row), getName(row), latitudes.get(row),
+                                         longitudes.get(row), found.distances[i]);
+        } //for
+
+        ParkMetrics.RADIUS.record(startTime, startAllocated, size(), found.rows.length);
+        return found.rows.length;
+    } //writeParksWithinRadius method
+
+    /**
+     * Adds a park to a trip at a position, the same as Parks.addParkToTrip
+     *
+     * @param parkId id of the park
+     * @param position number of parks in the trip before the added park, from 0
+     *           to the number of parks in the trip
+     * @param trip the trip
+     * @return the number of parks in the trip after adding the park
+     * @throws IllegalArgumentException "Null trip" if trip is null
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or more than the number of parks in the trip
+     * @throws IllegalArgumentException "Invalid id" if no park has parkId
+     */
+    public int addParkToTrip(int parkId, int position, Trip trip) {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+
+        //ERROR HANDLING IN USER INTERFACE IF TRIP IS NULL
+        if (trip == null) {
+            throw new IllegalArgumentException("Null trip");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS OUT OF RANGE
+        if (position < 0 || position > trip.size()) {
+            throw new IllegalArgumentException("Invalid position");
+        } //if
+
+        int row = indexOf(parkId);
+
+        //ERROR HANDLING IN USER INTERFACE IF PARK ID DOESN'T EXIST
+        if (row == ParkIdIndex.NO_ROW) {
+            throw new IllegalArgumentException("Invalid id");
+        } //if
+
+        trip.insert(position, parkId, getName(row), latitudes.get(row), longitudes.get(row));
+        ParkMetrics.ADD_TO_TRIP.record(startTime, startAllocated, 1, 1);
+        return trip.size();
+    } //addParkToTrip method
+
+    /**
+     * Checks if the bytes of a name contain an ASCII keyword, ignoring case
+     *
+     * @param start index in names of the name's first byte
+     * @param end index in names after the name's last byte
+     * @param key the lowercased keyword
+     * @return 1 if the name contains the keyword, 0 if not, or -1 if the name
+     *         has a byte outside ASCII and has to be decoded to be matched
+     */
+    private int containsAscii(int start, int end, byte[] key) {
+        for (int i = start; i < end; i++) {
+            if (names.get(i) < 0) {
+                return -1;
+            } //if
+        } //for
+        for (int i = start; i <= end - key.length; i++) {
+            int j = 0;
+            while (j < key.length && toLowerAscii(names.get(i + j)) == key[j]) {
+                j++;
+            } //while
+            if (j == key.length) {
+                return 1;
+            } //if
+        } //for
+        return 0;
+    } //containsAscii method
+
+    /**
+     * Lowercases an ASCII letter
+     *
+     * @param b the byte
+     * @return the lowercase letter, or b if it is not an uppercase letter
+     */
+    private static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    } //toLowerAscii method
+
+    /**
+     * Checks if a string is all ASCII
+     *
+     * @param text the string
+     * @return true if every char is below 128
+     */
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            } //if
+        } //for
+        return true;
+    } //isAscii method
+
+    /**
+     * Allocates a zeroed direct buffer, little endian
+     *
+     * @param bytes the number of bytes
+     * @return the buffer
+     * @throws IllegalArgumentException "Too many parks" if bytes does not fit in a buffer
+     */
+    private static ByteBuffer allocate(long bytes) {
+
+        //ERROR HANDLING IN USER INTERFACE IF A COLUMN IS TOO LARGE FOR A BUFFER
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many parks");
+        } //if
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    } //allocate method
+
+    /**
+     * Rows of the parks found by a radius query and the distance of each
+     */
+    private static final class Found {
+
+        /** Rows of the parks found, closest first*/
+        private final int[] rows;
+
+        /** Distance of each park found, at the same index as its row*/
+        private final double[] distances;
+
+        /**
+         * Creates the parks found
+         *
+         * @param rows rows of the parks found, closest first
+         * @param distances distance of each park found, at least as long as rows
+         */
+        private Found(int[] rows, double[] distances) {
+            this.rows = rows;
+            this.distances = distances;
+        } //Found constructor
+    } //Found class
+} //OffHeapParkCatalog class
@@ -0,0 +1,175 @@
+import java.util.concurrent.atomic.*;
+
+/**
+ * Latency histogram and counters of one park operation. A call is timed with
+ * ParkMetrics.startTime() and ParkMetrics.allocatedBytes() at its start and
+ * recorded with record() once it finishes, so only calls that finish are
+ * counted.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    /** Nanoseconds in a microsecond*/
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    /** Name of the operation, as used in metric labels*/
+    private final String name;
+
+    /** Latencies of the calls*/
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /** Number of rows the calls looked at*/
+    private final LongAdder rowsScanned = new LongAdder();
+
+    /** Number of rows the calls returned or wrote*/
+    private final LongAdder results = new LongAdder();
+
+    /** Number of bytes the calls allocated*/
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    /**
+     * Creates the metrics of an operation
+     *
+     * @param name name of the operation
+     */
+    OperationMetrics(String name) {
+        this.name = name;
+    } //OperationMetrics constructor
+
+    /**
+     * Records a call that finished
+     *
+     * @param startTime ParkMetrics.startTime() when the call started
+     * @param startAllocated ParkMetrics.allocatedBytes() when the call started
+     * @param scanned number of rows the call looked at
+     * @param returned number of rows the call returned or wrote
+     */
+    public void record(long startTime, long startAllocated, long scanned, long returned) {
+        latencies.record(System.nanoTime() - startTime);
+        rowsScanned.add(scanned);
+        results.add(returned);
+        if (startAllocated >= 0) {
+            allocatedBytes.add(Math.max(ParkMetrics.allocatedBytes() - startAllocated, 0));
+        } //if
+    } //record method
+
+    /**
+     * Returns the name of the operation
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    } //getName method
+
+    /**
+     * Returns the histogram of the call latencies
+     *
+     * @return the latencies
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    } //getLatencies method
+
+    /**
+     * Returns the number of calls that finished
+     *
+     * @return the number of calls
+     */
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    } //getCount method
+
+    /**
+     * Returns the mean latency of the calls
+     *
+     * @return the mean latency in microseconds
+     */
+    @Override
+    public double getMeanMicros() {
+        long count = latencies.getCount();
+        return count == 0 ? 0 : latencies.getSum() / NANOS_PER_MICRO / count;
+    } //getMeanMicros method
+
+    /**
+     * Returns the median latency of the calls
+     *
+     * @return the median latency in microseconds
+     */
+    @Override
+    public double getP50Micros() {
+        return latencies.getQuantile(0.5) / NANOS_PER_MICRO;
+    } //getP50Micros method
+
+    /**
+     * Returns the latency 90% of the calls are at or below
+     *
+     * @return the 90th percentile latency in microseconds
+     */
+    @Override
+    public double getP90Micros() {
+        return latencies.getQuantile(0.9) / NANOS_PER_MICRO;
+    } //getP90Micros method
+
+    /**
+     * Returns the latency 99% of the calls are at or below
+     *
+     * @return the 99th percentile latency in microseconds
+     */
+    @Override
+    public double getP99Micros() {
+        return latencies.getQuantile(0.99) / NANOS_PER_MICRO;
+    } //getP99Micros method
+
+    /**
+     * Returns the largest latency of the calls
+     *
+     * @return the largest latency in microseconds
+     */
+    @Override
+    public double getMaxMicros() {
+        return latencies.getMax() / NANOS_PER_MICRO;
+    } //getMaxMicros method
+
+    /**
+     * Returns the number of rows the calls looked at
+     *
+     * @return the number of rows scanned
+     */
+    @Override
+    public long getRowsScanned() {
+        return rowsScanned.sum();
+    } //getRowsScanned method
+
+    /**
+     * Returns the number of rows the calls returned or wrote
+     *
+     * @return the number of results
+     */
+    @Override
+    public long getResults() {
+        return results.sum();
+    } //getResults method
+
+    /**
+     * Returns the number of bytes the calls allocated, or 0 if the JVM does not
+     * count allocations per thread
+     *
+     * @return the number of bytes allocated
+     */
+    @Override
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    } //getAllocatedBytes method
+
+    /**
+     * Forgets every recorded call
+     */
+    @Override
+    public void reset() {
+        latencies.reset();
+        rowsScanned.reset();
+        results.reset();
+        allocatedBytes.reset();
+    } //reset method
+} //OperationMetrics class
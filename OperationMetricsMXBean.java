@@ -0,0 +1,76 @@
+/**
+ * JMX view of the metrics of one park operation, registered by
+ * ParkMetrics.registerMBeans() as parks:type=Operation,name=<operation>.
+ * Latencies are in microseconds.
+ */
+public interface OperationMetricsMXBean {
+
+    /**
+     * Returns the number of calls that finished
+     *
+     * @return the number of calls
+     */
+    long getCount();
+
+    /**
+     * Returns the mean latency of the calls
+     *
+     * @return the mean latency in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * Returns the median latency of the calls
+     *
+     * @return the median latency in microseconds
+     */
+    double getP50Micros();
+
+    /**
+     * Returns the latency 90% of the calls are at or below
+     *
+     * @return the 90th percentile latency in microseconds
+     */
+    double getP90Micros();
+
+    /**
+     * Returns the latency 99% of the calls are at or below
+     *
+     * @return the 99th percentile latency in microseconds
+     */
+    double getP99Micros();
+
+    /**
+     * Returns the largest latency of the calls
+     *
+     * @return the largest latency in microseconds
+     */
+    double getMaxMicros();
+
+    /**
+     * Returns the number of rows the calls looked at
+     *
+     * @return the number of rows scanned
+     */
+    long getRowsScanned();
+
+    /**
+     * Returns the number of rows the calls returned or wrote
+     *
+     * @return the number of results
+     */
+    long getResults();
+
+    /**
+     * Returns the number of bytes the calls allocated, or 0 if the JVM does not
+     * count allocations per thread
+     *
+     * @return the number of bytes allocated
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Forgets every recorded call
+     */
+    void reset();
+} //OperationMetricsMXBean interface
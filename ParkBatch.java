@@ -0,0 +1,731 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs a script of park commands against one loaded catalog without the menu
+ * or prompts, for replaying logged queries. Each line is a command letter from
+ * the menu followed by its arguments:
+ *
+ * <pre>
+ * L                          list parks
+ * S keyword                  search for parks, the keyword is the rest of the line
+ * F keyword                  search for parks allowing typos in the keyword
+ * C prefix                   complete a park name, the prefix is the rest of the line
+ * N latitude longitude count nearest parks
+ * R latitude longitude miles parks within radius, optionally followed by
+ *                            planar, haversine, or ellipsoidal
+ * A id                       add park to trip
+ * I id position              insert park into trip
+ * X position                 remove park from trip
+ * M from to                  move park in trip
+ * D                          display trip
+ * O                          optimize trip
+ * T miles count              parks along the trip
+ * Q                          quit
+ * </pre>
+ *
+ * Blank lines and lines starting with '#' are skipped. Output is written to a
+ * buffered writer in script order. Runs of list, search, fuzzy search,
+ * complete, nearest, and radius commands only read the catalog, so up to
+ * BATCH_SIZE of them at a time are run on a thread pool, each into its own
+ * buffer; the trip commands between them run one at a time.
+ *
+ * Started with -offheap, the script runs against an OffHeapParkCatalog mapped
+ * from the park file's snapshot instead, which keeps the parks off the heap.
+ * That catalog has no name, fuzzy, prefix, or spatial index, so the F, C, and
+ * T commands are not available and the rest scan every park.
+ */
+public class ParkBatch implements AutoCloseable {
+
+    /** Most read only commands that are run together before their output is written*/
+    public static final int BATCH_SIZE = 256;
+
+    /** Size of the output buffer in chars*/
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Heading of the park list and search results*/
+    private static final String PARK_HEADING =
+        " ID               Name                        Latitude Longitude\n";
+
+    /** Heading of the nearest parks and parks within radius lists*/
+    private static final String DISTANCE_HEADING =
+        " ID               Name                        Latitude Longitude Distance\n";
+
+    /** Heading of the parks along the trip*/
+    private static final String CORRIDOR_HEADING =
+        " ID               Name                        Latitude Longitude   Detour\n";
+
+    /** Heading of the trip*/
+    private static final String TRIP_HEADING =
+        " ID               Name                        Distance\n";
+
+    /** All the parks, or null if the script runs off heap*/
+    private final ParkCatalog catalog;
+
+    /** All the parks kept off the heap, or null if the script runs on the catalog*/
+    private final OffHeapParkCatalog offHeap;
+
+    /** Cache of keyword search results, since scripts repeat keywords*/
+    private final ParkSearchCache searchCache =
+        new ParkSearchCache(ParkSearchCache.DEFAULT_CAPACITY);
+
+    /** Trip built by the script's trip commands*/
+    private final Trip trip = new Trip();
+
+    /** Pool the read only commands run on, or null to run them all in order*/
+    private final ExecutorService executor;
+
+    /** Read only commands waiting to be run*/
+    private final List<String> pending = new ArrayList<String>();
+
+    /**
+     * Creates a batch runner for a catalog
+     *
+     * @param catalog all the parks
+     * @param threads number of threads for read only commands, 1 to run every
+     *          command on the calling thread
+     * @throws IllegalArgumentException "Null catalog" if catalog is null
+     * @throws IllegalArgumentException "Invalid number of threads" if threads
+     *           is less than 1
+     */
+    public ParkBatch(ParkCatalog catalog, int threads) {
+        this(catalog, null, threads);
+    } //ParkBatch constructor
+
+    /**
+     * Creates a batch runner for a catalog kept off the heap
+     *
+     * @param offHeap all the parks
+     * @param threads number of threads for read only commands, 1 to run every
+     *          command on the calling thread
+     * @throws IllegalArgumentException "Null catalog" if offHeap is null
+     * @throws IllegalArgumentException "Invalid number of threads" if threads
+     *           is less than 1
+     */
+    public ParkBatch(OffHeapParkCatalog offHeap, int threads) {
+        this(null, offHeap, threads);
+    } //ParkBatch constructor
+
+    /**
+     * Creates a batch runner for one of the 2 kinds of catalog
+     *
+     * @param catalog all the parks, or null if offHeap is used
+     * @param offHeap all the parks kept off the heap, or null if catalog is used
+     * @param threads number of threads for read only commands
+     * @throws IllegalArgumentException "Null catalog" if both catalogs are null
+     * @throws IllegalArgumentException "Invalid number of threads" if threads
+     *           is less than 1
+     */
+    private ParkBatch(ParkCatalog catalog, OffHeapParkCatalog offHeap, int threads) {
+
+        //ERROR HANDLING IN USER INTERFACE IF CATALOG IS NULL
+        if (catalog == null && offHeap == null) {
+            throw new IllegalArgumentException("Null catalog");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF NUMBER OF THREADS IS LESS THAN 1
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads");
+        } //if
+
+        this.catalog = catalog;
+        this.offHeap = offHeap;
+        executor = threads == 1 ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "park-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    } //ParkBatch constructor
+
+    /**
+     * Runs every command in a script, stopping early at a Q command
+     *
+     * @param commands the script, one command per line
+     * @param out where the output of the commands is written
+     * @return the number of commands run
+     * @throws IOException if the script cannot be read or out cannot be written to
+     * @throws IllegalArgumentException "Null file" if commands or out is null
+     */
+    public int run(BufferedReader commands, Writer out) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF EITHER FILE IS NULL
+        if (commands == null || out == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        int count = 0;
+        String line;
+        while ((line = commands.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            } //if
+            char option = Character.toUpperCase(line.charAt(0));
+            if (option == 'Q') {
+                break;
+            } //if
+            count++;
+
+            //Read only commands wait to be run together, the rest run in order
+            if (option == 'L' || option == 'S' || option == 'F' || option == 'C' ||
+                option == 'N' || option == 'R') {
+                pending.add(line);
+                if (pending.size() == BATCH_SIZE) {
+                    runPending(out);
+                } //if
+            } //if
+            else {
+                runPending(out);
+                execute(line, out);
+            } //else
+        } //while
+        runPending(out);
+        out.flush();
+        return count;
+    } //run method
+
+    /**
+     * Returns the trip built by the script's trip commands
+     *
+     * @return the trip
+     */
+    public Trip getTrip() {
+        return trip;
+    } //getTrip method
+
+    /**
+     * Stops the thread pool
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        } //if
+    } //close method
+
+    /**
+     * Runs the waiting read only commands and writes their output in order
+     *
+     * @param out where the output is written
+     * @throws IOException if out cannot be written to
+     */
+    private void runPending(Writer out) throws IOException {
+        if (executor == null || pending.size() < 2) {
+            for (String line : pending) {
+                execute(line, out);
+            } //for
+            pending.clear();
+            return;
+        } //if
+
+        List<Future<StringBuilder>> results = new ArrayList<Future<StringBuilder>>(pending.size());
+        for (String line : pending) {
+            results.add(executor.submit(() -> {
+                StringBuilder s = new StringBuilder();
+                execute(line, s);
+                return s;
+            }));
+        } //for
+        pending.clear();
+        for (Future<StringBuilder> result : results) {
+            try {
+                out.append(result.get());
+            } //try
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted");
+            } //catch
+            catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } //if
+                throw new IOException(e.getCause());
+            } //catch
+        } //for
+    } //runPending method
+
+    /**
+     * Runs one command
+     *
+     * @param line the command and its arguments
+     * @param out where the output of the command is written
+     * @throws IOException if out cannot be written to
+     */
+    private void execute(String line, Appendable out) throws IOException {
+        char option = Character.toUpperCase(line.charAt(0));
+        String argument = line.substring(1).strip();
+        String[] arguments = argument.isEmpty() ? new String[0] : argument.split("\\s+");
+
+        //Commands run against a catalog kept off the heap
+        if (offHeap != null) {
+            executeOffHeap(option, argument, arguments, out);
+            return;
+        } //if
+
+        //If the command lists all the parks
+        if (option == 'L') {
+            out.append(PARK_HEADING);
+            Parks.writeParkList(out, 0, Integer.MAX_VALUE, catalog.getIds(), catalog.getNames(),
+                                catalog.getLatitudes(), catalog.getLongitudes());
+        } //if
+
+        //Else if the command searches for parks using a keyword
+        else if (option == 'S') {
+            out.append(PARK_HEADING);
+            Parks.writeSearchResults(out, 0, Integer.MAX_VALUE, argument,
+                                     searchCache.getIndex(catalog.getNameIndex()),
+                                     catalog.getIds(), catalog.getNames(),
+                                     catalog.getLatitudes(), catalog.getLongitudes());
+        } //else if
+
+        //Else if the command searches for parks using a keyword with typos
+        else if (option == 'F') {
+            out.append(PARK_HEADING);
+            Parks.writeFuzzySearchResults(out, 0, Integer.MAX_VALUE, argument,
+                                          ParkFuzzyIndex.DEFAULT_DISTANCE,
+                                          catalog.getFuzzyIndex(), catalog.getIds(),
+                                          catalog.getNames(), catalog.getLatitudes(),
+                                          catalog.getLongitudes());
+        } //else if
+
+        //Else if the command completes a park name from its first letters
+        else if (option == 'C') {
+            out.append(PARK_HEADING);
+            Parks.writeCompletions(out, argument, ParkPrefixIndex.DEFAULT_COUNT,
+                                   catalog.getPrefixIndex(), catalog.getIds(),
+                                   catalog.getNames(), catalog.getLatitudes(),
+                                   catalog.getLongitudes());
+        } //else if
+
+        //Else if the command finds the parks near a location
+        else if (option == 'N' || option == 'R') {
+            double latitude = parseDouble(arguments, 0);
+            double longitude = parseDouble(arguments, 1);
+            double limit = parseDouble(arguments, 2);
+
+            //ERROR HANDLING IN USER INTERFACE IF AN ARGUMENT IS MISSING OR NOT A NUMBER
+            if (Double.isNaN(latitude) || Double.isNaN(longitude) ||
+                Double.isNaN(limit) || (option == 'N' && limit != (int) limit)) {
+                out.append(Double.isNaN(latitude) ? "Invalid latitude\n" :
+                           Double.isNaN(longitude) ? "Invalid longitude\n" :
+                           option == 'N' ? "Invalid number of parks\n" : "Invalid radius\n");
+                out.append('\n');
+                return;
+            } //if
+
+            //String list of the parks found near the location
+            String nearbyParks;
+            try {
+                if (option == 'N') {
+                    nearbyParks = Parks.getNearestParks(latitude, longitude, (int) limit,
+                                                        catalog.getSpatialIndex(),
+                                                        catalog.getIds(), catalog.getNames(),
+                                                        catalog.getLatitudes(),
+                                                        catalog.getLongitudes());
+                } //if
+                else {
+                    DistanceModel model = arguments.length > 3 ?
+                                          DistanceModel.parse(arguments[3]) : DistanceModel.PLANAR;
+                    nearbyParks = Parks.getParksWithinRadius(latitude, longitude, limit, model,
+                                                             catalog.getSpatialIndex(),
+                                                             catalog.getIds(),
+                                                             catalog.getNames(),
+                                                             catalog.getLatitudes(),
+                                                             catalog.getLongitudes());
+                } //else
+            } //try
+            //ERROR HANDLING IN USER INTERFACE IF LOCATION IS NOT ON THE EARTH
+            catch (IllegalArgumentException e) {
+                out.append(e.getMessage()).append("\n\n");
+                return;
+            } //catch
+            out.append(DISTANCE_HEADING);
+            out.append(nearbyParks);
+        } //else if
+
+        //Else if the command adds or inserts a park into the trip
+        else if (option == 'A' || option == 'I') {
+            int parkId = parseInt(arguments, 0);
+            executeAdd(option, arguments, parkId,
+                       arguments.length > 0 ? catalog.indexOf(parkId) : ParkIdIndex.NO_ROW, out);
+        } //else if
+
+        //Else if the command only uses the trip
+        else if (option == 'X' || option == 'M' || option == 'D' || option == 'O') {
+            executeTrip(option, arguments, out);
+        } //else if
+
+        //Else if the command finds the parks along the trip
+        else if (option == 'T') {
+            double radius = parseDouble(arguments, 0);
+            int count = parseInt(arguments, 1);
+
+            //String list of the parks along the trip
+            String tripParks;
+            try {
+                tripParks = Parks.getParksAlongTrip(trip, radius, count,
+                                                    catalog.getSpatialIndex(),
+                                                    catalog.getIds(), catalog.getNames(),
+                                                    catalog.getLatitudes(),
+                                                    catalog.getLongitudes());
+            } //try
+            //ERROR HANDLING IN USER INTERFACE IF DISTANCE OR NUMBER OF PARKS IS INVALID
+            catch (IllegalArgumentException e) {
+                out.append(e.getMessage()).append("\n\n");
+                return;
+            } //catch
+            out.append(CORRIDOR_HEADING);
+            out.append(tripParks);
+        } //else if
+
+        //ERROR HANDLING IN USER INTERFACE IF THE COMMAND IS NOT LISTED
+        else {
+            out.append("Invalid option\n");
+        } //else
+        out.append('\n');
+    } //execute method
+
+    /**
+     * Runs one command against the catalog kept off the heap. The commands that
+     * need an index the catalog does not have write "Not available off heap".
+     *
+     * @param option the command letter
+     * @param argument the rest of the command line
+     * @param arguments the rest of the command line split into words
+     * @param out where the output of the command is written
+     * @throws IOException if out cannot be written to
+     */
+    private void executeOffHeap(char option, String argument, String[] arguments,
+                                Appendable out) throws IOException {
+
+        //If the command lists all the parks
+        if (option == 'L') {
+            out.append(PARK_HEADING);
+            offHeap.writeParkList(out, 0, Integer.MAX_VALUE);
+        } //if
+
+        //Else if the command searches for parks using a keyword
+        else if (option == 'S') {
+            out.append(PARK_HEADING);
+            offHeap.writeSearchResults(out, 0, Integer.MAX_VALUE, argument);
+        } //else if
+
+        //Else if the command finds the parks near a location
+        else if (option == 'N' || option == 'R') {
+            double latitude = parseDouble(arguments, 0);
+            double longitude = parseDouble(arguments, 1);
+            double limit = parseDouble(arguments, 2);
+
+            //ERROR HANDLING IN USER INTERFACE IF AN ARGUMENT IS MISSING OR NOT A NUMBER
+            if (Double.isNaN(latitude) || Double.isNaN(longitude) ||
+                Double.isNaN(limit) || (option == 'N' && limit != (int) limit)) {
+                out.append(Double.isNaN(latitude) ? "Invalid latitude\n" :
+                           Double.isNaN(longitude) ? "Invalid longitude\n" :
+                           option == 'N' ? "Invalid number of parks\n" : "Invalid radius\n");
+                out.append('\n');
+                return;
+            } //if
+
+            //The parks are written to a buffer first, so an invalid location writes no heading
+            StringBuilder nearbyParks = new StringBuilder();
+            try {
+                if (option == 'N') {
+                    offHeap.writeNearestParks(nearbyParks, latitude, longitude, (int) limit);
+                } //if
+                else {
+                    DistanceModel model = arguments.length > 3 ?
+                                          DistanceModel.parse(arguments[3]) : DistanceModel.PLANAR;
+                    offHeap.writeParksWithinRadius(nearbyParks, latitude, longitude, limit,
+                                                   model);
+                } //else
+            } //try
+            //ERROR HANDLING IN USER INTERFACE IF LOCATION IS NOT ON THE EARTH
+            catch (IllegalArgumentException e) {
+                out.append(e.getMessage()).append("\n\n");
+                return;
+            } //catch
+            out.append(DISTANCE_HEADING);
+            out.append(nearbyParks);
+        } //else if
+
+        //Else if the command adds or inserts a park into the trip
+        else if (option == 'A' || option == 'I') {
+            int parkId = parseInt(arguments, 0);
+            executeAdd(option, arguments, parkId,
+                       arguments.length > 0 ? offHeap.indexOf(parkId) : ParkIdIndex.NO_ROW, out);
+        } //else if
+
+        //Else if the command needs an index the catalog does not have
+        else if (option == 'F' || option == 'C' || option == 'T') {
+            out.append("Not available off heap\n");
+        } //else if
+
+        //Else the command only uses the trip
+        else {
+            executeTrip(option, arguments, out);
+        } //else
+        out.append('\n');
+    } //executeOffHeap method
+
+    /**
+     * Adds or inserts a park into the trip, the same against either kind of
+     * catalog once the park's row is looked up. The blank line after the
+     * output is left to the caller.
+     *
+     * @param option the command letter, A to add the park to the end or I to
+     *          insert it at the position in the second argument
+     * @param arguments the rest of the command line split into words
+     * @param parkId id of the park
+     * @param row row of the park in the catalog the script runs against, or
+     *          ParkIdIndex.NO_ROW if no park has the id
+     * @param out where the output of the command is written
+     * @throws IOException if out cannot be written to
+     */
+    private void executeAdd(char option, String[] arguments, int parkId, int row,
+                            Appendable out) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF PARK ID DOESN'T EXIST
+        if (row == ParkIdIndex.NO_ROW) {
+            out.append("Invalid id\n");
+            return;
+        } //if
+
+        //Position of the park in the trip, the end unless it is inserted
+        int position = option == 'A' ? trip.size() : parseInt(arguments, 1) - 1;
+
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS INVALID
+        if (position < 0 || position > trip.size()) {
+            out.append("Invalid position\n");
+            return;
+        } //if
+
+        //Copying the park into the trip from whichever catalog has it
+        if (offHeap != null) {
+            offHeap.addParkToTrip(parkId, position, trip);
+            out.append("Park added to trip: ").append(offHeap.getName(row)).append('\n');
+        } //if
+        else {
+            Parks.addParkToTrip(parkId, position, catalog.getIdIndex(), catalog.getIds(),
+                                catalog.getNames(), catalog.getLatitudes(),
+                                catalog.getLongitudes(), trip);
+            out.append("Park added to trip: ").append(catalog.getNames()[row]).append('\n');
+        } //else
+    } //executeAdd method
+
+    /**
+     * Runs one command that only uses the trip, the same against either kind
+     * of catalog. The blank line after the output is left to the caller.
+     *
+     * @param option the command letter
+     * @param arguments the rest of the command line split into words
+     * @param out where the output of the command is written
+     * @throws IOException if out cannot be written to
+     */
+    private void executeTrip(char option, String[] arguments, Appendable out)
+                             throws IOException {
+
+        //If the command removes a park from the trip
+        if (option == 'X') {
+            int position = parseInt(arguments, 0) - 1;
+
+            //ERROR HANDLING IN USER INTERFACE IF POSITION IS INVALID
+            if (position < 0 || position >= trip.size()) {
+                out.append("Invalid position\n");
+                return;
+            } //if
+            String removedParkName = trip.getName(position);
+            trip.remove(position);
+            out.append("Park removed from trip: ").append(removedParkName).append('\n');
+        } //if
+
+        //Else if the command moves a park to another place in the trip
+        else if (option == 'M') {
+            int from = parseInt(arguments, 0) - 1;
+            int to = parseInt(arguments, 1) - 1;
+
+            //ERROR HANDLING IN USER INTERFACE IF EITHER POSITION IS INVALID
+            if (from < 0 || from >= trip.size() || to < 0 || to >= trip.size()) {
+                out.append("Invalid position\n");
+                return;
+            } //if
+            trip.move(from, to);
+            out.append("Park moved in trip: ").append(trip.getName(to)).append('\n');
+        } //else if
+
+        //Else if the command displays the trip
+        else if (option == 'D') {
+            out.append(TRIP_HEADING);
+            Parks.writeTrip(out, 0, Integer.MAX_VALUE, trip);
+        } //else if
+
+        //Else if the command reorders the trip to make it shorter
+        else if (option == 'O') {
+            Parks.optimizeTrip(trip);
+            out.append(String.format("Trip optimized: %.2f miles\n", trip.getTotalDistance()));
+        } //else if
+
+        //ERROR HANDLING IN USER INTERFACE IF THE COMMAND IS NOT LISTED
+        else {
+            out.append("Invalid option\n");
+        } //else
+    } //executeTrip method
+
+    /**
+     * Reads a whole number argument
+     *
+     * @param arguments the command's arguments
+     * @param i which argument
+     * @return the number, or Integer.MIN_VALUE if it is missing or not a
+     *         whole number
+     */
+    private static int parseInt(String[] arguments, int i) {
+        try {
+            return i < arguments.length ? Integer.parseInt(arguments[i]) : Integer.MIN_VALUE;
+        } //try
+        catch (NumberFormatException e) {
+            return Integer.MIN_VALUE;
+        } //catch
+    } //parseInt method
+
+    /**
+     * Reads a decimal number argument
+     *
+     * @param arguments the command's arguments
+     * @param i which argument
+     * @return the number, or NaN if it is missing or not a number
+     */
+    private static double parseDouble(String[] arguments, int i) {
+        try {
+            return i < arguments.length ? Double.parseDouble(arguments[i]) : Double.NaN;
+        } //try
+        catch (NumberFormatException e) {
+            return Double.NaN;
+        } //catch
+    } //parseDouble method
+
+    /**
+     * Loads a park file and runs a command script against it, writing the
+     * output to the console and the trip to an optional trip file
+     *
+     * @param args optional "-threads n", optional "-offheap", the park file,
+     *          the command script or "-" for standard input, and an optional
+     *          trip file
+     */
+    public static void main(String[] args) {
+
+        //Number of threads for read only commands
+        int threads = Runtime.getRuntime().availableProcessors();
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("-threads")) {
+            try {
+                threads = Integer.parseInt(args[1]);
+            } //try
+            catch (NumberFormatException e) {
+                threads = 0;
+            } //catch
+            first = 2;
+        } //if
+
+        //Whether the parks are kept off the heap
+        boolean offHeap = args.length > first && args[first].equals("-offheap");
+        if (offHeap) {
+            first++;
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF NOT 2 OR 3 ARGUMENTS
+        if (args.length - first < 2 || args.length - first > 3 || threads < 1) {
+            System.out.println("Usage: java -cp bin ParkBatch [-threads n] [-offheap] " +
+                               "parkfile commandfile [tripfile]");
+            System.exit(1);
+        } //if
+
+        //Metrics file writer asked for by the system properties, or null
+        ParkMetricsReporter metrics = null;
+        try {
+            metrics = ParkMetrics.startFromProperties();
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF METRICS PERIOD IS INVALID
+        catch (IllegalArgumentException e) {
+            System.out.println("Invalid metrics period");
+            System.exit(1);
+        } //catch
+
+        //Error file the system properties ask for, which makes the load lenient, or null
+        ParkErrorLog errors = null;
+        try {
+            errors = ParkErrorLog.fromProperties();
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF ERROR FILE CANNOT BE MADE
+        catch (IOException | InvalidPathException e) {
+            System.out.println("Cannot create error file");
+            System.exit(1);
+        } //catch
+        //ERROR HANDLING IN USER INTERFACE IF ERROR BUDGET IS INVALID
+        catch (IllegalArgumentException e) {
+            System.out.println("Invalid error budget");
+            System.exit(1);
+        } //catch
+
+        //All the parks from input file, on the heap or off it
+        ParkCatalog catalog = null;
+        OffHeapParkCatalog offHeapCatalog = null;
+        try {
+            if (offHeap) {
+                offHeapCatalog = ParkSnapshot.openParks(Path.of(args[first]), errors);
+            } //if
+            else {
+                catalog = ParkSnapshot.loadParks(Path.of(args[first]), errors);
+            } //else
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF FILE IS INACCESSIBLE
+        catch (IOException | InvalidPathException e) {
+            System.out.println("Unable to access park file: " + args[first]);
+            System.exit(1);
+        } //catch
+
+        //ERROR HANDLING IN USER INTERFACE IF MORE ROWS ARE INVALID THAN THE BUDGET ALLOWS
+        if (errors != null && errors.isExceeded()) {
+            System.out.println("Too many invalid rows, see " + errors.getFile());
+            System.exit(1);
+        } //if
+        if (errors != null && errors.getCount() > 0) {
+            System.out.println("Skipped " + errors.getCount() + " invalid rows, see " +
+                               errors.getFile());
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS INVALID OR EMPTY
+        int size = offHeap ? (offHeapCatalog == null ? -1 : offHeapCatalog.size()) :
+                             (catalog == null ? -1 : catalog.size());
+        if (size <= 0) {
+            System.out.println(size < 0 ? "Invalid park file" : "Empty park file");
+            System.exit(1);
+        } //if
+
+        String script = args[first + 1];
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE);
+        try (ParkBatch batch = offHeap ? new ParkBatch(offHeapCatalog, threads) :
+                                         new ParkBatch(catalog, threads);
+             BufferedReader commands = script.equals("-") ?
+                 new BufferedReader(new InputStreamReader(System.in)) :
+                 Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8)) {
+            batch.run(commands, out);
+
+            //Making output file of the script's trip
+            if (args.length - first == 3) {
+                Parks.outputTrip(new PrintWriter(new FileOutputStream(args[first + 2])),
+                                 batch.getTrip());
+            } //if
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF A FILE IS INACCESSIBLE
+        catch (IOException | InvalidPathException e) {
+            System.out.println("Unable to run command file: " + script);
+            System.exit(1);
+        } //catch
+        if (metrics != null) {
+            metrics.close();
+        } //if
+    } //main method
+} //ParkBatch class
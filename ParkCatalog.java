@@ -0,0 +1,391 @@
+import java.util.function.*;
+
+/**
+ * Holds the ids, names, latitudes, and longitudes of all the parks loaded
+ * from a park file as parallel columns, one row per park. The name index,
+ * fuzzy name index, prefix index, spatial index, and distance kernel are
+ * built the first time they are asked for, so a catalog that is only listed
+ * or looked up by id starts quickly. A catalog read from a snapshot also decodes its names
+ * only when they are first asked for. The columns are never changed once the catalog is made,
+ * so one catalog can be read by many threads at once.
+ */
+public class ParkCatalog {
+
+    /** Park ids, one per row*/
+    private final int[] ids;
+
+    /** Park names, one per row, or null until they are first asked for*/
+    private volatile String[] names;
+
+    /** Decodes the park names the first time they are asked for, or null once they are*/
+    private Supplier<String[]> nameSource;
+
+    /** Park latitudes, one per row*/
+    private final double[] latitudes;
+
+    /** Park longitudes, one per row*/
+    private final double[] longitudes;
+
+    /** Index from park id to row*/
+    private final ParkIdLookup idIndex;
+
+    /** Trigram index over the park names, or null until it is first asked for*/
+    private volatile ParkNameSearch nameIndex;
+
+    /** Typo tolerant index over the park names, or null until it is first asked for*/
+    private volatile ParkFuzzyIndex fuzzyIndex;
+
+    /** Prefix index over the park names, or null until it is first asked for*/
+    private volatile ParkPrefixIndex prefixIndex;
+
+    /** K-d tree over the park coordinates, or null until it is first asked for*/
+    private volatile ParkSpatialIndex spatialIndex;
+
+    /** Batch distance kernel over the park coordinates, or null until it is first asked for*/
+    private volatile DistanceKernel distanceKernel;
+
+    /**
+     * Creates a catalog over the given columns and indexes their ids. The
+     * arrays are used as-is, not copied.
+     *
+     * @param ids array of all the park ids
+     * @param names array of all the park names
+     * @param latitudes array of all the park latitudes
+     * @param longitudes array of all the park longitudes
+     * @throws IllegalArgumentException "Null array" if any of the array
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length
+     * @throws IllegalArgumentException "Duplicate id" if 2 or more parks have
+     *           the same id
+     * @throws IllegalArgumentException "Invalid latitude" or "Invalid longitude"
+     *           if a park is not on the earth
+     */
+    public ParkCatalog(int[] ids, String[] names, double[] latitudes, double[] longitudes) {
+        this(ids, names, latitudes, longitudes, ids == null ? null : ParkIdIndex.build(ids));
+
+        //ERROR HANDLING IN USER INTERFACE IF 2 OR MORE PARKS HAVE THE SAME ID
+        if (idIndex == null) {
+            throw new IllegalArgumentException("Duplicate id");
+        } //if
+    } //ParkCatalog constructor
+
+    /**
+     * Creates a catalog over the given columns with an id index that was
+     * already built while loading them. The arrays are used as-is, not copied.
+     *
+     * @param ids array of all the park ids
+     * @param names array of all the park names
+     * @param latitudes array of all the park latitudes
+     * @param longitudes array of all the park longitudes
+     * @param idIndex index from each id in ids to its row
+     * @throws IllegalArgumentException "Null array" if any of the array
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length
+     * @throws IllegalArgumentException "Invalid latitude" or "Invalid longitude"
+     *           if a park is not on the earth
+     */
+    ParkCatalog(int[] ids, String[] names, double[] latitudes, double[] longitudes,
+                ParkIdLookup idIndex) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null ||
+            latitudes == null || longitudes == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length != names.length ||
+            names.length != latitudes.length ||
+            latitudes.length != longitudes.length) {
+
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        //Checking the coordinates now so a bad park is not found later by a lazy index
+        for (int i = 0; i < latitudes.length; i++) {
+
+            //ERROR HANDLING IN USER INTERFACE IF LATITUDE IS TOO SMALL OR TOO LARGE
+            if (latitudes[i] < Parks.LATITUDE_MIN_DEGREES ||
+                latitudes[i] > Parks.LATITUDE_MAX_DEGREES) {
+
+                throw new IllegalArgumentException("Invalid latitude");
+            } //if
+
+            //ERROR HANDLING IN USER INTERFACE IF LONGITUDE IS TOO SMALL OR TOO LARGE
+            if (longitudes[i] < Parks.LONGITUDE_MIN_DEGREES ||
+                longitudes[i] > Parks.LONGITUDE_MAX_DEGREES) {
+
+                throw new IllegalArgumentException("Invalid longitude");
+            } //if
+        } //for
+
+        this.ids = ids;
+        this.names = names;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.idIndex = idIndex;
+    } //ParkCatalog constructor
+
+    /**
+     * Creates a catalog over the given columns whose names are decoded the
+     * first time they are asked for. The columns must already be checked, as
+     * they are when read from a snapshot. The arrays are used as-is, not copied.
+     *
+     * @param ids array of all the park ids
+     * @param nameSource decodes the array of all the park names, called at most once
+     * @param latitudes array of all the park latitudes
+     * @param longitudes array of all the park longitudes
+     * @param idIndex index from each id in ids to its row
+     */
+    ParkCatalog(int[] ids, Supplier<String[]> nameSource, double[] latitudes,
+                double[] longitudes, ParkIdLookup idIndex) {
+        this.ids = ids;
+        this.nameSource = nameSource;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.idIndex = idIndex;
+    } //ParkCatalog constructor
+
+    /**
+     * Creates a catalog over the given columns with indexes that were already
+     * built for them, such as by applying changes to another catalog. The
+     * columns must already be checked. The arrays are used as-is, not copied.
+     *
+     * @param ids array of all the park ids
+     * @param names array of all the park names
+     * @param latitudes array of all the park latitudes
+     * @param longitudes array of all the park longitudes
+     * @param idIndex index from each id in ids to its row
+     * @param nameIndex index over the names, or null to build it when first asked for
+     * @param spatialIndex index over the coordinates, or null to build it when
+     *          first asked for
+     */
+    ParkCatalog(int[] ids, String[] names, double[] latitudes, double[] longitudes,
+                ParkIdLookup idIndex, ParkNameSearch nameIndex, ParkSpatialIndex spatialIndex) {
+        this.ids = ids;
+        this.names = names;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.idIndex = idIndex;
+        this.nameIndex = nameIndex;
+        this.spatialIndex = spatialIndex;
+    } //ParkCatalog constructor
+
+    /**
+     * Returns the number of parks in the catalog
+     *
+     * @return the number of parks
+     */
+    public int size() {
+        return ids.length;
+    } //size method
+
+    /**
+     * Finds the row of a park id
+     *
+     * @param id the park id to look up
+     * @return the row of the park, or -1 if no park has that id
+     */
+    public int indexOf(int id) {
+        return idIndex.get(id);
+    } //indexOf method
+
+    /**
+     * Returns the index from park id to row
+     *
+     * @return the id index
+     */
+    public ParkIdLookup getIdIndex() {
+        return idIndex;
+    } //getIdIndex method
+
+    /**
+     * Returns a plain index from park id to row, for saving the index
+     *
+     * @return the id index, or a plain copy of it if it was made by applying
+     *         changes to another catalog
+     */
+    ParkIdIndex getPlainIdIndex() {
+        return idIndex instanceof PatchedIdIndex ?
+               ((PatchedIdIndex) idIndex).compact() : (ParkIdIndex) idIndex;
+    } //getPlainIdIndex method
+
+    /**
+     * Returns the trigram index over the park names, building it the first time
+     *
+     * @return the name index
+     */
+    public ParkNameSearch getNameIndex() {
+        ParkNameSearch index = nameIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = nameIndex;
+                if (index == null) {
+                    index = new ParkNameIndex(getNames());
+                    nameIndex = index;
+                } //if
+            } //synchronized
+        } //if
+        return index;
+    } //getNameIndex method
+
+    /**
+     * Returns the typo tolerant index over the park names, building it the
+     * first time
+     *
+     * @return the fuzzy index
+     */
+    public ParkFuzzyIndex getFuzzyIndex() {
+        ParkFuzzyIndex index = fuzzyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = fuzzyIndex;
+                if (index == null) {
+                    index = new ParkFuzzyIndex(getNames());
+                    fuzzyIndex = index;
+                } //if
+            } //synchronized
+        } //if
+        return index;
+    } //getFuzzyIndex method
+
+    /**
+     * Returns the prefix index over the park names, building it the first time
+     *
+     * @return the prefix index
+     */
+    public ParkPrefixIndex getPrefixIndex() {
+        ParkPrefixIndex index = prefixIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = prefixIndex;
+                if (index == null) {
+                    index = new ParkPrefixIndex(getNames());
+                    prefixIndex = index;
+                } //if
+            } //synchronized
+        } //if
+        return index;
+    } //getPrefixIndex method
+
+    /**
+     * Returns the trigram index over the park names if it has been built
+     *
+     * @return the name index, or null if it has not been asked for yet
+     */
+    ParkNameSearch getBuiltNameIndex() {
+        return nameIndex;
+    } //getBuiltNameIndex method
+
+    /**
+     * Returns the k-d tree over the park coordinates if it has been built
+     *
+     * @return the spatial index, or null if it has not been asked for yet
+     */
+    ParkSpatialIndex getBuiltSpatialIndex() {
+        return spatialIndex;
+    } //getBuiltSpatialIndex method
+
+    /**
+     * Returns the k-d tree over the park coordinates, building it the first time
+     *
+     * @return the spatial index
+     */
+    public ParkSpatialIndex getSpatialIndex() {
+        ParkSpatialIndex index = spatialIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = spatialIndex;
+                if (index == null) {
+                    index = new ParkSpatialIndex(latitudes, longitudes);
+                    spatialIndex = index;
+                } //if
+            } //synchronized
+        } //if
+        return index;
+    } //getSpatialIndex method
+
+    /**
+     * Returns the batch distance kernel over the park coordinates, building it
+     * the first time
+     *
+     * @return the distance kernel
+     */
+    public DistanceKernel getDistanceKernel() {
+        DistanceKernel kernel = distanceKernel;
+        if (kernel == null) {
+            synchronized (this) {
+                kernel = distanceKernel;
+                if (kernel == null) {
+                    kernel = new DistanceKernel(latitudes, longitudes);
+                    distanceKernel = kernel;
+                } //if
+            } //synchronized
+        } //if
+        return kernel;
+    } //getDistanceKernel method
+
+    /**
+     * Decodes the names and builds every index now instead of the first time
+     * each is asked for, so a catalog can be made ready before it is shared
+     */
+    public void buildIndexes() {
+        getNames();
+        getNameIndex();
+        getFuzzyIndex();
+        getPrefixIndex();
+        getSpatialIndex();
+        getDistanceKernel();
+    } //buildIndexes method
+
+    /**
+     * Returns the park ids column
+     *
+     * @return array of all the park ids
+     */
+    public int[] getIds() {
+        return ids;
+    } //getIds method
+
+    /**
+     * Returns the park names column, decoding it the first time if the catalog
+     * was read from a snapshot
+     *
+     * @return array of all the park names
+     */
+    public String[] getNames() {
+        String[] column = names;
+        if (column == null) {
+            synchronized (this) {
+                column = names;
+                if (column == null) {
+                    column = nameSource.get();
+                    names = column;
+                    nameSource = null;
+                } //if
+            } //synchronized
+        } //if
+        return column;
+    } //getNames method
+
+    /**
+     * Returns the park latitudes column
+     *
+     * @return array of all the park latitudes
+     */
+    public double[] getLatitudes() {
+        return latitudes;
+    } //getLatitudes method
+
+    /**
+     * Returns the park longitudes column
+     *
+     * @return array of all the park longitudes
+     */
+    public double[] getLongitudes() {
+        return longitudes;
+    } //getLongitudes method
+} //ParkCatalog class
@@ -0,0 +1,327 @@
+import java.util.*;
+
+/**
+ * The parks added, updated, and deleted between a loaded catalog and a new
+ * version of its park file, matched by park id, and the catalog made by
+ * applying only those changes.
+ *
+ * The new catalog keeps the parks that were not deleted in the same rows
+ * order, updates parks in their rows, and adds new parks at the end. Its id,
+ * name, and spatial indexes are the old catalog's indexes with a RowPatch and a
+ * small index over the changed rows on top, so applying a change costs about
+ * as much as the change instead of as much as building the indexes again. The
+ * columns are still copied, which is far cheaper than indexing. Once the
+ * changes on top of an index pass REBUILD_FRACTION of the parks, that index is
+ * built again from the new columns.
+ */
+public class ParkCatalogDiff {
+
+    /** Changes on top of an index that are always patched, however few parks there are*/
+    public static final int MIN_REBUILD_CHANGES = 1024;
+
+    /** Fraction of the parks that can be changes on top of an index before it is built again*/
+    public static final double REBUILD_FRACTION = 0.125;
+
+    /** The loaded catalog*/
+    private final ParkCatalog oldCatalog;
+
+    /** The catalog read from the new version of the park file*/
+    private final ParkCatalog newCatalog;
+
+    /** Old rows of the deleted parks, in ascending order*/
+    private final int[] deletedRows;
+
+    /** Old rows of the updated parks, in ascending order*/
+    private final int[] updatedRows;
+
+    /** Rows of the added parks in the new version, in ascending order*/
+    private final int[] addedRows;
+
+    /**
+     * Creates a diff
+     *
+     * @param oldCatalog the loaded catalog
+     * @param newCatalog the catalog read from the new version of the park file
+     * @param deletedRows old rows of the deleted parks
+     * @param updatedRows old rows of the updated parks
+     * @param addedRows rows of the added parks in the new version
+     */
+    private ParkCatalogDiff(ParkCatalog oldCatalog, ParkCatalog newCatalog, int[] deletedRows,
+                            int[] updatedRows, int[] addedRows) {
+        this.oldCatalog = oldCatalog;
+        this.newCatalog = newCatalog;
+        this.deletedRows = deletedRows;
+        this.updatedRows = updatedRows;
+        this.addedRows = addedRows;
+    } //ParkCatalogDiff constructor
+
+    /**
+     * Finds the parks that were added, updated, or deleted
+     *
+     * @param oldCatalog the loaded catalog
+     * @param newCatalog the catalog read from the new version of the park file
+     * @return the changes between them
+     * @throws IllegalArgumentException "Null catalog" if either catalog is null
+     */
+    public static ParkCatalogDiff compare(ParkCatalog oldCatalog, ParkCatalog newCatalog) {
+
+        //ERROR HANDLING IN USER INTERFACE IF EITHER CATALOG IS NULL
+        if (oldCatalog == null || newCatalog == null) {
+            throw new IllegalArgumentException("Null catalog");
+        } //if
+
+        int[] oldIds = oldCatalog.getIds();
+        String[] oldNames = oldCatalog.getNames();
+        double[] oldLatitudes = oldCatalog.getLatitudes();
+        double[] oldLongitudes = oldCatalog.getLongitudes();
+        int[] newIds = newCatalog.getIds();
+        String[] newNames = newCatalog.getNames();
+        double[] newLatitudes = newCatalog.getLatitudes();
+        double[] newLongitudes = newCatalog.getLongitudes();
+
+        //Matching each old park to the new park with its id
+        int[] deleted = new int[16];
+        int deletedCount = 0;
+        int[] updated = new int[16];
+        int updatedCount = 0;
+        for (int row = 0; row < oldIds.length; row++) {
+            int newRow = newCatalog.indexOf(oldIds[row]);
+            if (newRow == ParkIdIndex.NO_ROW) {
+                if (deletedCount == deleted.length) {
+                    deleted = Arrays.copyOf(deleted, deletedCount * 2);
+                } //if
+                deleted[deletedCount++] = row;
+            } //if
+            else if (!oldNames[row].equals(newNames[newRow]) ||
+                     Double.compare(oldLatitudes[row], newLatitudes[newRow]) != 0 ||
+                     Double.compare(oldLongitudes[row], newLongitudes[newRow]) != 0) {
+                if (updatedCount == updated.length) {
+                    updated = Arrays.copyOf(updated, updatedCount * 2);
+                } //if
+                updated[updatedCount++] = row;
+            } //else if
+        } //for
+
+        //New parks whose ids are not in the old catalog
+        int[] added = new int[16];
+        int addedCount = 0;
+        if (newIds.length != oldIds.length - deletedCount) {
+            for (int row = 0; row < newIds.length; row++) {
+                if (oldCatalog.indexOf(newIds[row]) == ParkIdIndex.NO_ROW) {
+                    if (addedCount == added.length) {
+                        added = Arrays.copyOf(added, addedCount * 2);
+                    } //if
+                    added[addedCount++] = row;
+                } //if
+            } //for
+        } //if
+
+        return new ParkCatalogDiff(oldCatalog, newCatalog, Arrays.copyOf(deleted, deletedCount),
+                                   Arrays.copyOf(updated, updatedCount),
+                                   Arrays.copyOf(added, addedCount));
+    } //compare method
+
+    /**
+     * Returns the number of parks that were added
+     *
+     * @return the number of added parks
+     */
+    public int getAddedCount() {
+        return addedRows.length;
+    } //getAddedCount method
+
+    /**
+     * Returns the number of parks whose name or coordinates changed
+     *
+     * @return the number of updated parks
+     */
+    public int getUpdatedCount() {
+        return updatedRows.length;
+    } //getUpdatedCount method
+
+    /**
+     * Returns the number of parks that were deleted
+     *
+     * @return the number of deleted parks
+     */
+    public int getDeletedCount() {
+        return deletedRows.length;
+    } //getDeletedCount method
+
+    /**
+     * Checks if anything changed
+     *
+     * @return true if no park was added, updated, or deleted
+     */
+    public boolean isEmpty() {
+        return addedRows.length == 0 && updatedRows.length == 0 && deletedRows.length == 0;
+    } //isEmpty method
+
+    /**
+     * Makes the catalog with the changes applied to the loaded catalog, patching
+     * the indexes the loaded catalog has built
+     *
+     * @return the new catalog, or the loaded catalog if nothing changed
+     */
+    public ParkCatalog apply() {
+        if (isEmpty()) {
+            return oldCatalog;
+        } //if
+
+        int oldSize = oldCatalog.size();
+        int size = oldSize - deletedRows.length + addedRows.length;
+        int[] ids = new int[size];
+        String[] names = new String[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+
+        //Copying the runs of old rows between the deleted ones
+        int from = 0;
+        int to = 0;
+        for (int i = 0; i <= deletedRows.length; i++) {
+            int end = i < deletedRows.length ? deletedRows[i] : oldSize;
+            copyRows(oldCatalog, from, ids, names, latitudes, longitudes, to, end - from);
+            to += end - from;
+            from = end + 1;
+        } //for
+
+        //Updating parks in place and adding new ones at the end
+        for (int oldRow : updatedRows) {
+            int row = oldRow - RowPatch.countBelow(deletedRows, oldRow);
+            copyRows(newCatalog, newCatalog.indexOf(ids[row]), ids, names, latitudes,
+                     longitudes, row, 1);
+        } //for
+        for (int i = 0; i < addedRows.length; i++) {
+            copyRows(newCatalog, addedRows[i], ids, names, latitudes, longitudes, to + i, 1);
+        } //for
+
+        //Patching the id index, which every catalog has
+        ParkIdLookup oldIdIndex = oldCatalog.getIdIndex();
+        RowPatch idPatch = oldIdIndex instanceof PatchedIdIndex ?
+                           ((PatchedIdIndex) oldIdIndex).getPatch() : RowPatch.identity(oldSize);
+        ParkIdIndex baseIdIndex = oldIdIndex instanceof PatchedIdIndex ?
+                                  ((PatchedIdIndex) oldIdIndex).getBase() :
+                                  (ParkIdIndex) oldIdIndex;
+        idPatch = patch(idPatch);
+        ParkIdLookup idIndex = needsRebuild(idPatch) ? ParkIdIndex.build(ids) :
+                              new PatchedIdIndex(baseIdIndex, idPatch, ids);
+
+        //Patching the name index if it was built
+        ParkNameSearch nameIndex = oldCatalog.getBuiltNameIndex();
+        if (nameIndex != null) {
+            RowPatch namePatch = nameIndex instanceof PatchedNameIndex ?
+                                 ((PatchedNameIndex) nameIndex).getPatch() :
+                                 RowPatch.identity(oldSize);
+            ParkNameIndex baseNameIndex = nameIndex instanceof PatchedNameIndex ?
+                                          ((PatchedNameIndex) nameIndex).getBase() :
+                                          (ParkNameIndex) nameIndex;
+            namePatch = patch(namePatch);
+            nameIndex = needsRebuild(namePatch) ? new ParkNameIndex(names) :
+                        new PatchedNameIndex(baseNameIndex, namePatch, names);
+        } //if
+
+        //Patching the spatial index if it was built
+        ParkSpatialIndex spatialIndex = oldCatalog.getBuiltSpatialIndex();
+        if (spatialIndex != null) {
+            RowPatch spatialPatch = spatialIndex instanceof PatchedSpatialIndex ?
+                                    ((PatchedSpatialIndex) spatialIndex).getPatch() :
+                                    RowPatch.identity(oldSize);
+            ParkSpatialIndex baseSpatialIndex = spatialIndex instanceof PatchedSpatialIndex ?
+                                                ((PatchedSpatialIndex) spatialIndex).getBase() :
+                                                spatialIndex;
+            spatialPatch = patch(spatialPatch);
+            if (needsRebuild(spatialPatch)) {
+                spatialIndex = new ParkSpatialIndex(latitudes, longitudes);
+            } //if
+            else {
+                spatialIndex = new PatchedSpatialIndex(baseSpatialIndex, spatialPatch, latitudes,
+                                                       longitudes,
+                                                       spatialSize(spatialIndex.size(),
+                                                                   latitudes, longitudes));
+            } //else
+        } //if
+
+        return new ParkCatalog(ids, names, latitudes, longitudes, idIndex, nameIndex,
+                               spatialIndex);
+    } //apply method
+
+    /**
+     * Adds these changes to a patch from some base catalog to the loaded catalog
+     *
+     * @param patch the patch to the loaded catalog
+     * @return the patch from the same base to the new catalog
+     */
+    private RowPatch patch(RowPatch patch) {
+        return patch.apply(deletedRows, updatedRows, addedRows.length);
+    } //patch method
+
+    /**
+     * Checks if an index has so many changes on top of it that it should be
+     * built again
+     *
+     * @param patch the index's patch
+     * @return true if the index should be built again
+     */
+    private static boolean needsRebuild(RowPatch patch) {
+        return patch.changeCount() > Math.max(MIN_REBUILD_CHANGES,
+                                              (long) (patch.size() * REBUILD_FRACTION));
+    } //needsRebuild method
+
+    /**
+     * Counts the parks with no NaN coordinate in the new catalog from the count
+     * in the loaded catalog
+     *
+     * @param oldSize number of parks in the loaded catalog's spatial index
+     * @param latitudes array of all the new park latitudes
+     * @param longitudes array of all the new park longitudes
+     * @return number of parks in the new catalog's spatial index
+     */
+    private int spatialSize(int oldSize, double[] latitudes, double[] longitudes) {
+        double[] oldLatitudes = oldCatalog.getLatitudes();
+        double[] oldLongitudes = oldCatalog.getLongitudes();
+        int size = oldSize;
+        for (int row : deletedRows) {
+            size -= isIndexed(oldLatitudes[row], oldLongitudes[row]) ? 1 : 0;
+        } //for
+        for (int oldRow : updatedRows) {
+            int row = oldRow - RowPatch.countBelow(deletedRows, oldRow);
+            size -= isIndexed(oldLatitudes[oldRow], oldLongitudes[oldRow]) ? 1 : 0;
+            size += isIndexed(latitudes[row], longitudes[row]) ? 1 : 0;
+        } //for
+        for (int row = latitudes.length - addedRows.length; row < latitudes.length; row++) {
+            size += isIndexed(latitudes[row], longitudes[row]) ? 1 : 0;
+        } //for
+        return size;
+    } //spatialSize method
+
+    /**
+     * Checks if a spatial index holds a park
+     *
+     * @param latitude latitude of the park
+     * @param longitude longitude of the park
+     * @return true if neither coordinate is NaN
+     */
+    private static boolean isIndexed(double latitude, double longitude) {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    } //isIndexed method
+
+    /**
+     * Copies rows of a catalog into columns
+     *
+     * @param catalog the catalog
+     * @param from first row to copy
+     * @param ids park ids column copied into
+     * @param names park names column copied into
+     * @param latitudes park latitudes column copied into
+     * @param longitudes park longitudes column copied into
+     * @param to row of the columns the first row is copied into
+     * @param count number of rows
+     */
+    private static void copyRows(ParkCatalog catalog, int from, int[] ids, String[] names,
+                                 double[] latitudes, double[] longitudes, int to, int count) {
+        System.arraycopy(catalog.getIds(), from, ids, to, count);
+        System.arraycopy(catalog.getNames(), from, names, to, count);
+        System.arraycopy(catalog.getLatitudes(), from, latitudes, to, count);
+        System.arraycopy(catalog.getLongitudes(), from, longitudes, to, count);
+    } //copyRows method
+} //ParkCatalogDiff class
@@ -0,0 +1,174 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Error file of a lenient load. A lenient load skips the rows of a park file
+ * that cannot be loaded instead of rejecting the whole file, and each skipped
+ * row is written here through a buffer as its line number, the reason, and
+ * the row as it is in the file:
+ *
+ * <pre>
+ * line,reason,row
+ * 17,Invalid latitude,231,Lake Lure,abc,-82.2
+ * 40,Duplicate id,198,Carolina Beach State Park,34.04,-77.91
+ * </pre>
+ *
+ * The load gives up once more rows than the error budget are skipped, since a
+ * file that is mostly bad is more likely the wrong file than a few bad rows.
+ */
+public class ParkErrorLog implements AutoCloseable {
+
+    /** System property naming the error file, which makes the mains load leniently*/
+    public static final String FILE_PROPERTY = "parks.load.errors";
+
+    /** System property with the most rows a lenient load may skip*/
+    public static final String BUDGET_PROPERTY = "parks.load.errorBudget";
+
+    /** Most rows a lenient load may skip when no budget is given*/
+    public static final int DEFAULT_BUDGET = 1000;
+
+    /** Reason for each ParkLoader.ROW_ status, by status*/
+    private static final String[] REASONS = {
+        "Valid", "Invalid field count", "Invalid id", "Invalid latitude", "Invalid longitude",
+        "Out of range", "Duplicate id"
+    };
+
+    /** Size of the write buffer in chars*/
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Path of the error file*/
+    private final Path file;
+
+    /** Most rows that may be skipped*/
+    private final int budget;
+
+    /** Writer of the error file*/
+    private final Writer out;
+
+    /** Number of rows skipped so far*/
+    private long count;
+
+    /**
+     * Creates the error file, replacing any file already there
+     *
+     * @param file path of the error file
+     * @param budget most rows that may be skipped
+     * @throws IOException if the file cannot be created
+     * @throws IllegalArgumentException "Null file" if file is null
+     * @throws IllegalArgumentException "Invalid budget" if budget is less than 0
+     */
+    public ParkErrorLog(Path file, int budget) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF FILE IS NULL
+        if (file == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF BUDGET IS LESS THAN 0
+        if (budget < 0) {
+            throw new IllegalArgumentException("Invalid budget");
+        } //if
+
+        this.file = file;
+        this.budget = budget;
+        out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file),
+                                                        StandardCharsets.UTF_8), BUFFER_SIZE);
+        out.write("line,reason,row\n");
+    } //ParkErrorLog constructor
+
+    /**
+     * Writes a skipped row
+     *
+     * @param line line number of the row, counting from 1
+     * @param status why the row was skipped, one of the ParkLoader.ROW_ statuses
+     * @param bytes bytes holding the row
+     * @param start index of the first byte of the row
+     * @param end index after the last byte of the row, excluding the terminator
+     * @return true if the load may go on, false if the budget is used up
+     * @throws IOException if the error file cannot be written
+     */
+    public boolean reject(long line, int status, byte[] bytes, int start, int end)
+                          throws IOException {
+        count++;
+        out.write(Long.toString(line));
+        out.write(',');
+        out.write(reason(status));
+        out.write(',');
+        out.write(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        out.write('\n');
+        return count <= budget;
+    } //reject method
+
+    /**
+     * Returns the number of rows skipped so far
+     *
+     * @return the number of rows
+     */
+    public long getCount() {
+        return count;
+    } //getCount method
+
+    /**
+     * Checks if more rows were skipped than the budget allows
+     *
+     * @return true if the load gave up
+     */
+    public boolean isExceeded() {
+        return count > budget;
+    } //isExceeded method
+
+    /**
+     * Returns the path of the error file
+     *
+     * @return the path
+     */
+    public Path getFile() {
+        return file;
+    } //getFile method
+
+    /**
+     * Writes out the rest of the error file and closes it
+     *
+     * @throws IOException if the error file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    } //close method
+
+    /**
+     * Describes why a row was skipped
+     *
+     * @param status one of the ParkLoader.ROW_ statuses
+     * @return the reason
+     */
+    public static String reason(int status) {
+        return status > 0 && status < REASONS.length ? REASONS[status] : "Invalid row";
+    } //reason method
+
+    /**
+     * Creates the error file the system properties ask for
+     *
+     * @return the error file, or null if FILE_PROPERTY is not set
+     * @throws IOException if the file cannot be created
+     * @throws IllegalArgumentException "Invalid budget" if BUDGET_PROPERTY is
+     *           not a whole number of 0 or more
+     */
+    public static ParkErrorLog fromProperties() throws IOException {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return null;
+        } //if
+        int budget = -1;
+        try {
+            budget = Integer.parseInt(System.getProperty(BUDGET_PROPERTY,
+                                                         Integer.toString(DEFAULT_BUDGET)));
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF BUDGET IS NOT A NUMBER
+        catch (NumberFormatException e) {
+            budget = -1;
+        } //catch
+        return new ParkErrorLog(Path.of(file), budget);
+    } //fromProperties method
+} //ParkErrorLog class
@@ -0,0 +1,143 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a live catalog's park file and updates the catalog with the parks
+ * that changed each time the file is saved. The file's directory is watched,
+ * since a WatchService cannot watch a single file, and events for other files
+ * are ignored. Editors often save a file in several writes, or by replacing
+ * it, so an update waits until the file has been quiet for QUIET_MILLIS. A save
+ * that leaves the file invalid or empty is reported and the current catalog is
+ * kept.
+ */
+public class ParkFileWatcher implements AutoCloseable {
+
+    /** Milliseconds the park file must go without events before it is read*/
+    public static final long QUIET_MILLIS = 200;
+
+    /** The live catalog updated from the park file*/
+    private final LiveParkCatalog parks;
+
+    /** Where updates are reported, or null for nowhere*/
+    private final PrintStream log;
+
+    /** Watch on the park file's directory*/
+    private final WatchService watcher;
+
+    /** Name of the park file within its directory*/
+    private final Path fileName;
+
+    /** Thread that waits for events*/
+    private final Thread thread;
+
+    /**
+     * Starts watching a live catalog's park file
+     *
+     * @param parks the live catalog
+     * @param log where updates and errors are reported, or null for nowhere
+     * @throws IOException if the park file's directory cannot be watched
+     * @throws IllegalArgumentException "Null catalog" if parks is null
+     */
+    public ParkFileWatcher(LiveParkCatalog parks, PrintStream log) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF CATALOG IS NULL
+        if (parks == null) {
+            throw new IllegalArgumentException("Null catalog");
+        } //if
+
+        this.parks = parks;
+        this.log = log;
+        Path parkFile = parks.getParkFile().toAbsolutePath();
+        fileName = parkFile.getFileName();
+        watcher = parkFile.getFileSystem().newWatchService();
+        try {
+            parkFile.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                                          StandardWatchEventKinds.ENTRY_MODIFY);
+        } //try
+        catch (IOException | RuntimeException e) {
+            watcher.close();
+            throw e;
+        } //catch
+        thread = new Thread(this::watch, "park-watch");
+        thread.setDaemon(true);
+        thread.start();
+    } //ParkFileWatcher constructor
+
+    /**
+     * Stops watching the park file
+     *
+     * @throws IOException if the watch cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    } //close method
+
+    /**
+     * Waits for the park file to change and updates the catalog, until the
+     * watcher is closed
+     */
+    private void watch() {
+        try {
+            while (true) {
+                if (!isParkFileChanged(watcher.take())) {
+                    continue;
+                } //if
+
+                //Waiting for the writes of one save to finish
+                WatchKey key;
+                while ((key = watcher.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    isParkFileChanged(key);
+                } //while
+                update();
+            } //while
+        } //try
+        catch (InterruptedException | ClosedWatchServiceException e) {
+            //The watcher was closed
+        } //catch
+    } //watch method
+
+    /**
+     * Checks if a watch key's events include the park file, and resets the key
+     *
+     * @param key the signalled key
+     * @return true if the park file changed or events were lost
+     */
+    private boolean isParkFileChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW ||
+                fileName.equals(event.context())) {
+                changed = true;
+            } //if
+        } //for
+        key.reset();
+        return changed;
+    } //isParkFileChanged method
+
+    /**
+     * Updates the catalog from the park file and reports the result
+     */
+    private void update() {
+        try {
+            ParkCatalog before = parks.get();
+            ParkCatalog after = parks.updateNow();
+            if (log != null && after != before) {
+                log.println("Parks updated: " + after.size() + " parks");
+            } //if
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF FILE IS INACCESSIBLE
+        catch (IOException e) {
+            if (log != null) {
+                log.println("Unable to access park file: " + parks.getParkFile());
+            } //if
+        } //catch
+        //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS INVALID OR EMPTY
+        catch (IllegalArgumentException e) {
+            if (log != null) {
+                log.println(e.getMessage());
+            } //if
+        } //catch
+    } //update method
+} //ParkFileWatcher class
@@ -0,0 +1,316 @@
+import java.util.*;
+
+/**
+ * Typo tolerant index over the park names. Each name is split into lowercase
+ * words of letters and digits, and the distinct words are kept in a BK-tree:
+ * every word is a node, and a child is filed under its Levenshtein distance
+ * from its parent. By the triangle inequality, a search for the words within
+ * distance k of a query word only has to follow the children whose distance
+ * is within k of the query's distance to their parent. So each query word is
+ * compared with a small part of the vocabulary, and no query is compared with
+ * every park name.
+ *
+ * A park matches a query if every query word is within its allowed distance of
+ * some word of the park's name. Its score is the sum of those distances, 0 for
+ * an exact match of every word, and matches are ranked by score.
+ */
+public class ParkFuzzyIndex {
+
+    /** Most edits allowed between a query word and a name word*/
+    public static final int MAX_DISTANCE = 3;
+
+    /** Edits allowed for each query word when none is given*/
+    public static final int DEFAULT_DISTANCE = 2;
+
+    /** No child or sibling in the BK-tree*/
+    private static final int NONE = -1;
+
+    /** Distinct lowercase words of the names, each a BK-tree node*/
+    private final String[] words;
+
+    /** Rows of the names that have each word, in ascending order*/
+    private final int[][] postings;
+
+    /** First child of each node*/
+    private final int[] firstChilds;
+
+    /** Next child of each node's parent*/
+    private final int[] nextSiblings;
+
+    /** Distance from each node's word to its parent's word*/
+    private final int[] edgeDistances;
+
+    /**
+     * Creates the index over the given park names
+     *
+     * @param names array of all the park names
+     * @throws IllegalArgumentException "Null array" if names is null
+     */
+    public ParkFuzzyIndex(String[] names) {
+
+        //ERROR HANDLING IN USER INTERFACE IF NAMES ARRAY IS NULL
+        if (names == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //Numbering each distinct word and listing the rows it is in
+        Map<String, Integer> wordIds = new HashMap<String, Integer>();
+        List<int[]> rowLists = new ArrayList<int[]>();
+        List<Integer> rowCounts = new ArrayList<Integer>();
+        for (int row = 0; row < names.length; row++) {
+            for (String word : split(names[row])) {
+                Integer id = wordIds.get(word);
+                if (id == null) {
+                    id = wordIds.size();
+                    wordIds.put(word, id);
+                    rowLists.add(new int[4]);
+                    rowCounts.add(0);
+                } //if
+                int[] rows = rowLists.get(id);
+                int count = rowCounts.get(id);
+
+                //A word used twice in one name is listed once
+                if (count > 0 && rows[count - 1] == row) {
+                    continue;
+                } //if
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, count * 2);
+                    rowLists.set(id, rows);
+                } //if
+                rows[count] = row;
+                rowCounts.set(id, count + 1);
+            } //for
+        } //for
+
+        words = new String[wordIds.size()];
+        postings = new int[words.length][];
+        for (Map.Entry<String, Integer> entry : wordIds.entrySet()) {
+            int id = entry.getValue();
+            words[id] = entry.getKey();
+            postings[id] = Arrays.copyOf(rowLists.get(id), rowCounts.get(id));
+        } //for
+
+        //Adding every word after the first under the root of the BK-tree
+        firstChilds = new int[words.length];
+        nextSiblings = new int[words.length];
+        edgeDistances = new int[words.length];
+        Arrays.fill(firstChilds, NONE);
+        Arrays.fill(nextSiblings, NONE);
+        for (int word = 1; word < words.length; word++) {
+            insert(word);
+        } //for
+    } //ParkFuzzyIndex constructor
+
+    /**
+     * Finds the parks whose names match every word of a query within some edits
+     *
+     * @param parkName the query, which may have typos
+     * @param maxDistance most edits allowed for each query word. A word of n
+     *          letters allows no more than (n + 1) / 3, so a short word does
+     *          not match most of the vocabulary.
+     * @return rows of the matching parks, best score first and rows in
+     *         ascending order within a score
+     * @throws IllegalArgumentException "Invalid distance" if maxDistance is less
+     *           than 0 or more than MAX_DISTANCE
+     */
+    public int[] search(String parkName, int maxDistance) {
+
+        //ERROR HANDLING IN USER INTERFACE IF DISTANCE IS OUT OF RANGE
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("Invalid distance");
+        } //if
+
+        List<String> queryWords = split(parkName);
+        if (queryWords.isEmpty() || words.length == 0) {
+            return new int[0];
+        } //if
+
+        //Rows matching every query word so far and their summed distances
+        int[] rows = null;
+        int[] distances = null;
+        for (String queryWord : queryWords) {
+            int allowed = Math.min(maxDistance, (queryWord.length() + 1) / 3);
+            long[] matches = matchRows(queryWord, allowed);
+            if (rows == null) {
+                rows = new int[matches.length];
+                distances = new int[matches.length];
+                for (int i = 0; i < matches.length; i++) {
+                    rows[i] = (int) (matches[i] >>> 32);
+                    distances[i] = (int) matches[i];
+                } //for
+            } //if
+            else {
+
+                //Keeping the rows that also match this word
+                int count = 0;
+                int i = 0;
+                int j = 0;
+                while (i < rows.length && j < matches.length) {
+                    int row = (int) (matches[j] >>> 32);
+                    if (rows[i] < row) {
+                        i++;
+                    } //if
+                    else if (rows[i] > row) {
+                        j++;
+                    } //else if
+                    else {
+                        rows[count] = rows[i];
+                        distances[count] = distances[i] + (int) matches[j];
+                        count++;
+                        i++;
+                        j++;
+                    } //else
+                } //while
+                rows = Arrays.copyOf(rows, count);
+                distances = Arrays.copyOf(distances, count);
+            } //else
+            if (rows.length == 0) {
+                return rows;
+            } //if
+        } //for
+
+        //Ranking by score, then by row
+        long[] ranked = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            ranked[i] = (long) distances[i] << 32 | rows[i];
+        } //for
+        Arrays.sort(ranked);
+        for (int i = 0; i < ranked.length; i++) {
+            rows[i] = (int) ranked[i];
+        } //for
+        return rows;
+    } //search method
+
+    /**
+     * Returns the number of distinct words in the names
+     *
+     * @return the number of words
+     */
+    public int wordCount() {
+        return words.length;
+    } //wordCount method
+
+    /**
+     * Finds the rows whose names have a word within some edits of a query word
+     *
+     * @param queryWord the lowercase query word
+     * @param allowed most edits allowed
+     * @return each matching row shifted up 32 bits, plus the fewest edits to a
+     *         word of its name, in ascending order of row
+     */
+    private long[] matchRows(String queryWord, int allowed) {
+        long[] matches = new long[16];
+        int count = 0;
+
+        //Walking the BK-tree from the root, skipping children too far to match
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int distance = distance(queryWord, words[node]);
+            if (distance <= allowed) {
+                for (int row : postings[node]) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    } //if
+                    matches[count++] = (long) row << 32 | distance;
+                } //for
+            } //if
+            for (int child = firstChilds[node]; child != NONE; child = nextSiblings[child]) {
+                if (Math.abs(edgeDistances[child] - distance) <= allowed) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    } //if
+                    stack[top++] = child;
+                } //if
+            } //for
+        } //while
+
+        //Keeping the fewest edits for a row with several matching words
+        Arrays.sort(matches, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || matches[i] >>> 32 != matches[distinct - 1] >>> 32) {
+                matches[distinct++] = matches[i];
+            } //if
+        } //for
+        return Arrays.copyOf(matches, distinct);
+    } //matchRows method
+
+    /**
+     * Adds a word to the BK-tree
+     *
+     * @param word the word's node
+     */
+    private void insert(int word) {
+        int node = 0;
+        while (true) {
+            int distance = distance(words[word], words[node]);
+            int child = firstChilds[node];
+            while (child != NONE && edgeDistances[child] != distance) {
+                child = nextSiblings[child];
+            } //while
+            if (child == NONE) {
+                edgeDistances[word] = distance;
+                nextSiblings[word] = firstChilds[node];
+                firstChilds[node] = word;
+                return;
+            } //if
+            node = child;
+        } //while
+    } //insert method
+
+    /**
+     * Finds the Levenshtein distance between two words
+     *
+     * @param a the first word
+     * @param b the second word
+     * @return the fewest insertions, deletions, and substitutions that turn a into b
+     */
+    private static int distance(String a, String b) {
+
+        //The exact distance is needed, not just whether it is within the
+        //allowed edits, since it decides which children can be skipped
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        } //for
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            } //for
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        } //for
+        return previous[b.length()];
+    } //distance method
+
+    /**
+     * Splits a name or query into lowercase words of letters and digits
+     *
+     * @param text the name or query
+     * @return the words in order
+     */
+    private static List<String> split(String text) {
+        List<String> result = new ArrayList<String>();
+        String lower = text.toLowerCase();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } //if
+            else if (!wordChar && start >= 0) {
+                result.add(lower.substring(start, i));
+                start = -1;
+            } //else if
+        } //for
+        return result;
+    } //split method
+} //ParkFuzzyIndex class
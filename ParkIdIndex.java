@@ -0,0 +1,199 @@
+import java.util.*;
+
+/**
+ * Open-addressing hash index from park id to row number. Keys and rows are
+ * kept in plain int arrays with linear probing, so no lookup boxes an id.
+ */
+public class ParkIdIndex implements ParkIdLookup {
+
+    /** Row stored in a slot that holds no id*/
+    public static final int NO_ROW = -1;
+
+    /** Smallest number of slots in the table*/
+    private static final int MIN_CAPACITY = 16;
+
+    /** Park id stored in each slot*/
+    private int[] keys;
+
+    /** Row stored in each slot, or NO_ROW if the slot is empty*/
+    private int[] rows;
+
+    /** Number of ids stored*/
+    private int size;
+
+    /**
+     * Creates an empty index
+     *
+     * @param expectedSize number of ids the index can hold before resizing
+     * @throws IllegalArgumentException "Invalid size" if expectedSize is negative
+     */
+    public ParkIdIndex(int expectedSize) {
+
+        //ERROR HANDLING IN USER INTERFACE IF SIZE IS NEGATIVE
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid size");
+        } //if
+
+        //Keeping the table at most half full
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        } //while
+        keys = new int[capacity];
+        rows = new int[capacity];
+        Arrays.fill(rows, NO_ROW);
+    } //ParkIdIndex constructor
+
+    /**
+     * Creates an index over tables that were saved from another index, such as
+     * in a park snapshot. The arrays are used as-is, not copied.
+     *
+     * @param keys park id stored in each slot
+     * @param rows row stored in each slot, or NO_ROW if the slot is empty
+     * @param size number of ids stored
+     */
+    ParkIdIndex(int[] keys, int[] rows, int size) {
+        this.keys = keys;
+        this.rows = rows;
+        this.size = size;
+    } //ParkIdIndex constructor
+
+    /**
+     * Builds an index over a column of park ids
+     *
+     * @param ids array of all the park ids
+     * @return index from each id to its row, or null if 2 or more rows have the same id
+     * @throws IllegalArgumentException "Null array" if ids is null
+     */
+    public static ParkIdIndex build(int[] ids) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ARRAY PARAMETER IS NULL
+        if (ids == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        ParkIdIndex index = new ParkIdIndex(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (index.putIfAbsent(ids[i], i) != NO_ROW) {
+                return null;
+            } //if
+        } //for
+        return index;
+    } //build method
+
+    /**
+     * Returns the number of ids in the index
+     *
+     * @return the number of ids
+     */
+    @Override
+    public int size() {
+        return size;
+    } //size method
+
+    /**
+     * Returns the park id stored in each slot, for saving the index
+     *
+     * @return the slot keys
+     */
+    int[] getKeys() {
+        return keys;
+    } //getKeys method
+
+    /**
+     * Returns the row stored in each slot, for saving the index
+     *
+     * @return the slot rows
+     */
+    int[] getRows() {
+        return rows;
+    } //getRows method
+
+    /**
+     * Finds the row of a park id
+     *
+     * @param id the park id to look up
+     * @return the row of the id, or NO_ROW if the id is not in the index
+     */
+    @Override
+    public int get(int id) {
+        int mask = keys.length - 1;
+        for (int slot = hash(id) & mask; rows[slot] != NO_ROW; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return rows[slot];
+            } //if
+        } //for
+        return NO_ROW;
+    } //get method
+
+    /**
+     * Stores the row of a park id unless the id is already in the index
+     *
+     * @param id the park id
+     * @param row the row of the park
+     * @return NO_ROW if the id was added, otherwise the row already stored for it
+     * @throws IllegalArgumentException "Invalid row" if row is negative
+     */
+    public int putIfAbsent(int id, int row) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ROW IS NEGATIVE
+        if (row < 0) {
+            throw new IllegalArgumentException("Invalid row");
+        } //if
+
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (rows[slot] != NO_ROW) {
+            if (keys[slot] == id) {
+                return rows[slot];
+            } //if
+            slot = (slot + 1) & mask;
+        } //while
+
+        keys[slot] = id;
+        rows[slot] = row;
+        size++;
+
+        //Doubling the table once it is half full
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+        } //if
+        return NO_ROW;
+    } //putIfAbsent method
+
+    /**
+     * Rehashes every id into a table with the given number of slots
+     *
+     * @param capacity the new number of slots, a power of 2
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldRows = rows;
+        keys = new int[capacity];
+        rows = new int[capacity];
+        Arrays.fill(rows, NO_ROW);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldRows[i] != NO_ROW) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (rows[slot] != NO_ROW) {
+                    slot = (slot + 1) & mask;
+                } //while
+                keys[slot] = oldKeys[i];
+                rows[slot] = oldRows[i];
+            } //if
+        } //for
+    } //resize method
+
+    /**
+     * Spreads the bits of an id so sequential ids do not cluster in the table
+     *
+     * @param id the park id
+     * @return the mixed hash of the id
+     */
+    static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    } //hash method
+} //ParkIdIndex class
@@ -0,0 +1,22 @@
+/**
+ * Lookup from park id to row number. A plain ParkIdIndex is one, and so is the
+ * read only index of a catalog made by applying changes to another catalog,
+ * so code that only looks ids up takes either.
+ */
+public interface ParkIdLookup {
+
+    /**
+     * Returns the number of ids that can be looked up
+     *
+     * @return the number of ids
+     */
+    int size();
+
+    /**
+     * Finds the row of a park id
+     *
+     * @param id the park id to look up
+     * @return the row of the id, or ParkIdIndex.NO_ROW if the id is not in the lookup
+     */
+    int get(int id);
+} //ParkIdLookup interface
@@ -0,0 +1,886 @@
+import java.util.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+/**
+ * Loads a park file in a single pass. Lines are read through a reusable byte
+ * buffer and the id, name, latitude, and longitude of each line are parsed
+ * straight from the bytes into growable columns, applying the same validation
+ * rules as Parks.inputParks. Duplicate ids are caught with the same id index
+ * the catalog keeps for lookups.
+ *
+ * A large file can instead be split into byte ranges that start and end on
+ * line boundaries, and the ranges parsed at once on a ForkJoinPool, each into
+ * its own columns. The columns are then copied together in file order, and
+ * the ids are checked for duplicates across the whole file, so the result is
+ * the same catalog a single pass gives.
+ */
+public class ParkLoader {
+
+    /** Size in bytes of the read buffer*/
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    /** Starting number of rows the columns can hold before growing*/
+    public static final int INITIAL_CAPACITY = 1024;
+
+    /** Smallest file in bytes that loadParks(Path) splits into chunks*/
+    public static final long PARALLEL_THRESHOLD = 1 << 24;
+
+    /** Smallest chunk in bytes a file is split into*/
+    public static final long MIN_CHUNK_SIZE = 1 << 22;
+
+    /** Chunks per thread, so a thread that finishes early can take another*/
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /** Status of a line that was parsed and validated*/
+    public static final int ROW_OK = 0;
+
+    /** Status of a line that does not have exactly 4 values*/
+    public static final int ROW_INVALID_FIELD_COUNT = 1;
+
+    /** Status of a line whose park id is not an integer*/
+    public static final int ROW_INVALID_ID = 2;
+
+    /** Status of a line whose latitude is not a number*/
+    public static final int ROW_INVALID_LATITUDE = 3;
+
+    /** Status of a line whose longitude is not a number*/
+    public static final int ROW_INVALID_LONGITUDE = 4;
+
+    /** Status of a line with a negative id or a coordinate out of range*/
+    public static final int ROW_OUT_OF_RANGE = 5;
+
+    /** Status of a line whose park id is already used by an earlier line*/
+    public static final int ROW_DUPLICATE_ID = 6;
+
+    /** Most significant digits that fit exactly in a double's mantissa*/
+    private static final int MAX_FAST_DIGITS = 15;
+
+    /** Exact powers of ten that can be represented as doubles*/
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Opens and loads the park file at the given path. A file of at least
+     * PARALLEL_THRESHOLD bytes is loaded in chunks on the common ForkJoinPool
+     * if it has more than one thread.
+     *
+     * @param path path of the park file
+     * @return catalog of all the parks in the file, or null if the file is invalid
+     * @throws IOException if the file cannot be opened or read
+     * @throws IllegalArgumentException "Null file" if path is null
+     */
+    public static ParkCatalog loadParks(Path path) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF PATH IS NULL
+        if (path == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (in.size() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                return loadParks(in, ForkJoinPool.commonPool());
+            } //if
+            return loadParks(in);
+        } //try
+    } //loadParks method
+
+    /**
+     * Opens and loads the park file at the given path, parsing chunks of it at
+     * once on a pool
+     *
+     * @param path path of the park file
+     * @param pool pool the chunks are parsed on
+     * @return catalog of all the parks in the file, or null if the file is invalid
+     * @throws IOException if the file cannot be opened or read
+     * @throws IllegalArgumentException "Null file" if path is null
+     * @throws IllegalArgumentException "Null pool" if pool is null
+     */
+    public static ParkCatalog loadParks(Path path, ForkJoinPool pool) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF PATH IS NULL
+        if (path == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF POOL IS NULL
+        if (pool == null) {
+            throw new IllegalArgumentException("Null pool");
+        } //if
+
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            return loadParks(in, pool);
+        } //try
+    } //loadParks method
+
+    /**
+     * Loads an open park file in chunks on a pool and records the load
+     *
+     * @param in the open park file
+     * @param pool pool the chunks are parsed on
+     * @return catalog of all the parks in the file, or null if the file is invalid
+     * @throws IOException if the file cannot be read
+     */
+    private static ParkCatalog loadParks(FileChannel in, ForkJoinPool pool) throws IOException {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        ParkCatalog catalog = readParks(in, pool);
+        int rows = catalog == null ? 0 : catalog.size();
+        ParkMetrics.LOAD.record(startTime, startAllocated, rows, rows);
+        return catalog;
+    } //loadParks method
+
+    /**
+     * Reads every line of the park file from the channel once and stores the
+     * parks into a catalog. An empty channel gives an empty catalog.
+     *
+     * @param in channel for inside the input file
+     * @return catalog of all the parks in the file, or null if the file is invalid
+     * @throws IOException if the channel cannot be read
+     * @throws IllegalArgumentException "Null file" if the input channel is null
+     */
+    public static ParkCatalog loadParks(ReadableByteChannel in) throws IOException {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        ParkCatalog catalog = readParks(in);
+        int rows = catalog == null ? 0 : catalog.size();
+        ParkMetrics.LOAD.record(startTime, startAllocated, rows, rows);
+        return catalog;
+    } //loadParks method
+
+    /**
+     * Opens and loads the park file at the given path leniently: a line that
+     * cannot be loaded, including one whose id is already used, is written to
+     * the error log and skipped, until the log's budget is used up. The file
+     * is read in one pass, so the line numbers in the log are in order.
+     *
+     * @param path path of the park file
+     * @param errors error log the skipped lines are written to
+     * @return catalog of the parks that could be loaded, or null if more lines
+     *         were skipped than the budget allows
+     * @throws IOException if the file cannot be opened or read, or the error
+     *           log cannot be written
+     * @throws IllegalArgumentException "Null file" if path is null
+     * @throws IllegalArgumentException "Null log" if errors is null
+     */
+    public static ParkCatalog loadParks(Path path, ParkErrorLog errors) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF PATH IS NULL
+        if (path == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ERROR LOG IS NULL
+        if (errors == null) {
+            throw new IllegalArgumentException("Null log");
+        } //if
+
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long startTime = ParkMetrics.startTime();
+            long startAllocated = ParkMetrics.allocatedBytes();
+            long skipped = errors.getCount();
+            Columns columns = new Columns(INITIAL_CAPACITY);
+            ParkIdIndex idIndex = new ParkIdIndex(INITIAL_CAPACITY);
+            ParkCatalog catalog = readRows(in, columns, idIndex, errors) ?
+                                  columns.toCatalog(idIndex) : null;
+            int rows = catalog == null ? 0 : catalog.size();
+            ParkMetrics.LOAD.record(startTime, startAllocated,
+                                    columns.size + errors.getCount() - skipped, rows);
+            return catalog;
+        } //try
+    } //loadParks method
+
+    /**
+     * Reads every line of the park file from the channel once and stores the
+     * parks into a catalog, without recording metrics
+     *
+     * @param in channel for inside the input file
+     * @return catalog of all the parks in the file, or null if the file is invalid
+     * @throws IOException if the channel cannot be read
+     * @throws IllegalArgumentException "Null file" if the input channel is null
+     */
+    private static ParkCatalog readParks(ReadableByteChannel in) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF INPUT CHANNEL IS NULL
+        if (in == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        Columns columns = new Columns(INITIAL_CAPACITY);
+
+        //Index from each park id to its row, used to find duplicate ids as rows are read
+        ParkIdIndex idIndex = new ParkIdIndex(INITIAL_CAPACITY);
+        if (!readRows(in, columns, idIndex, null)) {
+            return null;
+        } //if
+        return columns.toCatalog(idIndex);
+    } //readParks method
+
+    /**
+     * Splits an open park file into chunks on line boundaries, parses them at
+     * once on a pool, and joins them into a catalog, without recording metrics
+     *
+     * @param in the open park file
+     * @param pool pool the chunks are parsed on
+     * @return catalog of all the parks in the file, or null if the file is invalid
+     * @throws IOException if the file cannot be read
+     */
+    private static ParkCatalog readParks(FileChannel in, ForkJoinPool pool) throws IOException {
+        long size = in.size();
+        int chunkCount = (int) Math.max(1, Math.min((long) pool.getParallelism() *
+                                                    CHUNKS_PER_THREAD, size / MIN_CHUNK_SIZE));
+
+        //Moving each split forward to the start of a line
+        long[] starts = new long[chunkCount + 1];
+        for (int k = 1; k < chunkCount; k++) {
+            starts[k] = lineStart(in, Math.max(size / chunkCount * k, starts[k - 1]));
+        } //for
+        starts[chunkCount] = size;
+
+        //Parsing every chunk, a chunk with an invalid line is left null
+        Columns[] chunks = new Columns[chunkCount];
+        try {
+            pool.invoke(new ChunkTask(in, starts, chunks, 0, chunkCount));
+        } //try
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        } //catch
+
+        int total = 0;
+        for (Columns chunk : chunks) {
+            if (chunk == null) {
+                return null;
+            } //if
+            total += chunk.size;
+        } //for
+
+        //Copying the chunks together in file order
+        int[] ids = new int[total];
+        String[] names = new String[total];
+        double[] latitudes = new double[total];
+        double[] longitudes = new double[total];
+        int row = 0;
+        for (Columns chunk : chunks) {
+            System.arraycopy(chunk.ids, 0, ids, row, chunk.size);
+            System.arraycopy(chunk.names, 0, names, row, chunk.size);
+            System.arraycopy(chunk.latitudes, 0, latitudes, row, chunk.size);
+            System.arraycopy(chunk.longitudes, 0, longitudes, row, chunk.size);
+            row += chunk.size;
+        } //for
+
+        //Checking for duplicate ids across the whole file
+        ParkIdIndex idIndex = new ParkIdIndex(total);
+        for (int i = 0; i < total; i++) {
+            if (idIndex.putIfAbsent(ids[i], i) != ParkIdIndex.NO_ROW) {
+                return null;
+            } //if
+        } //for
+        return new ParkCatalog(ids, names, latitudes, longitudes, idIndex);
+    } //readParks method
+
+    /**
+     * Finds the first line that starts at or after a position in a file. A
+     * line starts after a '\n', or after a '\r' that is not followed by '\n'.
+     *
+     * @param in the open park file
+     * @param position position to start looking from, more than 0
+     * @return position of the start of the line, or the size of the file if no
+     *         line starts after position
+     * @throws IOException if the file cannot be read
+     */
+    private static long lineStart(FileChannel in, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = in.size();
+
+        //Reading from the byte before position, since it decides if a line starts there
+        long offset = position - 1;
+        byte previous = 0;
+        boolean first = true;
+        while (offset < size) {
+            buffer.clear();
+            int read = in.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            } //if
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (!first && (previous == '\n' || (previous == '\r' && b != '\n'))) {
+                    return offset + i;
+                } //if
+                previous = b;
+                first = false;
+            } //for
+            offset += read;
+        } //while
+        return size;
+    } //lineStart method
+
+    /**
+     * Reads every line from the channel once, appending its park to the columns
+     *
+     * @param in channel for inside the input file, or for a range of it
+     * @param columns columns the parks are appended to
+     * @param idIndex index the ids are added to as rows are read, to find
+     *          duplicates, or null to leave duplicates to the caller
+     * @param errors error log invalid lines are written to and skipped, or null
+     *          to stop at the first invalid line
+     * @return true if every line is valid and, if idIndex is given, no id is
+     *         repeated, or with an error log, if its budget was not used up
+     * @throws IOException if the channel cannot be read or the log written
+     */
+    private static boolean readRows(ReadableByteChannel in, Columns columns, ParkIdIndex idIndex,
+                                    ParkErrorLog errors) throws IOException {
+
+        //Bytes read from the channel, from pos up to limit are not yet consumed
+        byte[] bytes = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int pos = 0;
+        int limit = 0;
+
+        //Index where the search for the next line terminator continues
+        int scan = 0;
+        boolean eof = false;
+
+        LineParser parser = new LineParser();
+
+        //Line number of the current line, counting from 1
+        long line = 1;
+
+        while (true) {
+
+            //Finding the end of the current line
+            int i = scan;
+            while (i < limit && bytes[i] != '\n' && bytes[i] != '\r') {
+                i++;
+            } //while
+
+            //A '\r' at the end of the buffer may still be followed by '\n'
+            if (i < limit && (bytes[i] == '\n' || i + 1 < limit || eof)) {
+
+                if (!addRow(parser, bytes, pos, i, line, columns, idIndex, errors)) {
+                    return false;
+                } //if
+                line++;
+
+                if (bytes[i] == '\r' && i + 1 < limit && bytes[i + 1] == '\n') {
+                    i++;
+                } //if
+                pos = i + 1;
+                scan = pos;
+                continue;
+            } //if
+
+            if (eof) {
+
+                //Last line of a file that does not end with a line terminator
+                if (pos < limit) {
+                    if (!addRow(parser, bytes, pos, limit, line, columns, idIndex, errors)) {
+                        return false;
+                    } //if
+                } //if
+                break;
+            } //if
+
+            //Moving the partial line to the front of the buffer before refilling it
+            System.arraycopy(bytes, pos, bytes, 0, limit - pos);
+            scan = i - pos;
+            limit -= pos;
+            pos = 0;
+
+            //Growing the buffer if a single line does not fit in it
+            if (limit == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                buffer = ByteBuffer.wrap(bytes);
+            } //if
+
+            buffer.limit(bytes.length);
+            buffer.position(limit);
+            int read = in.read(buffer);
+            if (read < 0) {
+                eof = true;
+            } //if
+            else {
+                limit += read;
+            } //else
+        } //while
+
+        return true;
+    } //readRows method
+
+    /**
+     * Parses one line and appends its park to the columns if it is valid
+     *
+     * @param parser parser reused for every line
+     * @param bytes bytes holding the line
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line, excluding the terminator
+     * @param line line number of the line, counting from 1
+     * @param columns columns the park is appended to
+     * @param idIndex index the id is added to, or null to not check for duplicates
+     * @param errors error log an invalid line is written to, or null
+     * @return true if the line was added, or was invalid and written to the
+     *         error log without using up its budget
+     * @throws IOException if the error log cannot be written
+     */
+    private static boolean addRow(LineParser parser, byte[] bytes, int start, int end, long line,
+                                  Columns columns, ParkIdIndex idIndex, ParkErrorLog errors)
+                                  throws IOException {
+        int status = parser.parse(bytes, start, end);
+        if (status == ROW_OK && idIndex != null &&
+            idIndex.putIfAbsent(parser.id, columns.size) != ParkIdIndex.NO_ROW) {
+
+            status = ROW_DUPLICATE_ID;
+        } //if
+        if (status == ROW_OK) {
+            columns.add(parser.id, parser.name, parser.latitude, parser.longitude);
+            return true;
+        } //if
+        return errors != null && errors.reject(line, status, bytes, start, end);
+    } //addRow method
+
+    /**
+     * Growable park columns that rows are appended to while loading
+     */
+    static final class Columns {
+
+        /** Park ids appended so far*/
+        int[] ids;
+
+        /** Park names appended so far*/
+        String[] names;
+
+        /** Park latitudes appended so far*/
+        double[] latitudes;
+
+        /** Park longitudes appended so far*/
+        double[] longitudes;
+
+        /** Number of rows appended so far*/
+        int size;
+
+        /**
+         * Creates empty columns
+         *
+         * @param capacity number of rows the columns can hold before growing
+         */
+        Columns(int capacity) {
+            ids = new int[capacity];
+            names = new String[capacity];
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+        } //Columns constructor
+
+        /**
+         * Appends a park to the end of the columns, doubling their capacity if full
+         *
+         * @param id the id of the park
+         * @param name the name of the park
+         * @param latitude the latitude of the park
+         * @param longitude the longitude of the park
+         */
+        void add(int id, String name, double latitude, double longitude) {
+            if (size == ids.length) {
+                int capacity = Math.max(ids.length * 2, INITIAL_CAPACITY);
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+            } //if
+            ids[size] = id;
+            names[size] = name;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        } //add method
+
+        /**
+         * Trims the columns to the number of rows appended and wraps them in a catalog
+         *
+         * @param idIndex index from each appended id to its row
+         * @return catalog over the appended rows
+         */
+        ParkCatalog toCatalog(ParkIdIndex idIndex) {
+            return new ParkCatalog(Arrays.copyOf(ids, size), Arrays.copyOf(names, size),
+                                   Arrays.copyOf(latitudes, size),
+                                   Arrays.copyOf(longitudes, size), idIndex);
+        } //toCatalog method
+    } //Columns class
+
+    /**
+     * Parses a run of chunks of a park file, splitting it in half until each
+     * task has one chunk
+     */
+    @SuppressWarnings("serial") //Only run in this process, never serialized
+    private static final class ChunkTask extends RecursiveAction {
+
+        /** The open park file*/
+        private final FileChannel file;
+
+        /** Start of each chunk, then the size of the file*/
+        private final long[] starts;
+
+        /** Columns of each chunk, or null for a chunk with an invalid line*/
+        private final Columns[] chunks;
+
+        /** First chunk of the run*/
+        private final int from;
+
+        /** End of the run*/
+        private final int to;
+
+        /**
+         * Creates a task for a run of chunks
+         *
+         * @param file the open park file
+         * @param starts start of each chunk, then the size of the file
+         * @param chunks where the columns of each chunk are stored
+         * @param from first chunk of the run
+         * @param to end of the run
+         */
+        ChunkTask(FileChannel file, long[] starts, Columns[] chunks, int from, int to) {
+            this.file = file;
+            this.starts = starts;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        } //ChunkTask constructor
+
+        /**
+         * Parses the run's chunks, forking half of them if there are several
+         *
+         * @throws UncheckedIOException if the file cannot be read
+         */
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(file, starts, chunks, from, middle),
+                          new ChunkTask(file, starts, chunks, middle, to));
+            } //if
+            else {
+                Columns columns = new Columns(INITIAL_CAPACITY);
+                try {
+                    if (readRows(new RangeChannel(file, starts[from], starts[to]), columns, null,
+                                 null)) {
+                        chunks[from] = columns;
+                    } //if
+                } //try
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } //catch
+            } //else
+        } //compute method
+    } //ChunkTask class
+
+    /**
+     * Reads a range of bytes of a file as a channel of its own, with reads at
+     * a given position, so many can read one file at once
+     */
+    private static final class RangeChannel implements ReadableByteChannel {
+
+        /** The open file, which closing this channel leaves open*/
+        private final FileChannel file;
+
+        /** Position of the next byte to read*/
+        private long position;
+
+        /** Position after the last byte of the range*/
+        private final long end;
+
+        /**
+         * Creates a channel over a range of a file
+         *
+         * @param file the open file
+         * @param start position of the first byte of the range
+         * @param end position after the last byte of the range
+         */
+        RangeChannel(FileChannel file, long start, long end) {
+            this.file = file;
+            this.position = start;
+            this.end = end;
+        } //RangeChannel constructor
+
+        /**
+         * Reads bytes of the range into a buffer
+         *
+         * @param destination buffer the bytes are read into
+         * @return the number of bytes read, or -1 at the end of the range
+         * @throws IOException if the file cannot be read
+         */
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            if (position >= end) {
+                return -1;
+            } //if
+            ByteBuffer window = destination.duplicate();
+            window.limit(window.position() + (int) Math.min(window.remaining(), end - position));
+            int read = file.read(window, position);
+            if (read < 0) {
+                return -1;
+            } //if
+            destination.position(window.position());
+            position += read;
+            return read;
+        } //read method
+
+        /**
+         * Checks if the file is still open
+         *
+         * @return true if the file is open
+         */
+        @Override
+        public boolean isOpen() {
+            return file.isOpen();
+        } //isOpen method
+
+        /**
+         * Does nothing, since the file is closed by its owner
+         */
+        @Override
+        public void close() {
+        } //close method
+    } //RangeChannel class
+
+    /**
+     * Parses one line of a park file from bytes. The values of the last line
+     * parsed are left in the parser's fields so nothing is allocated except the
+     * park name.
+     */
+    static final class LineParser {
+
+        /** Park id of the last line parsed*/
+        int id;
+
+        /** Park name of the last line parsed*/
+        String name;
+
+        /** Park latitude of the last line parsed*/
+        double latitude;
+
+        /** Park longitude of the last line parsed*/
+        double longitude;
+
+        /** Result of the last call to parseDouble*/
+        private double value;
+
+        /**
+         * Parses and validates a line. Like String.split, trailing empty values
+         * after the longitude do not count towards the number of values.
+         *
+         * @param bytes bytes holding the line
+         * @param start index of the first byte of the line
+         * @param end index after the last byte of the line, excluding the terminator
+         * @return ROW_OK if the line is valid, otherwise the reason it is not
+         */
+        int parse(byte[] bytes, int start, int end) {
+
+            //Finding the commas between the 4 values
+            int comma1 = indexOfComma(bytes, start, end);
+            int comma2 = comma1 < 0 ? -1 : indexOfComma(bytes, comma1 + 1, end);
+            int comma3 = comma2 < 0 ? -1 : indexOfComma(bytes, comma2 + 1, end);
+            if (comma3 < 0) {
+                return ROW_INVALID_FIELD_COUNT;
+            } //if
+
+            //Only commas may follow the longitude
+            int longitudeEnd = indexOfComma(bytes, comma3 + 1, end);
+            if (longitudeEnd < 0) {
+                longitudeEnd = end;
+            } //if
+            for (int i = longitudeEnd; i < end; i++) {
+                if (bytes[i] != ',') {
+                    return ROW_INVALID_FIELD_COUNT;
+                } //if
+            } //for
+
+            //Checking if park id is an integer
+            long parsedId = parseInt(bytes, start, comma1);
+            if (parsedId == Long.MIN_VALUE) {
+                return ROW_INVALID_ID;
+            } //if
+
+            if (!parseDouble(bytes, comma2 + 1, comma3)) {
+                return ROW_INVALID_LATITUDE;
+            } //if
+            double parsedLatitude = value;
+
+            if (!parseDouble(bytes, comma3 + 1, longitudeEnd)) {
+                return ROW_INVALID_LONGITUDE;
+            } //if
+            double parsedLongitude = value;
+
+            //Checking if park id is not negative
+            //Checking if latitude and longitude are not too small or too large
+            if (parsedId < 0 || parsedLatitude < Parks.LATITUDE_MIN_DEGREES ||
+                parsedLatitude > Parks.LATITUDE_MAX_DEGREES ||
+                parsedLongitude < Parks.LONGITUDE_MIN_DEGREES ||
+                parsedLongitude > Parks.LONGITUDE_MAX_DEGREES) {
+
+                return ROW_OUT_OF_RANGE;
+            } //if
+
+            id = (int) parsedId;
+            name = new String(bytes, comma1 + 1, comma2 - comma1 - 1, StandardCharsets.UTF_8);
+            latitude = parsedLatitude;
+            longitude = parsedLongitude;
+            return ROW_OK;
+        } //parse method
+
+        /**
+         * Finds the first comma in a range of bytes
+         *
+         * @param bytes bytes to search
+         * @param start index to start searching from
+         * @param end index to stop searching at
+         * @return index of the comma, or -1 if there is none
+         */
+        private static int indexOfComma(byte[] bytes, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (bytes[i] == ',') {
+                    return i;
+                } //if
+            } //for
+            return -1;
+        } //indexOfComma method
+
+        /**
+         * Parses a signed decimal int the same way Scanner.nextInt does
+         *
+         * @param bytes bytes holding the value
+         * @param start index of the first byte of the value
+         * @param end index after the last byte of the value
+         * @return the int value, or Long.MIN_VALUE if the bytes are not an int
+         */
+        private static long parseInt(byte[] bytes, int start, int end) {
+            int i = start;
+            boolean negative = false;
+            if (i < end && (bytes[i] == '+' || bytes[i] == '-')) {
+                negative = bytes[i] == '-';
+                i++;
+            } //if
+            if (i == end) {
+                return Long.MIN_VALUE;
+            } //if
+
+            long result = 0;
+            for (; i < end; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return Long.MIN_VALUE;
+                } //if
+                result = result * 10 + digit;
+                if (result > (long) Integer.MAX_VALUE + 1) {
+                    return Long.MIN_VALUE;
+                } //if
+            } //for
+
+            result = negative ? -result : result;
+            if (result > Integer.MAX_VALUE) {
+                return Long.MIN_VALUE;
+            } //if
+            return result;
+        } //parseInt method
+
+        /**
+         * Parses a decimal double into value. Plain decimals with up to 15
+         * significant digits are converted directly, which gives the correctly
+         * rounded result because both the digits and the power of ten are exact
+         * doubles. Anything else falls back to Double.parseDouble.
+         *
+         * @param bytes bytes holding the value
+         * @param start index of the first byte of the value
+         * @param end index after the last byte of the value
+         * @return true if the bytes are a number
+         */
+        private boolean parseDouble(byte[] bytes, int start, int end) {
+            int i = start;
+            boolean negative = false;
+            if (i < end && (bytes[i] == '+' || bytes[i] == '-')) {
+                negative = bytes[i] == '-';
+                i++;
+            } //if
+
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = 0;
+            boolean anyDigit = false;
+            boolean dot = false;
+            for (; i < end; i++) {
+                byte c = bytes[i];
+                if (c >= '0' && c <= '9') {
+                    anyDigit = true;
+                    if (mantissa != 0 || c != '0') {
+                        digits++;
+                    } //if
+                    if (digits > MAX_FAST_DIGITS) {
+                        return parseDoubleSlow(bytes, start, end);
+                    } //if
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (dot) {
+                        fractionDigits++;
+                    } //if
+                } //if
+                else if (c == '.' && !dot) {
+                    dot = true;
+                } //else if
+                else {
+                    return parseDoubleSlow(bytes, start, end);
+                } //else
+            } //for
+
+            if (!anyDigit) {
+                return false;
+            } //if
+            if (fractionDigits >= POWERS_OF_TEN.length) {
+                return parseDoubleSlow(bytes, start, end);
+            } //if
+
+            double result = mantissa;
+            if (fractionDigits > 0) {
+                result = result / POWERS_OF_TEN[fractionDigits];
+            } //if
+            value = negative ? -result : result;
+            return true;
+        } //parseDouble method
+
+        /**
+         * Parses the numbers the fast path does not handle: exponents, long
+         * mantissas, NaN, and Infinity
+         *
+         * @param bytes bytes holding the value
+         * @param start index of the first byte of the value
+         * @param end index after the last byte of the value
+         * @return true if the bytes are a number
+         */
+        private boolean parseDoubleSlow(byte[] bytes, int start, int end) {
+            String text = new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+            String unsigned = text.startsWith("+") || text.startsWith("-") ? text.substring(1) : text;
+            if (!unsigned.equals("NaN") && !unsigned.equals("Infinity")) {
+
+                //Only digits, signs, decimal points, and exponents are numbers
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if ((c < '0' || c > '9') && c != '+' && c != '-' &&
+                        c != '.' && c != 'e' && c != 'E') {
+
+                        return false;
+                    } //if
+                } //for
+            } //if
+
+            try {
+                value = Double.parseDouble(text);
+                return true;
+            } //try
+            catch (NumberFormatException e) {
+                return false;
+            } //catch
+        } //parseDoubleSlow method
+    } //LineParser class
+} //ParkLoader class
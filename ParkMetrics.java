@@ -0,0 +1,262 @@
+import java.io.*;
+import java.lang.management.*;
+import java.nio.file.Path;
+import java.util.*;
+import javax.management.*;
+
+/**
+ * Latency and throughput metrics of the park operations, kept for the life
+ * of the JVM. Each operation is timed where every way of calling it ends up:
+ *
+ * <pre>
+ * load         Parks.inputParks, ParkLoader.loadParks, and reading a snapshot
+ * list         Parks.writeParkList, which getParkList calls
+ * search       Parks.writeSearchResults, which searchForPark calls
+ * fuzzy_search Parks.writeFuzzySearchResults, which fuzzySearchForPark calls
+ * complete     Parks.writeCompletions
+ * add_to_trip  Parks.addParkToTrip
+ * get_trip     Parks.writeTrip, which getTrip calls
+ * output_trip  Parks.outputTrip
+ * </pre>
+ *
+ * A call costs two System.nanoTime() reads, the per thread allocation counter
+ * read twice if the JVM has one, and a few atomic adds. The metrics can be
+ * read through JMX after registerMBeans(), or written in the Prometheus text
+ * format by toPrometheus() and by a ParkMetricsReporter.
+ */
+public class ParkMetrics {
+
+    /** System property naming the file the metrics are written to periodically*/
+    public static final String FILE_PROPERTY = "parks.metrics.file";
+
+    /** System property with the seconds between writes of the metrics file*/
+    public static final String PERIOD_PROPERTY = "parks.metrics.period";
+
+    /** System property that registers the metrics with JMX when "true"*/
+    public static final String JMX_PROPERTY = "parks.metrics.jmx";
+
+    /** Seconds between writes of the metrics file when none is given*/
+    public static final int DEFAULT_PERIOD = 10;
+
+    /** Loading parks from a park file or snapshot*/
+    public static final OperationMetrics LOAD = new OperationMetrics("load");
+
+    /** Listing parks*/
+    public static final OperationMetrics LIST = new OperationMetrics("list");
+
+    /** Searching for parks by keyword*/
+    public static final OperationMetrics SEARCH = new OperationMetrics("search");
+
+    /** Searching for parks by a keyword that may have typos*/
+    public static final OperationMetrics FUZZY_SEARCH = new OperationMetrics("fuzzy_search");
+
+    /** Completing a park name from its first letters*/
+    public static final OperationMetrics COMPLETE = new OperationMetrics("complete");
+
+    /** Finding the parks closest to a location*/
+    public static final OperationMetrics NEAREST = new OperationMetrics("nearest");
+
+    /** Finding the parks within a distance of a location*/
+    public static final OperationMetrics RADIUS = new OperationMetrics("radius");
+
+    /** Adding a park to a trip*/
+    public static final OperationMetrics ADD_TO_TRIP = new OperationMetrics("add_to_trip");
+
+    /** Listing the parks in a trip*/
+    public static final OperationMetrics GET_TRIP = new OperationMetrics("get_trip");
+
+    /** Writing a trip to the output file*/
+    public static final OperationMetrics OUTPUT_TRIP = new OperationMetrics("output_trip");
+
+    /** Every operation, in the order they are written*/
+    private static final OperationMetrics[] OPERATIONS = {
+        LOAD, LIST, SEARCH, FUZZY_SEARCH, COMPLETE, NEAREST, RADIUS, ADD_TO_TRIP, GET_TRIP,
+        OUTPUT_TRIP
+    };
+
+    /** Quantiles written for each latency summary*/
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /** Nanoseconds in a second*/
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** Per thread allocation counter, or null if the JVM does not have one*/
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationCounter();
+
+    /** Whether the metrics have been registered with JMX*/
+    private static boolean registered;
+
+    /**
+     * Returns the time to pass to record() as the start of a call
+     *
+     * @return the current System.nanoTime()
+     */
+    public static long startTime() {
+        return System.nanoTime();
+    } //startTime method
+
+    /**
+     * Returns the bytes the current thread has allocated, to pass to record()
+     * as the start of a call
+     *
+     * @return the bytes allocated so far, or -1 if the JVM does not count them
+     */
+    public static long allocatedBytes() {
+        return ALLOCATIONS == null ? -1 : ALLOCATIONS.getCurrentThreadAllocatedBytes();
+    } //allocatedBytes method
+
+    /**
+     * Returns the metrics of every operation
+     *
+     * @return the operations' metrics
+     */
+    public static List<OperationMetrics> getOperations() {
+        return List.of(OPERATIONS);
+    } //getOperations method
+
+    /**
+     * Registers every operation's metrics with the platform MBean server as
+     * parks:type=Operation,name=operation, once
+     */
+    public static synchronized void registerMBeans() {
+        if (registered) {
+            return;
+        } //if
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (OperationMetrics operation : OPERATIONS) {
+                server.registerMBean(operation, new ObjectName("parks:type=Operation,name=" +
+                                                               operation.getName()));
+            } //for
+        } //try
+        //The names are fixed and valid, and each is registered once
+        catch (JMException e) {
+            throw new IllegalStateException(e);
+        } //catch
+        registered = true;
+    } //registerMBeans method
+
+    /**
+     * Writes every operation's metrics in the Prometheus text format
+     *
+     * @param out where the metrics are written
+     * @throws IOException if out cannot be written to
+     */
+    public static void writePrometheus(Appendable out) throws IOException {
+        out.append("# HELP parks_operation_latency_seconds Latency of park operations\n");
+        out.append("# TYPE parks_operation_latency_seconds summary\n");
+        for (OperationMetrics operation : OPERATIONS) {
+            LatencyHistogram latencies = operation.getLatencies();
+            String label = "operation=\"" + operation.getName() + "\"";
+            for (double quantile : QUANTILES) {
+                out.append("parks_operation_latency_seconds{").append(label)
+                   .append(",quantile=\"").append(Double.toString(quantile)).append("\"} ")
+                   .append(Double.toString(latencies.getQuantile(quantile) / NANOS_PER_SECOND))
+                   .append('\n');
+            } //for
+            out.append("parks_operation_latency_seconds_sum{").append(label).append("} ")
+               .append(Double.toString(latencies.getSum() / NANOS_PER_SECOND)).append('\n');
+            out.append("parks_operation_latency_seconds_count{").append(label).append("} ")
+               .append(Long.toString(latencies.getCount())).append('\n');
+        } //for
+        writeCounter(out, "parks_operation_rows_scanned_total",
+                     "Rows looked at by park operations", 0);
+        writeCounter(out, "parks_operation_results_total",
+                     "Rows returned or written by park operations", 1);
+        if (ALLOCATIONS != null) {
+            writeCounter(out, "parks_operation_allocated_bytes_total",
+                         "Bytes allocated by park operations", 2);
+        } //if
+    } //writePrometheus method
+
+    /**
+     * Returns every operation's metrics in the Prometheus text format
+     *
+     * @return the metrics
+     */
+    public static String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        try {
+            writePrometheus(out);
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
+        return out.toString();
+    } //toPrometheus method
+
+    /**
+     * Registers the metrics with JMX and starts writing them to a file, as the
+     * system properties ask
+     *
+     * @return the reporter writing the metrics file, or null if FILE_PROPERTY is
+     *         not set
+     * @throws IllegalArgumentException "Invalid period" if PERIOD_PROPERTY is
+     *           not a whole number of seconds above 0
+     */
+    public static ParkMetricsReporter startFromProperties() {
+        if (Boolean.getBoolean(JMX_PROPERTY)) {
+            registerMBeans();
+        } //if
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return null;
+        } //if
+        int period = 0;
+        try {
+            period = Integer.parseInt(System.getProperty(PERIOD_PROPERTY,
+                                                         Integer.toString(DEFAULT_PERIOD)));
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF PERIOD IS NOT A NUMBER
+        catch (NumberFormatException e) {
+            period = 0;
+        } //catch
+        return new ParkMetricsReporter(Path.of(file), period);
+    } //startFromProperties method
+
+    /**
+     * Writes one counter of every operation
+     *
+     * @param out where the counter is written
+     * @param metric name of the counter
+     * @param help description of the counter
+     * @param counter 0 for rows scanned, 1 for results, 2 for allocated bytes
+     * @throws IOException if out cannot be written to
+     */
+    private static void writeCounter(Appendable out, String metric, String help, int counter)
+                                     throws IOException {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(" counter\n");
+        for (OperationMetrics operation : OPERATIONS) {
+            long value = counter == 0 ? operation.getRowsScanned() :
+                         counter == 1 ? operation.getResults() : operation.getAllocatedBytes();
+            out.append(metric).append("{operation=\"").append(operation.getName())
+               .append("\"} ").append(Long.toString(value)).append('\n');
+        } //for
+    } //writeCounter method
+
+    /**
+     * Finds the JVM's per thread allocation counter
+     *
+     * @return the counter, or null if the JVM does not have one or it is off
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean counter =
+                    (com.sun.management.ThreadMXBean) threads;
+                if (counter.isThreadAllocatedMemorySupported() &&
+                    counter.isThreadAllocatedMemoryEnabled()) {
+                    return counter;
+                } //if
+            } //if
+        } //try
+        //Not every JVM has the com.sun.management extensions
+        catch (LinkageError | UnsupportedOperationException e) {
+            return null;
+        } //catch
+        return null;
+    } //allocationCounter method
+} //ParkMetrics class
@@ -0,0 +1,89 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+/**
+ * Writes the park metrics to a local file in the Prometheus text format every
+ * few seconds, for a node exporter's textfile collector or for reading by
+ * hand. Each write goes to a temporary file that is then moved over the
+ * metrics file, so a reader never sees half of one. The metrics are written
+ * one last time when the reporter is closed.
+ */
+public class ParkMetricsReporter implements AutoCloseable {
+
+    /** File the metrics are written to*/
+    private final Path file;
+
+    /** Thread the metrics are written on*/
+    private final ScheduledExecutorService writer =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "park-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /**
+     * Starts writing the metrics to a file
+     *
+     * @param file file the metrics are written to
+     * @param period seconds between writes
+     * @throws IllegalArgumentException "Null file" if file is null
+     * @throws IllegalArgumentException "Invalid period" if period is less than 1
+     */
+    public ParkMetricsReporter(Path file, int period) {
+
+        //ERROR HANDLING IN USER INTERFACE IF FILE IS NULL
+        if (file == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF PERIOD IS LESS THAN 1
+        if (period < 1) {
+            throw new IllegalArgumentException("Invalid period");
+        } //if
+
+        this.file = file.toAbsolutePath();
+        writer.scheduleAtFixedRate(this::writeQuietly, period, period, TimeUnit.SECONDS);
+    } //ParkMetricsReporter constructor
+
+    /**
+     * Writes the metrics file now
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void write() throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temporary, ParkMetrics.toPrometheus(), StandardCharsets.UTF_8);
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } //try
+        //Some file systems cannot replace a file in one step
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        } //catch
+    } //write method
+
+    /**
+     * Stops writing the metrics file, after writing it one last time
+     */
+    @Override
+    public void close() {
+        writer.shutdownNow();
+        writeQuietly();
+    } //close method
+
+    /**
+     * Writes the metrics file, leaving the last one in place if it cannot be
+     * written, since a metrics file going stale should not stop the program
+     */
+    private synchronized void writeQuietly() {
+        try {
+            write();
+        } //try
+        catch (IOException e) {
+            new File(file + ".tmp").delete();
+        } //catch
+    } //writeQuietly method
+} //ParkMetricsReporter class
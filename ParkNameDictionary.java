@@ -0,0 +1,191 @@
+import java.util.*;
+
+/**
+ * Park names stored as dictionary codes instead of one String per park. Each
+ * name is split at its spaces into tokens, every distinct token is kept once
+ * in a dictionary, and the names are one int array of token ids. Park names
+ * repeat a few words over and over, such as "State", "Park", "Lake", and
+ * "Recreation Area", so the ids take a fraction of the memory of the Strings,
+ * and a name is only decoded when it is asked for.
+ *
+ * Splitting at spaces loses nothing, so a decoded name is the same as the
+ * original. It also means a keyword without a space is contained in a name
+ * exactly when it is contained in one of its tokens, so a search checks each
+ * distinct token once and then only compares ids. A keyword with spaces
+ * matches a run of tokens that ends with its first piece, equals its middle
+ * pieces, and starts with its last piece.
+ *
+ * This is an opt-in library class: no mode of the program builds one. The
+ * console, batch, and server modes keep the names of a ParkCatalog as Strings,
+ * since its name, fuzzy, and prefix indexes and the snapshot are built from
+ * them. A program that keeps a large column of names itself and only searches
+ * it should build a dictionary and call the ParkNameDictionary overloads of
+ * Parks.searchForPark and Parks.writeSearchResults.
+ */
+public class ParkNameDictionary {
+
+    /** Distinct tokens of the names, each a dictionary entry*/
+    private final String[] tokens;
+
+    /** Lowercase of each dictionary entry, for searching*/
+    private final String[] lowerTokens;
+
+    /** Token ids of every name, one name after another*/
+    private final int[] tokenIds;
+
+    /** Where each name's token ids start, with one extra entry for the end*/
+    private final int[] nameStarts;
+
+    /**
+     * Encodes the given park names
+     *
+     * @param names array of all the park names
+     * @throws IllegalArgumentException "Null array" if names is null
+     */
+    public ParkNameDictionary(String[] names) {
+
+        //ERROR HANDLING IN USER INTERFACE IF NAMES ARRAY IS NULL
+        if (names == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        Map<String, Integer> ids = new HashMap<String, Integer>();
+        List<String> entries = new ArrayList<String>();
+        int[] encoded = new int[Math.max(16, names.length * 4)];
+        int count = 0;
+        nameStarts = new int[names.length + 1];
+        for (int row = 0; row < names.length; row++) {
+            String name = names[row];
+            int start = 0;
+            while (start <= name.length()) {
+                int end = name.indexOf(' ', start);
+                if (end < 0) {
+                    end = name.length();
+                } //if
+                String token = name.substring(start, end);
+                Integer id = ids.get(token);
+                if (id == null) {
+                    id = entries.size();
+                    ids.put(token, id);
+                    entries.add(token);
+                } //if
+                if (count == encoded.length) {
+                    encoded = Arrays.copyOf(encoded, count * 2);
+                } //if
+                encoded[count++] = id;
+                start = end + 1;
+            } //while
+            nameStarts[row + 1] = count;
+        } //for
+
+        tokens = entries.toArray(new String[0]);
+        lowerTokens = new String[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            lowerTokens[i] = tokens[i].toLowerCase();
+        } //for
+        tokenIds = Arrays.copyOf(encoded, count);
+    } //ParkNameDictionary constructor
+
+    /**
+     * Returns the number of names
+     *
+     * @return the number of names
+     */
+    public int size() {
+        return nameStarts.length - 1;
+    } //size method
+
+    /**
+     * Returns the number of distinct tokens in the names
+     *
+     * @return the number of dictionary entries
+     */
+    public int tokenCount() {
+        return tokens.length;
+    } //tokenCount method
+
+    /**
+     * Decodes a park name
+     *
+     * @param row the park's row
+     * @return the park name, the same as the one encoded
+     * @throws IndexOutOfBoundsException if row is not a row of the names
+     */
+    public String getName(int row) {
+        int start = nameStarts[row];
+        int end = nameStarts[row + 1];
+        if (end - start == 1) {
+            return tokens[tokenIds[start]];
+        } //if
+        StringBuilder name = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            if (i > start) {
+                name.append(' ');
+            } //if
+            name.append(tokens[tokenIds[i]]);
+        } //for
+        return name.toString();
+    } //getName method
+
+    /**
+     * Decodes every park name
+     *
+     * @return array of all the park names
+     */
+    public String[] decodeAll() {
+        String[] names = new String[size()];
+        for (int row = 0; row < names.length; row++) {
+            names[row] = getName(row);
+        } //for
+        return names;
+    } //decodeAll method
+
+    /**
+     * Finds the parks whose names contain a keyword, ignoring case, the same
+     * parks a scan with String.contains finds
+     *
+     * @param parkName keyword to search for
+     * @return rows of the matching parks in ascending order
+     */
+    public int[] search(String parkName) {
+        String[] pieces = parkName.toLowerCase().split(" ", -1);
+        int last = pieces.length - 1;
+
+        //Checking each dictionary entry against each piece of the keyword once
+        boolean[][] matches = new boolean[pieces.length][tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            String token = lowerTokens[i];
+            if (last == 0) {
+                matches[0][i] = token.contains(pieces[0]);
+            } //if
+            else {
+                matches[0][i] = token.endsWith(pieces[0]);
+                for (int j = 1; j < last; j++) {
+                    matches[j][i] = token.equals(pieces[j]);
+                } //for
+                matches[last][i] = token.startsWith(pieces[last]);
+            } //else
+        } //for
+
+        //Finding a run of tokens that matches every piece in order, with ids only
+        int[] found = new int[16];
+        int count = 0;
+        for (int row = 0; row < size(); row++) {
+            boolean match = false;
+            for (int start = nameStarts[row]; start + last < nameStarts[row + 1] && !match;
+                 start++) {
+                match = true;
+                for (int j = 0; j <= last && match; j++) {
+                    match = matches[j][tokenIds[start + j]];
+                } //for
+            } //for
+            if (match) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                } //if
+                found[count++] = row;
+            } //if
+        } //for
+        return Arrays.copyOf(found, count);
+    } //search method
+} //ParkNameDictionary class
@@ -0,0 +1,343 @@
+import java.util.*;
+
+/**
+ * Trigram index over lowercased park names for "is/contains" searches. Every
+ * run of 3 characters in a name is a term, and each term keeps the rows of the
+ * names containing it as a sorted posting list. Lists are stored as varint
+ * encoded gaps between rows in a single byte array.
+ *
+ * A keyword of 3 or more characters can only be in names that contain every
+ * one of its trigrams, so a search intersects those posting lists and checks
+ * only the rows left with String.contains. Shorter keywords scan all names.
+ */
+public class ParkNameIndex implements ParkNameSearch {
+
+    /** Number of characters in a term*/
+    public static final int GRAM_LENGTH = 3;
+
+    /** Term stored in a hash slot that holds no trigram*/
+    private static final int NO_TERM = -1;
+
+    /** Lowercased park names, one per row*/
+    private final String[] lowerNames;
+
+    /** Trigram stored in each hash slot, 3 chars packed into 48 bits*/
+    private long[] slotGrams;
+
+    /** Term number stored in each hash slot, or NO_TERM if the slot is empty*/
+    private int[] slotTerms;
+
+    /** Number of distinct trigrams*/
+    private int termCount;
+
+    /** Index in postings where each term's list starts, with one extra entry for the end*/
+    private int[] postingStarts;
+
+    /** Number of rows in each term's list*/
+    private int[] postingCounts;
+
+    /** Varint encoded gaps between the rows of every posting list*/
+    private byte[] postings;
+
+    /**
+     * Builds the index over a column of park names
+     *
+     * @param names array of all the park names
+     * @throws IllegalArgumentException "Null array" if names is null
+     */
+    public ParkNameIndex(String[] names) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ARRAY PARAMETER IS NULL
+        if (names == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        lowerNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            lowerNames[i] = names[i].toLowerCase();
+        } //for
+
+        slotGrams = new long[64];
+        slotTerms = new int[64];
+        Arrays.fill(slotTerms, NO_TERM);
+
+        //First pass: numbering the trigrams and sizing each posting list
+        int[] lastRows = new int[64];
+        int[] byteLengths = new int[64];
+        int[] counts = new int[64];
+        for (int row = 0; row < lowerNames.length; row++) {
+            String name = lowerNames[row];
+            for (int j = 0; j + GRAM_LENGTH <= name.length(); j++) {
+                int term = addTerm(gram(name, j));
+                if (term == lastRows.length) {
+                    lastRows = Arrays.copyOf(lastRows, term * 2);
+                    byteLengths = Arrays.copyOf(byteLengths, term * 2);
+                    counts = Arrays.copyOf(counts, term * 2);
+                } //if
+                if (counts[term] == 0) {
+                    lastRows[term] = -1;
+                } //if
+
+                //A trigram repeated in one name is only listed once
+                if (lastRows[term] != row) {
+                    byteLengths[term] += varintLength(row - lastRows[term]);
+                    counts[term]++;
+                    lastRows[term] = row;
+                } //if
+            } //for
+        } //for
+
+        postingStarts = new int[termCount + 1];
+        for (int term = 0; term < termCount; term++) {
+            postingStarts[term + 1] = postingStarts[term] + byteLengths[term];
+        } //for
+        postingCounts = Arrays.copyOf(counts, termCount);
+        postings = new byte[postingStarts[termCount]];
+
+        //Second pass: writing the gaps between rows into each posting list
+        int[] cursors = Arrays.copyOf(postingStarts, termCount);
+        Arrays.fill(lastRows, -1);
+        for (int row = 0; row < lowerNames.length; row++) {
+            String name = lowerNames[row];
+            for (int j = 0; j + GRAM_LENGTH <= name.length(); j++) {
+                int term = findTerm(gram(name, j));
+                if (lastRows[term] != row) {
+                    cursors[term] = writeVarint(postings, cursors[term], row - lastRows[term]);
+                    lastRows[term] = row;
+                } //if
+            } //for
+        } //for
+    } //ParkNameIndex constructor
+
+    /**
+     * Finds the rows of all the park names that contain a keyword, ignoring case
+     * the same way as comparing the lowercased name and keyword
+     *
+     * @param parkName keyword to search for
+     * @return rows of the matching parks in ascending order
+     */
+    @Override
+    public int[] search(String parkName) {
+        String keyword = parkName.toLowerCase();
+
+        //Keywords too short to have a trigram are checked against every name
+        if (keyword.length() < GRAM_LENGTH) {
+            int[] rows = new int[lowerNames.length];
+            int count = 0;
+            for (int row = 0; row < lowerNames.length; row++) {
+                if (lowerNames[row].contains(keyword)) {
+                    rows[count++] = row;
+                } //if
+            } //for
+            return Arrays.copyOf(rows, count);
+        } //if
+
+        //Finding the posting list of every trigram in the keyword
+        int[] terms = new int[keyword.length() - GRAM_LENGTH + 1];
+        for (int j = 0; j < terms.length; j++) {
+            terms[j] = findTerm(gram(keyword, j));
+
+            //No name can match if one of the trigrams is in no name
+            if (terms[j] == NO_TERM) {
+                return new int[0];
+            } //if
+        } //for
+
+        //Starting from the shortest list keeps every intersection small
+        int shortest = 0;
+        for (int j = 1; j < terms.length; j++) {
+            if (postingCounts[terms[j]] < postingCounts[terms[shortest]]) {
+                shortest = j;
+            } //if
+        } //for
+        int[] candidates = decode(terms[shortest]);
+        int count = candidates.length;
+        for (int j = 0; j < terms.length && count > 0; j++) {
+            if (terms[j] != terms[shortest]) {
+                count = intersect(candidates, count, terms[j]);
+            } //if
+        } //for
+
+        //Checking that the trigrams are next to each other in each candidate
+        int matches = 0;
+        for (int i = 0; i < count; i++) {
+            if (lowerNames[candidates[i]].contains(keyword)) {
+                candidates[matches++] = candidates[i];
+            } //if
+        } //for
+        return Arrays.copyOf(candidates, matches);
+    } //search method
+
+    /**
+     * Decodes the posting list of a term
+     *
+     * @param term the term number
+     * @return rows in the term's list in ascending order
+     */
+    private int[] decode(int term) {
+        int[] rows = new int[postingCounts[term]];
+        int pos = postingStarts[term];
+        int row = -1;
+        for (int i = 0; i < rows.length; i++) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings[pos++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            row += gap;
+            rows[i] = row;
+        } //for
+        return rows;
+    } //decode method
+
+    /**
+     * Keeps only the candidates that are also in a term's posting list, decoding
+     * the list as it is walked
+     *
+     * @param candidates rows to filter in ascending order, filtered in place
+     * @param count number of candidates
+     * @param term the term number
+     * @return number of candidates left
+     */
+    private int intersect(int[] candidates, int count, int term) {
+        int pos = postingStarts[term];
+        int end = postingStarts[term + 1];
+        int row = -1;
+        int kept = 0;
+        int i = 0;
+        while (i < count && pos < end) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings[pos++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            row += gap;
+
+            while (i < count && candidates[i] < row) {
+                i++;
+            } //while
+            if (i < count && candidates[i] == row) {
+                candidates[kept++] = row;
+                i++;
+            } //if
+        } //while
+        return kept;
+    } //intersect method
+
+    /**
+     * Finds the term number of a trigram, numbering it if it is new
+     *
+     * @param gram the packed trigram
+     * @return the term number
+     */
+    private int addTerm(long gram) {
+        int mask = slotGrams.length - 1;
+        int slot = hash(gram) & mask;
+        while (slotTerms[slot] != NO_TERM) {
+            if (slotGrams[slot] == gram) {
+                return slotTerms[slot];
+            } //if
+            slot = (slot + 1) & mask;
+        } //while
+        slotGrams[slot] = gram;
+        slotTerms[slot] = termCount++;
+
+        //Doubling the table once it is half full
+        if (termCount * 2 > slotGrams.length) {
+            long[] oldGrams = slotGrams;
+            int[] oldTerms = slotTerms;
+            slotGrams = new long[oldGrams.length * 2];
+            slotTerms = new int[oldTerms.length * 2];
+            Arrays.fill(slotTerms, NO_TERM);
+            mask = slotGrams.length - 1;
+            for (int i = 0; i < oldGrams.length; i++) {
+                if (oldTerms[i] != NO_TERM) {
+                    int s = hash(oldGrams[i]) & mask;
+                    while (slotTerms[s] != NO_TERM) {
+                        s = (s + 1) & mask;
+                    } //while
+                    slotGrams[s] = oldGrams[i];
+                    slotTerms[s] = oldTerms[i];
+                } //if
+            } //for
+        } //if
+        return termCount - 1;
+    } //addTerm method
+
+    /**
+     * Finds the term number of a trigram
+     *
+     * @param gram the packed trigram
+     * @return the term number, or NO_TERM if no name contains the trigram
+     */
+    private int findTerm(long gram) {
+        int mask = slotGrams.length - 1;
+        for (int slot = hash(gram) & mask; slotTerms[slot] != NO_TERM; slot = (slot + 1) & mask) {
+            if (slotGrams[slot] == gram) {
+                return slotTerms[slot];
+            } //if
+        } //for
+        return NO_TERM;
+    } //findTerm method
+
+    /**
+     * Packs the 3 characters starting at an index into a long
+     *
+     * @param s the lowercased text
+     * @param index index of the first character
+     * @return the packed trigram
+     */
+    private static long gram(String s, int index) {
+        return ((long) s.charAt(index) << 32) | ((long) s.charAt(index + 1) << 16) |
+               s.charAt(index + 2);
+    } //gram method
+
+    /**
+     * Spreads the bits of a trigram for the hash table
+     *
+     * @param gram the packed trigram
+     * @return the mixed hash of the trigram
+     */
+    private static int hash(long gram) {
+        long h = gram * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    } //hash method
+
+    /**
+     * Calculates how many bytes a value takes as a varint
+     *
+     * @param value the non-negative value
+     * @return the number of bytes
+     */
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        } //while
+        return length;
+    } //varintLength method
+
+    /**
+     * Writes a value as a varint, 7 bits per byte with the high bit set on
+     * every byte but the last
+     *
+     * @param bytes array to write into
+     * @param pos index to write at
+     * @param value the non-negative value
+     * @return index after the last byte written
+     */
+    private static int writeVarint(byte[] bytes, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        } //while
+        bytes[pos++] = (byte) value;
+        return pos;
+    } //writeVarint method
+} //ParkNameIndex class
@@ -0,0 +1,17 @@
+/**
+ * Search for the park names that contain a keyword. A ParkNameIndex is one,
+ * and so are the index of a catalog made by applying changes to another
+ * catalog and a cached view of an index, so code that only searches names
+ * takes any of them.
+ */
+public interface ParkNameSearch {
+
+    /**
+     * Finds the rows of all the park names that contain a keyword, ignoring case
+     * the same way as comparing the lowercased name and keyword
+     *
+     * @param parkName keyword to search for
+     * @return rows of the matching parks in ascending order
+     */
+    int[] search(String parkName);
+} //ParkNameSearch interface
@@ -0,0 +1,306 @@
+import java.util.*;
+
+/**
+ * Prefix index over the park names for type-ahead completion. Every word of
+ * every lowercased name is a key that runs from the start of the word to the
+ * end of the name, so "rock st" completes to Hanging Rock State Park. The keys
+ * are not copied: each is a row and an offset into that row's lowercased
+ * name, 8 bytes a key, kept in two sorted arrays, one for the keys at the
+ * start of a name and one for the rest. A lookup binary searches each array
+ * for the first key at or after the prefix, and the keys that follow it with
+ * that prefix are already in order, so finding the top completions takes a
+ * few dozen string comparisons however many parks there are.
+ *
+ * Completions are ranked with names that start with the prefix first, then
+ * names with a later word that starts with it, each in alphabetical order of
+ * the matching key.
+ */
+public class ParkPrefixIndex {
+
+    /** Completions returned when no count is given*/
+    public static final int DEFAULT_COUNT = 10;
+
+    /** Park names in lowercase, one per row*/
+    private final String[] lowerNames;
+
+    /** Rows of the keys at the start of a name, in key order*/
+    private final int[] nameRows;
+
+    /** Rows of the keys at a later word of a name, in key order*/
+    private final int[] wordRows;
+
+    /** Offsets of the keys at a later word into their lowercased names*/
+    private final int[] wordOffsets;
+
+    /**
+     * Creates the index over the given park names
+     *
+     * @param names array of all the park names
+     * @throws IllegalArgumentException "Null array" if names is null
+     */
+    public ParkPrefixIndex(String[] names) {
+
+        //ERROR HANDLING IN USER INTERFACE IF NAMES ARRAY IS NULL
+        if (names == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        lowerNames = new String[names.length];
+        int wordCount = 0;
+        for (int row = 0; row < names.length; row++) {
+            lowerNames[row] = names[row].toLowerCase();
+            for (int i = 1; i < lowerNames[row].length(); i++) {
+                if (isWordStart(lowerNames[row], i)) {
+                    wordCount++;
+                } //if
+            } //for
+        } //for
+
+        //Every name's start is a key
+        int[] rows = new int[names.length];
+        int[] offsets = new int[names.length];
+        for (int row = 0; row < names.length; row++) {
+            rows[row] = row;
+        } //for
+        sort(rows, offsets);
+        nameRows = rows;
+
+        //So is the start of every later word
+        rows = new int[wordCount];
+        offsets = new int[wordCount];
+        int count = 0;
+        for (int row = 0; row < names.length; row++) {
+            for (int i = 1; i < lowerNames[row].length(); i++) {
+                if (isWordStart(lowerNames[row], i)) {
+                    rows[count] = row;
+                    offsets[count] = i;
+                    count++;
+                } //if
+            } //for
+        } //for
+        sort(rows, offsets);
+        wordRows = rows;
+        wordOffsets = offsets;
+    } //ParkPrefixIndex constructor
+
+    /**
+     * Finds the top completions of a prefix
+     *
+     * @param prefix what has been typed so far, ignoring case and leading spaces
+     * @param count most completions to return
+     * @return rows of the completing parks, best first, each row once
+     * @throws IllegalArgumentException "Invalid count" if count is less than 1
+     */
+    public int[] complete(String prefix, int count) {
+
+        //ERROR HANDLING IN USER INTERFACE IF COUNT IS LESS THAN 1
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid count");
+        } //if
+
+        String key = prefix.toLowerCase().stripLeading();
+        int[] found = new int[Math.min(count, lowerNames.length)];
+        ParkIdIndex foundRows = new ParkIdIndex(found.length);
+        int size = collect(key, nameRows, null, found, foundRows, 0);
+        size = collect(key, wordRows, wordOffsets, found, foundRows, size);
+        return Arrays.copyOf(found, size);
+    } //complete method
+
+    /**
+     * Adds the rows of the keys in one array that start with a prefix
+     *
+     * @param key the lowercased prefix
+     * @param rows rows of the keys in key order
+     * @param offsets offsets of the keys into their names, or null if every key
+     *          starts its name
+     * @param found rows found so far, filled up to its length
+     * @param foundRows index from each row found so far to its place in found
+     * @param size number of rows found so far
+     * @return the number of rows found now
+     */
+    private int collect(String key, int[] rows, int[] offsets, int[] found,
+                        ParkIdIndex foundRows, int size) {
+
+        //Finding the first key at or after the prefix
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareKey(rows[middle], offsets == null ? 0 : offsets[middle], key) < 0) {
+                low = middle + 1;
+            } //if
+            else {
+                high = middle;
+            } //else
+        } //while
+
+        //Taking the keys that start with the prefix, skipping rows already found
+        for (int i = low; i < rows.length && size < found.length; i++) {
+            int offset = offsets == null ? 0 : offsets[i];
+            if (!lowerNames[rows[i]].startsWith(key, offset)) {
+                break;
+            } //if
+            if (foundRows.putIfAbsent(rows[i], size) == ParkIdIndex.NO_ROW) {
+                found[size++] = rows[i];
+            } //if
+        } //for
+        return size;
+    } //collect method
+
+    /**
+     * Compares a key with a prefix, up to the prefix's length
+     *
+     * @param row row of the key's name
+     * @param offset offset of the key into its lowercased name
+     * @param prefix the lowercased prefix
+     * @return less than 0 if the key is before every key with the prefix, 0 if
+     *         it starts with the prefix, or more than 0 if it is after them
+     */
+    private int compareKey(int row, int offset, String prefix) {
+        String name = lowerNames[row];
+        int length = Math.min(name.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int difference = name.charAt(offset + i) - prefix.charAt(i);
+            if (difference != 0) {
+                return difference;
+            } //if
+        } //for
+        return length == prefix.length() ? 0 : -1;
+    } //compareKey method
+
+    /**
+     * Compares two keys
+     *
+     * @param row1 row of the first key's name
+     * @param offset1 offset of the first key into its lowercased name
+     * @param row2 row of the second key's name
+     * @param offset2 offset of the second key into its lowercased name
+     * @return less than 0, 0, or more than 0 as the first key is before, the
+     *         same as, or after the second, with ties broken by row
+     */
+    private int compareKeys(int row1, int offset1, int row2, int offset2) {
+        String name1 = lowerNames[row1];
+        String name2 = lowerNames[row2];
+        int length = Math.min(name1.length() - offset1, name2.length() - offset2);
+        for (int i = 0; i < length; i++) {
+            int difference = name1.charAt(offset1 + i) - name2.charAt(offset2 + i);
+            if (difference != 0) {
+                return difference;
+            } //if
+        } //for
+        int difference = (name1.length() - offset1) - (name2.length() - offset2);
+        return difference != 0 ? difference : Integer.compare(row1, row2);
+    } //compareKeys method
+
+    /**
+     * Sorts keys into key order. The keys are first sorted as longs by their
+     * first two characters, which needs no boxing and no string comparisons,
+     * and then each run of keys with the same two characters is merge sorted.
+     *
+     * @param rows rows of the keys, sorted in place
+     * @param offsets offsets of the keys, sorted in place along with rows
+     */
+    private void sort(int[] rows, int[] offsets) {
+        long[] packed = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            packed[i] = (long) charAt(rows[i], offsets[i]) << 48 |
+                        (long) charAt(rows[i], offsets[i] + 1) << 32 | i;
+        } //for
+        Arrays.sort(packed);
+
+        int[] sortedRows = new int[rows.length];
+        int[] sortedOffsets = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            sortedRows[i] = rows[(int) packed[i]];
+            sortedOffsets[i] = offsets[(int) packed[i]];
+        } //for
+        System.arraycopy(sortedRows, 0, rows, 0, rows.length);
+        System.arraycopy(sortedOffsets, 0, offsets, 0, offsets.length);
+
+        //Reusing the copies as the merge sort's buffers
+        int start = 0;
+        for (int i = 1; i <= rows.length; i++) {
+            if (i == rows.length || packed[i] >>> 32 != packed[start] >>> 32) {
+                if (i - start > 1) {
+                    mergeSort(rows, offsets, start, i, sortedRows, sortedOffsets);
+                } //if
+                start = i;
+            } //if
+        } //for
+    } //sort method
+
+    /**
+     * Sorts a range of keys into key order with a bottom up merge sort
+     *
+     * @param rows rows of the keys, sorted in place
+     * @param offsets offsets of the keys, sorted in place along with rows
+     * @param from first key of the range
+     * @param to end of the range
+     * @param rowBuffer scratch space as long as rows
+     * @param offsetBuffer scratch space as long as offsets
+     */
+    private void mergeSort(int[] rows, int[] offsets, int from, int to,
+                           int[] rowBuffer, int[] offsetBuffer) {
+        int[] fromRows = rows;
+        int[] fromOffsets = offsets;
+        int[] toRows = rowBuffer;
+        int[] toOffsets = offsetBuffer;
+        for (int width = 1; width < to - from; width *= 2) {
+            for (int start = from; start < to; start += 2 * width) {
+                int middle = Math.min(start + width, to);
+                int end = Math.min(start + 2 * width, to);
+                int i = start;
+                int j = middle;
+                for (int k = start; k < end; k++) {
+                    if (j >= end || (i < middle &&
+                        compareKeys(fromRows[i], fromOffsets[i],
+                                    fromRows[j], fromOffsets[j]) <= 0)) {
+                        toRows[k] = fromRows[i];
+                        toOffsets[k] = fromOffsets[i];
+                        i++;
+                    } //if
+                    else {
+                        toRows[k] = fromRows[j];
+                        toOffsets[k] = fromOffsets[j];
+                        j++;
+                    } //else
+                } //for
+            } //for
+            int[] swap = fromRows;
+            fromRows = toRows;
+            toRows = swap;
+            swap = fromOffsets;
+            fromOffsets = toOffsets;
+            toOffsets = swap;
+        } //for
+
+        //Copying back if the last pass wrote into the buffers
+        if (fromRows != rows) {
+            System.arraycopy(fromRows, from, rows, from, to - from);
+            System.arraycopy(fromOffsets, from, offsets, from, to - from);
+        } //if
+    } //mergeSort method
+
+    /**
+     * Returns a character of a lowercased name, or 0 past its end
+     *
+     * @param row row of the name
+     * @param i position of the character
+     * @return the character, or 0 if the name is shorter
+     */
+    private char charAt(int row, int i) {
+        return i < lowerNames[row].length() ? lowerNames[row].charAt(i) : 0;
+    } //charAt method
+
+    /**
+     * Checks if a word of letters and digits starts at a position in a name
+     *
+     * @param name the lowercased name
+     * @param i the position, more than 0
+     * @return true if the character at i starts a word
+     */
+    private static boolean isWordStart(String name, int i) {
+        return Character.isLetterOrDigit(name.charAt(i)) &&
+               !Character.isLetterOrDigit(name.charAt(i - 1));
+    } //isWordStart method
+} //ParkPrefixIndex class
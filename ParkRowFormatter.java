@@ -0,0 +1,241 @@
+import java.io.*;
+import java.text.DecimalFormatSymbols;
+import java.util.*;
+
+/**
+ * Formats park rows into fixed width columns and writes them straight to an
+ * Appendable, giving the same text as String.format with "%3d", "%-40s", and
+ * "%8.2f" without parsing a format string or making a String for every row.
+ * Each row is built in a buffer that is reused from row to row, so one
+ * formatter should be used by one thread at a time.
+ *
+ * A value is rounded to 2 decimals with integer arithmetic unless it is within
+ * a thousandth of a cent of halfway between 2 cents, where the rounding of its
+ * decimal digits matters, or too large for the arithmetic to be exact. Values
+ * that are exactly a half cent in decimal still round up here; the rest of
+ * those values, and every value in a locale that does not write digits with
+ * '0' to '9', are still formatted by String.format.
+ */
+public class ParkRowFormatter {
+
+    /** Width of the id column*/
+    public static final int ID_WIDTH = 3;
+
+    /** Width of the name column*/
+    public static final int NAME_WIDTH = 40;
+
+    /** Width of the latitude, longitude, and distance columns*/
+    public static final int DECIMAL_WIDTH = 8;
+
+    /** Format used for the values that are not rounded with integer arithmetic*/
+    private static final String DECIMAL_FORMAT = "%" + DECIMAL_WIDTH + ".2f";
+
+    /** Largest magnitude rounded with integer arithmetic*/
+    private static final double FAST_LIMIT = 1e9;
+
+    /** Closest a value times 100 can be to a half cent and still be rounded with integer arithmetic*/
+    private static final double HALF_CENT_MARGIN = 1e-3;
+
+    /** Row being formatted, reused for every row*/
+    private final StringBuilder row = new StringBuilder(128);
+
+    /** Characters of the row for writing it to a Writer*/
+    private char[] chars = new char[128];
+
+    /** Decimal separator of the default format locale*/
+    private final char decimalSeparator;
+
+    /** True if the default format locale writes digits with '0' to '9'*/
+    private final boolean asciiDigits;
+
+    /**
+     * Creates a formatter for the default format locale, the one String.format uses
+     */
+    public ParkRowFormatter() {
+        DecimalFormatSymbols symbols =
+            DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        decimalSeparator = symbols.getDecimalSeparator();
+        asciiDigits = symbols.getZeroDigit() == '0';
+    } //ParkRowFormatter constructor
+
+    /**
+     * Writes a park's id, name, latitude, and longitude as a line, the same as
+     * String.format("%3d %-40s %8.2f %8.2f\n", ...)
+     *
+     * @param out where the line is written
+     * @param id the id of the park
+     * @param name the name of the park
+     * @param latitude the latitude coordinate for the park
+     * @param longitude the longitude coordinate for the park
+     * @throws IOException if out cannot be written to
+     */
+    public void appendPark(Appendable out, int id, String name,
+                           double latitude, double longitude) throws IOException {
+        row.setLength(0);
+        appendIdAndName(id, name);
+        row.append(' ');
+        appendDecimal(latitude);
+        row.append(' ');
+        appendDecimal(longitude);
+        row.append('\n');
+        flushRow(out);
+    } //appendPark method
+
+    /**
+     * Writes a park's id, name, latitude, longitude, and distance as a line, the
+     * same as String.format("%3d %-40s %8.2f %8.2f %8.2f\n", ...)
+     *
+     * @param out where the line is written
+     * @param id the id of the park
+     * @param name the name of the park
+     * @param latitude the latitude coordinate for the park
+     * @param longitude the longitude coordinate for the park
+     * @param distance the distance to the park
+     * @throws IOException if out cannot be written to
+     */
+    public void appendParkDistance(Appendable out, int id, String name, double latitude,
+                                   double longitude, double distance) throws IOException {
+        row.setLength(0);
+        appendIdAndName(id, name);
+        row.append(' ');
+        appendDecimal(latitude);
+        row.append(' ');
+        appendDecimal(longitude);
+        row.append(' ');
+        appendDecimal(distance);
+        row.append('\n');
+        flushRow(out);
+    } //appendParkDistance method
+
+    /**
+     * Writes a trip park's id, name, and distance as a line, the same as
+     * String.format("%3d %-40s %8.2f\n", ...)
+     *
+     * @param out where the line is written
+     * @param id the id of the park
+     * @param name the name of the park
+     * @param distance the distance of the trip up to the park
+     * @throws IOException if out cannot be written to
+     */
+    public void appendTripPark(Appendable out, int id, String name,
+                               double distance) throws IOException {
+        row.setLength(0);
+        appendIdAndName(id, name);
+        row.append(' ');
+        appendDecimal(distance);
+        row.append('\n');
+        flushRow(out);
+    } //appendTripPark method
+
+    /**
+     * Adds the id right aligned in its column and the name left aligned in its
+     * column to the row
+     *
+     * @param id the id of the park
+     * @param name the name of the park
+     */
+    private void appendIdAndName(int id, String name) {
+        if (!asciiDigits) {
+            row.append(String.format("%" + ID_WIDTH + "d", id));
+        } //if
+        else {
+            pad(ID_WIDTH - (id < 0 ? 1 : 0) - digits(Math.abs((long) id)));
+            row.append(id);
+        } //else
+        row.append(' ');
+        row.append(name);
+        pad(NAME_WIDTH - (name == null ? 4 : name.length()));
+    } //appendIdAndName method
+
+    /**
+     * Adds a value rounded half up to 2 decimals and right aligned in its
+     * column to the row
+     *
+     * @param value the value
+     */
+    private void appendDecimal(double value) {
+        double magnitude = Math.abs(value);
+
+        //Values the integer arithmetic cannot round the same way as String.format
+        if (!asciiDigits || !(magnitude < FAST_LIMIT)) {
+            row.append(String.format(DECIMAL_FORMAT, value));
+            return;
+        } //if
+        double scaled = magnitude * 100.0;
+        double wholeCents = Math.floor(scaled);
+        double fraction = scaled - wholeCents;
+        long cents = (long) wholeCents + (fraction > 0.5 ? 1 : 0);
+        if (Math.abs(fraction - 0.5) < HALF_CENT_MARGIN) {
+
+            //A value read from exactly a half cent, like 35.125, has that as its
+            //decimal digits and rounds up
+            if (magnitude == (2 * wholeCents + 1) / 200.0) {
+                cents = (long) wholeCents + 1;
+            } //if
+            else {
+                row.append(String.format(DECIMAL_FORMAT, value));
+                return;
+            } //else
+        } //if
+
+        long whole = cents / 100;
+        int part = (int) (cents % 100);
+
+        //-0.0 and values that round to -0.00 keep their minus sign
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        pad(DECIMAL_WIDTH - (negative ? 1 : 0) - digits(whole) - 3);
+        if (negative) {
+            row.append('-');
+        } //if
+        row.append(whole);
+        row.append(decimalSeparator);
+        row.append((char) ('0' + part / 10));
+        row.append((char) ('0' + part % 10));
+    } //appendDecimal method
+
+    /**
+     * Adds spaces to the row
+     *
+     * @param count number of spaces, none if it is less than 1
+     */
+    private void pad(int count) {
+        for (int i = 0; i < count; i++) {
+            row.append(' ');
+        } //for
+    } //pad method
+
+    /**
+     * Counts the decimal digits of a non-negative value
+     *
+     * @param value the value
+     * @return the number of digits, 1 for 0
+     */
+    private static int digits(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        } //while
+        return count;
+    } //digits method
+
+    /**
+     * Writes the row to out without making a String from it
+     *
+     * @param out where the row is written
+     * @throws IOException if out cannot be written to
+     */
+    private void flushRow(Appendable out) throws IOException {
+        if (out instanceof Writer) {
+            int length = row.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            } //if
+            row.getChars(0, length, chars, 0);
+            ((Writer) out).write(chars, 0, length);
+        } //if
+        else {
+            out.append(row);
+        } //else
+    } //flushRow method
+} //ParkRowFormatter class
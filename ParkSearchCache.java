@@ -0,0 +1,223 @@
+import java.util.*;
+
+/**
+ * Bounded cache of keyword search results, so a keyword that is searched for
+ * again and again is only looked up in the name index once. Keywords are
+ * lowercased the same way the name index lowercases them, so "Lake" and "lake"
+ * share an entry. Each entry holds the matching rows, not formatted text, and
+ * the index it was found in, and is only used with that same index, so results
+ * found in a catalog that has since been reloaded are never returned for the
+ * new one. The least recently used entries are evicted once the cached rows,
+ * counting one for each entry, pass the capacity. invalidate() drops every
+ * entry and should be called when the catalog is reloaded, to free the old
+ * results at once.
+ *
+ * A cache is safe to use from many threads. Searches that miss run outside
+ * its lock, so two threads missing on the same keyword may both search.
+ */
+public class ParkSearchCache {
+
+    /** Capacity used when none is given, in cached rows*/
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /** Most rows the cache holds, counting one for each entry*/
+    private final long capacity;
+
+    /** Entries by lowercased keyword, least recently used first*/
+    private final LinkedHashMap<String, Entry> entries =
+        new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    /** Rows held by the entries, counting one for each entry*/
+    private long weight;
+
+    /** Number of searches answered from the cache*/
+    private long hits;
+
+    /** Number of searches that had to use the name index*/
+    private long misses;
+
+    /** Number of entries evicted to stay within the capacity*/
+    private long evictions;
+
+    /** The last index view made by getIndex, reused while its index is current*/
+    private volatile CachedNameIndex view;
+
+    /**
+     * Creates an empty cache
+     *
+     * @param capacity most rows the cache holds, counting one for each entry
+     * @throws IllegalArgumentException "Invalid capacity" if capacity is less than 1
+     */
+    public ParkSearchCache(int capacity) {
+
+        //ERROR HANDLING IN USER INTERFACE IF CAPACITY IS LESS THAN 1
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity");
+        } //if
+
+        this.capacity = capacity;
+    } //ParkSearchCache constructor
+
+    /**
+     * Finds the rows of all the park names that contain a keyword, from the
+     * cache if the keyword was already searched for in the same index
+     *
+     * @param nameIndex name index to search
+     * @param parkName keyword to search for
+     * @return rows of the matching parks in ascending order, shared with the
+     *         cache and not to be changed
+     * @throws IllegalArgumentException "Null index" if nameIndex is null
+     */
+    public int[] search(ParkNameSearch nameIndex, String parkName) {
+
+        //ERROR HANDLING IN USER INTERFACE IF NAME INDEX IS NULL
+        if (nameIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+
+        String keyword = parkName.toLowerCase();
+        synchronized (entries) {
+            Entry entry = entries.get(keyword);
+            if (entry != null && entry.index == nameIndex) {
+                hits++;
+                return entry.rows;
+            } //if
+            misses++;
+        } //synchronized
+
+        int[] rows = nameIndex.search(keyword);
+        put(keyword, new Entry(nameIndex, rows));
+        return rows;
+    } //search method
+
+    /**
+     * Returns a view of a name index whose searches go through this cache, for
+     * passing to code that takes a name index
+     *
+     * @param nameIndex name index to search
+     * @return the cached view of the index
+     * @throws IllegalArgumentException "Null index" if nameIndex is null
+     */
+    public ParkNameSearch getIndex(ParkNameSearch nameIndex) {
+
+        //ERROR HANDLING IN USER INTERFACE IF NAME INDEX IS NULL
+        if (nameIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+
+        CachedNameIndex cached = view;
+        if (cached == null || cached.getBase() != nameIndex) {
+            cached = new CachedNameIndex(this, nameIndex);
+            view = cached;
+        } //if
+        return cached;
+    } //getIndex method
+
+    /**
+     * Drops every entry. The counters are kept.
+     */
+    public void invalidate() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        } //synchronized
+    } //invalidate method
+
+    /**
+     * Returns the number of keywords in the cache
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        } //synchronized
+    } //size method
+
+    /**
+     * Returns the number of searches answered from the cache
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        synchronized (entries) {
+            return hits;
+        } //synchronized
+    } //getHits method
+
+    /**
+     * Returns the number of searches that had to use the name index
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        synchronized (entries) {
+            return misses;
+        } //synchronized
+    } //getMisses method
+
+    /**
+     * Returns the number of entries evicted to stay within the capacity, not
+     * counting the ones dropped by invalidate()
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        synchronized (entries) {
+            return evictions;
+        } //synchronized
+    } //getEvictions method
+
+    /**
+     * Adds an entry, evicting the least recently used ones to make room
+     *
+     * @param keyword the lowercased keyword
+     * @param entry the rows found and the index they were found in
+     */
+    private void put(String keyword, Entry entry) {
+        long entryWeight = entry.rows.length + 1L;
+
+        //A result bigger than the whole cache would only evict everything else
+        if (entryWeight > capacity) {
+            return;
+        } //if
+
+        synchronized (entries) {
+            Entry old = entries.put(keyword, entry);
+            if (old != null) {
+                weight -= old.rows.length + 1L;
+            } //if
+            weight += entryWeight;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (weight > capacity) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                weight -= evicted.rows.length + 1L;
+                evictions++;
+            } //while
+        } //synchronized
+    } //put method
+
+    /**
+     * Rows found for a keyword and the index they were found in
+     */
+    private static class Entry {
+
+        /** Name index the rows were found in*/
+        private final ParkNameSearch index;
+
+        /** Rows of the matching parks in ascending order*/
+        private final int[] rows;
+
+        /**
+         * Creates an entry
+         *
+         * @param index name index the rows were found in
+         * @param rows rows of the matching parks
+         */
+        private Entry(ParkNameSearch index, int[] rows) {
+            this.index = index;
+            this.rows = rows;
+        } //Entry constructor
+    } //Entry class
+} //ParkSearchCache class
@@ -0,0 +1,802 @@
+import com.sun.net.httpserver.*;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Serves park queries over HTTP from one loaded catalog, using the JDK's
+ * built in HttpServer. Every response is plain text in the same columns the
+ * console prints:
+ *
+ * <pre>
+ * GET /parks?offset=0&amp;limit=100              list parks
+ * GET /parks/search?q=lake&amp;offset=0&amp;limit=100 search for parks
+ * GET /parks/search?q=jordon+lak&amp;fuzzy=2       search allowing 2 typos a word
+ * GET /parks/complete?prefix=jor&amp;count=10      complete a park name as it is typed
+ * GET /parks/{id}                             one park
+ * GET /parks/nearest?lat=35.7&amp;lon=-78.6&amp;count=5
+ * GET /parks/nearest?lat=35.7&amp;lon=-78.6&amp;radius=20
+ * GET /parks/nearest?lat=35.7&amp;lon=-78.6&amp;radius=20&amp;model=haversine
+ * GET /trip/distance?ids=198,203,201          distances of a trip
+ * POST /sessions                              open a trip planning session
+ * GET /sessions/{session}/trip                the session's trip
+ * POST /sessions/{session}/trip?add=198       add a park, or insert it with &amp;position=2
+ * POST /sessions/{session}/trip?remove=2      remove the park at a position
+ * POST /sessions/{session}/trip?move=1&amp;to=3   move a park in the trip
+ * POST /sessions/{session}/trip?optimize      reorder the trip to make it shorter
+ * GET /sessions/{session}/along?miles=25&amp;count=10  parks along the trip
+ * DELETE /sessions/{session}                  end the session
+ * POST /reload                                reload the park file
+ * POST /reload?mode=update                    apply only the changed parks
+ * GET /stats                                  search cache counters and metrics
+ * </pre>
+ *
+ * offset and limit are optional. Bad parameters get a 400 response with the
+ * same message the console prints, and unknown parks and sessions get a 404.
+ * Positions in a trip count from 1, as in the console.
+ *
+ * Each request runs on its own virtual thread when the JVM has them, so
+ * thousands of slow clients do not need a tuned pool. Older JVMs use a cached
+ * pool of platform threads instead. Each request takes the current catalog
+ * once and uses only it, and a trip is built for each trip request, so a
+ * reload that swaps in a new catalog never changes a request's parks part of
+ * the way through. Session trips are kept in TripSessions, which only locks
+ * the one session a request uses, evicts sessions left idle, and holds at
+ * most TripSessions.DEFAULT_MAX_PARKS parks in each session's trip.
+ */
+public class ParkServer {
+
+    /** Port used when none is given*/
+    public static final int DEFAULT_PORT = 8080;
+
+    /** Most completions one request can ask for*/
+    public static final int MAX_COMPLETIONS = 1000;
+
+    /** Most connections waiting to be accepted*/
+    private static final int BACKLOG = 1024;
+
+    /** Size of the response buffer in chars*/
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Content type of every response*/
+    private static final String CONTENT_TYPE = "text/plain; charset=UTF-8";
+
+    /** All the parks, reloaded from the park file on request*/
+    private final LiveParkCatalog parks;
+
+    /** Trip planning sessions*/
+    private final TripSessions sessions =
+        new TripSessions(TripSessions.DEFAULT_CAPACITY, TripSessions.DEFAULT_IDLE_SECONDS);
+
+    /** The HTTP server*/
+    private final HttpServer server;
+
+    /** Executor each request runs on*/
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server for a live catalog, not yet started
+     *
+     * @param parks all the parks
+     * @param address address to listen on, port 0 for any free port
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException "Null catalog" if parks is null
+     * @throws IllegalArgumentException "Null address" if address is null
+     */
+    public ParkServer(LiveParkCatalog parks, InetSocketAddress address) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF CATALOG IS NULL
+        if (parks == null) {
+            throw new IllegalArgumentException("Null catalog");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ADDRESS IS NULL
+        if (address == null) {
+            throw new IllegalArgumentException("Null address");
+        } //if
+
+        this.parks = parks;
+        server = HttpServer.create(address, BACKLOG);
+        server.createContext("/parks", this::handleParks);
+        server.createContext("/trip/distance", this::handleTripDistance);
+        server.createContext("/sessions", this::handleSessions);
+        server.createContext("/reload", this::handleReload);
+        server.createContext("/stats", this::handleStats);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+    } //ParkServer constructor
+
+    /**
+     * Starts answering requests
+     */
+    public void start() {
+        server.start();
+    } //start method
+
+    /**
+     * Stops answering requests
+     *
+     * @param delay most seconds to wait for requests being answered to finish
+     */
+    public void stop(int delay) {
+        server.stop(delay);
+        executor.shutdownNow();
+        sessions.close();
+    } //stop method
+
+    /**
+     * Returns the port the server listens on
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    } //getPort method
+
+    /**
+     * Answers a request for the park list, a search, the nearest parks, or one park
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handleParks(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!checkMethod(exchange)) {
+                return;
+            } //if
+            ParkCatalog catalog = parks.get();
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            try {
+                if (path.equals("/parks") || path.equals("/parks/")) {
+                    int offset = intParameter(query, "offset", 0, "Invalid offset");
+                    int limit = intParameter(query, "limit", Integer.MAX_VALUE, "Invalid limit");
+                    Writer out = startText(exchange, 200);
+                    Parks.writeParkList(out, offset, limit, catalog.getIds(), catalog.getNames(),
+                                        catalog.getLatitudes(), catalog.getLongitudes());
+                    out.flush();
+                } //if
+                else if (path.equals("/parks/search")) {
+                    String keyword = query.getOrDefault("q", "");
+                    int offset = intParameter(query, "offset", 0, "Invalid offset");
+                    int limit = intParameter(query, "limit", Integer.MAX_VALUE, "Invalid limit");
+                    if (query.containsKey("fuzzy")) {
+                        int distance = intParameter(query, "fuzzy", 0, "Invalid distance");
+
+                        //ERROR HANDLING IN USER INTERFACE IF DISTANCE IS TOO LARGE
+                        if (distance > ParkFuzzyIndex.MAX_DISTANCE) {
+                            throw new IllegalArgumentException("Invalid distance");
+                        } //if
+                        Writer out = startText(exchange, 200);
+                        Parks.writeFuzzySearchResults(out, offset, limit, keyword, distance,
+                                                      catalog.getFuzzyIndex(), catalog.getIds(),
+                                                      catalog.getNames(), catalog.getLatitudes(),
+                                                      catalog.getLongitudes());
+                        out.flush();
+                    } //if
+                    else {
+                        ParkNameSearch nameIndex =
+                            parks.getSearchCache().getIndex(catalog.getNameIndex());
+                        Writer out = startText(exchange, 200);
+                        Parks.writeSearchResults(out, offset, limit, keyword, nameIndex,
+                                                 catalog.getIds(), catalog.getNames(),
+                                                 catalog.getLatitudes(),
+                                                 catalog.getLongitudes());
+                        out.flush();
+                    } //else
+                } //else if
+                else if (path.equals("/parks/complete")) {
+                    String prefix = query.getOrDefault("prefix", "");
+                    int count = intParameter(query, "count", ParkPrefixIndex.DEFAULT_COUNT,
+                                             "Invalid count");
+
+                    //ERROR HANDLING IN USER INTERFACE IF COUNT IS 0 OR TOO LARGE
+                    if (count == 0 || count > MAX_COMPLETIONS) {
+                        throw new IllegalArgumentException("Invalid count");
+                    } //if
+                    Writer out = startText(exchange, 200);
+                    Parks.writeCompletions(out, prefix, count, catalog.getPrefixIndex(),
+                                           catalog.getIds(), catalog.getNames(),
+                                           catalog.getLatitudes(), catalog.getLongitudes());
+                    out.flush();
+                } //else if
+                else if (path.equals("/parks/nearest")) {
+                    sendText(exchange, 200, nearestParks(catalog, query));
+                } //else if
+                else {
+                    int index = -1;
+                    try {
+                        index = catalog.indexOf(Integer.parseInt(path.substring("/parks/".length())));
+                    } //try
+                    catch (NumberFormatException | IndexOutOfBoundsException e) {
+                        index = -1;
+                    } //catch
+
+                    //ERROR HANDLING IN USER INTERFACE IF PARK ID DOESN'T EXIST
+                    if (index == -1) {
+                        sendText(exchange, 404, "Invalid id\n");
+                        return;
+                    } //if
+                    sendText(exchange, 200, Parks.toString(catalog.getIds()[index],
+                                                           catalog.getNames()[index],
+                                                           catalog.getLatitudes()[index],
+                                                           catalog.getLongitudes()[index]) +
+                                            "\n");
+                } //else
+            } //try
+            //ERROR HANDLING IN USER INTERFACE IF A PARAMETER IS INVALID
+            catch (IllegalArgumentException e) {
+                sendText(exchange, 400, e.getMessage() + "\n");
+            } //catch
+        } //try
+    } //handleParks method
+
+    /**
+     * Answers a request for the distances of a trip through a list of park ids
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handleTripDistance(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!checkMethod(exchange)) {
+                return;
+            } //if
+            ParkCatalog catalog = parks.get();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String ids = query.getOrDefault("ids", "");
+
+            //Building the trip one park at a time
+            Trip trip = new Trip();
+            for (String id : ids.split(",")) {
+                if (id.isBlank()) {
+                    continue;
+                } //if
+                int parkId;
+                try {
+                    parkId = Integer.parseInt(id.strip());
+                } //try
+                //ERROR HANDLING IN USER INTERFACE IF PARK ID IS NOT A NUMBER
+                catch (NumberFormatException e) {
+                    sendText(exchange, 400, "Invalid id\n");
+                    return;
+                } //catch
+
+                //ERROR HANDLING IN USER INTERFACE IF PARK ID DOESN'T EXIST
+                if (catalog.indexOf(parkId) == -1) {
+                    sendText(exchange, 404, "Invalid id\n");
+                    return;
+                } //if
+                Parks.addParkToTrip(parkId, trip.size(), catalog.getIdIndex(), catalog.getIds(),
+                                    catalog.getNames(), catalog.getLatitudes(),
+                                    catalog.getLongitudes(), trip);
+            } //for
+
+            Writer out = startText(exchange, 200);
+            Parks.writeTrip(out, 0, Integer.MAX_VALUE, trip);
+            out.write(String.format("Total: %.2f miles\n", trip.getTotalDistance()));
+            out.flush();
+        } //try
+    } //handleTripDistance method
+
+    /**
+     * Answers a request to open or end a trip planning session, or to show,
+     * change, or find the parks along a session's trip
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handleSessions(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            //ERROR HANDLING IN USER INTERFACE IF PATH IS NOT A SESSION PATH
+            if (parts.length < 2 || !parts[1].equals("sessions") || parts.length > 4) {
+                sendText(exchange, 404, "Invalid session\n");
+                return;
+            } //if
+
+            //Opening a session
+            if (parts.length == 2) {
+
+                //ERROR HANDLING IN USER INTERFACE IF REQUEST IS NOT A POST
+                if (!method.equals("POST")) {
+                    exchange.getResponseHeaders().set("Allow", "POST");
+                    sendText(exchange, 405, "Invalid method\n");
+                    return;
+                } //if
+                try {
+                    sendText(exchange, 201, sessions.open() + "\n");
+                } //try
+                //ERROR HANDLING IN USER INTERFACE IF THERE ARE TOO MANY SESSIONS
+                catch (IllegalArgumentException e) {
+                    sendText(exchange, 503, e.getMessage() + "\n");
+                } //catch
+                return;
+            } //if
+
+            //ERROR HANDLING IN USER INTERFACE IF SESSION DOESN'T EXIST
+            String sessionId = parts[2];
+            if (!sessions.contains(sessionId)) {
+                sendText(exchange, 404, "Invalid session\n");
+                return;
+            } //if
+
+            //Ending a session
+            if (parts.length == 3) {
+
+                //ERROR HANDLING IN USER INTERFACE IF REQUEST IS NOT A DELETE
+                if (!method.equals("DELETE")) {
+                    exchange.getResponseHeaders().set("Allow", "DELETE");
+                    sendText(exchange, 405, "Invalid method\n");
+                    return;
+                } //if
+                sessions.end(sessionId);
+                sendText(exchange, 200, "Session ended\n");
+                return;
+            } //if
+
+            ParkCatalog catalog = parks.get();
+            try {
+                if (parts[3].equals("trip") && method.equals("POST")) {
+
+                    //ERROR HANDLING IN USER INTERFACE IF PARK ID DOESN'T EXIST
+                    if (query.containsKey("add") &&
+                        catalog.indexOf(intParameter(query, "add", -1, "Invalid id")) == -1) {
+
+                        sendText(exchange, 404, "Invalid id\n");
+                        return;
+                    } //if
+                    sendText(exchange, 200, editTrip(catalog, sessionId, query));
+                } //if
+                else if (parts[3].equals("trip") && checkMethod(exchange)) {
+
+                    //Writing the trip while it is locked and sending it after
+                    String text = sessions.withTrip(sessionId, trip -> {
+                        StringBuilder out = new StringBuilder();
+                        try {
+                            Parks.writeTrip(out, 0, Integer.MAX_VALUE, trip);
+                        } //try
+                        //A StringBuilder is never unable to be written to
+                        catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } //catch
+                        out.append(String.format("Total: %.2f miles\n", trip.getTotalDistance()));
+                        return out.toString();
+                    });
+                    sendText(exchange, 200, text);
+                } //else if
+                else if (parts[3].equals("along") && checkMethod(exchange)) {
+                    double radius = doubleParameter(query, "miles", "Invalid radius");
+                    int count = intParameter(query, "count", 10, "Invalid number of parks");
+                    sendText(exchange, 200, sessions.withTrip(sessionId, trip ->
+                        Parks.getParksAlongTrip(trip, radius, count, catalog.getSpatialIndex(),
+                                                catalog.getIds(), catalog.getNames(),
+                                                catalog.getLatitudes(),
+                                                catalog.getLongitudes())));
+                } //else if
+                else if (!parts[3].equals("trip") && !parts[3].equals("along")) {
+                    sendText(exchange, 404, "Invalid session\n");
+                } //else if
+            } //try
+            //ERROR HANDLING IN USER INTERFACE IF A PARAMETER IS INVALID
+            catch (IllegalArgumentException e) {
+                sendText(exchange, e.getMessage().equals("Invalid session") ? 404 : 400,
+                         e.getMessage() + "\n");
+            } //catch
+        } //try
+    } //handleSessions method
+
+    /**
+     * Adds, inserts, removes, or moves a park in a session's trip, or reorders
+     * the trip to make it shorter
+     *
+     * @param catalog the catalog the request uses
+     * @param sessionId id of the session
+     * @param query the request's parameters
+     * @return the console's message for the change
+     * @throws IllegalArgumentException with the console's message if a
+     *           parameter is missing or invalid, "Too many parks in trip" if a
+     *           park is added to a full trip, or "Invalid session" if the
+     *           session has ended
+     */
+    private String editTrip(ParkCatalog catalog, String sessionId, Map<String, String> query) {
+        if (query.containsKey("add")) {
+            int parkId = intParameter(query, "add", -1, "Invalid id");
+
+            //Whether the park is inserted at a position, or added to the end
+            boolean inserted = query.containsKey("position");
+            int position = intParameter(query, "position", 0, "Invalid position") - 1;
+            int index = catalog.indexOf(parkId);
+            return sessions.addToTrip(sessionId, trip -> {
+
+                //ERROR HANDLING IN USER INTERFACE IF POSITION IS INVALID
+                if (inserted && (position < 0 || position > trip.size())) {
+                    throw new IllegalArgumentException("Invalid position");
+                } //if
+                Parks.addParkToTrip(parkId, inserted ? position : trip.size(),
+                                    catalog.getIdIndex(), catalog.getIds(), catalog.getNames(),
+                                    catalog.getLatitudes(), catalog.getLongitudes(), trip);
+                return "Park added to trip: " + catalog.getNames()[index] + "\n";
+            });
+        } //if
+        else if (query.containsKey("remove")) {
+            int position = intParameter(query, "remove", 0, "Invalid position") - 1;
+            return sessions.withTrip(sessionId, trip -> {
+                String name = trip.getName(position);
+                trip.remove(position);
+                return "Park removed from trip: " + name + "\n";
+            });
+        } //else if
+        else if (query.containsKey("move")) {
+            int from = intParameter(query, "move", 0, "Invalid position") - 1;
+            int to = intParameter(query, "to", 0, "Invalid position") - 1;
+            return sessions.withTrip(sessionId, trip -> {
+                trip.move(from, to);
+                return "Park moved in trip: " + trip.getName(to) + "\n";
+            });
+        } //else if
+        else if (query.containsKey("optimize")) {
+            return sessions.withTrip(sessionId, trip -> {
+                Parks.optimizeTrip(trip);
+                return String.format("Trip optimized: %.2f miles\n", trip.getTotalDistance());
+            });
+        } //else if
+
+        //ERROR HANDLING IN USER INTERFACE IF THE CHANGE IS NOT LISTED
+        throw new IllegalArgumentException("Invalid option");
+    } //editTrip method
+
+    /**
+     * Answers a request to reload the park file, or with mode=update to apply
+     * only the changed parks, which goes on in the background while the old
+     * catalog keeps answering requests
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handleReload(HttpExchange exchange) throws IOException {
+        try (exchange) {
+
+            //ERROR HANDLING IN USER INTERFACE IF REQUEST IS NOT A POST
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendText(exchange, 405, "Invalid method\n");
+                return;
+            } //if
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            if ("update".equals(query.get("mode"))) {
+                parks.update();
+                sendText(exchange, 202, "Updating " + parks.getParkFile() + "\n");
+                return;
+            } //if
+            parks.reload();
+            sendText(exchange, 202, "Reloading " + parks.getParkFile() + "\n");
+        } //try
+    } //handleReload method
+
+    /**
+     * Answers a request for the search cache's counters and the operation
+     * metrics in the Prometheus text format
+     *
+     * @param exchange the request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!checkMethod(exchange)) {
+                return;
+            } //if
+            ParkSearchCache cache = parks.getSearchCache();
+            sendText(exchange, 200, "search_cache_hits " + cache.getHits() + "\n" +
+                                    "search_cache_misses " + cache.getMisses() + "\n" +
+                                    "search_cache_evictions " + cache.getEvictions() + "\n" +
+                                    "search_cache_entries " + cache.size() + "\n" +
+                                    "trip_sessions " + sessions.size() + "\n" +
+                                    "trip_session_evictions " + sessions.getEvictions() + "\n" +
+                                    ParkMetrics.toPrometheus());
+        } //try
+    } //handleStats method
+
+    /**
+     * Finds the nearest parks or the parks within a radius of a location. A
+     * radius may be measured by any DistanceModel, and the nearest parks are
+     * always planar.
+     *
+     * @param catalog the catalog the request uses
+     * @param query the request's parameters
+     * @return the list of parks and their distances
+     * @throws IllegalArgumentException with the console's message if a
+     *           parameter is missing or invalid
+     */
+    private static String nearestParks(ParkCatalog catalog, Map<String, String> query) {
+        double latitude = doubleParameter(query, "lat", "Invalid latitude");
+        double longitude = doubleParameter(query, "lon", "Invalid longitude");
+        if (query.containsKey("radius")) {
+            DistanceModel model = query.containsKey("model") ?
+                                  DistanceModel.parse(query.get("model")) : DistanceModel.PLANAR;
+            return Parks.getParksWithinRadius(latitude, longitude,
+                                              doubleParameter(query, "radius", "Invalid radius"),
+                                              model, catalog.getSpatialIndex(), catalog.getIds(),
+                                              catalog.getNames(), catalog.getLatitudes(),
+                                              catalog.getLongitudes());
+        } //if
+        return Parks.getNearestParks(latitude, longitude,
+                                     intParameter(query, "count", 10, "Invalid number of parks"),
+                                     catalog.getSpatialIndex(), catalog.getIds(),
+                                     catalog.getNames(), catalog.getLatitudes(),
+                                     catalog.getLongitudes());
+    } //nearestParks method
+
+    /**
+     * Answers requests that are not GET or HEAD with 405
+     *
+     * @param exchange the request and its response
+     * @return true if the request can be answered
+     * @throws IOException if the response cannot be sent
+     */
+    private static boolean checkMethod(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (method.equals("GET") || method.equals("HEAD")) {
+            return true;
+        } //if
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        sendText(exchange, 405, "Invalid method\n");
+        return false;
+    } //checkMethod method
+
+    /**
+     * Sends the response headers for a text body of unknown length
+     *
+     * @param exchange the request and its response
+     * @param status the HTTP status code
+     * @return buffered writer for the body, to be flushed when done
+     * @throws IOException if the headers cannot be sent
+     */
+    private static Writer startText(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(status, head ? -1 : 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                                                         StandardCharsets.UTF_8), BUFFER_SIZE);
+    } //startText method
+
+    /**
+     * Sends a whole text response
+     *
+     * @param exchange the request and its response
+     * @param status the HTTP status code
+     * @param text the body
+     * @throws IOException if the response cannot be sent
+     */
+    private static void sendText(HttpExchange exchange, int status, String text)
+                                 throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(status, head ? -1 : body.length);
+        if (!head) {
+            exchange.getResponseBody().write(body);
+        } //if
+    } //sendText method
+
+    /**
+     * Splits a raw query string into its decoded parameters
+     *
+     * @param rawQuery the query string, or null for none
+     * @return each parameter's value, the first one if it is repeated
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<String, String>();
+        if (rawQuery == null) {
+            return parameters;
+        } //if
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals == -1 ? pair : pair.substring(0, equals);
+            String value = equals == -1 ? "" : pair.substring(equals + 1);
+            try {
+                parameters.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                                       URLDecoder.decode(value, StandardCharsets.UTF_8));
+            } //try
+            //Skipping parameters with broken % escapes
+            catch (IllegalArgumentException e) {
+                continue;
+            } //catch
+        } //for
+        return parameters;
+    } //parseQuery method
+
+    /**
+     * Reads a whole number parameter
+     *
+     * @param query the request's parameters
+     * @param name name of the parameter
+     * @param missing value used if the parameter is missing
+     * @param message message of the exception if the parameter is not a whole
+     *          number of 0 or more
+     * @return the value
+     * @throws IllegalArgumentException message if the parameter is not a whole
+     *           number of 0 or more
+     */
+    private static int intParameter(Map<String, String> query, String name, int missing,
+                                    String message) {
+        String value = query.get(name);
+        if (value == null) {
+            return missing;
+        } //if
+        int number = -1;
+        try {
+            number = Integer.parseInt(value.strip());
+        } //try
+        catch (NumberFormatException e) {
+            number = -1;
+        } //catch
+
+        //ERROR HANDLING IN USER INTERFACE IF PARAMETER IS NOT A NUMBER OR IS NEGATIVE
+        if (number < 0) {
+            throw new IllegalArgumentException(message);
+        } //if
+        return number;
+    } //intParameter method
+
+    /**
+     * Reads a decimal number parameter that must be given
+     *
+     * @param query the request's parameters
+     * @param name name of the parameter
+     * @param message message of the exception if the parameter is missing or
+     *          not a number
+     * @return the value
+     * @throws IllegalArgumentException message if the parameter is missing or
+     *           not a number
+     */
+    private static double doubleParameter(Map<String, String> query, String name,
+                                          String message) {
+        try {
+            return Double.parseDouble(query.getOrDefault(name, "").strip());
+        } //try
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(message);
+        } //catch
+    } //doubleParameter method
+
+    /**
+     * Makes the executor requests run on: a new virtual thread for each request
+     * if the JVM has virtual threads, or else a cached pool of daemon threads.
+     * Virtual threads are looked up by name so the program still runs on JVMs
+     * without them.
+     *
+     * @return the executor
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } //try
+        //JVMs before virtual threads
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "park-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } //catch
+    } //newRequestExecutor method
+
+    /**
+     * Loads a park file and serves it until the program is stopped
+     *
+     * @param args optional "-port n", optional "-watch" to update the parks
+     *             whenever the park file is saved, and the park file
+     */
+    public static void main(String[] args) {
+
+        //Port to listen on
+        int port = DEFAULT_PORT;
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("-port")) {
+            try {
+                port = Integer.parseInt(args[1]);
+            } //try
+            catch (NumberFormatException e) {
+                port = -1;
+            } //catch
+            first = 2;
+        } //if
+
+        //Whether to watch the park file
+        boolean watch = args.length > first && args[first].equals("-watch");
+        if (watch) {
+            first++;
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF NOT 1 ARGUMENT
+        if (args.length - first != 1 || port < 0 || port > 65535) {
+            System.out.println("Usage: java -cp bin ParkServer [-port n] [-watch] parkfile");
+            System.exit(1);
+        } //if
+
+        //Starting the metrics file writer the system properties ask for, until exit
+        try {
+            ParkMetrics.startFromProperties();
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF METRICS PERIOD IS INVALID
+        catch (IllegalArgumentException e) {
+            System.out.println("Invalid metrics period");
+            System.exit(1);
+        } //catch
+
+        //Error file the system properties ask for, which makes the load lenient, or null
+        ParkErrorLog errors = null;
+        try {
+            errors = ParkErrorLog.fromProperties();
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF ERROR FILE CANNOT BE MADE
+        catch (IOException | InvalidPathException e) {
+            System.out.println("Cannot create error file");
+            System.exit(1);
+        } //catch
+        //ERROR HANDLING IN USER INTERFACE IF ERROR BUDGET IS INVALID
+        catch (IllegalArgumentException e) {
+            System.out.println("Invalid error budget");
+            System.exit(1);
+        } //catch
+
+        //All the parks from input file
+        ParkCatalog catalog = null;
+        try {
+            catalog = ParkSnapshot.loadParks(Path.of(args[first]), errors);
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF FILE IS INACCESSIBLE
+        catch (IOException | InvalidPathException e) {
+            System.out.println("Unable to access park file: " + args[first]);
+            System.exit(1);
+        } //catch
+
+        //ERROR HANDLING IN USER INTERFACE IF MORE ROWS ARE INVALID THAN THE BUDGET ALLOWS
+        if (errors != null && errors.isExceeded()) {
+            System.out.println("Too many invalid rows, see " + errors.getFile());
+            System.exit(1);
+        } //if
+        if (errors != null && errors.getCount() > 0) {
+            System.out.println("Skipped " + errors.getCount() + " invalid rows, see " +
+                               errors.getFile());
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS INVALID OR EMPTY
+        if (catalog == null || catalog.size() <= 0) {
+            System.out.println(catalog == null ? "Invalid park file" : "Empty park file");
+            System.exit(1);
+        } //if
+
+        LiveParkCatalog parks = new LiveParkCatalog(Path.of(args[first]), catalog);
+        if (watch) {
+            try {
+                new ParkFileWatcher(parks, System.out);
+            } //try
+            //ERROR HANDLING IN USER INTERFACE IF FILE CANNOT BE WATCHED
+            catch (IOException e) {
+                System.out.println("Unable to watch park file: " + args[first]);
+                System.exit(1);
+            } //catch
+        } //if
+
+        try {
+            ParkServer server = new ParkServer(parks, new InetSocketAddress(port));
+            server.start();
+            System.out.println("Serving " + catalog.size() + " parks on port " +
+                               server.getPort());
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF PORT CANNOT BE USED
+        catch (IOException e) {
+            System.out.println("Unable to listen on port " + port);
+            System.exit(1);
+        } //catch
+    } //main method
+} //ParkServer class
@@ -0,0 +1,791 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary columnar snapshot of a park catalog, compiled from a park file so
+ * later launches can skip parsing its text. The snapshot is memory mapped and
+ * its columns are copied out in bulk.
+ *
+ * Layout, all values little endian:
+ * <pre>
+ *   header        72 bytes, see the HEADER_ constants
+ *   ids           int per park, padded to 8 bytes
+ *   latitudes     double per park
+ *   longitudes    double per park
+ *   names         UTF-8 bytes of every name, one after another, padded to 4 bytes
+ *   name offsets  int per park plus one, where each name starts in the names
+ *   id keys       int per slot of the id index's table
+ *   id rows       int per slot of the id index's table
+ * </pre>
+ * The header records the size and modification time of the park file it was
+ * compiled from and a CRC-32C checksum of itself and of each section. Saving
+ * the id index's table means it is copied instead of rebuilt, and the names
+ * are only decoded into Strings when the catalog's names are first asked for,
+ * so reading a snapshot costs little more than copying its numbers.
+ * open() maps a snapshot as an OffHeapParkCatalog instead, which copies nothing.
+ */
+public class ParkSnapshot {
+
+    /** First 4 bytes of every snapshot, "NCPS"*/
+    public static final int MAGIC = 0x5350434E;
+
+    /** Version of the layout, changed whenever the layout changes*/
+    public static final int VERSION = 1;
+
+    /** Added to a park file's path to make the path of its snapshot*/
+    public static final String EXTENSION = ".snapshot";
+
+    /** Number of bytes in the header*/
+    public static final int HEADER_SIZE = 72;
+
+    /** Index in the header of the number of parks*/
+    private static final int HEADER_COUNT = 8;
+
+    /** Index in the header of the number of bytes of names*/
+    private static final int HEADER_NAMES_LENGTH = 12;
+
+    /** Index in the header of the park file's size*/
+    private static final int HEADER_SOURCE_SIZE = 16;
+
+    /** Index in the header of the park file's modification time in milliseconds*/
+    private static final int HEADER_SOURCE_MODIFIED = 24;
+
+    /** Index in the header of the number of slots in the id index's table*/
+    private static final int HEADER_ID_SLOTS = 32;
+
+    /** Index in the header of the first section checksum, one int per section*/
+    private static final int HEADER_CHECKSUMS = 36;
+
+    /** Index in the header of the checksum of the bytes before it*/
+    private static final int HEADER_CHECKSUM = 68;
+
+    /** Number of sections after the header*/
+    private static final int SECTIONS = 7;
+
+    /** Size of the buffer used to write a snapshot*/
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Loads a park file, using its snapshot if the snapshot was compiled from
+     * the file as it is now. Otherwise the file is parsed and the snapshot is
+     * compiled again. A snapshot that cannot be written, for example in a
+     * read-only directory, is skipped.
+     *
+     * @param parkFile path of the park file
+     * @return catalog of all the parks in the file, or null if the file is invalid
+     * @throws IOException if the park file cannot be opened or read
+     * @throws IllegalArgumentException "Null file" if parkFile is null
+     */
+    public static ParkCatalog loadParks(Path parkFile) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF PATH IS NULL
+        if (parkFile == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        Path snapshot = snapshotPath(parkFile);
+        long sourceSize = Files.size(parkFile);
+        long sourceModified = Files.getLastModifiedTime(parkFile).toMillis();
+
+        //Using the snapshot if it was compiled from this version of the park file
+        if (isCurrent(snapshot, sourceSize, sourceModified)) {
+            try {
+                ParkCatalog catalog = read(snapshot);
+                if (catalog != null) {
+                    return catalog;
+                } //if
+            } //try
+            //A snapshot that cannot be read is compiled again below
+            catch (IOException e) {
+                snapshot.toFile().delete();
+            } //catch
+        } //if
+
+        ParkCatalog catalog = ParkLoader.loadParks(parkFile);
+        if (catalog != null && catalog.size() > 0) {
+            try {
+                write(catalog, snapshot, sourceSize, sourceModified);
+            } //try
+            //Not being able to save the snapshot only costs time on the next launch
+            catch (IOException e) {
+                snapshot.toFile().delete();
+            } //catch
+        } //if
+        return catalog;
+    } //loadParks method
+
+    /**
+     * Loads a park file, leniently if an error log is given. A lenient load
+     * parses the park file every time, since a snapshot only holds a file
+     * that loaded without errors, and it does not compile one. The error log
+     * is closed once the file is loaded.
+     *
+     * @param parkFile path of the park file
+     * @param errors error log the rows that cannot be loaded are written to, or
+     *          null to load the file as loadParks(Path) does
+     * @return catalog of all the parks in the file, or null if the file is
+     *         invalid or more rows were skipped than the log's budget allows
+     * @throws IOException if the park file cannot be opened or read, or the
+     *           error log cannot be written
+     * @throws IllegalArgumentException "Null file" if parkFile is null
+     */
+    public static ParkCatalog loadParks(Path parkFile, ParkErrorLog errors) throws IOException {
+        if (errors == null) {
+            return loadParks(parkFile);
+        } //if
+        try (errors) {
+            return ParkLoader.loadParks(parkFile, errors);
+        } //try
+    } //loadParks method
+
+    /**
+     * Loads a park file as an off-heap catalog over its mapped snapshot. The
+     * snapshot is compiled first if it is missing or out of date, which reads
+     * the park file onto the heap once. When the snapshot cannot be written or
+     * mapped, or the load is lenient, the loaded catalog is copied into direct
+     * buffers instead.
+     *
+     * @param parkFile path of the park file
+     * @param errors error log the rows that cannot be loaded are written to, or
+     *          null to load the file as loadParks(Path) does
+     * @return off-heap catalog of all the parks in the file, or null if the file
+     *         is invalid or more rows were skipped than the log's budget allows
+     * @throws IOException if the park file cannot be opened or read, or the
+     *           error log cannot be written
+     * @throws IllegalArgumentException "Null file" if parkFile is null
+     */
+    public static OffHeapParkCatalog openParks(Path parkFile, ParkErrorLog errors)
+                                               throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF PATH IS NULL
+        if (parkFile == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        ParkCatalog catalog = null;
+        if (errors == null) {
+            Path snapshot = snapshotPath(parkFile);
+            long sourceSize = Files.size(parkFile);
+            long sourceModified = Files.getLastModifiedTime(parkFile).toMillis();
+
+            //Compiling the snapshot if it is not of this version of the park file
+            if (!isCurrent(snapshot, sourceSize, sourceModified)) {
+                catalog = loadParks(parkFile);
+                if (catalog == null) {
+                    return null;
+                } //if
+            } //if
+            if (isCurrent(snapshot, sourceSize, sourceModified)) {
+                try {
+                    OffHeapParkCatalog mapped = open(snapshot);
+                    if (mapped != null) {
+                        return mapped;
+                    } //if
+                } //try
+                //A snapshot that cannot be mapped is copied from the park file below
+                catch (IOException e) {
+                    catalog = null;
+                } //catch
+            } //if
+        } //if
+
+        if (catalog == null) {
+            catalog = errors == null ? ParkLoader.loadParks(parkFile) : loadParks(parkFile, errors);
+        } //if
+        return catalog == null ? null : OffHeapParkCatalog.copyOf(catalog);
+    } //openParks method
+
+    /**
+     * Makes the path of a park file's snapshot
+     *
+     * @param parkFile path of the park file
+     * @return path of the snapshot, next to the park file
+     */
+    public static Path snapshotPath(Path parkFile) {
+        return parkFile.resolveSibling(parkFile.getFileName() + EXTENSION);
+    } //snapshotPath method
+
+    /**
+     * Checks if a snapshot exists and was compiled from a park file with the
+     * given size and modification time
+     *
+     * @param snapshot path of the snapshot
+     * @param sourceSize size of the park file in bytes
+     * @param sourceModified modification time of the park file in milliseconds
+     * @return true if the snapshot is up to date
+     */
+    public static boolean isCurrent(Path snapshot, long sourceSize, long sourceModified) {
+        if (!Files.isRegularFile(snapshot)) {
+            return false;
+        } //if
+        try (FileChannel in = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                continue;
+            } //while
+            return !header.hasRemaining() && checkHeader(header) &&
+                   header.getLong(HEADER_SOURCE_SIZE) == sourceSize &&
+                   header.getLong(HEADER_SOURCE_MODIFIED) == sourceModified &&
+                   Files.getLastModifiedTime(snapshot).toMillis() >= sourceModified;
+        } //try
+        catch (IOException e) {
+            return false;
+        } //catch
+    } //isCurrent method
+
+    /**
+     * Writes a catalog to a snapshot. The snapshot is written to a temporary
+     * file next to it first and then moved into place, so a snapshot is never
+     * seen half written.
+     *
+     * @param catalog the catalog to write
+     * @param snapshot path of the snapshot
+     * @param sourceSize size of the park file the catalog was loaded from
+     * @param sourceModified modification time in milliseconds of the park file
+     *          the catalog was loaded from
+     * @throws IOException if the snapshot cannot be written
+     * @throws IllegalArgumentException "Null catalog" if catalog is null
+     * @throws IllegalArgumentException "Null file" if snapshot is null
+     * @throws IllegalArgumentException "Too many parks" if the names do not fit
+     *           in a snapshot
+     */
+    public static void write(ParkCatalog catalog, Path snapshot,
+                             long sourceSize, long sourceModified) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF CATALOG IS NULL
+        if (catalog == null) {
+            throw new IllegalArgumentException("Null catalog");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF PATH IS NULL
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        int count = catalog.size();
+        int[] ids = catalog.getIds();
+        String[] names = catalog.getNames();
+        double[] latitudes = catalog.getLatitudes();
+        double[] longitudes = catalog.getLongitudes();
+        int[] checksums = new int[SECTIONS];
+        int[] nameOffsets = new int[count + 1];
+
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                                                StandardOpenOption.TRUNCATE_EXISTING,
+                                                StandardOpenOption.WRITE)) {
+            SectionWriter writer = new SectionWriter(out);
+            writer.buffer.put(new byte[HEADER_SIZE]);
+
+            for (int i = 0; i < count; i++) {
+                writer.ensure(Integer.BYTES).putInt(ids[i]);
+            } //for
+            checksums[0] = writer.endSection(8);
+
+            for (int i = 0; i < count; i++) {
+                writer.ensure(Double.BYTES).putDouble(latitudes[i]);
+            } //for
+            checksums[1] = writer.endSection(8);
+
+            for (int i = 0; i < count; i++) {
+                writer.ensure(Double.BYTES).putDouble(longitudes[i]);
+            } //for
+            checksums[2] = writer.endSection(8);
+
+            long namesLength = 0;
+            for (int i = 0; i < count; i++) {
+                byte[] name = names[i].getBytes(StandardCharsets.UTF_8);
+                namesLength += name.length;
+
+                //ERROR HANDLING IN USER INTERFACE IF THE NAMES ARE TOO LONG FOR INT OFFSETS
+                if (namesLength > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Too many parks");
+                } //if
+                nameOffsets[i + 1] = (int) namesLength;
+                writer.put(name);
+            } //for
+            checksums[3] = writer.endSection(4);
+
+            for (int i = 0; i <= count; i++) {
+                writer.ensure(Integer.BYTES).putInt(nameOffsets[i]);
+            } //for
+            checksums[4] = writer.endSection(4);
+
+            int[] slotKeys = catalog.getPlainIdIndex().getKeys();
+            int[] slotRows = catalog.getPlainIdIndex().getRows();
+            for (int i = 0; i < slotKeys.length; i++) {
+                writer.ensure(Integer.BYTES).putInt(slotKeys[i]);
+            } //for
+            checksums[5] = writer.endSection(4);
+            for (int i = 0; i < slotRows.length; i++) {
+                writer.ensure(Integer.BYTES).putInt(slotRows[i]);
+            } //for
+            checksums[6] = writer.endSection(1);
+            writer.flush();
+
+            //Filling in the header now that every checksum is known
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(HEADER_COUNT, count);
+            header.putInt(HEADER_NAMES_LENGTH, (int) namesLength);
+            header.putLong(HEADER_SOURCE_SIZE, sourceSize);
+            header.putLong(HEADER_SOURCE_MODIFIED, sourceModified);
+            header.putInt(HEADER_ID_SLOTS, catalog.getPlainIdIndex().getKeys().length);
+            for (int i = 0; i < SECTIONS; i++) {
+                header.putInt(HEADER_CHECKSUMS + i * Integer.BYTES, checksums[i]);
+            } //for
+            header.putInt(HEADER_CHECKSUM, headerChecksum(header));
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += out.write(header, position);
+            } //while
+            out.force(false);
+        } //try
+        catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } //catch
+
+        try {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } //try
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        } //catch
+    } //write method
+
+    /**
+     * Reads a snapshot, checking its header, its layout, and the checksum of
+     * every section
+     *
+     * @param snapshot path of the snapshot
+     * @return catalog of all the parks in the snapshot, or null if it is not a
+     *         snapshot of this version or is damaged
+     * @throws IOException if the snapshot cannot be opened or read
+     * @throws IllegalArgumentException "Null file" if snapshot is null
+     */
+    public static ParkCatalog read(Path snapshot) throws IOException {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        ParkCatalog catalog = readSnapshot(snapshot);
+        int rows = catalog == null ? 0 : catalog.size();
+        ParkMetrics.LOAD.record(startTime, startAllocated, rows, rows);
+        return catalog;
+    } //read method
+
+    /**
+     * Reads a snapshot, checking its header, its layout, and the checksum of
+     * every section, without recording metrics
+     *
+     * @param snapshot path of the snapshot
+     * @return catalog of all the parks in the snapshot, or null if it is not a
+     *         snapshot of this version or is damaged
+     * @throws IOException if the snapshot cannot be opened or read
+     * @throws IllegalArgumentException "Null file" if snapshot is null
+     */
+    private static ParkCatalog readSnapshot(Path snapshot) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF PATH IS NULL
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        try (FileChannel in = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer[] sections = mapSections(in);
+            if (sections == null || !checkColumns(sections)) {
+                return null;
+            } //if
+
+            //Copying the columns out in bulk
+            int count = sections[0].capacity() / Integer.BYTES;
+            int idSlots = sections[5].capacity() / Integer.BYTES;
+            int[] ids = new int[count];
+            sections[0].asIntBuffer().get(ids);
+            double[] latitudes = new double[count];
+            sections[1].asDoubleBuffer().get(latitudes);
+            double[] longitudes = new double[count];
+            sections[2].asDoubleBuffer().get(longitudes);
+            int[] nameOffsets = new int[count + 1];
+            sections[4].asIntBuffer().get(nameOffsets);
+            int[] slotKeys = new int[idSlots];
+            sections[5].asIntBuffer().get(slotKeys);
+            int[] slotRows = new int[idSlots];
+            sections[6].asIntBuffer().get(slotRows);
+
+            ByteBuffer names = sections[3];
+            return new ParkCatalog(ids, () -> decodeNames(names, nameOffsets), latitudes,
+                                   longitudes, new ParkIdIndex(slotKeys, slotRows, count));
+        } //try
+    } //readSnapshot method
+
+    /**
+     * Maps a snapshot as an off-heap catalog instead of reading it, checking it
+     * as read() does. Nothing is copied onto the heap: the catalog reads the
+     * mapped file, and the operating system pages it in as it is used.
+     *
+     * @param snapshot path of the snapshot
+     * @return catalog over the mapped snapshot, or null if it is not a
+     *         snapshot of this version or is damaged
+     * @throws IOException if the snapshot cannot be opened or mapped
+     * @throws IllegalArgumentException "Null file" if snapshot is null
+     */
+    public static OffHeapParkCatalog open(Path snapshot) throws IOException {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+
+        //ERROR HANDLING IN USER INTERFACE IF PATH IS NULL
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+
+        OffHeapParkCatalog catalog = null;
+
+        //The mappings stay valid after the channel is closed
+        try (FileChannel in = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer[] sections = mapSections(in);
+            if (sections != null && checkColumns(sections)) {
+                catalog = new OffHeapParkCatalog(sections[0], sections[1], sections[2],
+                                                 sections[3], sections[4], sections[5],
+                                                 sections[6]);
+            } //if
+        } //try
+        int rows = catalog == null ? 0 : catalog.size();
+        ParkMetrics.LOAD.record(startTime, startAllocated, rows, rows);
+        return catalog;
+    } //open method
+
+    /**
+     * Maps every section of a snapshot after checking its header, its layout,
+     * and the checksum of every section
+     *
+     * @param in the snapshot
+     * @return the sections in layout order, each little endian and without its
+     *         padding, or null if it is not a snapshot of this version or is damaged
+     * @throws IOException if the snapshot cannot be read or mapped
+     */
+    private static ByteBuffer[] mapSections(FileChannel in) throws IOException {
+        long fileSize = in.size();
+        if (fileSize < HEADER_SIZE) {
+            return null;
+        } //if
+        ByteBuffer header = map(in, 0, HEADER_SIZE);
+        if (!checkHeader(header)) {
+            return null;
+        } //if
+
+        int count = header.getInt(HEADER_COUNT);
+        int namesLength = header.getInt(HEADER_NAMES_LENGTH);
+        int idSlots = header.getInt(HEADER_ID_SLOTS);
+        if (count < 0 || namesLength < 0 || idSlots < 2L * count ||
+            Integer.bitCount(idSlots) != 1) {
+
+            return null;
+        } //if
+
+        //Finding where each section starts from the numbers in the header
+        long idsStart = HEADER_SIZE;
+        long latitudesStart = idsStart + align((long) count * Integer.BYTES, 8);
+        long longitudesStart = latitudesStart + (long) count * Double.BYTES;
+        long namesStart = longitudesStart + (long) count * Double.BYTES;
+        long offsetsStart = namesStart + align(namesLength, 4);
+        long keysStart = offsetsStart + ((long) count + 1) * Integer.BYTES;
+        long rowsStart = keysStart + (long) idSlots * Integer.BYTES;
+        long end = rowsStart + (long) idSlots * Integer.BYTES;
+        if (end != fileSize) {
+            return null;
+        } //if
+
+        //Mapping each section without its padding, which is not in its checksum
+        ByteBuffer[] sections = {
+            map(in, idsStart, (long) count * Integer.BYTES),
+            map(in, latitudesStart, longitudesStart - latitudesStart),
+            map(in, longitudesStart, namesStart - longitudesStart),
+            map(in, namesStart, namesLength),
+            map(in, offsetsStart, keysStart - offsetsStart),
+            map(in, keysStart, rowsStart - keysStart),
+            map(in, rowsStart, end - rowsStart)
+        };
+        for (int i = 0; i < SECTIONS; i++) {
+            CRC32C crc = new CRC32C();
+            crc.update(sections[i].duplicate());
+            if ((int) crc.getValue() != header.getInt(HEADER_CHECKSUMS + i * Integer.BYTES)) {
+                return null;
+            } //if
+        } //for
+        return sections;
+    } //mapSections method
+
+    /**
+     * Checks the columns of a snapshot whose checksums match, so that a
+     * snapshot written by a damaged program is not trusted either
+     *
+     * @param sections the sections in layout order
+     * @return true if the name offsets run in order over the names, every slot
+     *         of the id index holds a row of the catalog, and every park is on
+     *         the earth
+     */
+    private static boolean checkColumns(ByteBuffer[] sections) {
+        IntBuffer ids = sections[0].asIntBuffer();
+        DoubleBuffer latitudes = sections[1].asDoubleBuffer();
+        DoubleBuffer longitudes = sections[2].asDoubleBuffer();
+        IntBuffer nameOffsets = sections[4].asIntBuffer();
+        IntBuffer slotKeys = sections[5].asIntBuffer();
+        IntBuffer slotRows = sections[6].asIntBuffer();
+        int count = ids.capacity();
+
+        //Checking the name offsets so decoding the names later cannot fail
+        if (nameOffsets.get(0) != 0 || nameOffsets.get(count) != sections[3].capacity()) {
+            return false;
+        } //if
+        for (int i = 0; i < count; i++) {
+            if (nameOffsets.get(i + 1) < nameOffsets.get(i)) {
+                return false;
+            } //if
+        } //for
+
+        //Checking every slot of the id index holds a row of the catalog
+        int used = 0;
+        for (int i = 0; i < slotRows.capacity(); i++) {
+            int row = slotRows.get(i);
+            if (row != ParkIdIndex.NO_ROW) {
+                if (row < 0 || row >= count || ids.get(row) != slotKeys.get(i)) {
+                    return false;
+                } //if
+                used++;
+            } //if
+        } //for
+        if (used != count) {
+            return false;
+        } //if
+
+        //Checking every park is on the earth
+        for (int i = 0; i < count; i++) {
+            if (latitudes.get(i) < Parks.LATITUDE_MIN_DEGREES ||
+                latitudes.get(i) > Parks.LATITUDE_MAX_DEGREES ||
+                longitudes.get(i) < Parks.LONGITUDE_MIN_DEGREES ||
+                longitudes.get(i) > Parks.LONGITUDE_MAX_DEGREES) {
+
+                return false;
+            } //if
+        } //for
+        return true;
+    } //checkColumns method
+
+    /**
+     * Compiles the snapshot of a park file
+     *
+     * @param args path of the park file, and optionally the path of the snapshot
+     */
+    public static void main(String[] args) {
+
+        //ERROR HANDLING IN USER INTERFACE IF NOT 1 OR 2 ARGUMENTS
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java -cp bin ParkSnapshot parkfile [snapshotfile]");
+            System.exit(1);
+        } //if
+
+        try {
+            Path parkFile = Path.of(args[0]);
+            Path snapshot = args.length == 2 ? Path.of(args[1]) : snapshotPath(parkFile);
+            long sourceSize = Files.size(parkFile);
+            long sourceModified = Files.getLastModifiedTime(parkFile).toMillis();
+            ParkCatalog catalog = ParkLoader.loadParks(parkFile);
+
+            //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS INVALID
+            if (catalog == null) {
+                System.out.println("Invalid park file");
+                System.exit(1);
+            } //if
+            write(catalog, snapshot, sourceSize, sourceModified);
+            System.out.println("Wrote " + catalog.size() + " parks to " + snapshot);
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF A FILE IS INACCESSIBLE
+        catch (IOException | InvalidPathException e) {
+            System.out.println("Unable to compile park file: " + args[0]);
+            System.exit(1);
+        } //catch
+    } //main method
+
+    /**
+     * Decodes every park name from a snapshot's names section
+     *
+     * @param names the names section
+     * @param nameOffsets where each name starts in the names, with one extra
+     *          entry for the end
+     * @return array of all the park names
+     */
+    private static String[] decodeNames(ByteBuffer names, int[] nameOffsets) {
+        String[] decoded = new String[nameOffsets.length - 1];
+        byte[] name = new byte[64];
+        for (int i = 0; i < decoded.length; i++) {
+            int length = nameOffsets[i + 1] - nameOffsets[i];
+            if (name.length < length) {
+                name = new byte[Math.max(length, name.length * 2)];
+            } //if
+            names.get(nameOffsets[i], name, 0, length);
+            decoded[i] = new String(name, 0, length, StandardCharsets.UTF_8);
+        } //for
+        return decoded;
+    } //decodeNames method
+
+    /**
+     * Checks the magic number, version, and checksum of a header
+     *
+     * @param header the header, little endian
+     * @return true if the header is of a snapshot of this version and undamaged
+     */
+    private static boolean checkHeader(ByteBuffer header) {
+        return header.getInt(0) == MAGIC && header.getInt(4) == VERSION &&
+               header.getInt(HEADER_CHECKSUM) == headerChecksum(header);
+    } //checkHeader method
+
+    /**
+     * Calculates the checksum of the header bytes before the header checksum
+     *
+     * @param header the header
+     * @return the CRC-32C of the bytes
+     */
+    private static int headerChecksum(ByteBuffer header) {
+        CRC32C crc = new CRC32C();
+        crc.update(header.duplicate().position(0).limit(HEADER_CHECKSUM));
+        return (int) crc.getValue();
+    } //headerChecksum method
+
+    /**
+     * Maps a part of a file read-only, little endian
+     *
+     * @param in the file
+     * @param start index of the first byte
+     * @param length number of bytes
+     * @return the mapped bytes
+     * @throws IOException if the file cannot be mapped
+     */
+    private static ByteBuffer map(FileChannel in, long start, long length) throws IOException {
+        return in.map(FileChannel.MapMode.READ_ONLY, start, length)
+                 .order(ByteOrder.LITTLE_ENDIAN);
+    } //map method
+
+    /**
+     * Rounds a length up to a multiple of an alignment
+     *
+     * @param length the length
+     * @param alignment the alignment, a power of 2
+     * @return the aligned length
+     */
+    private static long align(long length, int alignment) {
+        return (length + alignment - 1) & -alignment;
+    } //align method
+
+    /**
+     * Writes sections to a channel through a buffer, keeping the checksum of the
+     * section being written
+     */
+    private static final class SectionWriter {
+
+        /** Channel being written to*/
+        private final FileChannel out;
+
+        /** Buffer of bytes not yet written, little endian*/
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE)
+                                            .order(ByteOrder.LITTLE_ENDIAN);
+
+        /** Checksum of the section being written*/
+        private final CRC32C crc = new CRC32C();
+
+        /** Index in the buffer where the bytes of the section being written start*/
+        private int sectionStart = HEADER_SIZE;
+
+        /** Number of bytes written to the channel*/
+        private long written;
+
+        /**
+         * Creates a writer over a channel
+         *
+         * @param out channel to write to, at its start
+         */
+        SectionWriter(FileChannel out) {
+            this.out = out;
+        } //SectionWriter constructor
+
+        /**
+         * Makes room in the buffer
+         *
+         * @param bytes number of bytes that must fit
+         * @return the buffer
+         * @throws IOException if the channel cannot be written
+         */
+        ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            } //if
+            return buffer;
+        } //ensure method
+
+        /**
+         * Adds bytes to the section being written
+         *
+         * @param bytes the bytes
+         * @throws IOException if the channel cannot be written
+         */
+        void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int length = Math.min(ensure(1).remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            } //while
+        } //put method
+
+        /**
+         * Ends the section being written, padding it with zeros to an alignment
+         *
+         * @param alignment the alignment, a power of 2
+         * @return the checksum of the section, without its padding
+         * @throws IOException if the channel cannot be written
+         */
+        int endSection(int alignment) throws IOException {
+            updateChecksum();
+            int checksum = (int) crc.getValue();
+            crc.reset();
+
+            //Making room first so the padding is never flushed into the next checksum
+            ensure(alignment);
+            while (((written + buffer.position()) & (alignment - 1)) != 0) {
+                buffer.put((byte) 0);
+            } //while
+            sectionStart = buffer.position();
+            return checksum;
+        } //endSection method
+
+        /**
+         * Writes the buffer to the channel
+         *
+         * @throws IOException if the channel cannot be written
+         */
+        void flush() throws IOException {
+            updateChecksum();
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += out.write(buffer);
+            } //while
+            buffer.clear();
+            sectionStart = 0;
+        } //flush method
+
+        /**
+         * Adds the bytes of the section still in the buffer to the checksum
+         */
+        private void updateChecksum() {
+            ByteBuffer section = buffer.duplicate();
+            section.limit(buffer.position()).position(sectionStart);
+            crc.update(section);
+            sectionStart = buffer.position();
+        } //updateChecksum method
+    } //SectionWriter class
+} //ParkSnapshot class
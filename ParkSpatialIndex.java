@@ -0,0 +1,605 @@
+import java.util.*;
+
+/**
+ * K-d tree over park latitudes and longitudes for nearest-park and
+ * within-radius queries. Distances are the same planar distances as
+ * Parks.calculateDistance, so longitudes do not wrap around at 180 degrees,
+ * unless a within-radius query asks for another DistanceModel.
+ *
+ * Each node keeps the bounding box of its parks. A query skips a node when
+ * the smallest distance from the query point to that box is already larger
+ * than the distances it is looking for, so it only touches the parks close to
+ * the point. Parks with a NaN coordinate are never near anything and are
+ * left out of the tree.
+ */
+public class ParkSpatialIndex {
+
+    /** Most parks kept in a leaf node*/
+    public static final int LEAF_SIZE = 16;
+
+    /** Rows of the indexed parks in tree order, each leaf covers a range of them*/
+    private final int[] rows;
+
+    /** Latitudes of the indexed parks in tree order*/
+    private final double[] pointLatitudes;
+
+    /** Longitudes of the indexed parks in tree order*/
+    private final double[] pointLongitudes;
+
+    /** First index into rows covered by each node*/
+    private int[] nodeStarts;
+
+    /** Index into rows after the last one covered by each node*/
+    private int[] nodeEnds;
+
+    /** Left child of each node, or -1 for a leaf*/
+    private int[] nodeLefts;
+
+    /** Right child of each node, or -1 for a leaf*/
+    private int[] nodeRights;
+
+    /** Bounding box of each node: min latitude, max latitude, min longitude, max longitude*/
+    private double[] nodeBoxes;
+
+    /** Number of nodes in the tree*/
+    private int nodeCount;
+
+    /**
+     * Builds the tree over columns of park coordinates
+     *
+     * @param latitudes array of all the park latitudes
+     * @param longitudes array of all the park longitudes
+     * @throws IllegalArgumentException "Null array" if any of the array
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if the arrays are
+     *           not the same length
+     */
+    public ParkSpatialIndex(double[] latitudes, double[] longitudes) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (latitudes == null || longitudes == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        //Leaving out parks with a NaN coordinate
+        int count = 0;
+        int[] indexed = new int[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            if (!Double.isNaN(latitudes[i]) && !Double.isNaN(longitudes[i])) {
+                indexed[count++] = i;
+            } //if
+        } //for
+        rows = Arrays.copyOf(indexed, count);
+        pointLatitudes = new double[count];
+        pointLongitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            pointLatitudes[i] = latitudes[rows[i]];
+            pointLongitudes[i] = longitudes[rows[i]];
+        } //for
+
+        int capacity = Math.max(1, 4 * count / LEAF_SIZE + 2);
+        nodeStarts = new int[capacity];
+        nodeEnds = new int[capacity];
+        nodeLefts = new int[capacity];
+        nodeRights = new int[capacity];
+        nodeBoxes = new double[capacity * 4];
+        if (count > 0) {
+            build(0, count);
+        } //if
+    } //ParkSpatialIndex constructor
+
+    /**
+     * Returns the number of parks in the tree
+     *
+     * @return the number of indexed parks
+     */
+    public int size() {
+        return rows.length;
+    } //size method
+
+    /**
+     * Finds the parks closest to a location
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param count the most parks to return
+     * @return rows of up to count parks, closest first, ties in row order
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees or more than 180 degrees
+     * @throws IllegalArgumentException "Invalid number of parks" if count is
+     *           less than 1
+     */
+    public int[] nearest(double latitude, double longitude, int count) {
+        checkLocation(latitude, longitude);
+
+        //ERROR HANDLING IN USER INTERFACE IF NUMBER OF PARKS IS LESS THAN 1
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid number of parks");
+        } //if
+
+        //Max-heap of the closest parks found so far, farthest at the top
+        int capacity = Math.min(count, rows.length);
+        int[] heapRows = new int[capacity];
+        double[] heapDistances = new double[capacity];
+        int heapSize = 0;
+        if (capacity == 0) {
+            return new int[0];
+        } //if
+
+        //Nodes still to visit, nearer children are pushed last so they are visited first
+        int[] stack = new int[64];
+        double[] stackBounds = new double[64];
+        int top = 0;
+        stack[top] = 0;
+        stackBounds[top++] = 0.0;
+        while (top > 0) {
+            top--;
+            int node = stack[top];
+            if (heapSize == capacity && stackBounds[top] > heapDistances[0]) {
+                continue;
+            } //if
+
+            if (nodeLefts[node] < 0) {
+                for (int i = nodeStarts[node]; i < nodeEnds[node]; i++) {
+                    double distance = Parks.calculateDistance(latitude, longitude,
+                                                              pointLatitudes[i],
+                                                              pointLongitudes[i]);
+                    if (heapSize < capacity) {
+                        heapRows[heapSize] = rows[i];
+                        heapDistances[heapSize] = distance;
+                        siftUp(heapRows, heapDistances, heapSize++);
+                    } //if
+                    else if (farther(heapDistances[0], heapRows[0], distance, rows[i])) {
+                        heapRows[0] = rows[i];
+                        heapDistances[0] = distance;
+                        siftDown(heapRows, heapDistances, heapSize);
+                    } //else if
+                } //for
+                continue;
+            } //if
+
+            double leftBound = lowerBound(nodeLefts[node], latitude, longitude);
+            double rightBound = lowerBound(nodeRights[node], latitude, longitude);
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                stackBounds = Arrays.copyOf(stackBounds, stackBounds.length * 2);
+            } //if
+            if (leftBound <= rightBound) {
+                stack[top] = nodeRights[node];
+                stackBounds[top++] = rightBound;
+                stack[top] = nodeLefts[node];
+                stackBounds[top++] = leftBound;
+            } //if
+            else {
+                stack[top] = nodeLefts[node];
+                stackBounds[top++] = leftBound;
+                stack[top] = nodeRights[node];
+                stackBounds[top++] = rightBound;
+            } //else
+        } //while
+
+        return sortByDistance(heapRows, heapDistances, heapSize);
+    } //nearest method
+
+    /**
+     * Finds the parks within a planar distance of a location
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @return rows of the parks at most radius miles away, closest first, ties in row order
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees or more than 180 degrees
+     * @throws IllegalArgumentException "Invalid radius" if radius is negative or NaN
+     */
+    public int[] withinRadius(double latitude, double longitude, double radius) {
+        return withinRadius(latitude, longitude, radius, DistanceModel.PLANAR);
+    } //withinRadius method
+
+    /**
+     * Finds the parks within a distance of a location, measured by a model.
+     * Nodes and parks are first checked against a DistanceFilter's cheap
+     * bounds, and only the parks that pass are measured with the model.
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @param model how the distance is measured
+     * @return rows of the parks at most radius miles away, closest first, ties in row order
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees or more than 180 degrees
+     * @throws IllegalArgumentException "Invalid radius" if radius is negative or NaN
+     * @throws IllegalArgumentException "Null model" if model is null
+     */
+    public int[] withinRadius(double latitude, double longitude, double radius,
+                              DistanceModel model) {
+        checkLocation(latitude, longitude);
+
+        //ERROR HANDLING IN USER INTERFACE IF RADIUS IS NEGATIVE
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("Invalid radius");
+        } //if
+
+        DistanceFilter filter = new DistanceFilter(model, latitude, longitude, radius);
+        boolean planar = model == DistanceModel.PLANAR;
+
+        int[] found = new int[16];
+        double[] foundDistances = new double[16];
+        int count = 0;
+        if (rows.length == 0) {
+            return new int[0];
+        } //if
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!filter.mayOverlap(nodeBoxes[node * 4], nodeBoxes[node * 4 + 1],
+                                   nodeBoxes[node * 4 + 2], nodeBoxes[node * 4 + 3]) ||
+                (planar && lowerBound(node, latitude, longitude) > radius)) {
+
+                continue;
+            } //if
+
+            if (nodeLefts[node] < 0) {
+                for (int i = nodeStarts[node]; i < nodeEnds[node]; i++) {
+                    if (!filter.mayContain(pointLatitudes[i], pointLongitudes[i])) {
+                        continue;
+                    } //if
+                    double distance = filter.distance(pointLatitudes[i], pointLongitudes[i]);
+                    if (distance <= radius) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                            foundDistances = Arrays.copyOf(foundDistances, count * 2);
+                        } //if
+                        found[count] = rows[i];
+                        foundDistances[count++] = distance;
+                    } //if
+                } //for
+                continue;
+            } //if
+
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            } //if
+            stack[top++] = nodeRights[node];
+            stack[top++] = nodeLefts[node];
+        } //while
+
+        return sortByDistance(found, foundDistances, count);
+    } //withinRadius method
+
+    /**
+     * Finds the parks inside a latitude and longitude box, edges included
+     *
+     * @param minLatitude smallest latitude of the box
+     * @param maxLatitude largest latitude of the box
+     * @param minLongitude smallest longitude of the box
+     * @param maxLongitude largest longitude of the box
+     * @return rows of the parks in the box in no particular order, none if the box is empty
+     */
+    public int[] withinBox(double minLatitude, double maxLatitude,
+                           double minLongitude, double maxLongitude) {
+        int[] found = new int[16];
+        int count = 0;
+        if (rows.length == 0) {
+            return new int[0];
+        } //if
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (nodeBoxes[node * 4] > maxLatitude || nodeBoxes[node * 4 + 1] < minLatitude ||
+                nodeBoxes[node * 4 + 2] > maxLongitude || nodeBoxes[node * 4 + 3] < minLongitude) {
+
+                continue;
+            } //if
+
+            if (nodeLefts[node] < 0) {
+                for (int i = nodeStarts[node]; i < nodeEnds[node]; i++) {
+                    if (pointLatitudes[i] >= minLatitude && pointLatitudes[i] <= maxLatitude &&
+                        pointLongitudes[i] >= minLongitude &&
+                        pointLongitudes[i] <= maxLongitude) {
+
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        } //if
+                        found[count++] = rows[i];
+                    } //if
+                } //for
+                continue;
+            } //if
+
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            } //if
+            stack[top++] = nodeRights[node];
+            stack[top++] = nodeLefts[node];
+        } //while
+
+        return Arrays.copyOf(found, count);
+    } //withinBox method
+
+    /**
+     * Builds the node covering a range of the tree order, splitting it at the
+     * median of its wider coordinate until it is small enough to be a leaf
+     *
+     * @param start first index of the range
+     * @param end index after the last one in the range
+     * @return the node number
+     */
+    private int build(int start, int end) {
+        int node = nodeCount++;
+        if (node == nodeStarts.length) {
+            int capacity = node * 2;
+            nodeStarts = Arrays.copyOf(nodeStarts, capacity);
+            nodeEnds = Arrays.copyOf(nodeEnds, capacity);
+            nodeLefts = Arrays.copyOf(nodeLefts, capacity);
+            nodeRights = Arrays.copyOf(nodeRights, capacity);
+            nodeBoxes = Arrays.copyOf(nodeBoxes, capacity * 4);
+        } //if
+        nodeStarts[node] = start;
+        nodeEnds[node] = end;
+        nodeLefts[node] = -1;
+        nodeRights[node] = -1;
+
+        double minLatitude = Double.POSITIVE_INFINITY;
+        double maxLatitude = Double.NEGATIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY;
+        double maxLongitude = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            minLatitude = Math.min(minLatitude, pointLatitudes[i]);
+            maxLatitude = Math.max(maxLatitude, pointLatitudes[i]);
+            minLongitude = Math.min(minLongitude, pointLongitudes[i]);
+            maxLongitude = Math.max(maxLongitude, pointLongitudes[i]);
+        } //for
+        nodeBoxes[node * 4] = minLatitude;
+        nodeBoxes[node * 4 + 1] = maxLatitude;
+        nodeBoxes[node * 4 + 2] = minLongitude;
+        nodeBoxes[node * 4 + 3] = maxLongitude;
+
+        if (end - start > LEAF_SIZE) {
+            boolean byLatitude = maxLatitude - minLatitude >= maxLongitude - minLongitude;
+            int middle = (start + end) >>> 1;
+            select(byLatitude ? pointLatitudes : pointLongitudes, start, end, middle);
+            int left = build(start, middle);
+            int right = build(middle, end);
+            nodeLefts[node] = left;
+            nodeRights[node] = right;
+        } //if
+        return node;
+    } //build method
+
+    /**
+     * Reorders a range of the tree order so the point at index k has the
+     * coordinate it would have if the range were sorted by that coordinate,
+     * with no larger coordinates before it and no smaller ones after it
+     *
+     * @param keys the coordinate being split on, pointLatitudes or pointLongitudes
+     * @param start first index of the range
+     * @param end index after the last one in the range
+     * @param k the index to place
+     */
+    private void select(double[] keys, int start, int end, int k) {
+        int lo = start;
+        int hi = end - 1;
+        while (hi > lo) {
+            double pivot = keys[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                } //while
+                while (keys[j] > pivot) {
+                    j--;
+                } //while
+                if (i <= j) {
+                    swap(i++, j--);
+                } //if
+            } //while
+            if (k <= j) {
+                hi = j;
+            } //if
+            else if (k >= i) {
+                lo = i;
+            } //else if
+            else {
+                return;
+            } //else
+        } //while
+    } //select method
+
+    /**
+     * Swaps 2 points in the tree order
+     *
+     * @param i index of the first point
+     * @param j index of the second point
+     */
+    private void swap(int i, int j) {
+        int row = rows[i];
+        rows[i] = rows[j];
+        rows[j] = row;
+        double latitude = pointLatitudes[i];
+        pointLatitudes[i] = pointLatitudes[j];
+        pointLatitudes[j] = latitude;
+        double longitude = pointLongitudes[i];
+        pointLongitudes[i] = pointLongitudes[j];
+        pointLongitudes[j] = longitude;
+    } //swap method
+
+    /**
+     * Calculates a distance no larger than the distance from a location to any
+     * park in a node. The latitude and longitude gaps to the node's bounding box
+     * are each as small as they can be, and the cosine of the mean latitude is
+     * taken where it is smallest over the box.
+     *
+     * @param node the node number
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @return the lower bound in miles
+     */
+    private double lowerBound(int node, double latitude, double longitude) {
+        double minLatitude = nodeBoxes[node * 4];
+        double maxLatitude = nodeBoxes[node * 4 + 1];
+        double minLongitude = nodeBoxes[node * 4 + 2];
+        double maxLongitude = nodeBoxes[node * 4 + 3];
+
+        double latitudeGap = Math.max(0.0, Math.max(minLatitude - latitude, latitude - maxLatitude));
+        double longitudeGap = Math.max(0.0, Math.max(minLongitude - longitude,
+                                                     longitude - maxLongitude));
+
+        //The mean latitude farthest from the equator has the smallest cosine
+        double meanLow = (latitude + minLatitude) / 2.0;
+        double meanHigh = (latitude + maxLatitude) / 2.0;
+        double cosine = Math.cos(Math.toRadians(Math.max(Math.abs(meanLow), Math.abs(meanHigh))));
+
+        double latitudeGapRad = Math.toRadians(latitudeGap);
+        double longitudeGapRad = Math.toRadians(longitudeGap) * Math.max(0.0, cosine);
+
+        //Shrinking the bound slightly so rounding never prunes a park exactly on it
+        return Math.sqrt(latitudeGapRad * latitudeGapRad + longitudeGapRad * longitudeGapRad) *
+               Parks.EARTH_RADIUS * (1.0 - 1e-12);
+    } //lowerBound method
+
+    /**
+     * Checks if a location is on the earth
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees, more than 90 degrees, or NaN
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees, more than 180 degrees, or NaN
+     */
+    private static void checkLocation(double latitude, double longitude) {
+
+        //ERROR HANDLING IN USER INTERFACE IF LATITUDE IS TOO SMALL OR TOO LARGE
+        if (!(latitude >= Parks.LATITUDE_MIN_DEGREES && latitude <= Parks.LATITUDE_MAX_DEGREES)) {
+            throw new IllegalArgumentException("Invalid latitude");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF LONGITUDE IS TOO SMALL OR TOO LARGE
+        if (!(longitude >= Parks.LONGITUDE_MIN_DEGREES &&
+              longitude <= Parks.LONGITUDE_MAX_DEGREES)) {
+
+            throw new IllegalArgumentException("Invalid longitude");
+        } //if
+    } //checkLocation method
+
+    /**
+     * Checks if one park is ranked after another, by distance and then by row
+     *
+     * @param distance1 distance of the first park
+     * @param row1 row of the first park
+     * @param distance2 distance of the second park
+     * @param row2 row of the second park
+     * @return true if the first park is ranked after the second
+     */
+    static boolean farther(double distance1, int row1, double distance2, int row2) {
+        return distance1 > distance2 || (distance1 == distance2 && row1 > row2);
+    } //farther method
+
+    /**
+     * Moves a newly added park up the max-heap to its place
+     *
+     * @param heapRows rows in the heap
+     * @param heapDistances distances in the heap
+     * @param i index of the new park
+     */
+    static void siftUp(int[] heapRows, double[] heapDistances, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!farther(heapDistances[i], heapRows[i], heapDistances[parent], heapRows[parent])) {
+                return;
+            } //if
+            swapHeap(heapRows, heapDistances, i, parent);
+            i = parent;
+        } //while
+    } //siftUp method
+
+    /**
+     * Moves the park at the top of the max-heap down to its place
+     *
+     * @param heapRows rows in the heap
+     * @param heapDistances distances in the heap
+     * @param size number of parks in the heap
+     */
+    static void siftDown(int[] heapRows, double[] heapDistances, int size) {
+        int i = 0;
+        while (true) {
+            int largest = i;
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                if (farther(heapDistances[child], heapRows[child],
+                            heapDistances[largest], heapRows[largest])) {
+
+                    largest = child;
+                } //if
+            } //for
+            if (largest == i) {
+                return;
+            } //if
+            swapHeap(heapRows, heapDistances, i, largest);
+            i = largest;
+        } //while
+    } //siftDown method
+
+    /**
+     * Swaps 2 parks in the max-heap
+     *
+     * @param heapRows rows in the heap
+     * @param heapDistances distances in the heap
+     * @param i index of the first park
+     * @param j index of the second park
+     */
+    private static void swapHeap(int[] heapRows, double[] heapDistances, int i, int j) {
+        int row = heapRows[i];
+        heapRows[i] = heapRows[j];
+        heapRows[j] = row;
+        double distance = heapDistances[i];
+        heapDistances[i] = heapDistances[j];
+        heapDistances[j] = distance;
+    } //swapHeap method
+
+    /**
+     * Orders found parks closest first, ties in row order. The first count
+     * distances are put in the same order, so the caller can keep them.
+     *
+     * @param found rows of the found parks
+     * @param distances distances of the found parks
+     * @param count number of found parks
+     * @return the sorted rows
+     */
+    static int[] sortByDistance(int[] found, double[] distances, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        } //for
+        Arrays.sort(order, (a, b) -> distances[a] != distances[b] ?
+                    Double.compare(distances[a], distances[b]) :
+                    Integer.compare(found[a], found[b]));
+
+        int[] sorted = new int[count];
+        double[] sortedDistances = new double[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = found[order[i]];
+            sortedDistances[i] = distances[order[i]];
+        } //for
+        System.arraycopy(sortedDistances, 0, distances, 0, count);
+        return sorted;
+    } //sortByDistance method
+} //ParkSpatialIndex class
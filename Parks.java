@@ -1,5 +1,6 @@
 import java.util.*;
 import java.io.*;
+import java.nio.channels.*;
 import java.nio.file.*;
 
 /**
@@ -43,18 +44,29 @@ public class Parks {
             System.exit(1);
         } //if
         
-        //File scanner
-        Scanner in = null;
+        //Metrics file writer asked for by the system properties, or null
+        ParkMetricsReporter metrics = null;
+        try {
+            metrics = ParkMetrics.startFromProperties();
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF METRICS PERIOD IS INVALID
+        catch (IllegalArgumentException e) {
+            System.out.println("Invalid metrics period");
+            System.exit(1);
+        } //catch
+        
+        //Park file channel
+        FileChannel in = null;
         
         //Print writer
         PrintWriter out = null;
         
         //Try to open input file
         try {
-            in = new Scanner(new FileInputStream(args[0]));
+            in = FileChannel.open(Path.of(args[0]), StandardOpenOption.READ);
         } //try
         //ERROR HANDLING IN USER INTERFACE IF FILE IS INACCESSIBLE
-        catch (FileNotFoundException e) {
+        catch (IOException | InvalidPathException e) {
             System.out.println("Unable to access park file: " + args[0]);
             System.exit(1);
         } //catch
@@ -88,54 +100,76 @@ public class Parks {
             System.exit(1);
         } //catch
         
-        //number of parks in input file
-        int countOfParks = getNumberOfLines(in);
+        //Error file the system properties ask for, which makes the load lenient, or null
+        ParkErrorLog errors = null;
+        try {
+            errors = ParkErrorLog.fromProperties();
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF ERROR FILE CANNOT BE MADE
+        catch (IOException | InvalidPathException e) {
+            System.out.println("Cannot create error file");
+            System.exit(1);
+        } //catch
+        //ERROR HANDLING IN USER INTERFACE IF ERROR BUDGET IS INVALID
+        catch (IllegalArgumentException e) {
+            System.out.println("Invalid error budget");
+            System.exit(1);
+        } //catch
+        
+        //All the parks from input file
+        ParkCatalog catalog = null;
         
-        //Try to open input file
+        //Try to read input file, or its snapshot if it is up to date
         try {
-            in = new Scanner(new FileInputStream(args[0]));
+            in.close();
+            catalog = ParkSnapshot.loadParks(Path.of(args[0]), errors);
         } //try
         //ERROR HANDLING IN USER INTERFACE IF FILE IS INACCESSABLE
-        catch (FileNotFoundException e) {
+        catch (IOException e) {
             System.out.println("Unable to access park file: " + args[0]);
             System.exit(1);
         } //catch
-
+        
+        //ERROR HANDLING IN USER INTERFACE IF MORE ROWS ARE INVALID THAN THE BUDGET ALLOWS
+        if (errors != null && errors.isExceeded()) {
+            System.out.println("Too many invalid rows, see " + errors.getFile());
+            System.exit(1);
+        } //if
+        if (errors != null && errors.getCount() > 0) {
+            System.out.println("Skipped " + errors.getCount() + " invalid rows, see " + 
+                               errors.getFile());
+        } //if
+        
         //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS EMPTY
-        if (countOfParks <= 0) {
+        if (catalog != null && catalog.size() <= 0) {
             System.out.println("Empty park file");
             System.exit(1);
         } //if
         
-        //Array for all the park ids from input file
-        int[] parkIds = new int[countOfParks];
-        
-        //Array for all the park names from input file
-        String[] parkNames = new String[countOfParks];
-        
-        //Array for all the park latitudes from input file
-        double[] parkLatitudes = new double[countOfParks];
-        
-        //Array for all the park longitudes from input file
-        double[] parkLongitudes = new double[countOfParks];
-        
         //ERROR HANDLING IN USER INTERFACE IF INPUT FILE IS INVALID
-        if (!inputParks(in, parkIds, parkNames, parkLatitudes, parkLongitudes)) {
+        if (catalog == null) {
             System.out.println("Invalid park file");
             System.exit(1);
         } //if
         
-        //Number of parks that user adds to their trip
-        int numberOfParksInTrip = 0;
+        //Current catalog of the park file, which the user can reload
+        LiveParkCatalog parks = new LiveParkCatalog(Path.of(args[0]), catalog);
+        
+        //Array for all the park ids from input file
+        int[] parkIds = catalog.getIds();
+        
+        //Array for all the park latitudes from input file
+        double[] parkLatitudes = catalog.getLatitudes();
         
-        //Array for all the park ids from user's trip
-        int[] tripIds = new int[10];
+        //Array for all the park longitudes from input file
+        double[] parkLongitudes = catalog.getLongitudes();
         
-        //Array for all the park names from user's trip
-        String[] tripNames = new String[10];
+        //User's trip, any number of parks long
+        Trip trip = new Trip();
         
-        //Array for all the park distances from user's trip
-        double[] tripDistances = new double[10];
+        //Buffered writer that park lists are streamed to before being flushed to the console
+        PrintWriter console = new PrintWriter(new BufferedWriter(
+                                  new OutputStreamWriter(System.out)));
         
         //String option for what action user wants to use
         String option = "";
@@ -149,6 +183,12 @@ public class Parks {
             //Scanning which action user wants to use
             option = scnr.nextLine();
             
+            //Using the parks from the latest reload for the whole action
+            catalog = parks.get();
+            parkIds = catalog.getIds();
+            parkLatitudes = catalog.getLatitudes();
+            parkLongitudes = catalog.getLongitudes();
+            
             //If user wants to list all the parks in the input file
             if (option.equalsIgnoreCase("L")) {
             
@@ -159,9 +199,17 @@ public class Parks {
                 System.out.print("               Name");
                 System.out.println("                        Latitude Longitude");
                 
-                //Printing list for all parks
-                System.out.println(getParkList(parkIds, parkNames, 
-                                               parkLatitudes, parkLongitudes));
+                //Streaming list for all parks
+                try {
+                    writeParkList(console, 0, Integer.MAX_VALUE, parkIds, 
+                                  catalog.getNames(), parkLatitudes, parkLongitudes);
+                } //try
+                //PrintWriter keeps errors to itself instead of throwing them
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } //catch
+                console.flush();
+                System.out.println();
             } //if
             
             //Else if user wants to search for parks using a keyword
@@ -177,22 +225,54 @@ public class Parks {
                 System.out.print("               Name");
                 System.out.println("                        Latitude Longitude");
                 
-                //Printing list of all parks that contain that keyword
-                System.out.println(searchForPark(codeWord, parkIds, 
-                                                 parkNames, parkLatitudes, 
-                                                 parkLongitudes));
+                //Streaming list of all parks that contain that keyword
+                try {
+                    writeSearchResults(console, 0, Integer.MAX_VALUE, codeWord, 
+                                       parks.getSearchCache().getIndex(
+                                           catalog.getNameIndex()), parkIds, 
+                                       catalog.getNames(), parkLatitudes, 
+                                       parkLongitudes);
+                } //try
+                //PrintWriter keeps errors to itself instead of throwing them
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } //catch
+                console.flush();
+                System.out.println();
+                System.out.println();
+            } //else if
+            
+            //Else if user wants to search for parks using a keyword with typos
+            else if (option.equalsIgnoreCase("F")) {
+            
+                //Scanning for keyword
+                System.out.print("Park name (may have typos): ");
+                String codeWord = scnr.nextLine();
+                System.out.println();
+                
+                //Printing heading for park ids, names, latitudes, and longitudes
+                System.out.print(" ID");
+                System.out.print("               Name");
+                System.out.println("                        Latitude Longitude");
+                
+                //Streaming list of the parks that best match that keyword
+                try {
+                    writeFuzzySearchResults(console, 0, Integer.MAX_VALUE, codeWord, 
+                                            ParkFuzzyIndex.DEFAULT_DISTANCE, 
+                                            catalog.getFuzzyIndex(), parkIds, 
+                                            catalog.getNames(), parkLatitudes, 
+                                            parkLongitudes);
+                } //try
+                //PrintWriter keeps errors to itself instead of throwing them
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } //catch
+                console.flush();
                 System.out.println();
             } //else if
             
             //Else if user wants to add a park to their trip
-            else if (option.equalsIgnoreCase("A")) {
-
-                //ERROR HANDLING IN USER INTERFACE IF USER'S TRIP IS FULL
-                if (numberOfParksInTrip == 10) {
-                    System.out.println("Trip is full");
-                    System.out.println();
-                    continue;
-                } //if
+            else if (option.equalsIgnoreCase("A") || option.equalsIgnoreCase("I")) {
             
                 System.out.print("Park id: ");
                 
@@ -213,12 +293,7 @@ public class Parks {
                 } //catch
                 
                 //int index to test the existence of the park
-                int index = -1;
-                for (int i = 0; i < parkIds.length; i++) {
-                    if (parkIds[i] == parkId) {
-                        index = i;
-                    } //if
-                } //for
+                int index = catalog.indexOf(parkId);
         
                 //ERROR HANDLING IN USER INTERFACE IF PARK ID DOESN'T EXIST
                 if (index == -1) {
@@ -227,24 +302,69 @@ public class Parks {
                     continue;
                 } //if
                 
-                //Adding user's desired trip and finding number of parks in trip
-                numberOfParksInTrip = addParkToTrip(parkId, numberOfParksInTrip, parkIds, 
-                                                    parkNames, parkLatitudes, parkLongitudes, 
-                                                    tripIds, tripNames, tripDistances);
+                //Position of the park in the trip, the end unless the user inserts it
+                int position = trip.size();
+                if (option.equalsIgnoreCase("I")) {
+                    position = readPosition(scnr, "Position: ", trip.size() + 1);
+                    
+                    //ERROR HANDLING IN USER INTERFACE IF POSITION IS INVALID
+                    if (position == -1) {
+                        System.out.println("Invalid position");
+                        System.out.println();
+                        continue;
+                    } //if
+                } //if
+                
+                //Adding park to user's trip at the position
+                addParkToTrip(parkId, position, catalog.getIdIndex(), parkIds, 
+                              catalog.getNames(), parkLatitudes, parkLongitudes, trip);
 
                 //Finding the name of the park added by user
-                String addedParkName = "";
-                for (int i = 0; i < parkIds.length; i++) {
-                    if (parkId == parkIds[i]) {
-                        addedParkName = parkNames[i];
-                    } //if
-                } //for
+                String addedParkName = catalog.getNames()[index];
                 
                 //Printing if park was added to the user's trip
                 System.out.println("Park added to trip: " + addedParkName);
                 System.out.println();
             } //else if
             
+            //Else if user wants to remove a park from their trip
+            else if (option.equalsIgnoreCase("X")) {
+            
+                int position = readPosition(scnr, "Position: ", trip.size());
+                
+                //ERROR HANDLING IN USER INTERFACE IF POSITION IS INVALID
+                if (position == -1) {
+                    System.out.println("Invalid position");
+                    System.out.println();
+                    continue;
+                } //if
+                
+                //Removing the park and printing which one it was
+                String removedParkName = trip.getName(position);
+                trip.remove(position);
+                System.out.println("Park removed from trip: " + removedParkName);
+                System.out.println();
+            } //else if
+            
+            //Else if user wants to move a park to another place in their trip
+            else if (option.equalsIgnoreCase("M")) {
+            
+                int from = readPosition(scnr, "From position: ", trip.size());
+                int to = from == -1 ? -1 : readPosition(scnr, "To position: ", trip.size());
+                
+                //ERROR HANDLING IN USER INTERFACE IF EITHER POSITION IS INVALID
+                if (to == -1) {
+                    System.out.println("Invalid position");
+                    System.out.println();
+                    continue;
+                } //if
+                
+                //Moving the park and printing which one it was
+                trip.move(from, to);
+                System.out.println("Park moved in trip: " + trip.getName(to));
+                System.out.println();
+            } //else if
+            
             //Else if user wants to display their trip
             else if (option.equalsIgnoreCase("D")) {
 
@@ -255,9 +375,178 @@ public class Parks {
                 System.out.print("               Name");
                 System.out.println("                        Distance");
                 
-                //Printing list of all added parks to the user's trip
-                System.out.println(getTrip(numberOfParksInTrip, tripIds, 
-                                           tripNames, tripDistances));
+                //Streaming list of all added parks to the user's trip
+                try {
+                    writeTrip(console, 0, Integer.MAX_VALUE, trip);
+                } //try
+                //PrintWriter keeps errors to itself instead of throwing them
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } //catch
+                console.flush();
+                System.out.println();
+            } //else if
+            
+            //Else if user wants to reorder their trip to make it shorter
+            else if (option.equalsIgnoreCase("O")) {
+            
+                optimizeTrip(trip);
+                
+                //Printing the total distance of the reordered trip
+                System.out.printf("Trip optimized: %.2f miles\n", trip.getTotalDistance());
+                System.out.println();
+            } //else if
+            
+            //Else if user wants to find the parks near a location
+            else if (option.equalsIgnoreCase("N") || option.equalsIgnoreCase("R")) {
+            
+                System.out.print("Latitude: ");
+                
+                //double latitude of the location
+                double latitude = 0;
+                
+                //Try to scan latitude
+                try {
+                    latitude = scnr.nextDouble();
+                    scnr.nextLine();
+                } //try
+                //ERROR HANDLING IN USER INTERFACE IF LATITUDE IS INVALID
+                catch (InputMismatchException e) {
+                    System.out.println("Invalid latitude");
+                    scnr.nextLine();
+                    System.out.println();
+                    continue;
+                } //catch
+                
+                System.out.print("Longitude: ");
+                
+                //double longitude of the location
+                double longitude = 0;
+                
+                //Try to scan longitude
+                try {
+                    longitude = scnr.nextDouble();
+                    scnr.nextLine();
+                } //try
+                //ERROR HANDLING IN USER INTERFACE IF LONGITUDE IS INVALID
+                catch (InputMismatchException e) {
+                    System.out.println("Invalid longitude");
+                    scnr.nextLine();
+                    System.out.println();
+                    continue;
+                } //catch
+                
+                //String list of the parks found near the location
+                String nearbyParks = "";
+                
+                //Try to scan the number of parks or the radius and find the parks
+                try {
+                    if (option.equalsIgnoreCase("N")) {
+                        System.out.print("Number of parks: ");
+                        int count = scnr.nextInt();
+                        scnr.nextLine();
+                        nearbyParks = getNearestParks(latitude, longitude, count, 
+                                                      catalog.getSpatialIndex(), parkIds, 
+                                                      catalog.getNames(), parkLatitudes, 
+                                                      parkLongitudes);
+                    } //if
+                    else {
+                        System.out.print("Radius (miles): ");
+                        double radius = scnr.nextDouble();
+                        scnr.nextLine();
+                        nearbyParks = getParksWithinRadius(latitude, longitude, radius, 
+                                                           catalog.getSpatialIndex(), 
+                                                           parkIds, catalog.getNames(), 
+                                                           parkLatitudes, parkLongitudes);
+                    } //else
+                } //try
+                //ERROR HANDLING IN USER INTERFACE IF NUMBER OF PARKS OR RADIUS IS INVALID
+                catch (InputMismatchException e) {
+                    System.out.println(option.equalsIgnoreCase("N") ? 
+                                       "Invalid number of parks" : "Invalid radius");
+                    scnr.nextLine();
+                    System.out.println();
+                    continue;
+                } //catch
+                //ERROR HANDLING IN USER INTERFACE IF LOCATION IS NOT ON THE EARTH
+                catch (IllegalArgumentException e) {
+                    System.out.println(e.getMessage());
+                    System.out.println();
+                    continue;
+                } //catch
+                
+                System.out.println();
+                
+                //Printing heading for park ids, names, latitudes, longitudes, and distance
+                System.out.print(" ID");
+                System.out.print("               Name");
+                System.out.println("                        Latitude Longitude Distance");
+                
+                //Printing list of the parks near the location
+                System.out.println(nearbyParks);
+            } //else if
+            
+            //Else if user wants to find the parks along the route of their trip
+            else if (option.equalsIgnoreCase("T")) {
+            
+                //String list of the parks along the trip
+                String tripParks = "";
+                
+                //Try to scan the distance from the route and the number of parks
+                try {
+                    System.out.print("Distance from route (miles): ");
+                    double radius = scnr.nextDouble();
+                    scnr.nextLine();
+                    System.out.print("Number of parks: ");
+                    int count = scnr.nextInt();
+                    scnr.nextLine();
+                    tripParks = getParksAlongTrip(trip, radius, count, 
+                                                  catalog.getSpatialIndex(), parkIds, 
+                                                  catalog.getNames(), parkLatitudes, 
+                                                  parkLongitudes);
+                } //try
+                //ERROR HANDLING IN USER INTERFACE IF DISTANCE OR NUMBER OF PARKS IS INVALID
+                catch (InputMismatchException e) {
+                    System.out.println("Invalid number");
+                    scnr.nextLine();
+                    System.out.println();
+                    continue;
+                } //catch
+                //ERROR HANDLING IN USER INTERFACE IF DISTANCE OR NUMBER OF PARKS IS OUT OF RANGE
+                catch (IllegalArgumentException e) {
+                    System.out.println(e.getMessage());
+                    System.out.println();
+                    continue;
+                } //catch
+                
+                System.out.println();
+                
+                //Printing heading for park ids, names, latitudes, longitudes, and detour
+                System.out.print(" ID");
+                System.out.print("               Name");
+                System.out.println("                        Latitude Longitude   Detour");
+                
+                //Printing list of the parks along the trip
+                System.out.println(tripParks);
+            } //else if
+            
+            //Else if user wants to reload the park file after it was edited
+            else if (option.equalsIgnoreCase("U")) {
+            
+                //Try to reload the park file, keeping the old parks if it fails
+                try {
+                    ParkCatalog reloaded = parks.reloadNow();
+                    System.out.println("Parks reloaded: " + reloaded.size() + " parks");
+                } //try
+                //ERROR HANDLING IN USER INTERFACE IF FILE IS INACCESSIBLE
+                catch (IOException e) {
+                    System.out.println("Unable to access park file: " + args[0]);
+                } //catch
+                //ERROR HANDLING IN USER INTERFACE IF FILE IS INVALID OR EMPTY
+                catch (IllegalArgumentException e) {
+                    System.out.println(e.getMessage());
+                } //catch
+                System.out.println();
             } //else if
             
             //Else if user chooses an program action that is not listed
@@ -272,8 +561,12 @@ public class Parks {
         System.out.println();
         
         //Making output file of user's trip
-        outputTrip(out, numberOfParksInTrip, tripNames, tripDistances);
+        parks.close();
+        outputTrip(out, trip);
         out.close();
+        if (metrics != null) {
+            metrics.close();
+        } //if
     } //main method
     
     /**
@@ -285,13 +578,54 @@ public class Parks {
         System.out.println();
         System.out.println("L - List parks");
         System.out.println("S - Search for park");
+        System.out.println("F - Fuzzy search for park");
         System.out.println("A - Add park to trip");
+        System.out.println("I - Insert park into trip");
+        System.out.println("X - Remove park from trip");
+        System.out.println("M - Move park in trip");
         System.out.println("D - Display trip");
+        System.out.println("O - Optimize trip");
+        System.out.println("N - Nearest parks");
+        System.out.println("R - Parks within radius");
+        System.out.println("T - Parks along trip");
+        System.out.println("U - Update parks from park file");
         System.out.println("Q - Quit");
         System.out.println();
         System.out.print("Option: ");
     } //displayMenu method
     
+    /**
+     * Asks the user for a position in their trip, counting from 1
+     * 
+     * @param scnr scanner for the user's input
+     * @param prompt text asking for the position
+     * @param count number of positions the user can choose from
+     * @return the position counting from 0, or -1 if the user did not enter a
+     *         number from 1 to count
+     */
+    private static int readPosition(Scanner scnr, String prompt, int count) {
+    
+        System.out.print(prompt);
+        
+        //Try to scan position
+        int position = 0;
+        try {
+            position = scnr.nextInt();
+            scnr.nextLine();
+        } //try
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS NOT A NUMBER
+        catch (InputMismatchException e) {
+            scnr.nextLine();
+            return -1;
+        } //catch
+        
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS OUT OF RANGE
+        if (position < 1 || position > count) {
+            return -1;
+        } //if
+        return position - 1;
+    } //readPosition method
+    
     /**
      * Calculates the number of lines in the input file
      * 
@@ -402,6 +736,29 @@ public class Parks {
     public static boolean inputParks(Scanner in, int[] ids, 
                                      String[] names, double[] latitudes,
                                      double[] longitudes) {
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        boolean valid = readParks(in, ids, names, latitudes, longitudes);
+        int rows = valid ? ids.length : 0;
+        ParkMetrics.LOAD.record(startTime, startAllocated, rows, rows);
+        return valid;
+    } //inputParks method
+    
+    /**
+     * Stores the data from the input file and tests if the input file 
+     * works with the program, without recording metrics
+     * 
+     * @param in scanner for inside the input file
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return boolean if input file can be used for the program
+     * @throws IllegalArgumentException for the same reasons as inputParks
+     */
+    private static boolean readParks(Scanner in, int[] ids, 
+                                     String[] names, double[] latitudes,
+                                     double[] longitudes) {
 
         //ERROR HANDLING IN USER INTERFACE IF INPUT SCANNER IS NULL
         if (in == null) {
@@ -428,6 +785,9 @@ public class Parks {
         //int index for index of the arrays
         int index = 0;
         
+        //Index from each park id read so far to its row
+        ParkIdIndex idIndex = new ParkIdIndex(ids.length);
+        
         //Testing if input file can work with the program
         //Storing id, name, latitude, and longitude values from input file into arrays
         while (in.hasNextLine()) {
@@ -480,12 +840,10 @@ public class Parks {
                 } //if
                 
                 //Checking if 2 or more parks have the same park id
-                for (int i = 0; i < index; i++) {
-                    if (parkId == ids[i]) {
-                    
-                        return false;
-                    } //if
-                } //for
+                if (idIndex.putIfAbsent(parkId, index) != ParkIdIndex.NO_ROW) {
+                
+                    return false;
+                } //if
             
                 //Storing each park id into ids array
                 ids[index] = parkId;
@@ -511,7 +869,7 @@ public class Parks {
         
         //returns true if input file can work with the program
         return true;
-    } //inputParks method
+    } //readParks method
     
     /**
      * Constructs the string list for all the parks given to it from the array parameters
@@ -545,26 +903,84 @@ public class Parks {
             throw new IllegalArgumentException("Invalid array length");
         } //if
 
-        //Int length of array parameters
-        int arrayLength = ids.length;
-
         //String list for all the parks from the array parameters
-        String parkList = "";
+        StringBuilder parkList = new StringBuilder();
         
         //Constructing list for all the parks from the array parameters
-        for (int i = 0; i < arrayLength; i++) {
-            int id = ids[i];
-            String name = names[i];
-            double latitude = latitudes[i];
-            double longitude = longitudes[i];
-            parkList += String.format("%3d %-40s %8.2f %8.2f", id, name, latitude, longitude);
-            parkList += "\n";
-        } //for
+        try {
+            writeParkList(parkList, 0, Integer.MAX_VALUE, ids, names, latitudes, longitudes);
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
         
         //returns list of all the parks from the array parameters
-        return parkList;
+        return parkList.toString();
     } //getParkList
     
+    /**
+     * Writes a page of the list of all the parks given to it from the array 
+     * parameters, one line per park, without building the list in memory
+     * 
+     * @param out where the list is written
+     * @param offset the number of parks to skip from the start of the list
+     * @param limit the most parks to write
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length or if arrays have less than 1 index
+     */
+    public static int writeParkList(Appendable out, int offset, int limit, 
+                                    int[] ids, String[] names, 
+                                    double[] latitudes, double[] longitudes) 
+                                    throws IOException {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        checkPage(out, offset, limit);
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null || 
+            latitudes == null || longitudes == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length < 1 || 
+            ids.length != names.length || 
+            names.length != latitudes.length || 
+            latitudes.length != longitudes.length) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //Row formatter reused for every park in the page
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        //Writing each park in the page
+        int end = (int) Math.min(ids.length, (long) offset + limit);
+        for (int i = offset; i < end; i++) {
+            formatter.appendPark(out, ids[i], names[i], latitudes[i], longitudes[i]);
+        } //for
+        
+        //returns the number of parks written
+        int written = Math.max(end - offset, 0);
+        ParkMetrics.LIST.record(startTime, startAllocated, written, written);
+        return written;
+    } //writeParkList method
+    
     /**
      * Searches for parks specified by a keyword
      * 
@@ -599,37 +1015,720 @@ public class Parks {
             throw new IllegalArgumentException("Invalid array length");
         } //if
 
-        //Int length of array parameters
-        int arrayLength = ids.length;
-        
         //String list of all parks that contain the keyword
-        String parkSearch = "";
+        StringBuilder parkSearch = new StringBuilder();
         
         //Searching for all parks that contain the keyword from the array parameters
-        parkName = parkName.toLowerCase();
-        for (int i = 0; i < arrayLength; i++) {
-            if (names[i].toLowerCase().contains(parkName)) {
-                parkSearch += String.format("%3d %-40s %8.2f %8.2f", ids[i], 
-                                            names[i], latitudes[i], 
-                                            longitudes[i]);
-                parkSearch += "\n";
-            } //if
-        } //for
+        try {
+            writeSearchResults(parkSearch, 0, Integer.MAX_VALUE, parkName, null, 
+                               ids, names, latitudes, longitudes);
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
         
         //returns list of all parks that contain the keyword
-        return parkSearch;
+        return parkSearch.toString();
     } //searchForPark method
     
     /**
-     * Formats the park id, name, latitude, and longitude for a list
+     * Searches for parks specified by a keyword, using a trigram index over
+     * the park names to check only the parks that can contain the keyword
      * 
-     * @param id the id of the park
-     * @param name the name of the park
-     * @param latitude the latitude coordinate for the park
-     * @param longitude the longitude coordinate for the park
-     * @return formatted string of the park id, name, latitude, and longitude
-     */
-    public static String toString(int id, String name, 
+     * @param parkName keyword that user gives to find specific parks
+     * @param nameIndex trigram index built over the names array
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return parkList list of all the parks in the array parameters
+     * @throws IllegalArgumentException "Null index" if nameIndex is null
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length or if arrays have less than 1 index
+     */
+    public static String searchForPark(String parkName, ParkNameSearch nameIndex, 
+                                       int[] ids, String[] names, double[] latitudes, 
+                                       double[] longitudes) {
+
+        //ERROR HANDLING IN USER INTERFACE IF NAME INDEX IS NULL
+        if (nameIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null || 
+            latitudes == null || longitudes == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length < 1 || 
+            ids.length != names.length || 
+            names.length != latitudes.length || 
+            latitudes.length != longitudes.length) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //String list of all parks that contain the keyword
+        StringBuilder parkSearch = new StringBuilder();
+        
+        //Listing the parks the index found in the same order as the array parameters
+        try {
+            writeSearchResults(parkSearch, 0, Integer.MAX_VALUE, parkName, nameIndex, 
+                               ids, names, latitudes, longitudes);
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
+        
+        //returns list of all parks that contain the keyword
+        return parkSearch.toString();
+    } //searchForPark method
+    
+    /**
+     * Writes a page of the parks specified by a keyword, one line per park, 
+     * without building the list in memory
+     * 
+     * @param out where the list is written
+     * @param offset the number of matching parks to skip
+     * @param limit the most parks to write
+     * @param parkName keyword that user gives to find specific parks
+     * @param nameIndex trigram index built over the names array, or null to
+     *           check every park name
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length or if arrays have less than 1 index
+     */
+    public static int writeSearchResults(Appendable out, int offset, int limit, 
+                                         String parkName, ParkNameSearch nameIndex, 
+                                         int[] ids, String[] names, 
+                                         double[] latitudes, double[] longitudes) 
+                                         throws IOException {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        checkPage(out, offset, limit);
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null || 
+            latitudes == null || longitudes == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length < 1 || 
+            ids.length != names.length || 
+            names.length != latitudes.length || 
+            latitudes.length != longitudes.length) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //Row formatter reused for every park in the page
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        //Int number of parks written
+        int written = 0;
+        
+        //Int number of rows looked at, the index's matches or every name checked
+        int scanned = 0;
+        
+        //Writing the page of the parks the index found
+        if (nameIndex != null) {
+            int[] rows = nameIndex.search(parkName);
+            scanned = rows.length;
+            int end = (int) Math.min(rows.length, (long) offset + limit);
+            for (int j = offset; j < end; j++) {
+                int i = rows[j];
+                formatter.appendPark(out, ids[i], names[i], latitudes[i], longitudes[i]);
+                written++;
+            } //for
+        } //if
+        //Checking every park name, skipping the matches before the page
+        else {
+            parkName = parkName.toLowerCase();
+            int skipped = 0;
+            for (int i = 0; i < ids.length && written < limit; i++) {
+                scanned++;
+                if (names[i].toLowerCase().contains(parkName)) {
+                    if (skipped < offset) {
+                        skipped++;
+                    } //if
+                    else {
+                        formatter.appendPark(out, ids[i], names[i], 
+                                             latitudes[i], longitudes[i]);
+                        written++;
+                    } //else
+                } //if
+            } //for
+        } //else
+        
+        //returns the number of parks written
+        ParkMetrics.SEARCH.record(startTime, startAllocated, scanned, written);
+        return written;
+    } //writeSearchResults method
+    
+    /**
+     * Searches for parks specified by a keyword in dictionary encoded names,
+     * matching on token ids and decoding only the names that are listed
+     * 
+     * @param parkName keyword that user gives to find specific parks
+     * @param names dictionary encoding of all the park names in the input file
+     * @param ids array of all the park ids in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return parkList list of all the parks that contain the keyword
+     * @throws IllegalArgumentException for the same reasons as writeSearchResults
+     */
+    public static String searchForPark(String parkName, ParkNameDictionary names, 
+                                       int[] ids, double[] latitudes, double[] longitudes) {
+        
+        //String list of all parks that contain the keyword
+        StringBuilder parkSearch = new StringBuilder();
+        
+        try {
+            writeSearchResults(parkSearch, 0, Integer.MAX_VALUE, parkName, names, 
+                               ids, latitudes, longitudes);
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
+        
+        //returns list of all parks that contain the keyword
+        return parkSearch.toString();
+    } //searchForPark method
+    
+    /**
+     * Writes a page of the parks specified by a keyword in dictionary encoded
+     * names, one line per park, the same as writeSearchResults with a String
+     * array of the names
+     * 
+     * @param out where the list is written
+     * @param offset the number of matching parks to skip
+     * @param limit the most parks to write
+     * @param parkName keyword that user gives to find specific parks
+     * @param names dictionary encoding of all the park names in the input file
+     * @param ids array of all the park ids in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     * @throws IllegalArgumentException "Null array" if names or any of the
+     *         array parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if names and all
+     *           arrays are not the same length or if arrays have less than 1 index
+     */
+    public static int writeSearchResults(Appendable out, int offset, int limit, 
+                                         String parkName, ParkNameDictionary names, 
+                                         int[] ids, double[] latitudes, double[] longitudes) 
+                                         throws IOException {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        checkPage(out, offset, limit);
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null || 
+            latitudes == null || longitudes == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length < 1 || 
+            ids.length != names.size() || 
+            names.size() != latitudes.length || 
+            latitudes.length != longitudes.length) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //Row formatter reused for every park in the page
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        //Writing the page of the matching parks, decoding only their names
+        int[] rows = names.search(parkName);
+        int end = (int) Math.min(rows.length, (long) offset + limit);
+        for (int j = offset; j < end; j++) {
+            int i = rows[j];
+            formatter.appendPark(out, ids[i], names.getName(i), latitudes[i], longitudes[i]);
+        } //for
+        
+        //returns the number of parks written
+        int written = Math.max(end - offset, 0);
+        ParkMetrics.SEARCH.record(startTime, startAllocated, ids.length, written);
+        return written;
+    } //writeSearchResults method
+    
+    /**
+     * Searches for parks whose names match a keyword that may have typos, best
+     * matches first
+     * 
+     * @param parkName keyword that user gives to find specific parks
+     * @param maxDistance most typos allowed in each word of the keyword
+     * @param fuzzyIndex typo tolerant index built over the names array
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return parkList list of the matching parks, fewest typos first
+     * @throws IllegalArgumentException for the same reasons as 
+     *           writeFuzzySearchResults
+     */
+    public static String fuzzySearchForPark(String parkName, int maxDistance, 
+                                            ParkFuzzyIndex fuzzyIndex, int[] ids, 
+                                            String[] names, double[] latitudes, 
+                                            double[] longitudes) {
+        
+        //String list of all parks that match the keyword
+        StringBuilder parkSearch = new StringBuilder();
+        
+        //Listing the parks the index found, best matches first
+        try {
+            writeFuzzySearchResults(parkSearch, 0, Integer.MAX_VALUE, parkName, maxDistance,
+                                    fuzzyIndex, ids, names, latitudes, longitudes);
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
+        
+        //returns list of all parks that match the keyword
+        return parkSearch.toString();
+    } //fuzzySearchForPark method
+    
+    /**
+     * Writes a page of the parks whose names match a keyword that may have 
+     * typos, best matches first, one line per park
+     * 
+     * @param out where the list is written
+     * @param offset the number of matching parks to skip
+     * @param limit the most parks to write
+     * @param parkName keyword that user gives to find specific parks
+     * @param maxDistance most typos allowed in each word of the keyword, from 0
+     *          to ParkFuzzyIndex.MAX_DISTANCE
+     * @param fuzzyIndex typo tolerant index built over the names array
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     * @throws IllegalArgumentException "Null index" if fuzzyIndex is null
+     * @throws IllegalArgumentException "Invalid distance" if maxDistance is out
+     *           of range
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length or if arrays have less than 1 index
+     */
+    public static int writeFuzzySearchResults(Appendable out, int offset, int limit, 
+                                              String parkName, int maxDistance, 
+                                              ParkFuzzyIndex fuzzyIndex, int[] ids, 
+                                              String[] names, double[] latitudes, 
+                                              double[] longitudes) throws IOException {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        checkPage(out, offset, limit);
+        
+        //ERROR HANDLING IN USER INTERFACE IF FUZZY INDEX IS NULL
+        if (fuzzyIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null || 
+            latitudes == null || longitudes == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length < 1 || 
+            ids.length != names.length || 
+            names.length != latitudes.length || 
+            latitudes.length != longitudes.length) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //Row formatter reused for every park in the page
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        //Writing the page of the parks the index found, already ranked
+        int[] rows = fuzzyIndex.search(parkName, maxDistance);
+        int end = (int) Math.min(rows.length, (long) offset + limit);
+        for (int j = offset; j < end; j++) {
+            int i = rows[j];
+            formatter.appendPark(out, ids[i], names[i], latitudes[i], longitudes[i]);
+        } //for
+        
+        //returns the number of parks written
+        int written = Math.max(end - offset, 0);
+        ParkMetrics.FUZZY_SEARCH.record(startTime, startAllocated, rows.length, written);
+        return written;
+    } //writeFuzzySearchResults method
+    
+    /**
+     * Writes the parks whose names complete what has been typed so far, for
+     * type-ahead, one line per park. Names that start with the prefix come
+     * first, then names with a later word that starts with it.
+     * 
+     * @param out where the list is written
+     * @param prefix the first letters of a park name or of a word in it
+     * @param count the most parks to write
+     * @param prefixIndex prefix index built over the names array
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid count" if count is less than 1
+     * @throws IllegalArgumentException "Null index" if prefixIndex is null
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length or if arrays have less than 1 index
+     */
+    public static int writeCompletions(Appendable out, String prefix, int count, 
+                                       ParkPrefixIndex prefixIndex, int[] ids, 
+                                       String[] names, double[] latitudes, 
+                                       double[] longitudes) throws IOException {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        //ERROR HANDLING IN USER INTERFACE IF OUT IS NULL
+        if (out == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF COUNT IS LESS THAN 1
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid count");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF PREFIX INDEX IS NULL
+        if (prefixIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null || 
+            latitudes == null || longitudes == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length < 1 || 
+            ids.length != names.length || 
+            names.length != latitudes.length || 
+            latitudes.length != longitudes.length) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //Row formatter reused for every park
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        //Writing the completions the index found, already ranked
+        int[] rows = prefixIndex.complete(prefix, count);
+        for (int i : rows) {
+            formatter.appendPark(out, ids[i], names[i], latitudes[i], longitudes[i]);
+        } //for
+        
+        //returns the number of parks written
+        ParkMetrics.COMPLETE.record(startTime, startAllocated, rows.length, rows.length);
+        return rows.length;
+    } //writeCompletions method
+    
+    /**
+     * Constructs the string list for the parks closest to a location
+     * 
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param count the most parks to list
+     * @param spatialIndex k-d tree built over the latitudes and longitudes arrays
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return parkList list of up to count parks and their distances, closest first
+     * @throws IllegalArgumentException "Null index" if spatialIndex is null
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is 
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is 
+     *           less than -180 degrees or more than 180 degrees
+     * @throws IllegalArgumentException "Invalid number of parks" if count is
+     *           less than 1
+     */
+    public static String getNearestParks(double latitude, double longitude, int count,
+                                         ParkSpatialIndex spatialIndex, int[] ids, 
+                                         String[] names, double[] latitudes, 
+                                         double[] longitudes) {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+    
+        //ERROR HANDLING IN USER INTERFACE IF SPATIAL INDEX IS NULL
+        if (spatialIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+        
+        int[] rows = spatialIndex.nearest(latitude, longitude, count);
+        String parkList = getParkDistanceList(rows, latitude, longitude, DistanceModel.PLANAR, 
+                                              ids, names, latitudes, longitudes);
+        ParkMetrics.NEAREST.record(startTime, startAllocated, rows.length, rows.length);
+        return parkList;
+    } //getNearestParks method
+    
+    /**
+     * Constructs the string list for the parks within a distance of a location
+     * 
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @param spatialIndex k-d tree built over the latitudes and longitudes arrays
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return parkList list of the parks within radius and their distances, closest first
+     * @throws IllegalArgumentException "Null index" if spatialIndex is null
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is 
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is 
+     *           less than -180 degrees or more than 180 degrees
+     * @throws IllegalArgumentException "Invalid radius" if radius is negative
+     */
+    public static String getParksWithinRadius(double latitude, double longitude, 
+                                              double radius, ParkSpatialIndex spatialIndex, 
+                                              int[] ids, String[] names, 
+                                              double[] latitudes, double[] longitudes) {
+    
+        //ERROR HANDLING IN USER INTERFACE IF SPATIAL INDEX IS NULL
+        if (spatialIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+        
+        return getParksWithinRadius(latitude, longitude, radius, DistanceModel.PLANAR,
+                                    spatialIndex, ids, names, latitudes, longitudes);
+    } //getParksWithinRadius method
+    
+    /**
+     * Constructs the string list for the parks within a distance of a location,
+     * measured by a model
+     * 
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @param model how the distances are measured
+     * @param spatialIndex k-d tree built over the latitudes and longitudes arrays
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return parkList list of the parks within radius and their distances, closest first
+     * @throws IllegalArgumentException "Null index" if spatialIndex is null
+     * @throws IllegalArgumentException "Null model" if model is null
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is 
+     *           less than -90 degrees or more than 90 degrees
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is 
+     *           less than -180 degrees or more than 180 degrees
+     * @throws IllegalArgumentException "Invalid radius" if radius is negative
+     */
+    public static String getParksWithinRadius(double latitude, double longitude, 
+                                              double radius, DistanceModel model,
+                                              ParkSpatialIndex spatialIndex, 
+                                              int[] ids, String[] names, 
+                                              double[] latitudes, double[] longitudes) {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+    
+        //ERROR HANDLING IN USER INTERFACE IF SPATIAL INDEX IS NULL
+        if (spatialIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF MODEL IS NULL
+        if (model == null) {
+            throw new IllegalArgumentException("Null model");
+        } //if
+        
+        int[] rows = spatialIndex.withinRadius(latitude, longitude, radius, model);
+        String parkList = getParkDistanceList(rows, latitude, longitude, model, 
+                                              ids, names, latitudes, longitudes);
+        ParkMetrics.RADIUS.record(startTime, startAllocated, rows.length, rows.length);
+        return parkList;
+    } //getParksWithinRadius method
+    
+    /**
+     * Constructs the string list for the parks along the user's trip, the ones
+     * within a distance of its route that add the least to its length
+     * 
+     * @param trip the user's trip
+     * @param radius the largest distance in miles from the route
+     * @param count the most parks to list
+     * @param spatialIndex k-d tree built over the latitudes and longitudes arrays
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return parkList list of up to count parks not in the trip and how many
+     *         miles each adds to it, smallest detour first
+     * @throws IllegalArgumentException "Null trip" if trip is null
+     * @throws IllegalArgumentException "Null index" if spatialIndex is null
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length
+     * @throws IllegalArgumentException "Invalid radius" if radius is negative
+     * @throws IllegalArgumentException "Invalid number of parks" if count is
+     *           less than 1
+     */
+    public static String getParksAlongTrip(Trip trip, double radius, int count, 
+                                           ParkSpatialIndex spatialIndex, int[] ids, 
+                                           String[] names, double[] latitudes, 
+                                           double[] longitudes) {
+    
+        //ERROR HANDLING IN USER INTERFACE IF NAMES ARRAY IS NULL
+        if (names == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF NAMES ARRAY HAS AN INVALID LENGTH
+        if (ids != null && names.length != ids.length) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        TripCorridor corridor = new TripCorridor(trip, radius);
+        int[] rows = corridor.find(spatialIndex, ids, latitudes, longitudes, count);
+        
+        //String list for the parks and their detours
+        StringBuilder parkList = new StringBuilder();
+        
+        //Row formatter reused for every park in the list
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        try {
+            for (int i : rows) {
+                formatter.appendParkDistance(parkList, ids[i], names[i], latitudes[i], 
+                                             longitudes[i], 
+                                             corridor.detour(latitudes[i], longitudes[i]));
+            } //for
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
+        
+        //returns list of the parks and their detours
+        return parkList.toString();
+    } //getParksAlongTrip method
+    
+    /**
+     * Constructs the string list for parks found near a location, with the
+     * distance from the location to each park
+     * 
+     * @param rows rows of the parks to list
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param model how the distances are measured
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @return parkList list of the parks and their distances
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all arrays are
+     *           not the same length or if arrays have less than 1 index
+     */
+    private static String getParkDistanceList(int[] rows, double latitude, double longitude,
+                                              DistanceModel model, int[] ids, String[] names, 
+                                              double[] latitudes, double[] longitudes) {
+    
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null || 
+            latitudes == null || longitudes == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length < 1 || 
+            ids.length != names.length || 
+            names.length != latitudes.length || 
+            latitudes.length != longitudes.length) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //String list for the parks and their distances
+        StringBuilder parkList = new StringBuilder();
+        
+        //Row formatter reused for every park in the list
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        try {
+            for (int i : rows) {
+                double distance = model.distance(latitude, longitude, 
+                                                 latitudes[i], longitudes[i]);
+                formatter.appendParkDistance(parkList, ids[i], names[i], 
+                                             latitudes[i], longitudes[i], distance);
+            } //for
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
+        
+        //returns list of the parks and their distances
+        return parkList.toString();
+    } //getParkDistanceList method
+    
+    /**
+     * Formats the park id, name, latitude, and longitude for a list
+     * 
+     * @param id the id of the park
+     * @param name the name of the park
+     * @param latitude the latitude coordinate for the park
+     * @param longitude the longitude coordinate for the park
+     * @return formatted string of the park id, name, latitude, and longitude
+     */
+    public static String toString(int id, String name, 
                                   double latitude, double longitude) {
 
         return String.format("%3d %-40s %8.2f %8.2f", id, name, latitude, longitude);
@@ -671,6 +1770,41 @@ public class Parks {
                                     int[] tripIds, String[] tripNames, 
                                     double[] tripDistances) {
 
+        return addParkToTrip(parkId, numberOfParksInTrip, null, ids, names, 
+                             latitudes, longitudes, tripIds, tripNames, tripDistances);
+    } //addParkToTrip method
+    
+    /**
+     * Adds parks to user's trip, looking up park ids in an id index instead of
+     * scanning the park ids array
+     * 
+     * @param parkId id of the park the user wants to add to their trip
+     * @param numberOfParksInTrip the number of parks that the user currently
+     *           has in their trip
+     * @param idIndex index from each park id in ids to its row, or null to
+     *           search the ids array
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @param tripIds array of all the park ids the user wants to add to their trip
+     * @param tripNames array of all the park names the user wants to add to
+     *          their trip
+     * @param tripDistances array of all the park distances the user wants to add
+     *           to their trip
+     * @return numberOfParksInTrip the number of parks in the user's trip after adding 
+     *         a park to the user's trip
+     * @throws IllegalArgumentException for the same reasons as the method without
+     *           an id index
+     */
+    public static int addParkToTrip(int parkId, int numberOfParksInTrip, 
+                                    ParkIdLookup idIndex, int[] ids, String[] names, 
+                                    double[] latitudes, double[] longitudes, 
+                                    int[] tripIds, String[] tripNames, 
+                                    double[] tripDistances) {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
         
         //ERROR HANDLING IN USER INTERFACE IF THERE ARE LESS THAN 0 PARKS IN TRIP
         if (numberOfParksInTrip < 0) {
@@ -708,16 +1842,8 @@ public class Parks {
             throw new IllegalArgumentException("Trip is full");
         } //if
         
-        //Int length of park array parameters
-        int arrayLength = ids.length;
-        
         //Finding if parkId is a real id of a park
-        int index = -1;
-        for (int i = 0; i < arrayLength; i++) {
-            if (ids[i] == parkId) {
-                index = i;
-            } //if
-        } //for
+        int index = indexOfPark(parkId, idIndex, ids);
         
         //ERROR HANDLING IN USER INTERFACE IF THE ID ADDED DOESN'T EXIST
         if (index == -1) {
@@ -743,11 +1869,7 @@ public class Parks {
         //Calculating the index of the previously added park
         else {
             priorId = tripIds[numberOfParksInTrip - 1];
-            for (int i = 0; i < ids.length; i++) {
-                if (priorId == ids[i]) {
-                    priorIndex = i;
-                } //if
-            } //for
+            priorIndex = Math.max(indexOfPark(priorId, idIndex, ids), 0);
             
             //Finding the distances between the added park and the previously added park
             tripDistances[numberOfParksInTrip] = tripDistances[numberOfParksInTrip - 1] + 
@@ -759,11 +1881,221 @@ public class Parks {
 
         //Incrementing the number of parks in trip for each added park
         numberOfParksInTrip++;
+        ParkMetrics.ADD_TO_TRIP.record(startTime, startAllocated, 
+                                       idIndex == null ? index + 1 : 1, 1);
         
         //returns the number of parks in user's trip
         return numberOfParksInTrip;
     } //addParkToTrip method
     
+    /**
+     * Adds a park to user's trip at a position. The trip has no limit on its
+     * number of parks.
+     * 
+     * @param parkId id of the park the user wants to add to their trip
+     * @param position number of parks in the trip before the added park, from 0
+     *           to the number of parks in the trip
+     * @param idIndex index from each park id in ids to its row, or null to
+     *           search the ids array
+     * @param ids array of all the park ids in the input file
+     * @param names array of all the park names in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @param trip the user's trip
+     * @return the number of parks in the user's trip after adding the park
+     * @throws IllegalArgumentException "Null trip" if trip is null
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all of the park
+     *           arrays are not the same length or are empty
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or more than the number of parks in the trip
+     * @throws IllegalArgumentException "Invalid id" if no park has parkId
+     */
+    public static int addParkToTrip(int parkId, int position, ParkIdLookup idIndex, 
+                                    int[] ids, String[] names, double[] latitudes, 
+                                    double[] longitudes, Trip trip) {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        //ERROR HANDLING IN USER INTERFACE IF TRIP IS NULL
+        if (trip == null) {
+            throw new IllegalArgumentException("Null trip");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || names == null || latitudes == null || longitudes == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY PARK ARRAY HAS AN INVALID LENGTH
+        if (ids.length < 1 || 
+            ids.length != names.length || 
+            names.length != latitudes.length || 
+            latitudes.length != longitudes.length) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS OUT OF RANGE
+        if (position < 0 || position > trip.size()) {
+            throw new IllegalArgumentException("Invalid position");
+        } //if
+        
+        //Finding if parkId is a real id of a park
+        int index = indexOfPark(parkId, idIndex, ids);
+        
+        //ERROR HANDLING IN USER INTERFACE IF THE ID ADDED DOESN'T EXIST
+        if (index == -1) {
+            throw new IllegalArgumentException("Invalid id");
+        } //if
+        
+        //Inserting the park, which updates the distances after it
+        trip.insert(position, ids[index], names[index], latitudes[index], longitudes[index]);
+        ParkMetrics.ADD_TO_TRIP.record(startTime, startAllocated, 
+                                       idIndex == null ? index + 1 : 1, 1);
+        
+        //returns the number of parks in user's trip
+        return trip.size();
+    } //addParkToTrip method
+    
+    /**
+     * Reorders the parks in the user's trip so the total distance of the trip is
+     * as short as the trip optimizer can make it. The first park stays first.
+     * 
+     * @param numberOfParksInTrip the number of parks that the user currently
+     *           has in their trip
+     * @param idIndex index from each park id in ids to its row, or null to
+     *           search the ids array
+     * @param ids array of all the park ids in the input file
+     * @param latitudes array of all the park latitudes in the input file
+     * @param longitudes array of all the park longitudes in the input file
+     * @param tripIds array of all the park ids in the user's trip
+     * @param tripNames array of all the park names in the user's trip
+     * @param tripDistances array of all the park distances in the user's trip
+     * @throws IllegalArgumentException "Invalid number of parks" if 
+     *            numberOfParksInTrip is less than 0
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all park arrays 
+     *           are not the same length, or if all of the user's trip arrays are
+     *           not the same length or are shorter than numberOfParksInTrip
+     * @throws IllegalArgumentException "Invalid id" if a park in the trip does 
+     *            not resemble any park's id
+     */
+    public static void optimizeTrip(int numberOfParksInTrip, ParkIdLookup idIndex, 
+                                    int[] ids, double[] latitudes, double[] longitudes, 
+                                    int[] tripIds, String[] tripNames, 
+                                    double[] tripDistances) {
+    
+        //ERROR HANDLING IN USER INTERFACE IF THERE ARE LESS THAN 0 PARKS IN TRIP
+        if (numberOfParksInTrip < 0) {
+            throw new IllegalArgumentException("Invalid number of parks");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || latitudes == null || longitudes == null || 
+            tripIds == null || tripNames == null || tripDistances == null) {
+
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length != latitudes.length || latitudes.length != longitudes.length ||
+            tripIds.length != tripNames.length || tripNames.length != tripDistances.length ||
+            tripIds.length < numberOfParksInTrip) {
+            
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //Finding the coordinates of each park in the trip
+        double[] stopLatitudes = new double[numberOfParksInTrip];
+        double[] stopLongitudes = new double[numberOfParksInTrip];
+        for (int i = 0; i < numberOfParksInTrip; i++) {
+            int index = indexOfPark(tripIds[i], idIndex, ids);
+            
+            //ERROR HANDLING IN USER INTERFACE IF A PARK IN THE TRIP DOESN'T EXIST
+            if (index == -1) {
+                throw new IllegalArgumentException("Invalid id");
+            } //if
+            stopLatitudes[i] = latitudes[index];
+            stopLongitudes[i] = longitudes[index];
+        } //for
+        
+        //New order of the parks in the trip
+        int[] order = TripOptimizer.optimize(stopLatitudes, stopLongitudes);
+        
+        //Rewriting the trip in the new order
+        int[] oldIds = Arrays.copyOf(tripIds, numberOfParksInTrip);
+        String[] oldNames = Arrays.copyOf(tripNames, numberOfParksInTrip);
+        for (int i = 0; i < numberOfParksInTrip; i++) {
+            tripIds[i] = oldIds[order[i]];
+            tripNames[i] = oldNames[order[i]];
+            if (i == 0) {
+                tripDistances[0] = 0.0;
+            } //if
+            else {
+                tripDistances[i] = tripDistances[i - 1] + 
+                                   calculateDistance(stopLatitudes[order[i - 1]], 
+                                                     stopLongitudes[order[i - 1]], 
+                                                     stopLatitudes[order[i]], 
+                                                     stopLongitudes[order[i]]);
+            } //else
+        } //for
+    } //optimizeTrip method
+    
+    /**
+     * Reorders the parks in the user's trip so the total distance of the trip is
+     * as short as the trip optimizer can make it. The first park stays first.
+     * 
+     * @param trip the user's trip
+     * @throws IllegalArgumentException "Null trip" if trip is null
+     */
+    public static void optimizeTrip(Trip trip) {
+        
+        //ERROR HANDLING IN USER INTERFACE IF TRIP IS NULL
+        if (trip == null) {
+            throw new IllegalArgumentException("Null trip");
+        } //if
+        
+        //Finding the coordinates of each park in the trip
+        int numberOfParksInTrip = trip.size();
+        double[] stopLatitudes = new double[numberOfParksInTrip];
+        double[] stopLongitudes = new double[numberOfParksInTrip];
+        for (int i = 0; i < numberOfParksInTrip; i++) {
+            stopLatitudes[i] = trip.getLatitude(i);
+            stopLongitudes[i] = trip.getLongitude(i);
+        } //for
+        
+        //Rewriting the trip in the new order
+        trip.reorder(TripOptimizer.optimize(stopLatitudes, stopLongitudes));
+    } //optimizeTrip method
+    
+    /**
+     * Finds the row of a park id, using the id index when there is one
+     * 
+     * @param parkId the park id to look up
+     * @param idIndex index from each park id in ids to its row, or null to
+     *           search the ids array
+     * @param ids array of all the park ids in the input file
+     * @return the row of the park, or -1 if no park has that id
+     */
+    private static int indexOfPark(int parkId, ParkIdLookup idIndex, int[] ids) {
+    
+        if (idIndex != null) {
+            return idIndex.get(parkId);
+        } //if
+        
+        //Searching the ids array, the last match wins like the original loop
+        for (int i = ids.length - 1; i >= 0; i--) {
+            if (ids[i] == parkId) {
+                return i;
+            } //if
+        } //for
+        return -1;
+    } //indexOfPark method
+    
     /**
      * Constructs the string list for all the parks in the user's trip
      * 
@@ -801,17 +2133,182 @@ public class Parks {
         } //if
 
         //String list for all the parks in the user's trip
-        String s = "";
+        StringBuilder s = new StringBuilder();
         
+        try {
+            writeTrip(s, 0, Integer.MAX_VALUE, numberOfParksInTrip, 
+                      tripIds, tripNames, tripDistances);
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
         
-        for (int i = 0; i < numberOfParksInTrip; i++) {
-            s += String.format("%3d %-40s %8.2f\n", tripIds[i], tripNames[i], tripDistances[i]);
-        } //for
+        //returns list of all the parks from the user's trip
+        return s.toString();
+    } //getTrip method
+    
+    /**
+     * Constructs the string list for all the parks in the user's trip
+     * 
+     * @param trip the user's trip
+     * @return s the formatted string list for all the parks in the user's trip
+     * @throws IllegalArgumentException "Null trip" if trip is null
+     */
+    public static String getTrip(Trip trip) {
+
+        //String list for all the parks in the user's trip
+        StringBuilder s = new StringBuilder();
+        
+        try {
+            writeTrip(s, 0, Integer.MAX_VALUE, trip);
+        } //try
+        //A StringBuilder is never unable to be written to
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } //catch
         
         //returns list of all the parks from the user's trip
-        return s;
+        return s.toString();
     } //getTrip method
     
+    /**
+     * Writes a page of the list of all the parks in the user's trip, one line 
+     * per park, without building the list in memory
+     * 
+     * @param out where the list is written
+     * @param offset the number of parks to skip from the start of the trip
+     * @param limit the most parks to write
+     * @param numberOfParksInTrip the number of parks that the user currently
+     *           has in their trip
+     * @param tripIds array of all the park ids the user wants to add to their trip
+     * @param tripNames array of all the park names the user wants to add to
+     *          their trip
+     * @param tripDistances array of all the park distances the user wants to add
+     *           to their trip
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     * @throws IllegalArgumentException "Invalid number of parks" if 
+     *            numberOfParksInTrip is less than 0
+     * @throws IllegalArgumentException "Null array" if any of the array 
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if all of the user's 
+     *           trip arrays don't have a length of 10
+     */
+    public static int writeTrip(Appendable out, int offset, int limit, 
+                                int numberOfParksInTrip, int[] tripIds, 
+                                String[] tripNames, double[] tripDistances) 
+                                throws IOException {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        checkPage(out, offset, limit);
+        
+        //ERROR HANDLING IN USER INTERFACE IF THERE ARE LESS THAN 0 PARKS IN TRIP
+        if (numberOfParksInTrip < 0) {
+            throw new IllegalArgumentException("Invalid number of parks");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (tripIds == null || tripNames == null || tripDistances == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF ANY TRIP ARRAY HAS AN INVALID LENGTH
+        if (tripIds.length != 10 || tripNames.length != 10 || tripDistances.length != 10) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+        
+        //Row formatter reused for every park in the page
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        //Writing each park in the page
+        int end = (int) Math.min(numberOfParksInTrip, (long) offset + limit);
+        for (int i = offset; i < end; i++) {
+            formatter.appendTripPark(out, tripIds[i], tripNames[i], tripDistances[i]);
+        } //for
+        
+        //returns the number of parks written
+        int written = Math.max(end - offset, 0);
+        ParkMetrics.GET_TRIP.record(startTime, startAllocated, written, written);
+        return written;
+    } //writeTrip method
+    
+    /**
+     * Writes a page of the list of all the parks in the user's trip, one line 
+     * per park, without building the list in memory
+     * 
+     * @param out where the list is written
+     * @param offset the number of parks to skip from the start of the trip
+     * @param limit the most parks to write
+     * @param trip the user's trip
+     * @return the number of parks written
+     * @throws IOException if out cannot be written to
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     * @throws IllegalArgumentException "Null trip" if trip is null
+     */
+    public static int writeTrip(Appendable out, int offset, int limit, Trip trip) 
+                                throws IOException {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        checkPage(out, offset, limit);
+        
+        //ERROR HANDLING IN USER INTERFACE IF TRIP IS NULL
+        if (trip == null) {
+            throw new IllegalArgumentException("Null trip");
+        } //if
+        
+        //Row formatter reused for every park in the page
+        ParkRowFormatter formatter = new ParkRowFormatter();
+        
+        //Writing each park in the page
+        int end = (int) Math.min(trip.size(), (long) offset + limit);
+        for (int i = offset; i < end; i++) {
+            formatter.appendTripPark(out, trip.getId(i), trip.getName(i), trip.getDistance(i));
+        } //for
+        
+        //returns the number of parks written
+        int written = Math.max(end - offset, 0);
+        ParkMetrics.GET_TRIP.record(startTime, startAllocated, written, written);
+        return written;
+    } //writeTrip method
+    
+    /**
+     * Checks where a page of a list is written and which part of the list it is
+     * 
+     * @param out where the page is written
+     * @param offset the number of rows to skip from the start of the list
+     * @param limit the most rows to write
+     * @throws IllegalArgumentException "Null file" if out is null
+     * @throws IllegalArgumentException "Invalid offset" if offset is less than 0
+     * @throws IllegalArgumentException "Invalid limit" if limit is less than 0
+     */
+    static void checkPage(Appendable out, int offset, int limit) {
+        
+        //ERROR HANDLING IN USER INTERFACE IF OUT IS NULL
+        if (out == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF OFFSET IS LESS THAN 0
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid offset");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF LIMIT IS LESS THAN 0
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid limit");
+        } //if
+    } //checkPage method
+    
     /**
      * Prints the user's trip in the output file
      * 
@@ -833,6 +2330,9 @@ public class Parks {
     public static void outputTrip(PrintWriter out, int numberOfParksInTrip,
                                     String[] tripNames, double[] tripDistances) {
         
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
         //ERROR HANDLING IN USER INTERFACE IF OUT PRINT WRITER IS NULL
         if (out == null) {
             throw new IllegalArgumentException("Null file");
@@ -860,5 +2360,40 @@ public class Parks {
         
         //Closing out print writer
         out.close();
+        ParkMetrics.OUTPUT_TRIP.record(startTime, startAllocated, 
+                                       numberOfParksInTrip, numberOfParksInTrip);
+    } //outputTrip method
+    
+    /**
+     * Prints the user's trip in the output file
+     * 
+     * @param out print writer for inside the output file
+     * @param trip the user's trip
+     * @throws IllegalArgumentException "Null file" if the output print writer is null
+     * @throws IllegalArgumentException "Null trip" if trip is null
+     */
+    public static void outputTrip(PrintWriter out, Trip trip) {
+        
+        long startTime = ParkMetrics.startTime();
+        long startAllocated = ParkMetrics.allocatedBytes();
+        
+        //ERROR HANDLING IN USER INTERFACE IF OUT PRINT WRITER IS NULL
+        if (out == null) {
+            throw new IllegalArgumentException("Null file");
+        } //if
+        
+        //ERROR HANDLING IN USER INTERFACE IF TRIP IS NULL
+        if (trip == null) {
+            throw new IllegalArgumentException("Null trip");
+        } //if
+        
+        //Printing user's trip names and distances into output file
+        for (int i = 0; i < trip.size(); i++) {
+            out.printf("%s,%.2f\n", trip.getName(i), trip.getDistance(i));
+        } //for
+        
+        //Closing out print writer
+        out.close();
+        ParkMetrics.OUTPUT_TRIP.record(startTime, startAllocated, trip.size(), trip.size());
     } //outputTrip method
 } //Parks class
\ No newline at end of file
@@ -0,0 +1,111 @@
+/**
+ * Id index of a catalog made by applying changes to another catalog. It looks
+ * an id up in a small index over the changed rows first, then in the id index
+ * that was already built over the base catalog, moving the row found there to
+ * its current row. The index only changes by applying changes to its catalog,
+ * so it has no way to add an id.
+ */
+class PatchedIdIndex implements ParkIdLookup {
+
+    /** Index over the base catalog's ids*/
+    private final ParkIdIndex base;
+
+    /** Map from the base catalog's rows to the current rows*/
+    private final RowPatch patch;
+
+    /** Index from the id of each delta row to its place in the delta rows*/
+    private final ParkIdIndex delta;
+
+    /** All the current park ids*/
+    private final int[] ids;
+
+    /** Plain index over the current ids for saving, or null until it is first asked for*/
+    private volatile ParkIdIndex compacted;
+
+    /**
+     * Creates the index for a catalog made from the base catalog
+     *
+     * @param base index over the base catalog's ids
+     * @param patch map from the base catalog's rows to the current rows
+     * @param ids array of all the current park ids
+     */
+    PatchedIdIndex(ParkIdIndex base, RowPatch patch, int[] ids) {
+        this.base = base;
+        this.patch = patch;
+        this.ids = ids;
+        int[] deltaRows = patch.getDeltaRows();
+        int[] deltaIds = new int[deltaRows.length];
+        for (int i = 0; i < deltaRows.length; i++) {
+            deltaIds[i] = ids[deltaRows[i]];
+        } //for
+        delta = ParkIdIndex.build(deltaIds);
+    } //PatchedIdIndex constructor
+
+    /**
+     * Returns the index over the base catalog's ids
+     *
+     * @return the base index
+     */
+    ParkIdIndex getBase() {
+        return base;
+    } //getBase method
+
+    /**
+     * Returns the map from the base catalog's rows to the current rows
+     *
+     * @return the patch
+     */
+    RowPatch getPatch() {
+        return patch;
+    } //getPatch method
+
+    /**
+     * Returns the number of ids in the index
+     *
+     * @return the number of ids
+     */
+    @Override
+    public int size() {
+        return patch.size();
+    } //size method
+
+    /**
+     * Finds the row of a park id
+     *
+     * @param id the park id to look up
+     * @return the row of the id, or ParkIdIndex.NO_ROW if the id is not in the index
+     */
+    @Override
+    public int get(int id) {
+        int i = delta.get(id);
+        if (i != ParkIdIndex.NO_ROW) {
+            return patch.getDeltaRows()[i];
+        } //if
+        int baseRow = base.get(id);
+        if (baseRow == ParkIdIndex.NO_ROW) {
+            return ParkIdIndex.NO_ROW;
+        } //if
+        int row = patch.toCurrent(baseRow);
+        return row == -1 ? ParkIdIndex.NO_ROW : row;
+    } //get method
+
+    /**
+     * Returns a plain index over the current ids, for saving the index. It is
+     * built the first time it is asked for.
+     *
+     * @return the plain index
+     */
+    ParkIdIndex compact() {
+        ParkIdIndex index = compacted;
+        if (index == null) {
+            synchronized (this) {
+                index = compacted;
+                if (index == null) {
+                    index = ParkIdIndex.build(ids);
+                    compacted = index;
+                } //if
+            } //synchronized
+        } //if
+        return index;
+    } //compact method
+} //PatchedIdIndex class
@@ -0,0 +1,89 @@
+import java.util.*;
+
+/**
+ * Name index of a catalog made by applying changes to another catalog. It
+ * searches the name index that was already built over the base catalog,
+ * skipping the rows that were deleted or updated and moving the rest to their
+ * current rows, and merges in the results of a small index built over only the
+ * changed names.
+ */
+class PatchedNameIndex implements ParkNameSearch {
+
+    /** Index over the base catalog's names*/
+    private final ParkNameIndex base;
+
+    /** Map from the base catalog's rows to the current rows*/
+    private final RowPatch patch;
+
+    /** Index over the names of the delta rows*/
+    private final ParkNameIndex delta;
+
+    /**
+     * Creates the index for a catalog made from the base catalog
+     *
+     * @param base index over the base catalog's names
+     * @param patch map from the base catalog's rows to the current rows
+     * @param names array of all the current park names
+     */
+    PatchedNameIndex(ParkNameIndex base, RowPatch patch, String[] names) {
+        this.base = base;
+        this.patch = patch;
+        int[] deltaRows = patch.getDeltaRows();
+        String[] deltaNames = new String[deltaRows.length];
+        for (int i = 0; i < deltaRows.length; i++) {
+            deltaNames[i] = names[deltaRows[i]];
+        } //for
+        delta = new ParkNameIndex(deltaNames);
+    } //PatchedNameIndex constructor
+
+    /**
+     * Returns the index over the base catalog's names
+     *
+     * @return the base index
+     */
+    ParkNameIndex getBase() {
+        return base;
+    } //getBase method
+
+    /**
+     * Returns the map from the base catalog's rows to the current rows
+     *
+     * @return the patch
+     */
+    RowPatch getPatch() {
+        return patch;
+    } //getPatch method
+
+    /**
+     * Finds the rows of all the park names that contain a keyword, ignoring case
+     * the same way as comparing the lowercased name and keyword
+     *
+     * @param parkName keyword to search for
+     * @return rows of the matching parks in ascending order
+     */
+    @Override
+    public int[] search(String parkName) {
+        int[] baseRows = base.search(parkName);
+        int[] deltaMatches = delta.search(parkName);
+        int[] deltaRows = patch.getDeltaRows();
+
+        //Both lists are in ascending current row order, so they are merged
+        int[] rows = new int[baseRows.length + deltaMatches.length];
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < baseRows.length; i++) {
+            int row = patch.toCurrent(baseRows[i]);
+            if (row == -1) {
+                continue;
+            } //if
+            while (j < deltaMatches.length && deltaRows[deltaMatches[j]] < row) {
+                rows[count++] = deltaRows[deltaMatches[j++]];
+            } //while
+            rows[count++] = row;
+        } //for
+        while (j < deltaMatches.length) {
+            rows[count++] = deltaRows[deltaMatches[j++]];
+        } //while
+        return count == rows.length ? rows : Arrays.copyOf(rows, count);
+    } //search method
+} //PatchedNameIndex class
@@ -0,0 +1,214 @@
+import java.util.*;
+
+/**
+ * Spatial index of a catalog made by applying changes to another catalog. It
+ * searches the k-d tree that was already built over the base catalog, skipping
+ * the rows that were deleted or updated and moving the rest to their current
+ * rows, and merges in the results of a small tree built over only the changed
+ * coordinates. A nearest search asks the base tree for extra parks to make up
+ * for the ones it skips.
+ */
+class PatchedSpatialIndex extends ParkSpatialIndex {
+
+    /** Tree over the base catalog's coordinates*/
+    private final ParkSpatialIndex base;
+
+    /** Map from the base catalog's rows to the current rows*/
+    private final RowPatch patch;
+
+    /** Tree over the coordinates of the delta rows*/
+    private final ParkSpatialIndex delta;
+
+    /** All the current park latitudes*/
+    private final double[] latitudes;
+
+    /** All the current park longitudes*/
+    private final double[] longitudes;
+
+    /** Number of current parks in the index*/
+    private final int size;
+
+    /**
+     * Creates the index for a catalog made from the base catalog
+     *
+     * @param base tree over the base catalog's coordinates
+     * @param patch map from the base catalog's rows to the current rows
+     * @param latitudes array of all the current park latitudes
+     * @param longitudes array of all the current park longitudes
+     * @param size number of current parks with no NaN coordinate
+     */
+    PatchedSpatialIndex(ParkSpatialIndex base, RowPatch patch, double[] latitudes,
+                        double[] longitudes, int size) {
+        super(new double[0], new double[0]);
+        this.base = base;
+        this.patch = patch;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.size = size;
+        int[] deltaRows = patch.getDeltaRows();
+        double[] deltaLatitudes = new double[deltaRows.length];
+        double[] deltaLongitudes = new double[deltaRows.length];
+        for (int i = 0; i < deltaRows.length; i++) {
+            deltaLatitudes[i] = latitudes[deltaRows[i]];
+            deltaLongitudes[i] = longitudes[deltaRows[i]];
+        } //for
+        delta = new ParkSpatialIndex(deltaLatitudes, deltaLongitudes);
+    } //PatchedSpatialIndex constructor
+
+    /**
+     * Returns the tree over the base catalog's coordinates
+     *
+     * @return the base index
+     */
+    ParkSpatialIndex getBase() {
+        return base;
+    } //getBase method
+
+    /**
+     * Returns the map from the base catalog's rows to the current rows
+     *
+     * @return the patch
+     */
+    RowPatch getPatch() {
+        return patch;
+    } //getPatch method
+
+    /**
+     * Returns the number of parks in the index
+     *
+     * @return the number of indexed parks
+     */
+    @Override
+    public int size() {
+        return size;
+    } //size method
+
+    /**
+     * Finds the parks closest to a location
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param count the most parks to return
+     * @return rows of up to count parks, closest first, ties in row order
+     * @throws IllegalArgumentException for the same reasons as ParkSpatialIndex
+     */
+    @Override
+    public int[] nearest(double latitude, double longitude, int count) {
+        int[] deltaFound = delta.nearest(latitude, longitude, count);
+        int extra = (int) Math.min((long) count + patch.replacedCount(), Integer.MAX_VALUE);
+        int[] baseFound = base.nearest(latitude, longitude, extra);
+        return merge(baseFound, deltaFound, latitude, longitude, count,
+                     DistanceModel.PLANAR);
+    } //nearest method
+
+    /**
+     * Finds the parks within a distance of a location
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param radius the largest distance in miles
+     * @param model how the distance is measured
+     * @return rows of the parks at most radius miles away, closest first, ties in row order
+     * @throws IllegalArgumentException for the same reasons as ParkSpatialIndex
+     */
+    @Override
+    public int[] withinRadius(double latitude, double longitude, double radius,
+                              DistanceModel model) {
+        int[] deltaFound = delta.withinRadius(latitude, longitude, radius, model);
+        int[] baseFound = base.withinRadius(latitude, longitude, radius, model);
+        return merge(baseFound, deltaFound, latitude, longitude, Integer.MAX_VALUE, model);
+    } //withinRadius method
+
+    /**
+     * Finds the parks inside a latitude and longitude box, edges included
+     *
+     * @param minLatitude smallest latitude of the box
+     * @param maxLatitude largest latitude of the box
+     * @param minLongitude smallest longitude of the box
+     * @param maxLongitude largest longitude of the box
+     * @return rows of the parks in the box in no particular order
+     */
+    @Override
+    public int[] withinBox(double minLatitude, double maxLatitude,
+                           double minLongitude, double maxLongitude) {
+        int[] baseFound = base.withinBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        int[] deltaFound = delta.withinBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        int[] deltaRows = patch.getDeltaRows();
+
+        //Moving the base rows to their current rows and adding the delta rows
+        int[] rows = new int[baseFound.length + deltaFound.length];
+        int count = 0;
+        for (int baseRow : baseFound) {
+            int row = patch.toCurrent(baseRow);
+            if (row != -1) {
+                rows[count++] = row;
+            } //if
+        } //for
+        for (int deltaRow : deltaFound) {
+            rows[count++] = deltaRows[deltaRow];
+        } //for
+        return Arrays.copyOf(rows, count);
+    } //withinBox method
+
+    /**
+     * Merges the parks found in the base and delta trees, closest first and
+     * ties in current row order
+     *
+     * @param baseFound base rows found in the base tree, closest first
+     * @param deltaFound places in the delta rows found in the delta tree, closest first
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param limit the most parks to return
+     * @param model how the parks were measured
+     * @return the current rows
+     */
+    private int[] merge(int[] baseFound, int[] deltaFound, double latitude, double longitude,
+                        int limit, DistanceModel model) {
+
+        //Moving the base rows to their current rows, which keeps their order
+        int[] baseRows = new int[baseFound.length];
+        int baseCount = 0;
+        for (int baseRow : baseFound) {
+            int row = patch.toCurrent(baseRow);
+            if (row != -1) {
+                baseRows[baseCount++] = row;
+            } //if
+        } //for
+
+        int[] deltaRows = patch.getDeltaRows();
+        int[] rows = new int[(int) Math.min((long) baseCount + deltaFound.length, limit)];
+        int i = 0;
+        int j = 0;
+        for (int count = 0; count < rows.length; count++) {
+            boolean takeDelta;
+            if (i == baseCount) {
+                takeDelta = true;
+            } //if
+            else if (j == deltaFound.length) {
+                takeDelta = false;
+            } //else if
+            else {
+                int deltaRow = deltaRows[deltaFound[j]];
+                double deltaDistance = distance(deltaRow, latitude, longitude, model);
+                double baseDistance = distance(baseRows[i], latitude, longitude, model);
+                takeDelta = deltaDistance < baseDistance ||
+                            (deltaDistance == baseDistance && deltaRow < baseRows[i]);
+            } //else
+            rows[count] = takeDelta ? deltaRows[deltaFound[j++]] : baseRows[i++];
+        } //for
+        return rows;
+    } //merge method
+
+    /**
+     * Calculates the distance from a location to a current row
+     *
+     * @param row the current row
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param model how the distance is measured
+     * @return the distance in miles
+     */
+    private double distance(int row, double latitude, double longitude, DistanceModel model) {
+        return model.distance(latitude, longitude, latitudes[row], longitudes[row]);
+    } //distance method
+} //PatchedSpatialIndex class
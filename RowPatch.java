@@ -0,0 +1,225 @@
+import java.util.*;
+
+/**
+ * Maps the rows of a base catalog, the one an index was built over, to the
+ * rows of a catalog made from it by applying changes, so the index can keep
+ * being used without being built again.
+ *
+ * Applying changes keeps the rows that are not deleted in the same order,
+ * leaves each updated row where it was, and adds new rows at the end, so a
+ * base row moves up by the number of deleted base rows before it. Base rows
+ * that were deleted or updated are replaced: the index must skip them. Rows
+ * whose values are not in the base, the updated and added ones, are delta rows,
+ * which a small index is built over. Everything here is sized by the number of
+ * changes since the base, not by the number of parks.
+ */
+class RowPatch {
+
+    /** Number of rows in the base catalog*/
+    private final int baseSize;
+
+    /** Number of rows in the current catalog*/
+    private final int size;
+
+    /** Base rows that were deleted, in ascending order*/
+    private final int[] deletedBase;
+
+    /** Base rows that were deleted or updated, in ascending order*/
+    private final int[] replacedBase;
+
+    /** Current rows whose values are not in the base, in ascending order*/
+    private final int[] deltaRows;
+
+    /**
+     * Creates a patch
+     *
+     * @param baseSize number of rows in the base catalog
+     * @param size number of rows in the current catalog
+     * @param deletedBase base rows that were deleted, in ascending order
+     * @param replacedBase base rows that were deleted or updated, in ascending order
+     * @param deltaRows current rows whose values are not in the base, in ascending order
+     */
+    private RowPatch(int baseSize, int size, int[] deletedBase, int[] replacedBase,
+                     int[] deltaRows) {
+        this.baseSize = baseSize;
+        this.size = size;
+        this.deletedBase = deletedBase;
+        this.replacedBase = replacedBase;
+        this.deltaRows = deltaRows;
+    } //RowPatch constructor
+
+    /**
+     * Creates a patch with no changes
+     *
+     * @param size number of rows in the base catalog
+     * @return the patch
+     */
+    static RowPatch identity(int size) {
+        return new RowPatch(size, size, new int[0], new int[0], new int[0]);
+    } //identity method
+
+    /**
+     * Returns the number of rows in the current catalog
+     *
+     * @return the number of rows
+     */
+    int size() {
+        return size;
+    } //size method
+
+    /**
+     * Returns the current rows whose values are not in the base
+     *
+     * @return the delta rows in ascending order, not to be changed
+     */
+    int[] getDeltaRows() {
+        return deltaRows;
+    } //getDeltaRows method
+
+    /**
+     * Returns the number of changes since the base, for deciding when the
+     * index should be built again instead
+     *
+     * @return the number of replaced base rows and delta rows
+     */
+    int changeCount() {
+        return replacedBase.length + deltaRows.length;
+    } //changeCount method
+
+    /**
+     * Returns the number of base rows the index must skip
+     *
+     * @return the number of deleted or updated base rows
+     */
+    int replacedCount() {
+        return replacedBase.length;
+    } //replacedCount method
+
+    /**
+     * Finds the current row of a base row
+     *
+     * @param baseRow the base row
+     * @return the current row, or -1 if the base row was deleted or updated
+     */
+    int toCurrent(int baseRow) {
+        if (Arrays.binarySearch(replacedBase, baseRow) >= 0) {
+            return -1;
+        } //if
+        return baseRow - countBelow(deletedBase, baseRow);
+    } //toCurrent method
+
+    /**
+     * Finds the base row that a current row was, deleted base rows being skipped
+     *
+     * @param row the current row
+     * @return the base row, which may have been updated, or -1 if the row was
+     *         added after the base
+     */
+    private int toBase(int row) {
+        if (row >= baseSize - deletedBase.length) {
+            return -1;
+        } //if
+
+        //The base row is the row plus the deleted base rows at or before it
+        int baseRow = row;
+        while (true) {
+            int next = row + countBelow(deletedBase, baseRow + 1);
+            if (next == baseRow) {
+                return baseRow;
+            } //if
+            baseRow = next;
+        } //while
+    } //toBase method
+
+    /**
+     * Makes the patch for the catalog made by applying more changes to the
+     * current one
+     *
+     * @param deleted current rows that are deleted, in ascending order
+     * @param updated current rows that are updated, in ascending order
+     * @param added number of rows added at the end
+     * @return the patch from the same base to the new catalog
+     */
+    RowPatch apply(int[] deleted, int[] updated, int added) {
+        int newSize = size - deleted.length + added;
+
+        //Base rows that are deleted or updated now
+        int[] newDeleted = Arrays.copyOf(deletedBase, deletedBase.length + deleted.length);
+        int deletedCount = deletedBase.length;
+        int[] newReplaced = Arrays.copyOf(replacedBase, replacedBase.length + deleted.length +
+                                                        updated.length);
+        int replacedCount = replacedBase.length;
+        for (int row : deleted) {
+            int baseRow = toBase(row);
+            if (baseRow != -1) {
+                newDeleted[deletedCount++] = baseRow;
+                newReplaced[replacedCount++] = baseRow;
+            } //if
+        } //for
+        for (int row : updated) {
+            int baseRow = toBase(row);
+            if (baseRow != -1) {
+                newReplaced[replacedCount++] = baseRow;
+            } //if
+        } //for
+
+        //Delta rows moved to their new rows, then the updated and added rows
+        int[] newDelta = new int[deltaRows.length + updated.length + added];
+        int deltaCount = 0;
+        for (int row : deltaRows) {
+            if (Arrays.binarySearch(deleted, row) < 0) {
+                newDelta[deltaCount++] = row - countBelow(deleted, row);
+            } //if
+        } //for
+        for (int row : updated) {
+            newDelta[deltaCount++] = row - countBelow(deleted, row);
+        } //for
+        for (int row = newSize - added; row < newSize; row++) {
+            newDelta[deltaCount++] = row;
+        } //for
+
+        return new RowPatch(baseSize, newSize, sortedUnique(newDeleted, deletedCount),
+                            sortedUnique(newReplaced, replacedCount),
+                            sortedUnique(newDelta, deltaCount));
+    } //apply method
+
+    /**
+     * Counts the values in a sorted array that are less than a value
+     *
+     * @param sorted values in ascending order
+     * @param value the value
+     * @return the number of values less than value
+     */
+    static int countBelow(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } //if
+            else {
+                high = middle;
+            } //else
+        } //while
+        return low;
+    } //countBelow method
+
+    /**
+     * Sorts the start of an array and drops repeated values
+     *
+     * @param values the array, sorted in place
+     * @param count number of values at the start of the array to keep
+     * @return the distinct values in ascending order
+     */
+    private static int[] sortedUnique(int[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            } //if
+        } //for
+        return Arrays.copyOf(values, distinct);
+    } //sortedUnique method
+} //RowPatch class
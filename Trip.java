@@ -0,0 +1,587 @@
+import java.util.*;
+
+/**
+ * A trip of any number of park stops in order. Stops can be added, inserted
+ * at a position, removed, and moved, and the distance of the trip up to any
+ * stop can be found, each in O(log n) time.
+ *
+ * The stops are kept in a treap ordered by position: every node is a stop,
+ * its position is the number of stops before it in an in-order walk, and
+ * random priorities keep the tree balanced. Each stop holds the length of the
+ * leg from the stop before it, and each node holds the number of stops and
+ * the total leg length of its subtree, so a distance up to a stop is a sum
+ * along one path from the root. An edit changes at most 2 legs, the ones into
+ * and out of the edited position. Nodes are parallel arrays and removed nodes
+ * are reused.
+ */
+public class Trip {
+
+    /** Node number used for no node*/
+    private static final int NONE = -1;
+
+    /** Number of nodes a trip starts with room for*/
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Left child of each node*/
+    private int[] lefts;
+
+    /** Right child of each node, or the next free node for a removed node*/
+    private int[] rights;
+
+    /** Random priority of each node, higher priorities are nearer the root*/
+    private int[] priorities;
+
+    /** Number of stops in each node's subtree*/
+    private int[] sizes;
+
+    /** Length of the leg from the stop before each node's stop, 0 for the first stop*/
+    private double[] legs;
+
+    /** Total leg length of each node's subtree*/
+    private double[] legSums;
+
+    /** Park id of each node's stop*/
+    private int[] parkIds;
+
+    /** Park name of each node's stop*/
+    private String[] parkNames;
+
+    /** Park latitude of each node's stop*/
+    private double[] latitudes;
+
+    /** Park longitude of each node's stop*/
+    private double[] longitudes;
+
+    /** Root node, or NONE if the trip is empty*/
+    private int root = NONE;
+
+    /** Number of nodes that have ever been used*/
+    private int nodeCount;
+
+    /** First removed node that can be reused, or NONE*/
+    private int freeNode = NONE;
+
+    /** State of the random priority generator*/
+    private int seed = 0x2545F491;
+
+    /** Left part of the last split*/
+    private int splitLeft;
+
+    /** Right part of the last split*/
+    private int splitRight;
+
+    /**
+     * Creates an empty trip
+     */
+    public Trip() {
+        this(INITIAL_CAPACITY);
+    } //Trip constructor
+
+    /**
+     * Creates an empty trip with room for some stops before it grows
+     *
+     * @param capacity number of stops the trip can hold before growing
+     * @throws IllegalArgumentException "Invalid size" if capacity is negative
+     */
+    public Trip(int capacity) {
+
+        //ERROR HANDLING IN USER INTERFACE IF CAPACITY IS NEGATIVE
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid size");
+        } //if
+
+        capacity = Math.max(capacity, 1);
+        lefts = new int[capacity];
+        rights = new int[capacity];
+        priorities = new int[capacity];
+        sizes = new int[capacity];
+        legs = new double[capacity];
+        legSums = new double[capacity];
+        parkIds = new int[capacity];
+        parkNames = new String[capacity];
+        latitudes = new double[capacity];
+        longitudes = new double[capacity];
+    } //Trip constructor
+
+    /**
+     * Returns the number of stops in the trip
+     *
+     * @return the number of stops
+     */
+    public int size() {
+        return size(root);
+    } //size method
+
+    /**
+     * Adds a park to the end of the trip
+     *
+     * @param id the id of the park
+     * @param name the name of the park
+     * @param latitude the latitude of the park
+     * @param longitude the longitude of the park
+     * @throws IllegalArgumentException "Invalid latitude" or "Invalid longitude"
+     *           if the park is not on the earth
+     */
+    public void add(int id, String name, double latitude, double longitude) {
+        insert(size(), id, name, latitude, longitude);
+    } //add method
+
+    /**
+     * Inserts a park into the trip so it becomes the stop at a position
+     *
+     * @param position number of stops before the new stop, from 0 to size()
+     * @param id the id of the park
+     * @param name the name of the park
+     * @param latitude the latitude of the park
+     * @param longitude the longitude of the park
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or more than size()
+     * @throws IllegalArgumentException "Invalid latitude" or "Invalid longitude"
+     *           if the park is not on the earth
+     */
+    public void insert(int position, int id, String name, double latitude, double longitude) {
+
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS OUT OF RANGE
+        if (position < 0 || position > size()) {
+            throw new IllegalArgumentException("Invalid position");
+        } //if
+
+        //Checking the location before the trip is changed
+        Parks.calculateDistance(latitude, longitude, latitude, longitude);
+
+        int node = allocate();
+        parkIds[node] = id;
+        parkNames[node] = name;
+        latitudes[node] = latitude;
+        longitudes[node] = longitude;
+        insertNode(position, node);
+    } //insert method
+
+    /**
+     * Removes the stop at a position from the trip
+     *
+     * @param position position of the stop, from 0 to size() - 1
+     * @return the id of the park that was removed
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or not less than size()
+     */
+    public int remove(int position) {
+        int node = removeNode(position);
+        int id = parkIds[node];
+
+        //Freeing the node for the next stop added
+        parkNames[node] = null;
+        rights[node] = freeNode;
+        freeNode = node;
+        return id;
+    } //remove method
+
+    /**
+     * Moves the stop at a position so it becomes the stop at another position
+     *
+     * @param from position of the stop, from 0 to size() - 1
+     * @param to position of the stop after it is moved, from 0 to size() - 1
+     * @throws IllegalArgumentException "Invalid position" if from or to is less
+     *           than 0 or not less than size()
+     */
+    public void move(int from, int to) {
+
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS OUT OF RANGE
+        if (to < 0 || to >= size()) {
+            throw new IllegalArgumentException("Invalid position");
+        } //if
+
+        insertNode(to, removeNode(from));
+    } //move method
+
+    /**
+     * Puts the stops of the trip in a new order
+     *
+     * @param order position of the stop that goes at each position
+     * @throws IllegalArgumentException "Null array" if order is null
+     * @throws IllegalArgumentException "Invalid array length" if order does not
+     *           have a position for every stop
+     * @throws IllegalArgumentException "Invalid position" if order does not
+     *           have every position exactly once
+     */
+    public void reorder(int[] order) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ARRAY PARAMETER IS NULL
+        if (order == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ARRAY HAS AN INVALID LENGTH
+        int n = size();
+        if (order.length != n) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        //Taking the nodes out in their old order
+        int[] nodes = new int[n];
+        boolean[] seen = new boolean[n];
+        for (int i = 0; i < n; i++) {
+
+            //ERROR HANDLING IN USER INTERFACE IF A POSITION IS MISSING OR REPEATED
+            if (order[i] < 0 || order[i] >= n || seen[order[i]]) {
+                throw new IllegalArgumentException("Invalid position");
+            } //if
+            seen[order[i]] = true;
+        } //for
+        collect(root, nodes, 0);
+
+        //Linking them back up in the new order
+        root = NONE;
+        for (int i = 0; i < n; i++) {
+            int node = nodes[order[i]];
+            lefts[node] = NONE;
+            rights[node] = NONE;
+            legs[node] = i == 0 ? 0.0 : distance(nodes[order[i - 1]], node);
+            update(node);
+            root = merge(root, node);
+        } //for
+    } //reorder method
+
+    /**
+     * Returns the id of the park at a position
+     *
+     * @param position position of the stop
+     * @return the park id
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or not less than size()
+     */
+    public int getId(int position) {
+        return parkIds[nodeAt(position)];
+    } //getId method
+
+    /**
+     * Returns the name of the park at a position
+     *
+     * @param position position of the stop
+     * @return the park name
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or not less than size()
+     */
+    public String getName(int position) {
+        return parkNames[nodeAt(position)];
+    } //getName method
+
+    /**
+     * Returns the latitude of the park at a position
+     *
+     * @param position position of the stop
+     * @return the park latitude
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or not less than size()
+     */
+    public double getLatitude(int position) {
+        return latitudes[nodeAt(position)];
+    } //getLatitude method
+
+    /**
+     * Returns the longitude of the park at a position
+     *
+     * @param position position of the stop
+     * @return the park longitude
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or not less than size()
+     */
+    public double getLongitude(int position) {
+        return longitudes[nodeAt(position)];
+    } //getLongitude method
+
+    /**
+     * Returns the distance of the trip from the first stop up to a stop
+     *
+     * @param position position of the stop
+     * @return the distance in miles, 0 for the first stop
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or not less than size()
+     */
+    public double getDistance(int position) {
+
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS OUT OF RANGE
+        if (position < 0 || position >= size()) {
+            throw new IllegalArgumentException("Invalid position");
+        } //if
+
+        //Adding up the legs of every stop before and at the position
+        double distance = 0.0;
+        int node = root;
+        while (true) {
+            int leftSize = size(lefts[node]);
+            if (position < leftSize) {
+                node = lefts[node];
+            } //if
+            else {
+                distance += legSum(lefts[node]) + legs[node];
+                if (position == leftSize) {
+                    return distance;
+                } //if
+                position -= leftSize + 1;
+                node = rights[node];
+            } //else
+        } //while
+    } //getDistance method
+
+    /**
+     * Returns the distance of the whole trip
+     *
+     * @return the distance in miles, 0 for an empty trip
+     */
+    public double getTotalDistance() {
+        return legSum(root);
+    } //getTotalDistance method
+
+    /**
+     * Puts a node that holds a stop into the tree at a position and fixes the
+     * legs into and out of it
+     *
+     * @param position number of stops before the node, from 0 to size()
+     * @param node the node
+     */
+    private void insertNode(int position, int node) {
+        int n = size();
+        lefts[node] = NONE;
+        rights[node] = NONE;
+        legs[node] = position == 0 ? 0.0 : distance(nodeAt(position - 1), node);
+        update(node);
+        int next = position == n ? NONE : nodeAt(position);
+
+        split(root, position);
+        int before = splitLeft;
+        int after = splitRight;
+        root = merge(merge(before, node), after);
+
+        //The stop after the new one now comes from it
+        if (next != NONE) {
+            setLeg(position + 1, distance(node, next));
+        } //if
+    } //insertNode method
+
+    /**
+     * Takes the node at a position out of the tree and fixes the leg into the
+     * stop after it
+     *
+     * @param position position of the node
+     * @return the node, no longer in the tree
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or not less than size()
+     */
+    private int removeNode(int position) {
+
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS OUT OF RANGE
+        if (position < 0 || position >= size()) {
+            throw new IllegalArgumentException("Invalid position");
+        } //if
+
+        split(root, position);
+        int before = splitLeft;
+        split(splitRight, 1);
+        int node = splitLeft;
+        int after = splitRight;
+        root = merge(before, after);
+
+        //The stop after the removed one now comes from the one before it
+        if (position < size()) {
+            setLeg(position, position == 0 ? 0.0 :
+                             distance(nodeAt(position - 1), nodeAt(position)));
+        } //if
+        return node;
+    } //removeNode method
+
+    /**
+     * Changes the leg into the stop at a position
+     *
+     * @param position position of the stop
+     * @param leg the new leg length
+     */
+    private void setLeg(int position, double leg) {
+        split(root, position);
+        int before = splitLeft;
+        split(splitRight, 1);
+        int node = splitLeft;
+        int after = splitRight;
+        legs[node] = leg;
+        update(node);
+        root = merge(merge(before, node), after);
+    } //setLeg method
+
+    /**
+     * Finds the node at a position
+     *
+     * @param position position of the stop
+     * @return the node
+     * @throws IllegalArgumentException "Invalid position" if position is less
+     *           than 0 or not less than size()
+     */
+    private int nodeAt(int position) {
+
+        //ERROR HANDLING IN USER INTERFACE IF POSITION IS OUT OF RANGE
+        if (position < 0 || position >= size()) {
+            throw new IllegalArgumentException("Invalid position");
+        } //if
+
+        int node = root;
+        while (true) {
+            int leftSize = size(lefts[node]);
+            if (position < leftSize) {
+                node = lefts[node];
+            } //if
+            else if (position == leftSize) {
+                return node;
+            } //else if
+            else {
+                position -= leftSize + 1;
+                node = rights[node];
+            } //else
+        } //while
+    } //nodeAt method
+
+    /**
+     * Splits a subtree into its first stops and the rest, leaving them in
+     * splitLeft and splitRight
+     *
+     * @param node root of the subtree
+     * @param count number of stops in the left part
+     */
+    private void split(int node, int count) {
+        if (node == NONE) {
+            splitLeft = NONE;
+            splitRight = NONE;
+            return;
+        } //if
+        int leftSize = size(lefts[node]);
+        if (count <= leftSize) {
+            split(lefts[node], count);
+            lefts[node] = splitRight;
+            update(node);
+            splitRight = node;
+        } //if
+        else {
+            split(rights[node], count - leftSize - 1);
+            rights[node] = splitLeft;
+            update(node);
+            splitLeft = node;
+        } //else
+    } //split method
+
+    /**
+     * Joins 2 subtrees, every stop of the first coming before every stop of
+     * the second
+     *
+     * @param first root of the first subtree
+     * @param second root of the second subtree
+     * @return root of the joined subtree
+     */
+    private int merge(int first, int second) {
+        if (first == NONE) {
+            return second;
+        } //if
+        if (second == NONE) {
+            return first;
+        } //if
+        if (priorities[first] > priorities[second]) {
+            rights[first] = merge(rights[first], second);
+            update(first);
+            return first;
+        } //if
+        lefts[second] = merge(first, lefts[second]);
+        update(second);
+        return second;
+    } //merge method
+
+    /**
+     * Recalculates a node's subtree size and leg total from its children
+     *
+     * @param node the node
+     */
+    private void update(int node) {
+        sizes[node] = 1 + size(lefts[node]) + size(rights[node]);
+        legSums[node] = legs[node] + legSum(lefts[node]) + legSum(rights[node]);
+    } //update method
+
+    /**
+     * Returns the number of stops in a subtree
+     *
+     * @param node root of the subtree
+     * @return the number of stops, 0 for NONE
+     */
+    private int size(int node) {
+        return node == NONE ? 0 : sizes[node];
+    } //size method
+
+    /**
+     * Returns the total leg length of a subtree
+     *
+     * @param node root of the subtree
+     * @return the total in miles, 0 for NONE
+     */
+    private double legSum(int node) {
+        return node == NONE ? 0.0 : legSums[node];
+    } //legSum method
+
+    /**
+     * Calculates the distance between the stops of 2 nodes
+     *
+     * @param from the first node
+     * @param to the second node
+     * @return the distance in miles
+     */
+    private double distance(int from, int to) {
+        return Parks.calculateDistance(latitudes[from], longitudes[from],
+                                       latitudes[to], longitudes[to]);
+    } //distance method
+
+    /**
+     * Stores the nodes of a subtree in order
+     *
+     * @param node root of the subtree
+     * @param nodes array the nodes are stored into
+     * @param start index in nodes of the subtree's first stop
+     */
+    private void collect(int node, int[] nodes, int start) {
+        while (node != NONE) {
+            collect(lefts[node], nodes, start);
+            start += size(lefts[node]);
+            nodes[start++] = node;
+            node = rights[node];
+        } //while
+    } //collect method
+
+    /**
+     * Finds a free node, growing the node arrays if every node is used
+     *
+     * @return the node
+     */
+    private int allocate() {
+        int node;
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = rights[node];
+        } //if
+        else {
+            if (nodeCount == lefts.length) {
+                int capacity = lefts.length * 2;
+                lefts = Arrays.copyOf(lefts, capacity);
+                rights = Arrays.copyOf(rights, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+                legs = Arrays.copyOf(legs, capacity);
+                legSums = Arrays.copyOf(legSums, capacity);
+                parkIds = Arrays.copyOf(parkIds, capacity);
+                parkNames = Arrays.copyOf(parkNames, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+            } //if
+            node = nodeCount++;
+        } //else
+
+        //Xorshift random priority
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        priorities[node] = seed;
+        return node;
+    } //allocate method
+} //Trip class
@@ -0,0 +1,373 @@
+import java.util.*;
+
+/**
+ * The parks along a trip: the ones within a distance of the route, ranked by
+ * how much longer the trip gets when they are added to it.
+ *
+ * The route is the legs between each stop and the next. A park's distance to
+ * a leg is measured on a flat map of the leg, latitudes and longitudes in
+ * radians with the longitudes scaled by the cosine of the leg's mean
+ * latitude, the same map Parks.calculateDistance uses between 2 points. On
+ * that map every park closer than the distance lies inside the leg's bounding
+ * box grown by the distance, so each leg only asks the k-d tree for the parks
+ * in that box and measures those. A long diagonal leg's box is mostly far from
+ * the leg, so long legs are cut into pieces a few times the distance long and
+ * each piece asks for its own box. A park's detour is the least, over the legs
+ * it is close to, of the distance from the leg's first stop to the park and on
+ * to the leg's last stop, less the length of the leg. A trip of 1 stop is a
+ * circle around it, and the detour is the distance from the stop.
+ */
+public class TripCorridor {
+
+    /** Length of the pieces long legs are cut into, in multiples of the radius*/
+    public static final double PIECE_RADII = 4;
+
+    /** Most pieces a leg is cut into*/
+    public static final int MAX_PIECES = 256;
+
+    /** Largest distance in miles from the route*/
+    private final double radius;
+
+    /** Number of legs, 1 for a trip of 1 stop*/
+    private final int legCount;
+
+    /** Whether the trip has only 1 stop*/
+    private final boolean singleStop;
+
+    /** Latitude of the first stop of each leg*/
+    private final double[] startLatitudes;
+
+    /** Longitude of the first stop of each leg*/
+    private final double[] startLongitudes;
+
+    /** Latitude of the last stop of each leg*/
+    private final double[] endLatitudes;
+
+    /** Longitude of the last stop of each leg*/
+    private final double[] endLongitudes;
+
+    /** Cosine of the mean latitude of each leg, the longitude scale of its map*/
+    private final double[] cosines;
+
+    /** Length of each leg in miles*/
+    private final double[] legLengths;
+
+    /** Ids of the parks already in the trip, each to its position*/
+    private final ParkIdIndex tripIds;
+
+    /**
+     * Takes the legs of a trip
+     *
+     * @param trip the trip
+     * @param radius the largest distance in miles from the route
+     * @throws IllegalArgumentException "Null trip" if trip is null
+     * @throws IllegalArgumentException "Invalid radius" if radius is negative or NaN
+     */
+    public TripCorridor(Trip trip, double radius) {
+
+        //ERROR HANDLING IN USER INTERFACE IF TRIP IS NULL
+        if (trip == null) {
+            throw new IllegalArgumentException("Null trip");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF RADIUS IS NEGATIVE
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("Invalid radius");
+        } //if
+
+        this.radius = radius;
+        int stops = trip.size();
+        singleStop = stops == 1;
+        legCount = singleStop ? 1 : Math.max(0, stops - 1);
+        startLatitudes = new double[legCount];
+        startLongitudes = new double[legCount];
+        endLatitudes = new double[legCount];
+        endLongitudes = new double[legCount];
+        cosines = new double[legCount];
+        legLengths = new double[legCount];
+        tripIds = new ParkIdIndex(stops);
+
+        double[] latitudes = new double[stops];
+        double[] longitudes = new double[stops];
+        for (int i = 0; i < stops; i++) {
+            latitudes[i] = trip.getLatitude(i);
+            longitudes[i] = trip.getLongitude(i);
+            tripIds.putIfAbsent(trip.getId(i), i);
+        } //for
+        for (int leg = 0; leg < legCount; leg++) {
+            int end = singleStop ? leg : leg + 1;
+            startLatitudes[leg] = latitudes[leg];
+            startLongitudes[leg] = longitudes[leg];
+            endLatitudes[leg] = latitudes[end];
+            endLongitudes[leg] = longitudes[end];
+            cosines[leg] = Math.cos(Math.toRadians((latitudes[leg] + latitudes[end]) / 2.0));
+            legLengths[leg] = Parks.calculateDistance(latitudes[leg], longitudes[leg],
+                                                      latitudes[end], longitudes[end]);
+        } //for
+    } //TripCorridor constructor
+
+    /**
+     * Returns the largest distance from the route
+     *
+     * @return the radius in miles
+     */
+    public double getRadius() {
+        return radius;
+    } //getRadius method
+
+    /**
+     * Calculates the distance from a location to the closest point of the route
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @return the distance in miles, infinity for an empty trip
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees, more than 90 degrees, or NaN
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees, more than 180 degrees, or NaN
+     */
+    public double distance(double latitude, double longitude) {
+        checkLocation(latitude, longitude);
+        double distance = Double.POSITIVE_INFINITY;
+        for (int leg = 0; leg < legCount; leg++) {
+            distance = Math.min(distance, legDistance(leg, latitude, longitude));
+        } //for
+        return distance;
+    } //distance method
+
+    /**
+     * Calculates how much longer the trip gets when a location is added to the
+     * leg it adds the least to, among the legs it is within the radius of
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @return the detour in miles, infinity if the location is farther than
+     *         the radius from the route
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees, more than 90 degrees, or NaN
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees, more than 180 degrees, or NaN
+     */
+    public double detour(double latitude, double longitude) {
+        checkLocation(latitude, longitude);
+        double detour = Double.POSITIVE_INFINITY;
+        for (int leg = 0; leg < legCount; leg++) {
+            if (legDistance(leg, latitude, longitude) <= radius) {
+                detour = Math.min(detour, legDetour(leg, latitude, longitude));
+            } //if
+        } //for
+        return detour;
+    } //detour method
+
+    /**
+     * Finds the parks within the radius of the route that are not already in
+     * the trip, with the smallest detours
+     *
+     * @param spatialIndex k-d tree built over the latitudes and longitudes arrays
+     * @param ids array of all the park ids
+     * @param latitudes array of all the park latitudes
+     * @param longitudes array of all the park longitudes
+     * @param count the most parks to return
+     * @return rows of up to count parks, smallest detour first, ties in row order
+     * @throws IllegalArgumentException "Null index" if spatialIndex is null
+     * @throws IllegalArgumentException "Null array" if any of the array
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if the arrays are
+     *           not the same length
+     * @throws IllegalArgumentException "Invalid number of parks" if count is
+     *           less than 1
+     */
+    public int[] find(ParkSpatialIndex spatialIndex, int[] ids, double[] latitudes,
+                      double[] longitudes, int count) {
+
+        //ERROR HANDLING IN USER INTERFACE IF SPATIAL INDEX IS NULL
+        if (spatialIndex == null) {
+            throw new IllegalArgumentException("Null index");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (ids == null || latitudes == null || longitudes == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (ids.length != latitudes.length || latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF NUMBER OF PARKS IS LESS THAN 1
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid number of parks");
+        } //if
+
+        //Smallest detour of each park found so far, a park near several legs is found by each
+        ParkIdIndex places = new ParkIdIndex(ParkSpatialIndex.LEAF_SIZE);
+        int[] found = new int[16];
+        double[] detours = new double[16];
+        int foundCount = 0;
+
+        double latitudeGap = Math.toDegrees(radius / Parks.EARTH_RADIUS) * (1.0 + 1e-9);
+        for (int leg = 0; leg < legCount; leg++) {
+
+            //Growing the boxes of the leg's pieces by the radius on the leg's flat map
+            double longitudeGap = Math.toDegrees(radius / (Parks.EARTH_RADIUS * cosines[leg])) *
+                                  (1.0 + 1e-9);
+            if (!(longitudeGap < Parks.LONGITUDE_MAX_DEGREES - Parks.LONGITUDE_MIN_DEGREES)) {
+                longitudeGap = Parks.LONGITUDE_MAX_DEGREES - Parks.LONGITUDE_MIN_DEGREES;
+            } //if
+            int pieces = 1;
+            if (legLengths[leg] > PIECE_RADII * radius) {
+                pieces = (int) Math.min(MAX_PIECES,
+                                        Math.ceil(legLengths[leg] / (PIECE_RADII * radius)));
+            } //if
+
+            for (int piece = 0; piece < pieces; piece++) {
+                int[] rows = withinPieceBox(leg, (double) piece / pieces,
+                                            (double) (piece + 1) / pieces, latitudeGap,
+                                            longitudeGap, spatialIndex);
+                for (int row : rows) {
+                    if (legDistance(leg, latitudes[row], longitudes[row]) > radius ||
+                        tripIds.get(ids[row]) != ParkIdIndex.NO_ROW) {
+
+                        continue;
+                    } //if
+                    double detour = legDetour(leg, latitudes[row], longitudes[row]);
+                    int place = places.putIfAbsent(row, foundCount);
+                    if (place != ParkIdIndex.NO_ROW) {
+                        detours[place] = Math.min(detours[place], detour);
+                        continue;
+                    } //if
+                    if (foundCount == found.length) {
+                        found = Arrays.copyOf(found, foundCount * 2);
+                        detours = Arrays.copyOf(detours, foundCount * 2);
+                    } //if
+                    found[foundCount] = row;
+                    detours[foundCount++] = detour;
+                } //for
+            } //for
+        } //for
+
+        //Max-heap of the smallest detours, largest at the top
+        int capacity = Math.min(count, foundCount);
+        int[] heapRows = new int[capacity];
+        double[] heapDetours = new double[capacity];
+        int heapSize = 0;
+        for (int i = 0; i < foundCount; i++) {
+            if (heapSize < capacity) {
+                heapRows[heapSize] = found[i];
+                heapDetours[heapSize] = detours[i];
+                ParkSpatialIndex.siftUp(heapRows, heapDetours, heapSize++);
+            } //if
+            else if (ParkSpatialIndex.farther(heapDetours[0], heapRows[0], detours[i], found[i])) {
+                heapRows[0] = found[i];
+                heapDetours[0] = detours[i];
+                ParkSpatialIndex.siftDown(heapRows, heapDetours, heapSize);
+            } //else if
+        } //for
+        return ParkSpatialIndex.sortByDistance(heapRows, heapDetours, heapSize);
+    } //find method
+
+    /**
+     * Finds the parks in the box of a piece of a leg, grown by the radius
+     *
+     * @param leg the leg
+     * @param from where the piece starts, as a fraction of the way along the leg
+     * @param to where the piece ends, as a fraction of the way along the leg
+     * @param latitudeGap how far the box is grown in latitude, in degrees
+     * @param longitudeGap how far the box is grown in longitude, in degrees
+     * @param spatialIndex k-d tree over the park coordinates
+     * @return rows of the parks in the box
+     */
+    private int[] withinPieceBox(int leg, double from, double to, double latitudeGap,
+                                 double longitudeGap, ParkSpatialIndex spatialIndex) {
+
+        //A straight leg on its flat map is straight in degrees too
+        double latitudeChange = endLatitudes[leg] - startLatitudes[leg];
+        double longitudeChange = endLongitudes[leg] - startLongitudes[leg];
+        double fromLatitude = startLatitudes[leg] + latitudeChange * from;
+        double toLatitude = to == 1.0 ? endLatitudes[leg] :
+                            startLatitudes[leg] + latitudeChange * to;
+        double fromLongitude = startLongitudes[leg] + longitudeChange * from;
+        double toLongitude = to == 1.0 ? endLongitudes[leg] :
+                             startLongitudes[leg] + longitudeChange * to;
+
+        //Growing by a little more than the gaps so rounding never leaves out a park
+        double slack = 1e-9 * (Math.abs(latitudeChange) + Math.abs(longitudeChange));
+        return spatialIndex.withinBox(Math.min(fromLatitude, toLatitude) - latitudeGap - slack,
+                                      Math.max(fromLatitude, toLatitude) + latitudeGap + slack,
+                                      Math.min(fromLongitude, toLongitude) - longitudeGap - slack,
+                                      Math.max(fromLongitude, toLongitude) + longitudeGap + slack);
+    } //withinPieceBox method
+
+    /**
+     * Calculates the distance from a location to a leg on the leg's flat map
+     *
+     * @param leg the leg
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @return the distance in miles
+     */
+    private double legDistance(int leg, double latitude, double longitude) {
+        double cosine = cosines[leg];
+        double pointX = Math.toRadians(longitude - startLongitudes[leg]) * cosine;
+        double pointY = Math.toRadians(latitude - startLatitudes[leg]);
+        double legX = Math.toRadians(endLongitudes[leg] - startLongitudes[leg]) * cosine;
+        double legY = Math.toRadians(endLatitudes[leg] - startLatitudes[leg]);
+
+        //Closest point of the leg, as a fraction of the way along it
+        double lengthSquared = legX * legX + legY * legY;
+        double t = 0.0;
+        if (lengthSquared > 0.0) {
+            t = Math.max(0.0, Math.min(1.0, (pointX * legX + pointY * legY) / lengthSquared));
+        } //if
+        double gapX = pointX - t * legX;
+        double gapY = pointY - t * legY;
+        return Math.sqrt(gapX * gapX + gapY * gapY) * Parks.EARTH_RADIUS;
+    } //legDistance method
+
+    /**
+     * Calculates how much longer a leg gets when it goes through a location
+     *
+     * @param leg the leg
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @return the detour in miles
+     */
+    private double legDetour(int leg, double latitude, double longitude) {
+        double toLocation = Parks.calculateDistance(startLatitudes[leg], startLongitudes[leg],
+                                                    latitude, longitude);
+        if (singleStop) {
+            return toLocation;
+        } //if
+        double fromLocation = Parks.calculateDistance(latitude, longitude,
+                                                      endLatitudes[leg], endLongitudes[leg]);
+
+        //The planar distance can break the triangle inequality by a little
+        return Math.max(0.0, toLocation + fromLocation - legLengths[leg]);
+    } //legDetour method
+
+    /**
+     * Checks if a location is on the earth
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @throws IllegalArgumentException "Invalid latitude" if latitude is
+     *           less than -90 degrees, more than 90 degrees, or NaN
+     * @throws IllegalArgumentException "Invalid longitude" if longitude is
+     *           less than -180 degrees, more than 180 degrees, or NaN
+     */
+    private static void checkLocation(double latitude, double longitude) {
+
+        //ERROR HANDLING IN USER INTERFACE IF LATITUDE IS TOO SMALL OR TOO LARGE
+        if (!(latitude >= Parks.LATITUDE_MIN_DEGREES && latitude <= Parks.LATITUDE_MAX_DEGREES)) {
+            throw new IllegalArgumentException("Invalid latitude");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF LONGITUDE IS TOO SMALL OR TOO LARGE
+        if (!(longitude >= Parks.LONGITUDE_MIN_DEGREES &&
+              longitude <= Parks.LONGITUDE_MAX_DEGREES)) {
+
+            throw new IllegalArgumentException("Invalid longitude");
+        } //if
+    } //checkLocation method
+} //TripCorridor class
@@ -0,0 +1,480 @@
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Reorders the stops of a trip to make the total distance shorter. The first
+ * stop stays where it is since that is where the trip starts, and the trip
+ * does not return to it at the end.
+ *
+ * Each start builds a route with a nearest neighbour walk, then improves it
+ * with 2-opt moves (reversing a run of stops) and Or-opt moves (moving a run of
+ * up to 3 stops elsewhere, either way round) until neither helps. Moves are only
+ * tried towards each stop's closest other stops, and only stops next to a
+ * recent change are looked at again. The first start is the plain nearest
+ * neighbour walk and the others sometimes take the second closest stop
+ * instead. Large trips run one start per core in parallel. The best route wins.
+ */
+public class TripOptimizer {
+
+    /** Number of closest stops that moves are tried towards*/
+    public static final int NEIGHBORS = 10;
+
+    /** Most stops for which every distance between 2 stops is calculated up front*/
+    public static final int MATRIX_LIMIT = 2048;
+
+    /** Fewest stops for which starts run in parallel*/
+    public static final int PARALLEL_THRESHOLD = 256;
+
+    /** Number of starts for trips smaller than PARALLEL_THRESHOLD*/
+    public static final int SEQUENTIAL_STARTS = 4;
+
+    /** Longest run of stops an Or-opt move moves*/
+    public static final int MAX_SEGMENT = 3;
+
+    /** Smallest saving in miles that counts as an improvement*/
+    private static final double EPSILON = 1e-9;
+
+    /** Number of stops*/
+    private final int n;
+
+    /** Batch distance kernel over the stops*/
+    private final DistanceKernel kernel;
+
+    /** Distance between every 2 stops, row by row, or null for large trips*/
+    private final double[] matrix;
+
+    /** Closest other stops of each stop, closest first*/
+    private final int[][] neighbors;
+
+    /**
+     * Calculates the distances and closest stops used by every start
+     *
+     * @param latitudes latitudes of the stops
+     * @param longitudes longitudes of the stops
+     */
+    private TripOptimizer(double[] latitudes, double[] longitudes) {
+        n = latitudes.length;
+        kernel = new DistanceKernel(latitudes, longitudes);
+        matrix = n <= MATRIX_LIMIT ? kernel.distanceMatrix() : null;
+
+        //Finding the closest stops with a k-d tree over the stops themselves
+        ParkSpatialIndex spatialIndex = new ParkSpatialIndex(latitudes, longitudes);
+        int count = Math.min(NEIGHBORS + 1, spatialIndex.size());
+        neighbors = new int[n][];
+        for (int i = 0; i < n; i++) {
+            if (count == 0 || Double.isNaN(latitudes[i]) || Double.isNaN(longitudes[i])) {
+                neighbors[i] = new int[0];
+                continue;
+            } //if
+            int[] closest = spatialIndex.nearest(latitudes[i], longitudes[i], count);
+            int[] others = new int[closest.length];
+            int size = 0;
+            for (int stop : closest) {
+                if (stop != i && size < NEIGHBORS) {
+                    others[size++] = stop;
+                } //if
+            } //for
+            neighbors[i] = Arrays.copyOf(others, size);
+        } //for
+    } //TripOptimizer constructor
+
+    /**
+     * Finds a shorter order for the stops of a trip
+     *
+     * @param latitudes latitudes of the stops in trip order
+     * @param longitudes longitudes of the stops in trip order
+     * @return order of the stops, the index of each stop in the arrays in its new
+     *         place in the trip, always starting with 0
+     * @throws IllegalArgumentException "Null array" if any of the array
+     *         parameters are null
+     * @throws IllegalArgumentException "Invalid array length" if the arrays are
+     *           not the same length
+     * @throws IllegalArgumentException "Invalid latitude" or "Invalid longitude"
+     *           if a stop is not on the earth
+     */
+    public static int[] optimize(double[] latitudes, double[] longitudes) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY PARAMETER IS NULL
+        if (latitudes == null || longitudes == null) {
+            throw new IllegalArgumentException("Null array");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF ANY ARRAY HAS AN INVALID LENGTH
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Invalid array length");
+        } //if
+
+        int n = latitudes.length;
+        int[] identity = IntStream.range(0, n).toArray();
+
+        //With the first stop fixed, a trip of 2 or fewer stops has only one order
+        if (n <= 2) {
+            return identity;
+        } //if
+
+        TripOptimizer optimizer = new TripOptimizer(latitudes, longitudes);
+        IntStream starts;
+        if (n >= PARALLEL_THRESHOLD) {
+            starts = IntStream.range(0, Runtime.getRuntime().availableProcessors()).parallel();
+        } //if
+        else {
+            starts = IntStream.range(0, SEQUENTIAL_STARTS);
+        } //else
+        int[][] routes = starts.mapToObj(start -> optimizer.new Search(start).run())
+                               .toArray(int[][]::new);
+
+        //Keeping the shortest route, or the original order if none is shorter
+        int[] best = identity;
+        double bestLength = optimizer.length(identity);
+        for (int[] route : routes) {
+            double length = optimizer.length(route);
+            if (length < bestLength - EPSILON) {
+                best = route;
+                bestLength = length;
+            } //if
+        } //for
+        return best;
+    } //optimize method
+
+    /**
+     * Calculates the total distance of a route
+     *
+     * @param route the route
+     * @return the total distance in miles
+     */
+    private double length(int[] route) {
+        double total = 0.0;
+        for (int i = 1; i < route.length; i++) {
+            total += distance(route[i - 1], route[i]);
+        } //for
+        return total;
+    } //length method
+
+    /**
+     * Finds the distance between 2 stops
+     *
+     * @param i the first stop
+     * @param j the second stop
+     * @return the distance in miles
+     */
+    private double distance(int i, int j) {
+        if (matrix != null) {
+            return matrix[i * n + j];
+        } //if
+        return kernel.distance(i, j);
+    } //distance method
+
+    /**
+     * One start: a route being built and improved, with the stops still to be
+     * looked at kept in a queue
+     */
+    private final class Search {
+
+        /** The start number, 0 for the plain nearest neighbour walk*/
+        private final int start;
+
+        /** Stops in route order*/
+        private final int[] route = new int[n];
+
+        /** Place of each stop in the route*/
+        private final int[] positions = new int[n];
+
+        /** Stops still to be looked at, as a ring*/
+        private final int[] queue = new int[n];
+
+        /** Whether each stop is in the queue*/
+        private final boolean[] queued = new boolean[n];
+
+        /** Place in the ring of the next stop to look at*/
+        private int head;
+
+        /** Number of stops in the queue*/
+        private int queueSize;
+
+        /**
+         * Creates a start
+         *
+         * @param start the start number, 0 for the plain nearest neighbour walk
+         */
+        Search(int start) {
+            this.start = start;
+        } //Search constructor
+
+        /**
+         * Builds and improves the route
+         *
+         * @return the improved route
+         */
+        int[] run() {
+            nearestNeighbor(start == 0 ? null : new Random(start));
+            for (int i = 0; i < n; i++) {
+                positions[route[i]] = i;
+                push(route[i]);
+            } //for
+
+            while (queueSize > 0) {
+                int stop = queue[head];
+                head = (head + 1) % n;
+                queueSize--;
+                queued[stop] = false;
+                if (twoOpt(stop) || orOpt(stop)) {
+                    push(stop);
+                } //if
+            } //while
+            return route;
+        } //run method
+
+        /**
+         * Adds a stop to the queue if it is not in it already
+         *
+         * @param stop the stop
+         */
+        private void push(int stop) {
+            if (stop >= 0 && !queued[stop]) {
+                queued[stop] = true;
+                queue[(head + queueSize) % n] = stop;
+                queueSize++;
+            } //if
+        } //push method
+
+        /**
+         * Builds the route by always going to the closest stop not yet visited
+         *
+         * @param random random numbers for sometimes taking the second closest
+         *           stop, or null to always take the closest
+         */
+        private void nearestNeighbor(Random random) {
+            boolean[] visited = new boolean[n];
+
+            //Stops not yet visited, for when all of a stop's closest stops are visited
+            int[] unvisited = new int[n];
+            int[] unvisitedPlaces = new int[n];
+            for (int i = 0; i < n; i++) {
+                unvisited[i] = i;
+                unvisitedPlaces[i] = i;
+            } //for
+            int unvisitedCount = n;
+
+            int current = 0;
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    int next = -1;
+                    int second = -1;
+                    for (int stop : neighbors[current]) {
+                        if (!visited[stop]) {
+                            if (next < 0) {
+                                next = stop;
+                            } //if
+                            else {
+                                second = stop;
+                                break;
+                            } //else
+                        } //if
+                    } //for
+                    if (next < 0) {
+                        double nextDistance = Double.POSITIVE_INFINITY;
+                        for (int k = 0; k < unvisitedCount; k++) {
+                            double d = distance(current, unvisited[k]);
+                            if (next < 0 || d < nextDistance) {
+                                next = unvisited[k];
+                                nextDistance = d;
+                            } //if
+                        } //for
+                    } //if
+                    if (random != null && second >= 0 && random.nextInt(4) == 0) {
+                        next = second;
+                    } //if
+                    current = next;
+                } //if
+
+                route[i] = current;
+                visited[current] = true;
+
+                //Removing the stop from the unvisited stops by moving the last one into its place
+                int place = unvisitedPlaces[current];
+                int last = unvisited[--unvisitedCount];
+                unvisited[place] = last;
+                unvisitedPlaces[last] = place;
+            } //for
+        } //nearestNeighbor method
+
+        /**
+         * Makes the first 2-opt move found that shortens the route with an edge
+         * from a stop to one of its closest stops. A move reverses the stops
+         * between 2 edges.
+         *
+         * @param a the stop
+         * @return true if the route got shorter
+         */
+        private boolean twoOpt(int a) {
+            int i = positions[a];
+            for (int c : neighbors[a]) {
+                int j = positions[c];
+
+                //Replacing edges (a, b) and (c, d) with (a, c) and (b, d)
+                if (j > i + 1) {
+                    int b = route[i + 1];
+                    int d = j + 1 < n ? route[j + 1] : -1;
+                    double removed = distance(a, b) + (d >= 0 ? distance(c, d) : 0.0);
+                    double added = distance(a, c) + (d >= 0 ? distance(b, d) : 0.0);
+                    if (added < removed - EPSILON) {
+                        reverse(i + 1, j);
+                        push(b);
+                        push(c);
+                        push(d);
+                        return true;
+                    } //if
+                } //if
+
+                //Replacing edges (e, c) and (p, a) with (e, p) and (c, a)
+                else if (j >= 1 && j < i - 1) {
+                    int p = route[i - 1];
+                    int e = route[j - 1];
+                    double removed = distance(p, a) + distance(e, c);
+                    double added = distance(c, a) + distance(e, p);
+                    if (added < removed - EPSILON) {
+                        reverse(j, i - 1);
+                        push(p);
+                        push(e);
+                        push(c);
+                        return true;
+                    } //if
+                } //else if
+            } //for
+            return false;
+        } //twoOpt method
+
+        /**
+         * Tries the Or-opt moves of every run of up to 3 stops that starts or
+         * ends at a stop
+         *
+         * @param stop the stop
+         * @return true if a run was moved
+         */
+        private boolean orOpt(int stop) {
+            int place = positions[stop];
+            for (int length = 1; length <= MAX_SEGMENT; length++) {
+                if (place >= 1 && place + length <= n && moveSegment(place, length)) {
+                    return true;
+                } //if
+                int first = place - length + 1;
+                if (length > 1 && first >= 1 && moveSegment(first, length)) {
+                    return true;
+                } //if
+            } //for
+            return false;
+        } //orOpt method
+
+        /**
+         * Moves a run of stops to the best spot next to a stop close to one of
+         * its ends, either way round, if that makes the route shorter
+         *
+         * @param start place of the first stop of the run
+         * @param length number of stops in the run
+         * @return true if the run was moved
+         */
+        private boolean moveSegment(int start, int length) {
+            int end = start + length - 1;
+            int first = route[start];
+            int last = route[end];
+            int previous = route[start - 1];
+            int next = end + 1 < n ? route[end + 1] : -1;
+
+            //Distance saved by taking the run out and joining its neighbours
+            double saved = distance(previous, first);
+            if (next >= 0) {
+                saved += distance(last, next) - distance(previous, next);
+            } //if
+
+            double bestGain = EPSILON;
+            int bestAfter = -1;
+            boolean bestReversed = false;
+            for (int side = 0; side < 2; side++) {
+                for (int x : neighbors[side == 0 ? first : last]) {
+                    int place = positions[x];
+
+                    //Trying to put the run right after x and right before x
+                    for (int after = place - 1; after <= place; after++) {
+                        if (after < 0 || (after >= start - 1 && after <= end)) {
+                            continue;
+                        } //if
+                        int u = route[after];
+                        int v = after + 1 < n ? route[after + 1] : -1;
+                        double joined = v >= 0 ? distance(u, v) : 0.0;
+                        double forward = distance(u, first) +
+                                         (v >= 0 ? distance(last, v) : 0.0) - joined;
+                        double backward = distance(u, last) +
+                                          (v >= 0 ? distance(first, v) : 0.0) - joined;
+                        if (saved - forward > bestGain) {
+                            bestGain = saved - forward;
+                            bestAfter = after;
+                            bestReversed = false;
+                        } //if
+                        if (saved - backward > bestGain) {
+                            bestGain = saved - backward;
+                            bestAfter = after;
+                            bestReversed = true;
+                        } //if
+                    } //for
+                } //for
+            } //for
+            if (bestAfter < 0) {
+                return false;
+            } //if
+
+            push(previous);
+            push(next);
+            push(route[bestAfter]);
+            push(bestAfter + 1 < n ? route[bestAfter + 1] : -1);
+            push(first);
+            push(last);
+
+            //Shifting the stops between the run's old and new places over it
+            int[] segment = Arrays.copyOfRange(route, start, end + 1);
+            if (bestReversed) {
+                for (int i = 0; i < length / 2; i++) {
+                    int stop = segment[i];
+                    segment[i] = segment[length - 1 - i];
+                    segment[length - 1 - i] = stop;
+                } //for
+            } //if
+            int from;
+            int to;
+            if (bestAfter < start) {
+                System.arraycopy(route, bestAfter + 1, route, bestAfter + 1 + length,
+                                 start - bestAfter - 1);
+                System.arraycopy(segment, 0, route, bestAfter + 1, length);
+                from = bestAfter + 1;
+                to = end;
+            } //if
+            else {
+                System.arraycopy(route, end + 1, route, start, bestAfter - end);
+                System.arraycopy(segment, 0, route, bestAfter - length + 1, length);
+                from = start;
+                to = bestAfter;
+            } //else
+            for (int i = from; i <= to; i++) {
+                positions[route[i]] = i;
+            } //for
+            return true;
+        } //moveSegment method
+
+        /**
+         * Reverses the stops between 2 places in the route
+         *
+         * @param from place of the first stop to reverse
+         * @param to place of the last stop to reverse
+         */
+        private void reverse(int from, int to) {
+            while (from < to) {
+                int stop = route[from];
+                route[from] = route[to];
+                route[to] = stop;
+                positions[route[from]] = from;
+                positions[route[to]] = to;
+                from++;
+                to--;
+            } //while
+        } //reverse method
+    } //Search class
+} //TripOptimizer class
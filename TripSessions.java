@@ -0,0 +1,350 @@
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * Many independent trips, one for each planning session, for a server that
+ * answers many users at once over one shared catalog. Sessions are kept in a
+ * ConcurrentHashMap by a random id, and each session's trip is only ever used
+ * while holding that session's own lock, so users working on different trips
+ * never wait for each other. The catalog is not part of a session: each
+ * request looks up its parks in whatever catalog is current and copies them
+ * into the trip.
+ *
+ * A session that has not been used for the idle timeout is evicted, either by
+ * the next request for it or by a daemon thread that sweeps the sessions a few
+ * times per timeout. The number of sessions is capped so abandoned sessions
+ * cannot use up the memory before they time out, and so is the number of
+ * parks in each session's trip, so one session cannot use it up either.
+ */
+public class TripSessions implements AutoCloseable {
+
+    /** Most sessions used when no capacity is given*/
+    public static final int DEFAULT_CAPACITY = 100_000;
+
+    /** Idle timeout in seconds used when none is given*/
+    public static final long DEFAULT_IDLE_SECONDS = 30 * 60;
+
+    /** Most parks in a session's trip when no limit is given*/
+    public static final int DEFAULT_MAX_PARKS = 1000;
+
+    /** Number of random bytes in a session id*/
+    private static final int ID_BYTES = 16;
+
+    /** Most sessions open at once*/
+    private final int capacity;
+
+    /** Nanoseconds a session can go unused before it is evicted*/
+    private final long idleNanos;
+
+    /** Most parks in each session's trip*/
+    private final int maxParks;
+
+    /** Open sessions by id*/
+    private final ConcurrentHashMap<String, Session> sessions =
+        new ConcurrentHashMap<String, Session>();
+
+    /** Number of open sessions, counted separately so the capacity is exact*/
+    private final AtomicInteger count = new AtomicInteger();
+
+    /** Number of sessions evicted for being idle*/
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** Source of the session ids, which must not be guessable*/
+    private final SecureRandom random = new SecureRandom();
+
+    /** Thread idle sessions are swept on*/
+    private final ScheduledExecutorService sweeper =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trip-sessions");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /**
+     * Creates an empty set of sessions whose trips hold at most
+     * DEFAULT_MAX_PARKS parks, and starts sweeping idle ones
+     *
+     * @param capacity most sessions open at once
+     * @param idleSeconds seconds a session can go unused before it is evicted
+     * @throws IllegalArgumentException "Invalid capacity" if capacity is less than 1
+     * @throws IllegalArgumentException "Invalid timeout" if idleSeconds is less than 1
+     */
+    public TripSessions(int capacity, long idleSeconds) {
+        this(capacity, idleSeconds, DEFAULT_MAX_PARKS);
+    } //TripSessions constructor
+
+    /**
+     * Creates an empty set of sessions and starts sweeping idle ones
+     *
+     * @param capacity most sessions open at once
+     * @param idleSeconds seconds a session can go unused before it is evicted
+     * @param maxParks most parks in each session's trip
+     * @throws IllegalArgumentException "Invalid capacity" if capacity is less than 1
+     * @throws IllegalArgumentException "Invalid timeout" if idleSeconds is less than 1
+     * @throws IllegalArgumentException "Invalid number of parks" if maxParks is
+     *           less than 1
+     */
+    public TripSessions(int capacity, long idleSeconds, int maxParks) {
+
+        //ERROR HANDLING IN USER INTERFACE IF CAPACITY IS LESS THAN 1
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF TIMEOUT IS LESS THAN 1 OR TOO LARGE
+        if (idleSeconds < 1 || idleSeconds > TimeUnit.NANOSECONDS.toSeconds(Long.MAX_VALUE)) {
+            throw new IllegalArgumentException("Invalid timeout");
+        } //if
+
+        //ERROR HANDLING IN USER INTERFACE IF MOST PARKS IN A TRIP IS LESS THAN 1
+        if (maxParks < 1) {
+            throw new IllegalArgumentException("Invalid number of parks");
+        } //if
+
+        this.capacity = capacity;
+        this.maxParks = maxParks;
+        idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        long sweepMillis = Math.max(1000, TimeUnit.SECONDS.toMillis(idleSeconds) / 4);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, sweepMillis, sweepMillis,
+                                       TimeUnit.MILLISECONDS);
+    } //TripSessions constructor
+
+    /**
+     * Opens a session with an empty trip
+     *
+     * @return the id of the new session
+     * @throws IllegalArgumentException "Too many sessions" if capacity sessions
+     *           are open even after evicting the idle ones
+     */
+    public String open() {
+        if (count.incrementAndGet() > capacity) {
+            count.decrementAndGet();
+            evictIdle();
+
+            //ERROR HANDLING IN USER INTERFACE IF EVERY SESSION IS IN USE
+            if (count.incrementAndGet() > capacity) {
+                count.decrementAndGet();
+                throw new IllegalArgumentException("Too many sessions");
+            } //if
+        } //if
+
+        //Trying new ids until one is free, which is almost always the first
+        Session session = new Session(System.nanoTime());
+        byte[] bytes = new byte[ID_BYTES];
+        while (true) {
+            random.nextBytes(bytes);
+            String sessionId = HexFormat.of().formatHex(bytes);
+            if (sessions.putIfAbsent(sessionId, session) == null) {
+                return sessionId;
+            } //if
+        } //while
+    } //open method
+
+    /**
+     * Runs an action on a session's trip while holding the session's lock, so
+     * no other request changes the trip part of the way through. The session
+     * counts as used.
+     *
+     * @param <T> type of the action's result
+     * @param sessionId id of the session
+     * @param action what to do with the trip
+     * @return the action's result
+     * @throws IllegalArgumentException "Invalid session" if no open session has
+     *           the id, or it has been idle for longer than the timeout
+     * @throws IllegalArgumentException "Null action" if action is null
+     */
+    public <T> T withTrip(String sessionId, Function<Trip, T> action) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ACTION IS NULL
+        if (action == null) {
+            throw new IllegalArgumentException("Null action");
+        } //if
+
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+
+        //ERROR HANDLING IN USER INTERFACE IF SESSION DOESN'T EXIST
+        if (session == null) {
+            throw new IllegalArgumentException("Invalid session");
+        } //if
+
+        synchronized (session) {
+            long now = System.nanoTime();
+            if (!session.ended && now - session.lastUsed > idleNanos) {
+                remove(sessionId, session);
+                evictions.incrementAndGet();
+            } //if
+
+            //ERROR HANDLING IN USER INTERFACE IF SESSION HAS ENDED OR TIMED OUT
+            if (session.ended) {
+                throw new IllegalArgumentException("Invalid session");
+            } //if
+
+            session.lastUsed = now;
+            return action.apply(session.trip);
+        } //synchronized
+    } //withTrip method
+
+    /**
+     * Runs an action that adds one park to a session's trip, the same as
+     * withTrip, unless the trip already has the most parks a session's trip
+     * can hold
+     *
+     * @param <T> type of the action's result
+     * @param sessionId id of the session
+     * @param action adds a park to the trip
+     * @return the action's result
+     * @throws IllegalArgumentException "Invalid session" if no open session has
+     *           the id, or it has been idle for longer than the timeout
+     * @throws IllegalArgumentException "Null action" if action is null
+     * @throws IllegalArgumentException "Too many parks in trip" if the trip
+     *           already has maxParks parks
+     */
+    public <T> T addToTrip(String sessionId, Function<Trip, T> action) {
+
+        //ERROR HANDLING IN USER INTERFACE IF ACTION IS NULL
+        if (action == null) {
+            throw new IllegalArgumentException("Null action");
+        } //if
+
+        return withTrip(sessionId, trip -> {
+
+            //ERROR HANDLING IN USER INTERFACE IF THE TRIP IS FULL
+            if (trip.size() >= maxParks) {
+                throw new IllegalArgumentException("Too many parks in trip");
+            } //if
+            return action.apply(trip);
+        });
+    } //addToTrip method
+
+    /**
+     * Returns the most parks each session's trip can hold
+     *
+     * @return the most parks in a trip
+     */
+    public int getMaxParks() {
+        return maxParks;
+    } //getMaxParks method
+
+    /**
+     * Checks if a session is open
+     *
+     * @param sessionId id of the session
+     * @return true if the session is open and has not timed out
+     */
+    public boolean contains(String sessionId) {
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+        return session != null && System.nanoTime() - session.lastUsed <= idleNanos;
+    } //contains method
+
+    /**
+     * Ends a session and drops its trip
+     *
+     * @param sessionId id of the session
+     * @return true if the session was open
+     */
+    public boolean end(String sessionId) {
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        } //if
+        synchronized (session) {
+            if (session.ended) {
+                return false;
+            } //if
+            remove(sessionId, session);
+            return true;
+        } //synchronized
+    } //end method
+
+    /**
+     * Evicts every session that has been idle for longer than the timeout.
+     * Sessions that are in use are passed over without waiting for them.
+     *
+     * @return the number of sessions evicted
+     */
+    public int evictIdle() {
+        int evicted = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+
+            //Only locking the sessions that look idle, a busy one was just used
+            if (System.nanoTime() - session.lastUsed <= idleNanos) {
+                continue;
+            } //if
+            synchronized (session) {
+                if (!session.ended && System.nanoTime() - session.lastUsed > idleNanos) {
+                    remove(entry.getKey(), session);
+                    evicted++;
+                } //if
+            } //synchronized
+        } //for
+        evictions.addAndGet(evicted);
+        return evicted;
+    } //evictIdle method
+
+    /**
+     * Returns the number of open sessions
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return count.get();
+    } //size method
+
+    /**
+     * Returns the number of sessions evicted for being idle
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.get();
+    } //getEvictions method
+
+    /**
+     * Stops sweeping idle sessions. The sessions are kept.
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    } //close method
+
+    /**
+     * Takes an ended session out of the map, while holding its lock
+     *
+     * @param sessionId id of the session
+     * @param session the session
+     */
+    private void remove(String sessionId, Session session) {
+        session.ended = true;
+        if (sessions.remove(sessionId, session)) {
+            count.decrementAndGet();
+        } //if
+    } //remove method
+
+    /**
+     * One user's trip and when it was last used
+     */
+    private static class Session {
+
+        /** The session's trip, only used while holding the session's lock*/
+        private final Trip trip = new Trip();
+
+        /** System.nanoTime() when the session was last used*/
+        private volatile long lastUsed;
+
+        /** Whether the session has been ended or evicted, set while holding its lock*/
+        private boolean ended;
+
+        /**
+         * Creates a session
+         *
+         * @param now System.nanoTime() when the session is opened
+         */
+        private Session(long now) {
+            lastUsed = now;
+        } //Session constructor
+    } //Session class
+} //TripSessions class
@@ -0,0 +1,307 @@
+package parks.bench;
+
+import java.io.*;
+import java.lang.invoke.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Handles to the methods under test. The program's classes are in the default
+ * package, which JMH benchmarks cannot be in and no other package can import,
+ * so they are looked up by name once. Calling a static final MethodHandle with
+ * invokeExact is compiled to a direct call, so it adds nothing to what is
+ * measured. Program types that are not in the JDK are passed around as Object.
+ */
+final class Api {
+
+    /** Parks.getNumberOfLines(Scanner)*/
+    static final MethodHandle GET_NUMBER_OF_LINES;
+
+    /** Parks.inputParks(Scanner, int[], String[], double[], double[])*/
+    static final MethodHandle INPUT_PARKS;
+
+    /** Parks.getParkList(int[], String[], double[], double[])*/
+    static final MethodHandle GET_PARK_LIST;
+
+    /** Parks.writeParkList(Appendable, int, int, int[], String[], double[], double[])*/
+    static final MethodHandle WRITE_PARK_LIST;
+
+    /** Parks.searchForPark(String, int[], String[], double[], double[])*/
+    static final MethodHandle SEARCH_FOR_PARK;
+
+    /** Parks.searchForPark(String, ParkNameSearch, int[], String[], double[], double[])*/
+    static final MethodHandle SEARCH_FOR_PARK_INDEXED;
+
+    /** Parks.searchForPark(String, ParkNameDictionary, int[], double[], double[])*/
+    static final MethodHandle SEARCH_FOR_PARK_ENCODED;
+
+    /** new ParkNameDictionary(String[])*/
+    static final MethodHandle NEW_NAME_DICTIONARY;
+
+    /** Parks.calculateDistance(double, double, double, double)*/
+    static final MethodHandle CALCULATE_DISTANCE;
+
+    /** Parks.addParkToTrip(int, int, int[], String[], double[], double[], int[], String[], double[])*/
+    static final MethodHandle ADD_PARK_TO_TRIP;
+
+    /** Parks.addParkToTrip(int, int, ParkIdLookup, int[], String[], double[], double[], int[], String[], double[])*/
+    static final MethodHandle ADD_PARK_TO_TRIP_INDEXED;
+
+    /** ParkLoader.loadParks(Path)*/
+    static final MethodHandle LOAD_PARKS;
+
+    /** ParkLoader.loadParks(Path, ForkJoinPool)*/
+    static final MethodHandle LOAD_PARKS_PARALLEL;
+
+    /** ParkSnapshot.read(Path)*/
+    static final MethodHandle READ_SNAPSHOT;
+
+    /** ParkSnapshot.write(ParkCatalog, Path, long, long)*/
+    static final MethodHandle WRITE_SNAPSHOT;
+
+    /** new ParkCatalog(int[], String[], double[], double[])*/
+    static final MethodHandle NEW_CATALOG;
+
+    /** ParkCatalog.getNames()*/
+    static final MethodHandle GET_NAMES;
+
+    /** ParkCatalog.getNameIndex()*/
+    static final MethodHandle GET_NAME_INDEX;
+
+    /** ParkCatalog.getIdIndex()*/
+    static final MethodHandle GET_ID_INDEX;
+
+    /** ParkCatalog.getDistanceKernel()*/
+    static final MethodHandle GET_DISTANCE_KERNEL;
+
+    /** DistanceKernel.distancesFrom(double, double, double[])*/
+    static final MethodHandle DISTANCES_FROM;
+
+    /** ParkCatalog.getSpatialIndex()*/
+    static final MethodHandle GET_SPATIAL_INDEX;
+
+    /** ParkSpatialIndex.withinRadius(double, double, double, DistanceModel)*/
+    static final MethodHandle WITHIN_RADIUS;
+
+    /** DistanceModel.parse(String)*/
+    static final MethodHandle PARSE_MODEL;
+
+    /** DistanceModel.distance(double, double, double, double)*/
+    static final MethodHandle MODEL_DISTANCE;
+
+    /** OffHeapParkCatalog.copyOf(ParkCatalog)*/
+    static final MethodHandle COPY_OFF_HEAP;
+
+    /** OffHeapParkCatalog.writeSearchResults(Appendable, int, int, String)*/
+    static final MethodHandle OFF_HEAP_SEARCH;
+
+    /** new Trip()*/
+    static final MethodHandle NEW_TRIP;
+
+    /** Trip.insert(int, int, String, double, double)*/
+    static final MethodHandle TRIP_INSERT;
+
+    /** Trip.remove(int)*/
+    static final MethodHandle TRIP_REMOVE;
+
+    /** Trip.getDistance(int)*/
+    static final MethodHandle TRIP_GET_DISTANCE;
+
+    /** new TripCorridor(Trip, double)*/
+    static final MethodHandle NEW_TRIP_CORRIDOR;
+
+    /** TripCorridor.find(ParkSpatialIndex, int[], double[], double[], int)*/
+    static final MethodHandle CORRIDOR_FIND;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> parks = Class.forName("Parks");
+            Class<?> loader = Class.forName("ParkLoader");
+            Class<?> catalog = Class.forName("ParkCatalog");
+            Class<?> snapshot = Class.forName("ParkSnapshot");
+            Class<?> nameIndex = Class.forName("ParkNameSearch");
+            Class<?> idIndex = Class.forName("ParkIdLookup");
+            Class<?> kernel = Class.forName("DistanceKernel");
+            Class<?> spatialIndex = Class.forName("ParkSpatialIndex");
+            Class<?> model = Class.forName("DistanceModel");
+            Class<?> offHeap = Class.forName("OffHeapParkCatalog");
+            Class<?> dictionary = Class.forName("ParkNameDictionary");
+            Class<?> trip = Class.forName("Trip");
+            Class<?> corridor = Class.forName("TripCorridor");
+
+            GET_NUMBER_OF_LINES = lookup.findStatic(parks, "getNumberOfLines",
+                                                    methodType(int.class, Scanner.class));
+            INPUT_PARKS = lookup.findStatic(parks, "inputParks",
+                                            methodType(boolean.class, Scanner.class, int[].class,
+                                                       String[].class, double[].class,
+                                                       double[].class));
+            GET_PARK_LIST = lookup.findStatic(parks, "getParkList",
+                                              methodType(String.class, int[].class, String[].class,
+                                                         double[].class, double[].class));
+            WRITE_PARK_LIST = lookup.findStatic(parks, "writeParkList",
+                                                methodType(int.class, Appendable.class, int.class,
+                                                           int.class, int[].class,
+                                                           String[].class, double[].class,
+                                                           double[].class));
+            SEARCH_FOR_PARK = lookup.findStatic(parks, "searchForPark",
+                                                methodType(String.class, String.class, int[].class,
+                                                           String[].class, double[].class,
+                                                           double[].class));
+            SEARCH_FOR_PARK_INDEXED = erase(lookup.findStatic(parks, "searchForPark",
+                                                              methodType(String.class, String.class,
+                                                                         nameIndex, int[].class,
+                                                                         String[].class,
+                                                                         double[].class,
+                                                                         double[].class)));
+            SEARCH_FOR_PARK_ENCODED = erase(lookup.findStatic(parks, "searchForPark",
+                                                              methodType(String.class,
+                                                                         String.class,
+                                                                         dictionary, int[].class,
+                                                                         double[].class,
+                                                                         double[].class)));
+            NEW_NAME_DICTIONARY = erase(lookup.findConstructor(dictionary,
+                                                               methodType(void.class,
+                                                                          String[].class)));
+            CALCULATE_DISTANCE = lookup.findStatic(parks, "calculateDistance",
+                                                   methodType(double.class, double.class,
+                                                              double.class, double.class,
+                                                              double.class));
+            ADD_PARK_TO_TRIP = lookup.findStatic(parks, "addParkToTrip",
+                                                 methodType(int.class, int.class, int.class,
+                                                            int[].class, String[].class,
+                                                            double[].class, double[].class,
+                                                            int[].class, String[].class,
+                                                            double[].class));
+            ADD_PARK_TO_TRIP_INDEXED = erase(lookup.findStatic(parks, "addParkToTrip",
+                                                               methodType(int.class, int.class,
+                                                                          int.class, idIndex,
+                                                                          int[].class,
+                                                                          String[].class,
+                                                                          double[].class,
+                                                                          double[].class,
+                                                                          int[].class,
+                                                                          String[].class,
+                                                                          double[].class)));
+            LOAD_PARKS = erase(lookup.findStatic(loader, "loadParks",
+                                                 methodType(catalog, Path.class)));
+            LOAD_PARKS_PARALLEL = erase(lookup.findStatic(loader, "loadParks",
+                                                          methodType(catalog, Path.class,
+                                                                     ForkJoinPool.class)));
+            READ_SNAPSHOT = erase(lookup.findStatic(snapshot, "read",
+                                                    methodType(catalog, Path.class)));
+            WRITE_SNAPSHOT = erase(lookup.findStatic(snapshot, "write",
+                                                     methodType(void.class, catalog, Path.class,
+                                                                long.class, long.class)));
+            NEW_CATALOG = erase(lookup.findConstructor(catalog,
+                                                       methodType(void.class, int[].class,
+                                                                  String[].class, double[].class,
+                                                                  double[].class)));
+            GET_NAMES = erase(lookup.findVirtual(catalog, "getNames",
+                                                 methodType(String[].class)));
+            GET_NAME_INDEX = erase(lookup.findVirtual(catalog, "getNameIndex",
+                                                      methodType(nameIndex)));
+            GET_ID_INDEX = erase(lookup.findVirtual(catalog, "getIdIndex", methodType(idIndex)));
+            GET_DISTANCE_KERNEL = erase(lookup.findVirtual(catalog, "getDistanceKernel",
+                                                           methodType(kernel)));
+            DISTANCES_FROM = erase(lookup.findVirtual(kernel, "distancesFrom",
+                                                      methodType(void.class, double.class,
+                                                                 double.class, double[].class)));
+            GET_SPATIAL_INDEX = erase(lookup.findVirtual(catalog, "getSpatialIndex",
+                                                         methodType(spatialIndex)));
+            WITHIN_RADIUS = erase(lookup.findVirtual(spatialIndex, "withinRadius",
+                                                     methodType(int[].class, double.class,
+                                                                double.class, double.class,
+                                                                model)));
+            PARSE_MODEL = erase(lookup.findStatic(model, "parse",
+                                                  methodType(model, String.class)));
+            MODEL_DISTANCE = erase(lookup.findVirtual(model, "distance",
+                                                      methodType(double.class, double.class,
+                                                                 double.class, double.class,
+                                                                 double.class)));
+            COPY_OFF_HEAP = erase(lookup.findStatic(offHeap, "copyOf",
+                                                    methodType(offHeap, catalog)));
+            OFF_HEAP_SEARCH = erase(lookup.findVirtual(offHeap, "writeSearchResults",
+                                                       methodType(int.class, Appendable.class,
+                                                                  int.class, int.class,
+                                                                  String.class)));
+            NEW_TRIP = erase(lookup.findConstructor(trip, methodType(void.class)));
+            TRIP_INSERT = erase(lookup.findVirtual(trip, "insert",
+                                                   methodType(void.class, int.class, int.class,
+                                                              String.class, double.class,
+                                                              double.class)));
+            TRIP_REMOVE = erase(lookup.findVirtual(trip, "remove",
+                                                   methodType(int.class, int.class)));
+            TRIP_GET_DISTANCE = erase(lookup.findVirtual(trip, "getDistance",
+                                                         methodType(double.class, int.class)));
+            NEW_TRIP_CORRIDOR = erase(lookup.findConstructor(corridor,
+                                                             methodType(void.class, trip,
+                                                                        double.class)));
+            CORRIDOR_FIND = erase(lookup.findVirtual(corridor, "find",
+                                                     methodType(int[].class, spatialIndex,
+                                                                int[].class, double[].class,
+                                                                double[].class, int.class)));
+        } //try
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        } //catch
+    } //static initializer
+
+    /**
+     * Not used, all members are static
+     */
+    private Api() {
+    } //Api constructor
+
+    /**
+     * Replaces every program type in a handle's type with Object so it can be
+     * called with invokeExact from this package
+     *
+     * @param handle the handle
+     * @return the handle with its program types erased
+     */
+    private static MethodHandle erase(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isProgramType(type.parameterType(i))) {
+                type = type.changeParameterType(i, Object.class);
+            } //if
+        } //for
+        if (isProgramType(type.returnType())) {
+            type = type.changeReturnType(Object.class);
+        } //if
+        return handle.asType(type);
+    } //erase method
+
+    /**
+     * Checks if a type is one of the program's classes
+     *
+     * @param type the type
+     * @return true if the type is in the default package
+     */
+    private static boolean isProgramType(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && type.getPackageName().isEmpty();
+    } //isProgramType method
+
+    /**
+     * Loads a park file the way Parks.main did before the single pass loader:
+     * counting its lines, then reading it again with inputParks
+     *
+     * @param path path of the park file
+     * @return true if the file is valid
+     * @throws Throwable if reading the file fails
+     */
+    static boolean inputParks(Path path) throws Throwable {
+        int count;
+        try (Scanner in = new Scanner(new FileInputStream(path.toFile()))) {
+            count = (int) GET_NUMBER_OF_LINES.invokeExact(in);
+        } //try
+        try (Scanner in = new Scanner(new FileInputStream(path.toFile()))) {
+            return (boolean) INPUT_PARKS.invokeExact(in, new int[count], new String[count],
+                                                     new double[count], new double[count]);
+        } //try
+    } //inputParks method
+} //Api class
@@ -0,0 +1,43 @@
+package parks.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Runs the benchmarks, taking the usual JMH command line options and always
+ * adding the GC profiler so every result reports its allocation rate
+ * (gc.alloc.rate and gc.alloc.rate.norm) next to its throughput
+ */
+public final class BenchmarkMain {
+
+    /**
+     * Not used, all members are static
+     */
+    private BenchmarkMain() {
+    } //BenchmarkMain constructor
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args JMH command line options, for example a benchmark name pattern
+     *          and -p parks=10000000
+     * @throws Exception if the options are invalid or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() ||
+            commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+
+            org.openjdk.jmh.Main.main(args);
+            return;
+        } //if
+        Options options = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+            .build();
+        new Runner(options).run();
+    } //main method
+} //BenchmarkMain class
@@ -0,0 +1,125 @@
+package parks.bench;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The parks along a trip across the state: working out the detour of every
+ * park through every leg with calculateDistance, against the corridor query
+ * that only measures the parks in the grown boxes of the legs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorridorBenchmark {
+
+    /** Largest distance in miles from the route*/
+    private static final double RADIUS = 5;
+
+    /** Number of parks returned*/
+    private static final int COUNT = 20;
+
+    /** Number of parks searched*/
+    @Param({"10000", "1000000"})
+    public int parks;
+
+    /** Number of stops in the trip*/
+    @Param({"10", "100"})
+    public int stops;
+
+    /** The synthetic parks*/
+    private SyntheticParks data;
+
+    /** K-d tree over the park coordinates*/
+    private Object spatialIndex;
+
+    /** The trip, random parks visited from west to east*/
+    private Object trip;
+
+    /** Latitudes of the trip's stops*/
+    private double[] stopLatitudes;
+
+    /** Longitudes of the trip's stops*/
+    private double[] stopLongitudes;
+
+    /** Smallest detour of every park, reused by each naive search*/
+    private double[] detours;
+
+    /**
+     * Makes the synthetic parks, their k-d tree and the trip
+     *
+     * @throws Throwable if the catalog or trip cannot be built
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        data = new SyntheticParks(parks);
+        Object catalog = (Object) Api.NEW_CATALOG.invokeExact(data.ids, data.names,
+                                                              data.latitudes, data.longitudes);
+        spatialIndex = (Object) Api.GET_SPATIAL_INDEX.invokeExact(catalog);
+        detours = new double[parks];
+
+        //Random parks in order of longitude, so the trip crosses the state once
+        SplittableRandom random = new SplittableRandom(SyntheticParks.DEFAULT_SEED);
+        Integer[] rows = new Integer[stops];
+        for (int i = 0; i < stops; i++) {
+            rows[i] = random.nextInt(parks);
+        } //for
+        Arrays.sort(rows, (a, b) -> Double.compare(data.longitudes[a], data.longitudes[b]));
+        trip = (Object) Api.NEW_TRIP.invokeExact();
+        stopLatitudes = new double[stops];
+        stopLongitudes = new double[stops];
+        for (int i = 0; i < stops; i++) {
+            int row = rows[i];
+            Api.TRIP_INSERT.invokeExact(trip, i, data.ids[row], data.names[row],
+                                        data.latitudes[row], data.longitudes[row]);
+            stopLatitudes[i] = data.latitudes[row];
+            stopLongitudes[i] = data.longitudes[row];
+        } //for
+    } //setUp method
+
+    /**
+     * Works out the smallest detour of every park through every leg
+     *
+     * @return the detours
+     * @throws Throwable if a distance cannot be calculated
+     */
+    @Benchmark
+    public double[] measureEveryLeg() throws Throwable {
+        for (int i = 0; i < parks; i++) {
+            double detour = Double.POSITIVE_INFINITY;
+            for (int leg = 0; leg + 1 < stops; leg++) {
+                double toPark = (double) Api.CALCULATE_DISTANCE.invokeExact(
+                    stopLatitudes[leg], stopLongitudes[leg], data.latitudes[i], data.longitudes[i]);
+                double fromPark = (double) Api.CALCULATE_DISTANCE.invokeExact(
+                    data.latitudes[i], data.longitudes[i],
+                    stopLatitudes[leg + 1], stopLongitudes[leg + 1]);
+                double legLength = (double) Api.CALCULATE_DISTANCE.invokeExact(
+                    stopLatitudes[leg], stopLongitudes[leg],
+                    stopLatitudes[leg + 1], stopLongitudes[leg + 1]);
+                detour = Math.min(detour, toPark + fromPark - legLength);
+            } //for
+            detours[i] = detour;
+        } //for
+        return detours;
+    } //measureEveryLeg method
+
+    /**
+     * Finds the parks along the trip with the corridor query
+     *
+     * @param blackhole sink for the rows found
+     * @throws Throwable if the parks cannot be found
+     */
+    @Benchmark
+    public void parksAlongTrip(Blackhole blackhole) throws Throwable {
+        Object corridor = (Object) Api.NEW_TRIP_CORRIDOR.invokeExact(trip, RADIUS);
+        blackhole.consume((int[]) Api.CORRIDOR_FIND.invokeExact(corridor, spatialIndex,
+                                                                data.ids, data.latitudes,
+                                                                data.longitudes, COUNT));
+    } //parksAlongTrip method
+} //CorridorBenchmark class
@@ -0,0 +1,78 @@
+package parks.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Distances from one location to every park: calculateDistance called once per
+ * park, against the distance kernel over the catalog's columns
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DistanceBenchmark {
+
+    /** Latitude distances are measured from, Raleigh*/
+    private static final double LATITUDE = 35.7796;
+
+    /** Longitude distances are measured from, Raleigh*/
+    private static final double LONGITUDE = -78.6382;
+
+    /** Number of parks measured to*/
+    @Param({"66", "10000", "1000000"})
+    public int parks;
+
+    /** The synthetic parks*/
+    private SyntheticParks data;
+
+    /** Distance kernel over the park coordinates*/
+    private Object kernel;
+
+    /** Distances to every park*/
+    private double[] distances;
+
+    /**
+     * Makes the synthetic parks and their catalog
+     *
+     * @throws Throwable if the catalog cannot be built
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        data = new SyntheticParks(parks);
+        Object catalog = (Object) Api.NEW_CATALOG.invokeExact(data.ids, data.names,
+                                                              data.latitudes, data.longitudes);
+        kernel = (Object) Api.GET_DISTANCE_KERNEL.invokeExact(catalog);
+        distances = new double[parks];
+    } //setUp method
+
+    /**
+     * Calls calculateDistance for every park
+     *
+     * @param blackhole sink for the distances
+     * @throws Throwable if a distance cannot be calculated
+     */
+    @Benchmark
+    public void calculateDistance(Blackhole blackhole) throws Throwable {
+        for (int i = 0; i < data.latitudes.length; i++) {
+            blackhole.consume((double) Api.CALCULATE_DISTANCE.invokeExact(
+                LATITUDE, LONGITUDE, data.latitudes[i], data.longitudes[i]));
+        } //for
+    } //calculateDistance method
+
+    /**
+     * Calculates the distance to every park with the distance kernel
+     *
+     * @return the distances
+     * @throws Throwable if the distances cannot be calculated
+     */
+    @Benchmark
+    public double[] distancesFrom() throws Throwable {
+        Api.DISTANCES_FROM.invokeExact(kernel, LATITUDE, LONGITUDE, distances);
+        return distances;
+    } //distancesFrom method
+} //DistanceBenchmark class
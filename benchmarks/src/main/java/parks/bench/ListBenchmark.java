@@ -0,0 +1,62 @@
+package parks.bench;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Listing every park: building the whole list as a String with getParkList,
+ * against streaming it with writeParkList to a Writer that drops it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListBenchmark {
+
+    /** Number of parks listed*/
+    @Param({"66", "10000", "1000000"})
+    public int parks;
+
+    /** The synthetic parks*/
+    private SyntheticParks data;
+
+    /** Writer that drops everything written to it*/
+    private final Writer out = Writer.nullWriter();
+
+    /**
+     * Makes the synthetic parks
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new SyntheticParks(parks);
+    } //setUp method
+
+    /**
+     * Lists every park
+     *
+     * @return the list of parks
+     * @throws Throwable if listing fails
+     */
+    @Benchmark
+    public String getParkList() throws Throwable {
+        return (String) Api.GET_PARK_LIST.invokeExact(data.ids, data.names,
+                                                      data.latitudes, data.longitudes);
+    } //getParkList method
+
+    /**
+     * Streams every park to a Writer that drops what is written
+     *
+     * @return the number of parks written
+     * @throws Throwable if listing fails
+     */
+    @Benchmark
+    public int writeParkList() throws Throwable {
+        return (int) Api.WRITE_PARK_LIST.invokeExact((Appendable) out, 0, Integer.MAX_VALUE,
+                                                     data.ids, data.names,
+                                                     data.latitudes, data.longitudes);
+    } //writeParkList method
+} //ListBenchmark class
@@ -0,0 +1,103 @@
+package parks.bench;
+
+import java.nio.file.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Loading a park file: the line counting and Scanner reading that inputParks
+ * does, against the single pass ParkLoader, against ParkLoader parsing chunks
+ * on the common ForkJoinPool, against reading the file's binary snapshot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+
+    /** Number of parks in the file*/
+    @Param({"66", "10000", "1000000"})
+    public int parks;
+
+    /** Path of the synthetic park file*/
+    private Path file;
+
+    /** Path of the synthetic park file's snapshot*/
+    private Path snapshot;
+
+    /**
+     * Writes the synthetic park file and its snapshot
+     *
+     * @throws Throwable if a file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        SyntheticParks data = new SyntheticParks(parks);
+        file = data.writeTemp();
+        snapshot = Files.createTempFile("parks-" + parks + "-", ".snapshot");
+        Object catalog = (Object) Api.NEW_CATALOG.invokeExact(data.ids, data.names,
+                                                              data.latitudes, data.longitudes);
+        Api.WRITE_SNAPSHOT.invokeExact(catalog, snapshot, 0L, 0L);
+    } //setUp method
+
+    /**
+     * Deletes the synthetic park file and its snapshot
+     *
+     * @throws Exception if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(snapshot);
+    } //tearDown method
+
+    /**
+     * Counts the lines, then reads the file with inputParks
+     *
+     * @return true if the file is valid
+     * @throws Throwable if reading fails
+     */
+    @Benchmark
+    public boolean inputParks() throws Throwable {
+        return Api.inputParks(file);
+    } //inputParks method
+
+    /**
+     * Reads the file with ParkLoader and builds the catalog
+     *
+     * @return the catalog
+     * @throws Throwable if reading fails
+     */
+    @Benchmark
+    public Object loadParks() throws Throwable {
+        return (Object) Api.LOAD_PARKS.invokeExact(file);
+    } //loadParks method
+
+    /**
+     * Reads the file with ParkLoader in chunks on the common ForkJoinPool and
+     * builds the catalog
+     *
+     * @return the catalog
+     * @throws Throwable if reading fails
+     */
+    @Benchmark
+    public Object loadParksParallel() throws Throwable {
+        return (Object) Api.LOAD_PARKS_PARALLEL.invokeExact(file, ForkJoinPool.commonPool());
+    } //loadParksParallel method
+
+    /**
+     * Reads the file's snapshot, including the decoding of its names
+     *
+     * @return the catalog's names
+     * @throws Throwable if reading fails
+     */
+    @Benchmark
+    public String[] readSnapshot() throws Throwable {
+        Object catalog = (Object) Api.READ_SNAPSHOT.invokeExact(snapshot);
+        return (String[]) Api.GET_NAMES.invokeExact(catalog);
+    } //readSnapshot method
+} //LoadBenchmark class
@@ -0,0 +1,92 @@
+package parks.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parks within 25 miles of one location with each distance model: measuring
+ * every park with the model, against the k-d tree query that only measures
+ * the parks passing the DistanceFilter bounds
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RadiusBenchmark {
+
+    /** Latitude distances are measured from, Raleigh*/
+    private static final double LATITUDE = 35.7796;
+
+    /** Longitude distances are measured from, Raleigh*/
+    private static final double LONGITUDE = -78.6382;
+
+    /** Largest distance in miles*/
+    private static final double RADIUS = 25;
+
+    /** Number of parks searched*/
+    @Param({"10000", "1000000"})
+    public int parks;
+
+    /** Name of the distance model*/
+    @Param({"planar", "haversine", "ellipsoidal"})
+    public String model;
+
+    /** The synthetic parks*/
+    private SyntheticParks data;
+
+    /** The distance model*/
+    private Object distanceModel;
+
+    /** K-d tree over the park coordinates*/
+    private Object spatialIndex;
+
+    /**
+     * Makes the synthetic parks and their k-d tree
+     *
+     * @throws Throwable if the catalog cannot be built
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        data = new SyntheticParks(parks);
+        Object catalog = (Object) Api.NEW_CATALOG.invokeExact(data.ids, data.names,
+                                                              data.latitudes, data.longitudes);
+        spatialIndex = (Object) Api.GET_SPATIAL_INDEX.invokeExact(catalog);
+        distanceModel = (Object) Api.PARSE_MODEL.invokeExact(model);
+    } //setUp method
+
+    /**
+     * Measures every park with the model and counts the ones within the radius
+     *
+     * @return the number of parks within the radius
+     * @throws Throwable if a distance cannot be calculated
+     */
+    @Benchmark
+    public int measureEvery() throws Throwable {
+        int count = 0;
+        for (int i = 0; i < data.latitudes.length; i++) {
+            if ((double) Api.MODEL_DISTANCE.invokeExact(distanceModel, LATITUDE, LONGITUDE,
+                                                        data.latitudes[i],
+                                                        data.longitudes[i]) <= RADIUS) {
+                count++;
+            } //if
+        } //for
+        return count;
+    } //measureEvery method
+
+    /**
+     * Finds the parks within the radius with the k-d tree and the filter
+     *
+     * @param blackhole sink for the rows found
+     * @throws Throwable if the parks cannot be found
+     */
+    @Benchmark
+    public void withinRadius(Blackhole blackhole) throws Throwable {
+        blackhole.consume((int[]) Api.WITHIN_RADIUS.invokeExact(spatialIndex, LATITUDE,
+                                                                LONGITUDE, RADIUS,
+                                                                distanceModel));
+    } //withinRadius method
+} //RadiusBenchmark class
@@ -0,0 +1,106 @@
+package parks.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Searching park names for a keyword by scanning every name, against the
+ * trigram name index, the token ids of dictionary encoded names, and the UTF-8
+ * names of an off-heap catalog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    /** Number of parks searched*/
+    @Param({"66", "10000", "1000000"})
+    public int parks;
+
+    /** Keyword searched for: a rare one, a common one and a short one*/
+    @Param({"umstead", "natural", "ee"})
+    public String keyword;
+
+    /** The synthetic parks*/
+    private SyntheticParks data;
+
+    /** Trigram index over the park names*/
+    private Object nameIndex;
+
+    /** Dictionary encoding of the park names*/
+    private Object nameDictionary;
+
+    /** Off-heap copy of the catalog*/
+    private Object offHeapCatalog;
+
+    /**
+     * Makes the synthetic parks and their catalog
+     *
+     * @throws Throwable if the catalog cannot be built
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        data = new SyntheticParks(parks);
+        Object catalog = (Object) Api.NEW_CATALOG.invokeExact(data.ids, data.names,
+                                                              data.latitudes, data.longitudes);
+        nameIndex = (Object) Api.GET_NAME_INDEX.invokeExact(catalog);
+        nameDictionary = (Object) Api.NEW_NAME_DICTIONARY.invokeExact(data.names);
+        offHeapCatalog = (Object) Api.COPY_OFF_HEAP.invokeExact(catalog);
+    } //setUp method
+
+    /**
+     * Searches by scanning every name
+     *
+     * @return the list of matching parks
+     * @throws Throwable if the search fails
+     */
+    @Benchmark
+    public String searchForPark() throws Throwable {
+        return (String) Api.SEARCH_FOR_PARK.invokeExact(keyword, data.ids, data.names,
+                                                        data.latitudes, data.longitudes);
+    } //searchForPark method
+
+    /**
+     * Searches with the name index
+     *
+     * @return the list of matching parks
+     * @throws Throwable if the search fails
+     */
+    @Benchmark
+    public String searchForParkIndexed() throws Throwable {
+        return (String) Api.SEARCH_FOR_PARK_INDEXED.invokeExact(keyword, nameIndex, data.ids,
+                                                                data.names, data.latitudes,
+                                                                data.longitudes);
+    } //searchForParkIndexed method
+
+    /**
+     * Searches the token ids of the dictionary encoded names
+     *
+     * @return the list of matching parks
+     * @throws Throwable if the search fails
+     */
+    @Benchmark
+    public String searchForParkEncoded() throws Throwable {
+        return (String) Api.SEARCH_FOR_PARK_ENCODED.invokeExact(keyword, nameDictionary,
+                                                                data.ids, data.latitudes,
+                                                                data.longitudes);
+    } //searchForParkEncoded method
+
+    /**
+     * Searches by scanning the names of the off-heap catalog
+     *
+     * @return the list of matching parks
+     * @throws Throwable if the search fails
+     */
+    @Benchmark
+    public StringBuilder searchOffHeap() throws Throwable {
+        StringBuilder out = new StringBuilder();
+        int written = (int) Api.OFF_HEAP_SEARCH.invokeExact(offHeapCatalog, (Appendable) out, 0,
+                                                            Integer.MAX_VALUE, keyword);
+        return out;
+    } //searchOffHeap method
+} //SearchBenchmark class
@@ -0,0 +1,179 @@
+package parks.bench;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Deterministic synthetic park data shaped like ncParks.csv: increasing ids
+ * with small gaps, names built from the words the real file uses, and
+ * coordinates inside North Carolina with 4 to 6 decimals. The same size and
+ * seed always give the same parks, so results can be compared between runs.
+ */
+final class SyntheticParks {
+
+    /** Seed used when a benchmark does not choose one*/
+    static final long DEFAULT_SEED = 0x4E43L;
+
+    /** Most parks that can be made, enough for 10M rows with room for gaps in the ids*/
+    static final int MAX_PARKS = 50_000_000;
+
+    /** Southern edge of the park coordinates*/
+    private static final double LATITUDE_MIN = 33.84;
+
+    /** Northern edge of the park coordinates*/
+    private static final double LATITUDE_MAX = 36.59;
+
+    /** Western edge of the park coordinates*/
+    private static final double LONGITUDE_MIN = -84.32;
+
+    /** Eastern edge of the park coordinates*/
+    private static final double LONGITUDE_MAX = -75.46;
+
+    /** First words of park names*/
+    private static final String[] PLACES = {
+        "Bald Head", "Bay Tree", "Bear Paw", "Beech Creek", "Bullhead", "Carolina",
+        "Chimney Rock", "Cliffs of the Neuse", "Crowders", "Dismal", "Eno", "Falls",
+        "Fort Fisher", "Goose Creek", "Grandfather", "Hammocks", "Hanging Rock", "Haw",
+        "Jockey's Ridge", "Jones", "Jordan", "Kerr", "Lake James", "Lake Norman",
+        "Lumber", "Mayo", "Medoc", "Merchants Millpond", "Morrow", "Mount Mitchell",
+        "New River", "Occoneechee", "Pettigrew", "Pilot", "Raven Rock", "Singletary",
+        "South Mountains", "Stone Mountain", "Weymouth", "William B. Umstead"
+    };
+
+    /** Middle words of park names*/
+    private static final String[] FEATURES = {
+        "", "Beach", "Bog", "Creek", "Island", "Lake", "Mountain", "River", "Ridge",
+        "Sandhills", "Woods"
+    };
+
+    /** Last words of park names*/
+    private static final String[] KINDS = {
+        "State Park", "State Natural Area", "State Recreation Area", "State Trail",
+        "Regional Office", "Visitor Center"
+    };
+
+    /** Park ids*/
+    final int[] ids;
+
+    /** Park names*/
+    final String[] names;
+
+    /** Park latitudes*/
+    final double[] latitudes;
+
+    /** Park longitudes*/
+    final double[] longitudes;
+
+    /**
+     * Makes a set of parks
+     *
+     * @param count number of parks
+     * @param seed seed for the random values
+     * @throws IllegalArgumentException "Invalid number of parks" if count is
+     *           less than 1 or more than MAX_PARKS
+     */
+    SyntheticParks(int count, long seed) {
+
+        //ERROR HANDLING IN USER INTERFACE IF NUMBER OF PARKS IS OUT OF RANGE
+        if (count < 1 || count > MAX_PARKS) {
+            throw new IllegalArgumentException("Invalid number of parks");
+        } //if
+
+        SplittableRandom random = new SplittableRandom(seed);
+        ids = new int[count];
+        names = new String[count];
+        latitudes = new double[count];
+        longitudes = new double[count];
+        int id = 198;
+        for (int i = 0; i < count; i++) {
+            ids[i] = id;
+            id += 1 + (random.nextInt(4) == 0 ? 1 : 0);
+
+            String feature = FEATURES[random.nextInt(FEATURES.length)];
+            names[i] = PLACES[random.nextInt(PLACES.length)] +
+                       (feature.isEmpty() ? " " : " " + feature + " ") +
+                       KINDS[random.nextInt(KINDS.length)];
+
+            //Rounding to 4 to 6 decimals like the real file
+            double scale = Math.pow(10, 4 + random.nextInt(3));
+            latitudes[i] = Math.round(random.nextDouble(LATITUDE_MIN, LATITUDE_MAX) * scale) /
+                           scale;
+            longitudes[i] = Math.round(random.nextDouble(LONGITUDE_MIN, LONGITUDE_MAX) * scale) /
+                            scale;
+        } //for
+    } //SyntheticParks constructor
+
+    /**
+     * Makes a set of parks with the default seed
+     *
+     * @param count number of parks
+     */
+    SyntheticParks(int count) {
+        this(count, DEFAULT_SEED);
+    } //SyntheticParks constructor
+
+    /**
+     * Returns the number of parks
+     *
+     * @return the number of parks
+     */
+    int size() {
+        return ids.length;
+    } //size method
+
+    /**
+     * Writes the parks in the park file format, one "id,name,latitude,longitude"
+     * line per park
+     *
+     * @param path path of the file to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path path) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                 Files.newOutputStream(path), StandardCharsets.UTF_8), 1 << 16)) {
+            for (int i = 0; i < ids.length; i++) {
+                out.write(Integer.toString(ids[i]));
+                out.write(',');
+                out.write(names[i]);
+                out.write(',');
+                out.write(Double.toString(latitudes[i]));
+                out.write(',');
+                out.write(Double.toString(longitudes[i]));
+                out.write('\n');
+            } //for
+        } //try
+    } //write method
+
+    /**
+     * Writes the parks to a temporary park file that is deleted when the JVM exits
+     *
+     * @return path of the file
+     * @throws IOException if the file cannot be written
+     */
+    Path writeTemp() throws IOException {
+        Path path = Files.createTempFile("parks-" + ids.length + "-", ".csv");
+        path.toFile().deleteOnExit();
+        write(path);
+        return path;
+    } //writeTemp method
+
+    /**
+     * Writes a park file from the command line, for running the program itself
+     * on synthetic data
+     *
+     * @param args number of parks, output path and an optional seed
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+
+        //ERROR HANDLING IN USER INTERFACE IF ARGUMENTS ARE MISSING
+        if (args.length < 2 || args.length > 3) {
+            System.out.println("Usage: SyntheticParks <number of parks> <output file> [seed]");
+            System.exit(1);
+        } //if
+        long seed = args.length == 3 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        new SyntheticParks(Integer.parseInt(args[0]), seed).write(Path.of(args[1]));
+    } //main method
+} //SyntheticParks class
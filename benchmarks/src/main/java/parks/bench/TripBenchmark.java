@@ -0,0 +1,115 @@
+package parks.bench;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Filling a 10 park trip with addParkToTrip, looking each id up by scanning
+ * the park ids against looking it up in the id index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripBenchmark {
+
+    /** Number of parks in a full trip*/
+    private static final int TRIP_SIZE = 10;
+
+    /** Number of trips whose park ids are chosen ahead of time*/
+    private static final int TRIPS = 1024;
+
+    /** Number of parks the trip is chosen from*/
+    @Param({"66", "10000", "1000000"})
+    public int parks;
+
+    /** The synthetic parks*/
+    private SyntheticParks data;
+
+    /** Id index over the park ids*/
+    private Object idIndex;
+
+    /** Park ids of every trip, TRIP_SIZE at a time*/
+    private int[] tripParkIds;
+
+    /** Trip that is filled next*/
+    private int trip;
+
+    /** Park ids in the trip*/
+    private final int[] tripIds = new int[TRIP_SIZE];
+
+    /** Park names in the trip*/
+    private final String[] tripNames = new String[TRIP_SIZE];
+
+    /** Distances in the trip*/
+    private final double[] tripDistances = new double[TRIP_SIZE];
+
+    /**
+     * Makes the synthetic parks, their catalog and the trips
+     *
+     * @throws Throwable if the catalog cannot be built
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        data = new SyntheticParks(parks);
+        Object catalog = (Object) Api.NEW_CATALOG.invokeExact(data.ids, data.names,
+                                                              data.latitudes, data.longitudes);
+        idIndex = (Object) Api.GET_ID_INDEX.invokeExact(catalog);
+        SplittableRandom random = new SplittableRandom(SyntheticParks.DEFAULT_SEED);
+        tripParkIds = new int[TRIPS * TRIP_SIZE];
+        for (int i = 0; i < tripParkIds.length; i++) {
+            tripParkIds[i] = data.ids[random.nextInt(parks)];
+        } //for
+    } //setUp method
+
+    /**
+     * Fills a trip, scanning the park ids for each park
+     *
+     * @return the number of parks in the trip
+     * @throws Throwable if a park cannot be added
+     */
+    @Benchmark
+    public int addParkToTrip() throws Throwable {
+        int start = nextTrip();
+        int numberOfParksInTrip = 0;
+        for (int i = 0; i < TRIP_SIZE; i++) {
+            numberOfParksInTrip = (int) Api.ADD_PARK_TO_TRIP.invokeExact(
+                tripParkIds[start + i], numberOfParksInTrip, data.ids, data.names,
+                data.latitudes, data.longitudes, tripIds, tripNames, tripDistances);
+        } //for
+        return numberOfParksInTrip;
+    } //addParkToTrip method
+
+    /**
+     * Fills a trip, looking up each park in the id index
+     *
+     * @return the number of parks in the trip
+     * @throws Throwable if a park cannot be added
+     */
+    @Benchmark
+    public int addParkToTripIndexed() throws Throwable {
+        int start = nextTrip();
+        int numberOfParksInTrip = 0;
+        for (int i = 0; i < TRIP_SIZE; i++) {
+            numberOfParksInTrip = (int) Api.ADD_PARK_TO_TRIP_INDEXED.invokeExact(
+                tripParkIds[start + i], numberOfParksInTrip, idIndex, data.ids, data.names,
+                data.latitudes, data.longitudes, tripIds, tripNames, tripDistances);
+        } //for
+        return numberOfParksInTrip;
+    } //addParkToTripIndexed method
+
+    /**
+     * Moves on to the next of the chosen trips
+     *
+     * @return index in tripParkIds of the trip's first park id
+     */
+    private int nextTrip() {
+        int start = trip * TRIP_SIZE;
+        trip = (trip + 1) % TRIPS;
+        return start;
+    } //nextTrip method
+} //TripBenchmark class
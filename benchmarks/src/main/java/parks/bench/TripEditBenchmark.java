@@ -0,0 +1,108 @@
+package parks.bench;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Editing a long trip: inserting a park at a random position and removing
+ * another keeps the trip the same length, and each edit updates the distances
+ * of every later stop. Also finds the distance up to a random stop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripEditBenchmark {
+
+    /** Number of edits whose positions and parks are chosen ahead of time*/
+    private static final int EDITS = 1 << 16;
+
+    /** Number of stops in the trip*/
+    @Param({"10", "10000", "100000"})
+    public int stops;
+
+    /** The synthetic parks the stops are chosen from*/
+    private SyntheticParks data;
+
+    /** The trip*/
+    private Object trip;
+
+    /** Row in data of the park each edit inserts*/
+    private int[] rows;
+
+    /** Position each edit inserts at*/
+    private int[] insertPositions;
+
+    /** Position each edit removes from*/
+    private int[] removePositions;
+
+    /** Edit that is made next*/
+    private int edit;
+
+    /**
+     * Makes the synthetic parks, the trip and the edits
+     *
+     * @throws Throwable if the trip cannot be built
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        data = new SyntheticParks(10000);
+        SplittableRandom random = new SplittableRandom(SyntheticParks.DEFAULT_SEED);
+        trip = (Object) Api.NEW_TRIP.invokeExact();
+        for (int i = 0; i < stops; i++) {
+            int row = random.nextInt(data.size());
+            Api.TRIP_INSERT.invokeExact(trip, i, data.ids[row], data.names[row],
+                                        data.latitudes[row], data.longitudes[row]);
+        } //for
+        rows = new int[EDITS];
+        insertPositions = new int[EDITS];
+        removePositions = new int[EDITS];
+        for (int i = 0; i < EDITS; i++) {
+            rows[i] = random.nextInt(data.size());
+            insertPositions[i] = random.nextInt(stops + 1);
+            removePositions[i] = random.nextInt(stops + 1);
+        } //for
+    } //setUp method
+
+    /**
+     * Inserts a park and removes one
+     *
+     * @return the id of the removed park
+     * @throws Throwable if the trip cannot be edited
+     */
+    @Benchmark
+    public int insertAndRemove() throws Throwable {
+        int i = nextEdit();
+        int row = rows[i];
+        Api.TRIP_INSERT.invokeExact(trip, insertPositions[i], data.ids[row], data.names[row],
+                                    data.latitudes[row], data.longitudes[row]);
+        return (int) Api.TRIP_REMOVE.invokeExact(trip, removePositions[i]);
+    } //insertAndRemove method
+
+    /**
+     * Finds the distance of the trip up to a stop
+     *
+     * @return the distance
+     * @throws Throwable if the position is not in the trip
+     */
+    @Benchmark
+    public double getDistance() throws Throwable {
+        return (double) Api.TRIP_GET_DISTANCE.invokeExact(trip, removePositions[nextEdit()] %
+                                                                stops);
+    } //getDistance method
+
+    /**
+     * Moves on to the next of the chosen edits
+     *
+     * @return index of the edit
+     */
+    private int nextEdit() {
+        int i = edit;
+        edit = (edit + 1) & (EDITS - 1);
+        return i;
+    } //nextEdit method
+} //TripEditBenchmark class
@@ -0,0 +1,105 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks a reload asked for by a caller woken by the last reload finishing is
+ * a new reload, not the one that just finished, whether that one loaded the
+ * park file or failed to.
+ */
+public class LiveParkCatalogTest {
+
+    /** Number of parks in the park file*/
+    private static final int PARKS = 2000;
+
+    /** Number of reloads started from the end of another*/
+    private static final int ROUNDS = 20;
+
+    /** Folder the park file is written to*/
+    @TempDir
+    Path folder;
+
+    /**
+     * Starts a reload from each reload that loads the park file
+     *
+     * @throws Exception if the park file cannot be written or a reload fails
+     */
+    @Test
+    public void reloadAfterReloadStartsAnother() throws Exception {
+        Path parkFile = writeParkFile();
+        ParkCatalog catalog = ParkLoader.loadParks(parkFile);
+        try (LiveParkCatalog live = new LiveParkCatalog(parkFile, catalog)) {
+            for (int round = 0; round < ROUNDS; round++) {
+                CompletableFuture<ParkCatalog> first = live.reload();
+                CompletableFuture<ParkCatalog> second = awaitStarted(first, live);
+                assertNotSame(first, second, "round " + round);
+                assertEquals(PARKS, second.join().size(), "round " + round);
+            } //for
+        } //try
+    } //reloadAfterReloadStartsAnother method
+
+    /**
+     * Starts a reload from each reload that fails because the park file is gone
+     *
+     * @throws Exception if the park file cannot be written
+     */
+    @Test
+    public void reloadAfterFailedReloadStartsAnother() throws Exception {
+        Path parkFile = writeParkFile();
+        ParkCatalog catalog = ParkLoader.loadParks(parkFile);
+        try (LiveParkCatalog live = new LiveParkCatalog(parkFile, catalog)) {
+            Files.delete(parkFile);
+            for (int round = 0; round < ROUNDS; round++) {
+                CompletableFuture<ParkCatalog> first = live.reload();
+                assertNotSame(first, awaitStarted(first, live), "round " + round);
+            } //for
+        } //try
+    } //reloadAfterFailedReloadStartsAnother method
+
+    /**
+     * Starts a reload as soon as another finishes, on the thread that finished
+     * it if the callback is added in time
+     *
+     * @param first the running reload
+     * @param live the live catalog
+     * @return the reload started once the first finished
+     * @throws Exception if the second reload is not started in time
+     */
+    private static CompletableFuture<ParkCatalog> awaitStarted(
+        CompletableFuture<ParkCatalog> first, LiveParkCatalog live) throws Exception {
+        CompletableFuture<CompletableFuture<ParkCatalog>> started =
+            first.handle((catalog, failure) -> live.reload());
+        CompletableFuture<ParkCatalog> second = started.get(10, TimeUnit.SECONDS);
+        try {
+            second.get(10, TimeUnit.SECONDS);
+        } //try
+        //The park file may be gone, only the reload being new matters
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException, e.getCause().toString());
+        } //catch
+        return second;
+    } //awaitStarted method
+
+    /**
+     * Writes a park file of PARKS parks
+     *
+     * @return path of the park file
+     * @throws IOException if the file cannot be written
+     */
+    private Path writeParkFile() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < PARKS; i++) {
+            lines.append(i + 1).append(",Park ").append(i).append(',')
+                 .append(34.0 + i % 100 * 0.025).append(',').append(-84.0 + i / 100 * 0.4)
+                 .append('\n');
+        } //for
+        Path parkFile = folder.resolve("parks.csv");
+        Files.writeString(parkFile, lines);
+        return parkFile;
+    } //writeParkFile method
+} //LiveParkCatalogTest class
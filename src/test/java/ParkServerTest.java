@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.*;
+import java.net.http.*;
+import java.nio.file.*;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks a session's trip over HTTP: a park is inserted at a position counted
+ * from 1 up to one past the end of the trip, or added to the end when no
+ * position is given, and any other position is refused.
+ */
+public class ParkServerTest {
+
+    /** Folder the park file is written to*/
+    @TempDir
+    Path folder;
+
+    /** Live catalog the server answers from*/
+    private LiveParkCatalog parks;
+
+    /** Server under test, on a free port*/
+    private ParkServer server;
+
+    /** Client the requests are sent with*/
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * Starts a server over a park file of 3 parks
+     *
+     * @throws IOException if the park file cannot be written or the server
+     *           cannot be started
+     */
+    @BeforeEach
+    public void startServer() throws IOException {
+        Path parkFile = folder.resolve("parks.csv");
+        Files.writeString(parkFile, "198,At Raleigh Central Headquarters,35.7869,-78.6387\n" +
+                                    "201,Bay Tree Lake State Natural Area,34.6785,-78.4305\n" +
+                                    "203,Beech Creek Bog State Natural Area,36.2434,-81.8749\n");
+        parks = new LiveParkCatalog(parkFile, ParkLoader.loadParks(parkFile));
+        server = new ParkServer(parks, new InetSocketAddress("localhost", 0));
+        server.start();
+    } //startServer method
+
+    /**
+     * Stops the server
+     */
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        parks.close();
+    } //stopServer method
+
+    /**
+     * Inserts parks at the first and last positions, and refuses position 0 and
+     * positions past the end
+     *
+     * @throws Exception if a request cannot be sent
+     */
+    @Test
+    public void insertPositionsCountFromOne() throws Exception {
+        String session = send("POST", "/sessions", 201).strip();
+        String trip = "/sessions/" + session + "/trip";
+
+        assertEquals("Invalid position\n", send("POST", trip + "?add=203&position=0", 400));
+        assertEquals("Invalid position\n", send("POST", trip + "?add=203&position=2", 400));
+        send("POST", trip + "?add=198&position=1", 200);
+        send("POST", trip + "?add=201", 200);
+        assertEquals("Invalid position\n", send("POST", trip + "?add=203&position=0", 400));
+        assertEquals("Invalid position\n", send("POST", trip + "?add=203&position=4", 400));
+        send("POST", trip + "?add=203&position=3", 200);
+        send("POST", trip + "?add=201&position=1", 200);
+
+        String[] lines = send("GET", trip, 200).split("\n");
+        assertTrue(lines[0].startsWith("201 "), lines[0]);
+        assertTrue(lines[1].startsWith("198 "), lines[1]);
+        assertTrue(lines[2].startsWith("201 "), lines[2]);
+        assertTrue(lines[3].startsWith("203 "), lines[3]);
+        assertTrue(lines[4].startsWith("Total: "), lines[4]);
+    } //insertPositionsCountFromOne method
+
+    /**
+     * Sends a request to the server and checks its status
+     *
+     * @param method the request method
+     * @param path the path and query of the request
+     * @param status the status the response must have
+     * @return the body of the response
+     * @throws Exception if the request cannot be sent
+     */
+    private String send(String method, String path, int status) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + path))
+            .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        HttpResponse<String> response = client.send(request,
+                                                     HttpResponse.BodyHandlers.ofString());
+        assertEquals(status, response.statusCode(), method + " " + path);
+        return response.body();
+    } //send method
+} //ParkServerTest class
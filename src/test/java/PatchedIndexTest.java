@@ -0,0 +1,234 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the id, name, and spatial indexes a catalog gets by applying changes
+ * to another catalog against indexes built from scratch over the same
+ * columns. Each round adds, edits, and deletes random parks, applies the
+ * changes on top of the last round's catalog, and then every lookup and
+ * search must give the same rows as the rebuilt indexes.
+ */
+public class PatchedIndexTest {
+
+    /** Number of parks the catalog starts with*/
+    private static final int PARKS = 4000;
+
+    /** Number of rounds of changes applied one on top of another*/
+    private static final int ROUNDS = 60;
+
+    /** Words the park names are made of*/
+    private static final String[] WORDS = {"Lake", "River", "State", "Falls", "Mountain",
+                                           "Creek", "Forest", "Beach", "Hills", "Pines"};
+
+    /** Keywords searched for every round*/
+    private static final String[] KEYWORDS = {"lake", "RIVER", "State Park", "all", "ee",
+                                              "ount", "s 1", "Pines 7", "nothing", "x"};
+
+    /**
+     * Applies random rounds of changes and compares the indexes with rebuilt
+     * ones after each round
+     */
+    @Test
+    public void patchedIndexesMatchRebuild() {
+        Random random = new Random(2024);
+        int[] ids = new int[PARKS];
+        String[] names = new String[PARKS];
+        double[] latitudes = new double[PARKS];
+        double[] longitudes = new double[PARKS];
+        for (int i = 0; i < PARKS; i++) {
+            ids[i] = i + 1;
+            names[i] = randomName(random);
+            latitudes[i] = randomLatitude(random);
+            longitudes[i] = randomLongitude(random);
+        } //for
+        ParkCatalog catalog = new ParkCatalog(ids, names, latitudes, longitudes);
+        catalog.getNameIndex();
+        catalog.getSpatialIndex();
+        int nextId = PARKS + 1;
+        int patchedRounds = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            ParkCatalog edited = edit(catalog, random, nextId);
+            nextId += PARKS;
+            catalog = ParkCatalogDiff.compare(catalog, edited).apply();
+            if (catalog.getIdIndex() instanceof PatchedIdIndex) {
+                patchedRounds++;
+            } //if
+            assertIndexesMatch(catalog, random, "round " + round);
+        } //for
+
+        //Most rounds are patched, and the changes pile up until a rebuild
+        assertTrue(patchedRounds > ROUNDS / 2, "patched rounds " + patchedRounds);
+        assertTrue(patchedRounds < ROUNDS, "patched rounds " + patchedRounds);
+    } //patchedIndexesMatchRebuild method
+
+    /**
+     * Makes a new version of a catalog's park file with some parks deleted,
+     * some edited, some added, and the rest the same
+     *
+     * @param catalog the catalog
+     * @param random source of the changes
+     * @param nextId first id free for new parks
+     * @return a catalog of the new version, in shuffled row order
+     */
+    private static ParkCatalog edit(ParkCatalog catalog, Random random, int nextId) {
+        List<Integer> rows = new ArrayList<Integer>();
+        for (int row = 0; row < catalog.size(); row++) {
+            if (random.nextInt(100) != 0) {
+                rows.add(row);
+            } //if
+        } //for
+        int added = random.nextInt(60);
+        int size = rows.size() + added;
+        int[] ids = new int[size];
+        String[] names = new String[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < rows.size(); i++) {
+            int row = rows.get(i);
+            ids[i] = catalog.getIds()[row];
+            names[i] = catalog.getNames()[row];
+            latitudes[i] = catalog.getLatitudes()[row];
+            longitudes[i] = catalog.getLongitudes()[row];
+            int edit = random.nextInt(200);
+            if (edit == 0) {
+                names[i] = randomName(random);
+            } //if
+            else if (edit == 1) {
+                latitudes[i] = randomLatitude(random);
+                longitudes[i] = randomLongitude(random);
+            } //else if
+            else if (edit == 2) {
+                latitudes[i] = Double.NaN;
+            } //else if
+        } //for
+        for (int i = rows.size(); i < size; i++) {
+            ids[i] = nextId + i;
+            names[i] = randomName(random);
+            latitudes[i] = randomLatitude(random);
+            longitudes[i] = randomLongitude(random);
+        } //for
+
+        //The row order of the file does not matter to the diff
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+            String name = names[i];
+            names[i] = names[j];
+            names[j] = name;
+            double latitude = latitudes[i];
+            latitudes[i] = latitudes[j];
+            latitudes[j] = latitude;
+            double longitude = longitudes[i];
+            longitudes[i] = longitudes[j];
+            longitudes[j] = longitude;
+        } //for
+        return new ParkCatalog(ids, names, latitudes, longitudes);
+    } //edit method
+
+    /**
+     * Checks a catalog's indexes give the same rows as indexes built from
+     * scratch over its columns
+     *
+     * @param catalog the catalog
+     * @param random source of the queries
+     * @param where what to report if they differ
+     */
+    private static void assertIndexesMatch(ParkCatalog catalog, Random random, String where) {
+        int[] ids = catalog.getIds();
+        String[] names = catalog.getNames();
+        double[] latitudes = catalog.getLatitudes();
+        double[] longitudes = catalog.getLongitudes();
+
+        //Every id, and ids that were deleted or never used
+        ParkIdLookup idIndex = catalog.getIdIndex();
+        ParkIdIndex rebuiltIds = ParkIdIndex.build(ids);
+        assertEquals(rebuiltIds.size(), idIndex.size(), where);
+        for (int row = 0; row < ids.length; row++) {
+            assertEquals(row, idIndex.get(ids[row]), where);
+        } //for
+        for (int i = 0; i < 500; i++) {
+            int id = random.nextInt(ids.length * 2 + PARKS) - 10;
+            assertEquals(rebuiltIds.get(id), idIndex.get(id), where + " id " + id);
+        } //for
+        ParkIdIndex plain = catalog.getPlainIdIndex();
+        for (int row = 0; row < ids.length; row++) {
+            assertEquals(row, plain.get(ids[row]), where);
+        } //for
+
+        //Fixed keywords and pieces of current names
+        ParkNameSearch nameIndex = catalog.getNameIndex();
+        ParkNameIndex rebuiltNames = new ParkNameIndex(names);
+        List<String> keywords = new ArrayList<String>(Arrays.asList(KEYWORDS));
+        for (int i = 0; i < 20; i++) {
+            String name = names[random.nextInt(names.length)];
+            int start = random.nextInt(name.length());
+            keywords.add(name.substring(start, Math.min(name.length(),
+                                                        start + 1 + random.nextInt(8))));
+        } //for
+        for (String keyword : keywords) {
+            assertArrayEquals(rebuiltNames.search(keyword), nameIndex.search(keyword),
+                              where + " keyword " + keyword);
+        } //for
+
+        //Nearest parks, parks in a radius, and parks in a box around random places
+        ParkSpatialIndex spatialIndex = catalog.getSpatialIndex();
+        ParkSpatialIndex rebuiltSpatial = new ParkSpatialIndex(latitudes, longitudes);
+        assertEquals(rebuiltSpatial.size(), spatialIndex.size(), where);
+        for (int i = 0; i < 20; i++) {
+            double latitude = randomLatitude(random);
+            double longitude = randomLongitude(random);
+            int count = 1 + random.nextInt(50);
+            assertArrayEquals(rebuiltSpatial.nearest(latitude, longitude, count),
+                              spatialIndex.nearest(latitude, longitude, count), where);
+            double radius = random.nextDouble() * 30;
+            DistanceModel model = DistanceModel.values()[i % DistanceModel.values().length];
+            assertArrayEquals(rebuiltSpatial.withinRadius(latitude, longitude, radius, model),
+                              spatialIndex.withinRadius(latitude, longitude, radius, model),
+                              where);
+            int[] expected = rebuiltSpatial.withinBox(latitude - 0.2, latitude + 0.2,
+                                                      longitude - 0.3, longitude + 0.3);
+            int[] found = spatialIndex.withinBox(latitude - 0.2, latitude + 0.2,
+                                                 longitude - 0.3, longitude + 0.3);
+            Arrays.sort(expected);
+            Arrays.sort(found);
+            assertArrayEquals(expected, found, where);
+        } //for
+    } //assertIndexesMatch method
+
+    /**
+     * Makes a park name of 2 words and a number
+     *
+     * @param random source of the name
+     * @return the name
+     */
+    private static String randomName(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] +
+               " " + random.nextInt(100);
+    } //randomName method
+
+    /**
+     * Makes a latitude in NC
+     *
+     * @param random source of the latitude
+     * @return the latitude
+     */
+    private static double randomLatitude(Random random) {
+        return 34.0 + random.nextDouble() * 2.5;
+    } //randomLatitude method
+
+    /**
+     * Makes a longitude in NC
+     *
+     * @param random source of the longitude
+     * @return the longitude
+     */
+    private static double randomLongitude(Random random) {
+        return -84.0 + random.nextDouble() * 8.5;
+    } //randomLongitude method
+} //PatchedIndexTest class
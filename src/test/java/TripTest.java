@@ -0,0 +1,210 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the treap behind Trip against a plain list of the same stops: every
+ * insert, remove, move and reorder is made on both, and then every stop, every
+ * distance up to a stop and the total distance of the trip must agree
+ */
+public class TripTest {
+
+    /** Largest difference allowed between 2 sums of the same legs, per mile*/
+    private static final double TOLERANCE = 1e-9;
+
+    /**
+     * One stop of the list the trip is checked against
+     */
+    private static class Stop {
+
+        /** Park id*/
+        private final int id;
+
+        /** Park name*/
+        private final String name;
+
+        /** Park latitude*/
+        private final double latitude;
+
+        /** Park longitude*/
+        private final double longitude;
+
+        /**
+         * Creates a stop
+         *
+         * @param id park id
+         * @param name park name
+         * @param latitude park latitude
+         * @param longitude park longitude
+         */
+        private Stop(int id, String name, double latitude, double longitude) {
+            this.id = id;
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        } //Stop constructor
+    } //Stop class
+
+    /**
+     * Makes random edits to a trip and a list and compares them after each one
+     */
+    @Test
+    public void randomEditsMatchList() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            Trip trip = new Trip(0);
+            List<Stop> stops = new ArrayList<Stop>();
+            int nextId = 1;
+            for (int step = 0; step < 2000; step++) {
+                int operation = random.nextInt(10);
+                int n = stops.size();
+                if (operation < 4 || n == 0) {
+                    Stop stop = randomStop(random, nextId++);
+                    int position = random.nextInt(n + 1);
+                    trip.insert(position, stop.id, stop.name, stop.latitude, stop.longitude);
+                    stops.add(position, stop);
+                } //if
+                else if (operation < 6) {
+                    int position = random.nextInt(n);
+                    assertEquals(stops.remove(position).id, trip.remove(position));
+                } //else if
+                else if (operation < 9) {
+                    int from = random.nextInt(n);
+                    int to = random.nextInt(n);
+                    trip.move(from, to);
+                    stops.add(to, stops.remove(from));
+                } //else if
+                else {
+                    int[] order = new int[n];
+                    for (int i = 0; i < n; i++) {
+                        order[i] = i;
+                    } //for
+                    for (int i = n - 1; i > 0; i--) {
+                        int j = random.nextInt(i + 1);
+                        int swap = order[i];
+                        order[i] = order[j];
+                        order[j] = swap;
+                    } //for
+                    trip.reorder(order);
+                    List<Stop> reordered = new ArrayList<Stop>();
+                    for (int i = 0; i < n; i++) {
+                        reordered.add(stops.get(order[i]));
+                    } //for
+                    stops = reordered;
+                } //else
+                assertMatches(stops, trip, "seed " + seed + " step " + step);
+            } //for
+        } //for
+    } //randomEditsMatchList method
+
+    /**
+     * Adds stops to the end until the trip has grown several times over,
+     * removes them all and adds them back, so the removed nodes are reused
+     */
+    @Test
+    public void growsAndReusesNodes() {
+        Random random = new Random(42);
+        Trip trip = new Trip();
+        List<Stop> stops = new ArrayList<Stop>();
+        for (int i = 0; i < 1000; i++) {
+            Stop stop = randomStop(random, i);
+            trip.add(stop.id, stop.name, stop.latitude, stop.longitude);
+            stops.add(stop);
+        } //for
+        assertMatches(stops, trip, "after adding");
+        while (!stops.isEmpty()) {
+            assertEquals(stops.remove(0).id, trip.remove(0));
+        } //while
+        assertMatches(stops, trip, "after removing");
+        assertEquals(0.0, trip.getTotalDistance());
+        for (int i = 0; i < 1000; i++) {
+            Stop stop = randomStop(random, i);
+            trip.insert(i / 2, stop.id, stop.name, stop.latitude, stop.longitude);
+            stops.add(i / 2, stop);
+        } //for
+        assertMatches(stops, trip, "after adding back");
+    } //growsAndReusesNodes method
+
+    /**
+     * Makes edits at positions outside the trip and checks they are turned
+     * down without changing it
+     */
+    @Test
+    public void invalidEditsLeaveTripUnchanged() {
+        Random random = new Random(7);
+        Trip trip = new Trip();
+        List<Stop> stops = new ArrayList<Stop>();
+        for (int i = 0; i < 5; i++) {
+            Stop stop = randomStop(random, i);
+            trip.add(stop.id, stop.name, stop.latitude, stop.longitude);
+            stops.add(stop);
+        } //for
+
+        assertMessage("Invalid position", () -> trip.insert(-1, 9, "Park", 35, -80));
+        assertMessage("Invalid position", () -> trip.insert(6, 9, "Park", 35, -80));
+        assertMessage("Invalid latitude", () -> trip.insert(0, 9, "Park", 91, -80));
+        assertMessage("Invalid longitude", () -> trip.add(9, "Park", 35, 181));
+        assertMessage("Invalid position", () -> trip.remove(5));
+        assertMessage("Invalid position", () -> trip.move(0, 5));
+        assertMessage("Invalid position", () -> trip.move(-1, 0));
+        assertMessage("Invalid position", () -> trip.getDistance(5));
+        assertMessage("Null array", () -> trip.reorder(null));
+        assertMessage("Invalid array length", () -> trip.reorder(new int[4]));
+        assertMessage("Invalid position", () -> trip.reorder(new int[] {0, 1, 2, 3, 3}));
+        assertMatches(stops, trip, "after invalid edits");
+    } //invalidEditsLeaveTripUnchanged method
+
+    /**
+     * Makes a stop at a random place in NC
+     *
+     * @param random source of the place
+     * @param id park id of the stop
+     * @return the stop
+     */
+    private static Stop randomStop(Random random, int id) {
+        return new Stop(id, "Park " + id, 34.0 + random.nextDouble() * 2.5,
+                        -84.0 + random.nextDouble() * 8.5);
+    } //randomStop method
+
+    /**
+     * Checks a trip has the same stops as a list, and that its distances are
+     * the sums of the legs between the listed stops
+     *
+     * @param stops the list
+     * @param trip the trip
+     * @param where what to report if they differ
+     */
+    private static void assertMatches(List<Stop> stops, Trip trip, String where) {
+        assertEquals(stops.size(), trip.size(), where);
+        double distance = 0.0;
+        for (int i = 0; i < stops.size(); i++) {
+            Stop stop = stops.get(i);
+            assertEquals(stop.id, trip.getId(i), where);
+            assertEquals(stop.name, trip.getName(i), where);
+            assertEquals(stop.latitude, trip.getLatitude(i), where);
+            assertEquals(stop.longitude, trip.getLongitude(i), where);
+            if (i > 0) {
+                Stop before = stops.get(i - 1);
+                distance += Parks.calculateDistance(before.latitude, before.longitude,
+                                                    stop.latitude, stop.longitude);
+            } //if
+            assertEquals(distance, trip.getDistance(i), TOLERANCE * Math.max(1.0, distance),
+                         where);
+        } //for
+        assertEquals(distance, trip.getTotalDistance(), TOLERANCE * Math.max(1.0, distance),
+                     where);
+    } //assertMatches method
+
+    /**
+     * Checks an edit is turned down with a message
+     *
+     * @param message the message expected
+     * @param edit the edit
+     */
+    private static void assertMessage(String message, Runnable edit) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, edit::run);
+        assertEquals(message, e.getMessage());
+    } //assertMessage method
+} //TripTest class